@@ -0,0 +1,29 @@
+package org.dromara.northstar.common;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 支持状态快照的组件
+ * 实现类需要写出影响后续计算的全部内部状态（配置参数与依赖组件除外），并能从同版本的快照中原样恢复，
+ * 使模组重启时可以直接恢复预热结果，而无需回放历史数据
+ * @author KevinHuangwl
+ *
+ */
+public interface StateSnapshotAware {
+
+	/**
+	 * 写出内部状态
+	 * @param out
+	 * @throws IOException
+	 */
+	void writeState(DataOutput out) throws IOException;
+	
+	/**
+	 * 恢复内部状态
+	 * @param in
+	 * @throws IOException		快照与当前结构不匹配时抛出，此时不应修改任何状态
+	 */
+	void readState(DataInput in) throws IOException;
+}
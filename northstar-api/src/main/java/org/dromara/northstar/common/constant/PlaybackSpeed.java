@@ -17,5 +17,10 @@ public enum PlaybackSpeed {
 	/**
 	 * 极速
 	 */
-	RUSH;
+	RUSH,
+	/**
+	 * 同步极速
+	 * 不设固定间隔，每帧数据被所有下游处理完毕后才推进下一帧，回测结果不受机器负载影响
+	 */
+	LOCKSTEP;
 }
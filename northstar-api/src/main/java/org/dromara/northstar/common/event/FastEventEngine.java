@@ -1,5 +1,8 @@
 package org.dromara.northstar.common.event;
 
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
 import com.lmax.disruptor.EventFactory;
 import com.lmax.disruptor.EventHandler;
 
@@ -10,10 +13,32 @@ import com.lmax.disruptor.EventHandler;
 public interface FastEventEngine {
 
 	void addHandler(NorthstarEventDispatcher handler);
+	
+	/**
+	 * 注册处理器，该处理器只会在所有依赖的处理器处理完同一事件后才处理该事件
+	 * @param handler
+	 * @param dependencies	必须是已注册的处理器
+	 */
+	void addHandler(NorthstarEventDispatcher handler, NorthstarEventDispatcher... dependencies);
 
 	void removeHandler(NorthstarEventDispatcher handler);
 
 	void emitEvent(NorthstarEventType event, Object obj);
+	
+	/**
+	 * 注册异步处理环节的屏障
+	 * 处理器把事件转交给自身的工作线程时，引擎无法感知这部分工作是否完成；
+	 * 屏障每次调用返回一个Future，在调用前已提交的工作全部完成（且其派生的事件已发布）后完成
+	 * @param barrier
+	 */
+	default void addIdleBarrier(Supplier<Future<?>> barrier) {}
+	
+	/**
+	 * 等待此前发布的事件及其派生的事件都被所有处理器处理完毕，包括已注册屏障的异步处理环节
+	 * 不能在事件处理线程上调用
+	 * @throws InterruptedException 等待期间线程被中断，抛出时中断标志已被清除，调用方不继续传播时需要自行恢复
+	 */
+	default void awaitIdle() throws InterruptedException {}
 
 	public static interface NorthstarEventDispatcher extends EventHandler<NorthstarEvent>{
 	}
@@ -61,5 +61,9 @@ public class ModuleAccountRuntimeDescription {
 	 * 可用余额
 	 */
 	private double availableAmount;
+	/**
+	 * 绩效统计
+	 */
+	private ModulePerformanceDescription performance;
 	
 }
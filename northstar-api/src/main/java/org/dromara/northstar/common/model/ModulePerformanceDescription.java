@@ -0,0 +1,99 @@
+package org.dromara.northstar.common.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 模组绩效统计
+ * 累计量随模组运行信息一同持久化，比率类指标在查询时由累计量计算得出
+ * @author KevinHuangwl
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModulePerformanceDescription {
+
+	/**
+	 * 平仓笔数
+	 */
+	private int dealCount;
+	/**
+	 * 盈利笔数
+	 */
+	private int winCount;
+	/**
+	 * 亏损笔数
+	 */
+	private int lossCount;
+	/**
+	 * 盈利笔的净盈利之和
+	 */
+	private double grossProfit;
+	/**
+	 * 亏损笔的净亏损之和（正数）
+	 */
+	private double grossLoss;
+	/**
+	 * 单笔净盈亏的平方和
+	 */
+	private double sumSquareEarning;
+	/**
+	 * 亏损笔净亏损的平方和
+	 */
+	private double sumSquareLoss;
+	/**
+	 * 首笔开仓日期（yyyyMMdd）
+	 */
+	private String startDate;
+	/**
+	 * 最近平仓日期（yyyyMMdd）
+	 */
+	private String endDate;
+	/**
+	 * 胜率
+	 */
+	private double winRate;
+	/**
+	 * 盈亏比（总盈利/总亏损）
+	 */
+	private double profitFactor;
+	/**
+	 * 单笔夏普比率（单笔净盈亏均值/标准差）
+	 */
+	private double sharpeRatio;
+	/**
+	 * 单笔索提诺比率（单笔净盈亏均值/下行标准差）
+	 */
+	private double sortinoRatio;
+	/**
+	 * 累计净盈亏曲线，每个平仓日一个点
+	 */
+	@Builder.Default
+	private List<EquityPoint> equityCurve = new ArrayList<>();
+
+	/**
+	 * 累计净盈亏曲线的点
+	 * @author KevinHuangwl
+	 *
+	 */
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class EquityPoint {
+		/**
+		 * 平仓日期（yyyyMMdd）
+		 */
+		private String date;
+		/**
+		 * 截至当日的累计净盈亏
+		 */
+		private double equity;
+	}
+}
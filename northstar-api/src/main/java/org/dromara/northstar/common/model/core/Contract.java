@@ -47,7 +47,9 @@ public record Contract(
 		int pricePrecision,    // 价格精度(保留N位小数)
 		int quantityPrecision,    // 成交量精度(保留N位小数)
 		boolean tradable,
-		ChannelType channelType    // 渠道来源
+		ChannelType channelType,    // 渠道来源
+		@JSONField(serialize = false, deserialize = false)
+		int handle	// 合约句柄，由行情中心登记合约时分配，0表示未登记，详见ContractHandles
 	) {
 	
 	public ContractField toContractField() {
@@ -115,7 +117,11 @@ public record Contract(
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(channelType, contractId, gatewayId, unifiedSymbol);
+		// 与 Objects.hash(channelType, contractId, gatewayId, unifiedSymbol) 的结果一致，但避免了可变参数数组的分配
+		int result = 31 + Objects.hashCode(channelType);
+		result = 31 * result + Objects.hashCode(contractId);
+		result = 31 * result + Objects.hashCode(gatewayId);
+		return 31 * result + Objects.hashCode(unifiedSymbol);
 	}
 
 	@Override
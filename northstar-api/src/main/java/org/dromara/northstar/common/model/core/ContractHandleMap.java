@@ -0,0 +1,221 @@
+package org.dromara.northstar.common.model.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.util.Assert;
+
+/**
+ * 以合约句柄为下标的映射表
+ * 已登记合约的读写直接索引数组，不需要计算合约信息的哈希值；未登记的合约退化为普通的哈希表
+ * 合约可能在写入之后才被登记，此时首次按句柄访问会把该项从哈希表迁移到数组中
+ * 读操作无锁，写操作加锁，可以在多线程间共享
+ * @author KevinHuangwl
+ *
+ * @param <V>
+ */
+public class ContractHandleMap<V> {
+
+	private volatile Slots<V> slots = new Slots<>(16);
+
+	private final ConcurrentMap<Contract, V> unregistered = new ConcurrentHashMap<>();
+
+	private int size;
+
+	public V get(Contract contract) {
+		int handle = ContractHandles.handleOf(contract);
+		if(handle == 0) {
+			return unregistered.get(contract);
+		}
+		Slots<V> snapshot = slots;
+		V value = handle < snapshot.length() ? snapshot.values.get(handle) : null;
+		if(value == null && !unregistered.isEmpty()) {
+			return promote(contract, handle);
+		}
+		return value;
+	}
+	
+	/* 把登记前写入的项迁移到句柄对应的位置，数量不变 */
+	private synchronized V promote(Contract contract, int handle) {
+		Slots<V> snapshot = slots;
+		V current = handle < snapshot.length() ? snapshot.values.get(handle) : null;
+		if(current != null) {
+			return current;
+		}
+		V value = unregistered.remove(contract);
+		if(value == null) {
+			return null;
+		}
+		if(handle >= snapshot.length()) {
+			grow(handle);
+			snapshot = slots;
+		}
+		snapshot.keys.set(handle, contract);
+		snapshot.values.set(handle, value);
+		return value;
+	}
+
+	public boolean containsKey(Contract contract) {
+		return get(contract) != null;
+	}
+
+	public V getOrDefault(Contract contract, V defaultValue) {
+		V value = get(contract);
+		return value == null ? defaultValue : value;
+	}
+
+	/**
+	 * @param contract
+	 * @param value		不能为null
+	 * @return			之前的值
+	 */
+	public synchronized V put(Contract contract, V value) {
+		Assert.notNull(value, "值不能为空");
+		int handle = ContractHandles.handleOf(contract);
+		if(handle == 0) {
+			V prev = unregistered.put(contract, value);
+			if(prev == null) {
+				size++;
+			}
+			return prev;
+		}
+		if(!unregistered.isEmpty()) {
+			promote(contract, handle);
+		}
+		if(handle >= slots.length()) {
+			grow(handle);
+		}
+		Slots<V> snapshot = slots;
+		V prev = snapshot.values.getAndSet(handle, value);
+		if(prev == null) {
+			snapshot.keys.set(handle, contract);
+			size++;
+		}
+		return prev;
+	}
+
+	public synchronized V computeIfAbsent(Contract contract, Function<Contract, V> mappingFunction) {
+		V value = get(contract);
+		if(value == null) {
+			value = mappingFunction.apply(contract);
+			put(contract, value);
+		}
+		return value;
+	}
+
+	public synchronized V remove(Contract contract) {
+		int handle = ContractHandles.handleOf(contract);
+		if(handle == 0) {
+			V prev = unregistered.remove(contract);
+			if(prev != null) {
+				size--;
+			}
+			return prev;
+		}
+		if(!unregistered.isEmpty()) {
+			promote(contract, handle);
+		}
+		Slots<V> snapshot = slots;
+		if(handle >= snapshot.length()) {
+			return null;
+		}
+		V prev = snapshot.values.getAndSet(handle, null);
+		if(prev != null) {
+			snapshot.keys.set(handle, null);
+			size--;
+		}
+		return prev;
+	}
+
+	public synchronized void clear() {
+		slots = new Slots<>(16);
+		unregistered.clear();
+		size = 0;
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * 遍历所有值
+	 * @param action
+	 */
+	public void forEachValue(Consumer<? super V> action) {
+		Slots<V> snapshot = slots;
+		for(int i=1; i<snapshot.length(); i++) {
+			V value = snapshot.values.get(i);
+			if(value != null) {
+				action.accept(value);
+			}
+		}
+		unregistered.values().forEach(action);
+	}
+
+	/**
+	 * 遍历所有键值对
+	 * @param action
+	 */
+	public void forEach(BiConsumer<Contract, ? super V> action) {
+		Slots<V> snapshot = slots;
+		for(int i=1; i<snapshot.length(); i++) {
+			V value = snapshot.values.get(i);
+			Contract key = snapshot.keys.get(i);
+			if(value != null && key != null) {
+				action.accept(key, value);
+			}
+		}
+		unregistered.forEach(action);
+	}
+
+	/**
+	 * 所有值的快照
+	 * @return
+	 */
+	public List<V> values() {
+		List<V> result = new ArrayList<>();
+		forEachValue(result::add);
+		return result;
+	}
+
+	private void grow(int handle) {
+		Slots<V> old = slots;
+		int newLength = old.length();
+		while(newLength <= handle) {
+			newLength *= 2;
+		}
+		Slots<V> newSlots = new Slots<>(newLength);
+		for(int i=0; i<old.length(); i++) {
+			newSlots.keys.set(i, old.keys.get(i));
+			newSlots.values.set(i, old.values.get(i));
+		}
+		slots = newSlots;
+	}
+
+	/* 键与值分开存放，更新值时不需要分配新对象 */
+	private static class Slots<V> {
+
+		final AtomicReferenceArray<Contract> keys;
+
+		final AtomicReferenceArray<V> values;
+
+		Slots(int length) {
+			keys = new AtomicReferenceArray<>(length);
+			values = new AtomicReferenceArray<>(length);
+		}
+
+		int length() {
+			return values.length();
+		}
+	}
+}
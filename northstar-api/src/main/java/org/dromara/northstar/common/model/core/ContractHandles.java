@@ -0,0 +1,82 @@
+package org.dromara.northstar.common.model.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 合约句柄登记表
+ * 行情中心登记合约时为每个合约分配一个从1开始的连续整数句柄，句柄随合约信息附着在TICK、K线、订单与成交上，
+ * 热点路径可以用句柄直接索引数组（见 {@link ContractHandleMap}），避免对合约信息做哈希与逐字段比较
+ * 句柄按合约的相等性（渠道、合约ID、网关ID、统一合约代码）分配，同一合约重复登记得到同一个句柄；句柄在进程内有效，不作持久化
+ * @author KevinHuangwl
+ *
+ */
+public final class ContractHandles {
+
+	private static final ConcurrentMap<Contract, Integer> handleMap = new ConcurrentHashMap<>();
+
+	/* 下标即句柄，0号位置保留 */
+	private static volatile Contract[] contracts = new Contract[256];
+
+	private static int nextHandle = 1;
+
+	private ContractHandles() {}
+
+	/**
+	 * 登记合约
+	 * @param contract
+	 * @return	附带句柄的合约信息
+	 */
+	public static synchronized Contract intern(Contract contract) {
+		Integer handle = handleMap.get(contract);
+		if(handle == null) {
+			handle = nextHandle++;
+			if(handle >= contracts.length) {
+				contracts = Arrays.copyOf(contracts, contracts.length * 2);
+			}
+			handleMap.put(contract, handle);
+		}
+		Contract result = contract.handle() == handle ? contract : contract.toBuilder().handle(handle).build();
+		// 以最新登记的合约实例作为标准实例，使绝大多数查询可以通过引用比较命中
+		contracts[handle] = result;
+		return result;
+	}
+
+	/**
+	 * 查询合约句柄
+	 * 合约自带的句柄经核对有效时直接返回；对于未附带句柄的合约（例如反序列化得到的合约信息），退化为按合约相等性查询
+	 * @param contract
+	 * @return	未登记的合约返回0
+	 */
+	public static int handleOf(Contract contract) {
+		int handle = contract.handle();
+		Contract[] snapshot = contracts;
+		if(handle > 0 && handle < snapshot.length) {
+			Contract registered = snapshot[handle];
+			// 由已登记合约派生出来的合约信息（例如指数合约）会继承原合约的句柄，因此需要核对
+			if(registered == contract || registered != null && registered.equals(contract)) {
+				return handle;
+			}
+		}
+		return handleMap.getOrDefault(contract, 0);
+	}
+
+	/**
+	 * 按句柄查询已登记的合约
+	 * @param handle
+	 * @return
+	 */
+	public static Contract contractOf(int handle) {
+		Contract[] snapshot = contracts;
+		return handle > 0 && handle < snapshot.length ? snapshot[handle] : null;
+	}
+
+	/**
+	 * 已分配的最大句柄
+	 * @return
+	 */
+	public static synchronized int maxHandle() {
+		return nextHandle - 1;
+	}
+}
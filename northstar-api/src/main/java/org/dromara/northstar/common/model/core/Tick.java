@@ -15,7 +15,7 @@ import com.alibaba.fastjson.JSONObject;
 import lombok.Builder;
 import xyz.redtorch.pb.CoreField.TickField;
 
-@Builder
+@Builder(toBuilder = true)
 public record Tick(
 		String gatewayId,
 		Contract contract,			// 合约
@@ -19,6 +19,15 @@ public interface IMarketDataRepository {
 	 */
 	void insert(Bar bar);
 	
+	/**
+	 * 批量保存数据
+	 * 默认逐条保存，实现方可以合并成一次批量写入
+	 * @param bars
+	 */
+	default void insertAll(List<Bar> bars) {
+		bars.forEach(this::insert);
+	}
+	
 	/**
 	 * 加载历史行情分钟K线数据
 	 * @param unifiedSymbol
@@ -38,4 +47,10 @@ public interface IMarketDataRepository {
 	 */
 	List<Bar> loadDailyBars(IContract contract, LocalDate startDate, LocalDate endDate);
 	
+	/**
+	 * 移除过期时间早于指定时间的行情数据
+	 * @param expiredAt
+	 */
+	void deleteExpiredBefore(long expiredAt);
+	
 }
@@ -39,6 +39,15 @@ public interface IModuleRepository {
 	 * @param moduleRtDescription
 	 */
 	void saveRuntime(ModuleRuntimeDescription moduleRtDescription);
+	/**
+	 * 保存模组运行状态信息
+	 * 非持久化要求的保存允许实现方延后、合并写入（同一模组只保留最新的状态）；默认实现等同于立即保存
+	 * @param moduleRtDescription
+	 * @param durable	是否要求在返回前完成写入
+	 */
+	default void saveRuntime(ModuleRuntimeDescription moduleRtDescription, boolean durable) {
+		saveRuntime(moduleRtDescription);
+	}
 	/**
 	 * 获取模组运行状态信息
 	 * @param moduleName
@@ -0,0 +1,19 @@
+package org.dromara.northstar.gateway;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 历史回放行情网关
+ * 回放网关在预热或回放结束时会自行停止推送行情，调用方可以等待停止的时刻
+ * @author KevinHuangwl
+ *
+ */
+public interface PlaybackMarketGateway extends MarketGateway {
+
+	/**
+	 * 网关下一次停止推送行情时完成的Future，如历史回放的预热或回放结束
+	 * 需要在连线之前获取，否则可能错过停止的时刻
+	 * @return
+	 */
+	CompletableFuture<Void> nextStop();
+}
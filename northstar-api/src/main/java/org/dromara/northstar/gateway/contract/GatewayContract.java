@@ -9,6 +9,7 @@ import org.dromara.northstar.common.event.FastEventEngine;
 import org.dromara.northstar.common.event.NorthstarEventType;
 import org.dromara.northstar.common.model.Identifier;
 import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.ContractHandles;
 import org.dromara.northstar.common.model.core.Tick;
 import org.dromara.northstar.gateway.IContract;
 import org.dromara.northstar.gateway.IMarketCenter;
@@ -38,7 +39,7 @@ public class GatewayContract implements IContract, TickDataAware{
 	public GatewayContract(IMarketCenter mktCenter, FastEventEngine feEngine, Instrument ins) {
 		this.ins = ins;
 		this.mktCenter = mktCenter;
-		this.contract = ins.contract();
+		this.contract = ContractHandles.intern(ins.contract());	// 登记合约并分配句柄
 		this.barGen = new MinuteBarGenerator(contract, bar -> feEngine.emitEvent(NorthstarEventType.BAR, bar));
 	}
 	
@@ -13,6 +13,7 @@ import org.dromara.northstar.common.event.FastEventEngine;
 import org.dromara.northstar.common.event.NorthstarEventType;
 import org.dromara.northstar.common.model.Identifier;
 import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.ContractHandles;
 import org.dromara.northstar.common.model.core.Tick;
 import org.dromara.northstar.gateway.IContract;
 import org.dromara.northstar.gateway.mktdata.IndexTicker;
@@ -44,7 +45,7 @@ public class IndexContract implements IContract, TickDataAware{
 	
 	public IndexContract(FastEventEngine feEngine, List<IContract> monthContracts) {
 		this.monthContracts = monthContracts;
-		this.contract = makeIndexContractField(monthContracts.get(0).contract());
+		this.contract = ContractHandles.intern(makeIndexContractField(monthContracts.get(0).contract()));
 		this.dataSrc = monthContracts.get(0).dataSource();
 		this.identifier = Identifier.of(contract.contractId());
 		this.barGen = new MinuteBarGenerator(contract, bar -> feEngine.emitEvent(NorthstarEventType.BAR, bar));
@@ -7,6 +7,7 @@ import org.dromara.northstar.common.constant.ChannelType;
 import org.dromara.northstar.common.constant.Constants;
 import org.dromara.northstar.common.model.Identifier;
 import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.ContractHandles;
 import org.dromara.northstar.gateway.IContract;
 
 import xyz.redtorch.pb.CoreEnum.ExchangeEnum;
@@ -21,6 +22,8 @@ public class PrimaryContract implements IContract {
 	
 	private IndexContract idxContract;
 	
+	private Contract contract;
+	
 	// 借用指数合约的合约信息
 	public PrimaryContract(IndexContract idxContract) {
 		this.idxContract = idxContract;
@@ -74,7 +77,15 @@ public class PrimaryContract implements IContract {
 	}
 
 	@Override
-	public Contract contract() {
+	public synchronized Contract contract() {
+		// 指数合约的合约信息不会改变，因此只需要生成并登记一次
+		if(contract == null) {
+			contract = ContractHandles.intern(makePrimaryContractField());
+		}
+		return contract;
+	}
+	
+	private Contract makePrimaryContractField() {
 		Contract idxcf = idxContract.contract();
 		return idxcf.toBuilder()
 				.name(name())
@@ -1,66 +1,95 @@
 package org.dromara.northstar.gateway.mktdata;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
-import java.util.stream.DoubleStream;
 
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.RealMatrix;
 import org.dromara.northstar.common.constant.Constants;
 import org.dromara.northstar.common.constant.TickType;
-import org.dromara.northstar.common.model.core.Contract;
 import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.gateway.IContract;
 import org.dromara.northstar.gateway.contract.IndexContract;
 
 import lombok.extern.slf4j.Slf4j;
 
 /* 注意，本类的日志输出在logs/DEBUG/MarketData_*.log文件 */
+/**
+ * 指数TICK合成器
+ * 每个月份合约占一个槽位，槽位保存该合约最近一个TICK的原始数值；持仓量、成交量、成交额等合计类字段按槽位维护累计值，
+ * 月份合约更新时只需扣除该槽位的旧贡献再加上新贡献；累计值采用补偿求和，抵消反复加减带来的舍入误差
+ * 价格类字段与原算法保持一致，按 价格 * (持仓量 / 总持仓量) 逐个槽位求和，以保证合成结果与原算法逐位相同
+ * @author KevinHuangwl
+ *
+ */
 @Slf4j
 public class IndexTicker {
+	
+	private static final List<Double> EMPTY_PRICES = List.of(Constants.ZERO_D, Constants.ZERO_D, Constants.ZERO_D, Constants.ZERO_D, Constants.ZERO_D);
+	private static final List<Integer> EMPTY_VOLUMES = List.of(Constants.ZERO, Constants.ZERO, Constants.ZERO, Constants.ZERO, Constants.ZERO);
+	
+	/* 槽位字段，其中价格类字段不参与累计 */
+	private static final int OI = 0;
+	private static final int OPEN = 1;
+	private static final int HIGH = 2;
+	private static final int LOW = 3;
+	private static final int LAST = 4;
+	private static final int SETTLE = 5;
+	private static final int PRE_CLOSE = 6;
+	private static final int PRE_SETTLE = 7;
+	private static final int TURNOVER = 8;
+	private static final int TURNOVER_DELTA = 9;
+	private static final int OI_DELTA = 10;
+	private static final int PRE_OI = 11;
+	private static final int NUM_OF_FIELDS = 12;
 
 	private IndexContract idxContract;
 	
 	private Consumer<Tick> onTickCallback;
 	
-	private final Set<Contract> memberContracts;
+	/* 合约 -> 槽位 */
+	private final Map<String, Integer> slotMap = new HashMap<>();
 	
-	private ConcurrentHashMap<Contract, Tick> tickMap = new ConcurrentHashMap<>(20);
+	private final int enlargePriceTick;
 	
-	private long lastTickTimestamp = -1;
+	/* 各槽位的原始数值，按 槽位 * NUM_OF_FIELDS + 字段 存放 */
+	private final double[] slotValues;
+	private final long[] slotVolume;
+	private final long[] slotVolumeDelta;
+	private final boolean[] slotActive;
+	private int numOfActive;
 	
-	private double lastPrice;
-	private double highPrice;
-	private double lowPrice;
-	private double openPrice;
-	private long totalVolume;
-	private long totalVolumeDelta;
-	private double totalOpenInterest;
-	private double totalOpenInterestDelta;
-	private double totalTurnover;
-	private double totalTurnoverDelta;
-	private double preClose;
-	private double preOpenInterest;
-	private double preSettlePrice;
-	private double settlePrice;
+	/* 合计类字段的累计值及其补偿项 */
+	private final double[] sums = new double[NUM_OF_FIELDS];
+	private final double[] compensations = new double[NUM_OF_FIELDS];
+	private long sumVolume;
+	private long sumVolumeDelta;
+	
+	private long lastTickTimestamp = -1;
 	
 	private Tick lastIdxTick;
 	
 	public IndexTicker(IndexContract idxContract, Consumer<Tick> onTickCallback) {
 		this.idxContract = idxContract;
-		this.memberContracts = idxContract.memberContracts().stream().map(c -> c.contract()).collect(Collectors.toSet());
 		this.onTickCallback = onTickCallback;
+		this.enlargePriceTick = (int) (idxContract.contract().priceTick() * 1000);
+		for(IContract c : idxContract.memberContracts()) {
+			slotMap.putIfAbsent(c.contract().unifiedSymbol(), slotMap.size());
+		}
+		int numOfSlots = slotMap.size();
+		this.slotValues = new double[numOfSlots * NUM_OF_FIELDS];
+		this.slotVolume = new long[numOfSlots];
+		this.slotVolumeDelta = new long[numOfSlots];
+		this.slotActive = new boolean[numOfSlots];
 	}
 	
 	private double activeRate() {
-		return (double) tickMap.size() / memberContracts.size();
+		return (double) numOfActive / slotActive.length;
 	}
 
 	public synchronized void update(Tick tick) {
-		if(!memberContracts.contains(tick.contract())) {
+		Integer slot = slotMap.get(tick.contract().unifiedSymbol());
+		if(slot == null) {
 			log.warn("[{}]指数TICK生成器，无法处理 [{}] 的行情数据", idxContract.contract().unifiedSymbol(), tick.contract().unifiedSymbol());
 			return;
 		}
@@ -71,132 +100,140 @@ public class IndexTicker {
 		// 如果有过期的TICK数据(例如不活跃的合约),则并入下个K线
 		if (0 < lastTickTimestamp && lastTickTimestamp < tick.actionTimestamp()) {
 			boolean isReady = activeRate() > 0.7;
-			if(isReady) {					
-				final Double zeroD = Constants.ZERO_D;
-				final Integer zero = Constants.ZERO;
-				//进行运算
-				calculate();
-				lastIdxTick = Tick.builder()
-						.gatewayId(tick.gatewayId())
-						.contract(idxContract.contract())
-						.actionDay(tick.actionDay())
-						.actionTime(tick.actionTime())
-						.tradingDay(tick.tradingDay())
-						.actionTimestamp(lastTickTimestamp)
-						.openPrice(openPrice)
-						.highPrice(highPrice)
-						.lowPrice(lowPrice)
-						.lastPrice(lastPrice)
-						.openInterest(totalOpenInterest)
-						.openInterestDelta(totalOpenInterestDelta)
-						.volume(totalVolume)
-						.volumeDelta(totalVolumeDelta)
-						.turnover(totalTurnover)
-						.turnoverDelta(totalTurnoverDelta)
-						.preClosePrice(preClose)
-						.preOpenInterest(preOpenInterest)
-						.preSettlePrice(preSettlePrice)
-						.settlePrice(settlePrice)
-						.askPrice(List.of(zeroD,zeroD,zeroD,zeroD,zeroD))
-						.bidPrice(List.of(zeroD,zeroD,zeroD,zeroD,zeroD))
-						.askVolume(List.of(zero,zero,zero,zero,zero))
-						.bidVolume(List.of(zero,zero,zero,zero,zero))
-						.type(tick.type())
-						.channelType(tick.channelType())
-						.build();
+			if(isReady) {
+				lastIdxTick = makeIndexTick(tick);
 				onTickCallback.accept(lastIdxTick);
 			} else {
 				log.debug("{}因月份数据不足，未达到指数合成条件，忽略指数TICK合成计算：当前合约数[{}]，总合约数[{}]，活跃率[{}]", 
-						idxContract.contract().unifiedSymbol(), tickMap.size(), memberContracts.size(), activeRate());
+						idxContract.contract().unifiedSymbol(), numOfActive, slotActive.length, activeRate());
 			}
 		}
 		if(tick.type() == TickType.MARKET_TICK && tick.actionTimestamp() > lastTickTimestamp) {			
 			lastTickTimestamp = tick.actionTimestamp();
 		}
 		// 同一个指数Tick
-		tickMap.compute(tick.contract(), (k, v) -> tick);
+		updateSlot(slot, tick);
 	}
 	
-	private void calculate() {
-		List<Tick> ticks = tickMap.values().stream().toList();
-		RealMatrix priceMat = matrixOf(ticks);
-		RealMatrix oiWeight = oiWeighted(priceMat);
-		RealMatrix bcResult = new Array2DRowRealMatrix(priceMat.getRowDimension(), priceMat.getColumnDimension());
-		for(int i=0; i<priceMat.getRowDimension(); i++) {
-			double scalar = oiWeight.getEntry(i, 0);
-			bcResult.setRow(i, priceMat.getRowMatrix(i).scalarMultiply(scalar).getRow(0));
+	/*
+	 * 以各槽位当前的数值合成指数TICK，本次收到的TICK只提供时间信息
+	 */
+	private Tick makeIndexTick(Tick tick) {
+		double sumOI = total(OI);
+		double totalOpenInterest = sumOI;
+		double totalOpenInterestDelta = lastIdxTick != null ? totalOpenInterest - lastIdxTick.openInterest() : total(OI_DELTA);
+		long totalVolume = sumVolume;
+		long totalVolumeDelta = lastIdxTick != null ? totalVolume - lastIdxTick.volume() : sumVolumeDelta;
+		double totalTurnover = (long) total(TURNOVER);
+		double totalTurnoverDelta = lastIdxTick != null ? totalTurnover - lastIdxTick.turnover() : (long) total(TURNOVER_DELTA);
+		return Tick.builder()
+				.gatewayId(tick.gatewayId())
+				.contract(idxContract.contract())
+				.actionDay(tick.actionDay())
+				.actionTime(tick.actionTime())
+				.tradingDay(tick.tradingDay())
+				.actionTimestamp(lastTickTimestamp)
+				.openPrice(roundWithPriceTick(weightedPrice(OPEN, sumOI)))
+				.highPrice(roundWithPriceTick(weightedPrice(HIGH, sumOI)))
+				.lowPrice(roundWithPriceTick(weightedPrice(LOW, sumOI)))
+				.lastPrice(roundWithPriceTick(weightedPrice(LAST, sumOI)))
+				.openInterest(totalOpenInterest)
+				.openInterestDelta(totalOpenInterestDelta)
+				.volume(totalVolume)
+				.volumeDelta(totalVolumeDelta)
+				.turnover(totalTurnover)
+				.turnoverDelta(totalTurnoverDelta)
+				.preClosePrice(roundWithPriceTick(weightedPrice(PRE_CLOSE, sumOI)))
+				.preOpenInterest(total(PRE_OI))
+				.preSettlePrice(roundWithPriceTick(weightedPrice(PRE_SETTLE, sumOI)))
+				.settlePrice(roundWithPriceTick(weightedPrice(SETTLE, sumOI)))
+				.askPrice(EMPTY_PRICES)
+				.bidPrice(EMPTY_PRICES)
+				.askVolume(EMPTY_VOLUMES)
+				.bidVolume(EMPTY_VOLUMES)
+				.type(tick.type())
+				.channelType(tick.channelType())
+				.build();
+	}
+	
+	/*
+	 * 扣除槽位的旧贡献，写入新数值，再加上新贡献
+	 */
+	private void updateSlot(int slot, Tick tick) {
+		int base = slot * NUM_OF_FIELDS;
+		if(slotActive[slot]) {
+			contribute(base, -1);
+			sumVolume -= slotVolume[slot];
+			sumVolumeDelta -= slotVolumeDelta[slot];
+		} else {
+			slotActive[slot] = true;
+			numOfActive++;
 		}
-		
-		preOpenInterest = DoubleStream.of(priceMat.getColumn(13)).sum();
-		
-		// 合计持仓量
-		totalOpenInterest = DoubleStream.of(priceMat.getColumn(0)).sum();
-		totalOpenInterestDelta = Objects.nonNull(lastIdxTick) ? totalOpenInterest - lastIdxTick.openInterest() : DoubleStream.of(priceMat.getColumn(12)).sum();
-		
-		// 合计成交量
-		totalVolume = (long) DoubleStream.of(priceMat.getColumn(8)).sum();
-		totalVolumeDelta = Objects.nonNull(lastIdxTick) ? totalVolume - lastIdxTick.volume() : (long) DoubleStream.of(priceMat.getColumn(9)).sum();
-		// 合计成交额
-		totalTurnover = (long) DoubleStream.of(priceMat.getColumn(10)).sum();
-		totalTurnoverDelta = Objects.nonNull(lastIdxTick) ? totalTurnover - lastIdxTick.turnover() : (long) DoubleStream.of(priceMat.getColumn(11)).sum();
-		
-		openPrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(1)).sum());
-		highPrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(2)).sum());
-		lowPrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(3)).sum());
-		lastPrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(4)).sum());
-		settlePrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(5)).sum());
-		preClose = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(6)).sum());
-		preSettlePrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(7)).sum());
-		
+		slotValues[base + OI] = tick.openInterest();
+		slotValues[base + OPEN] = tick.openPrice();
+		slotValues[base + HIGH] = tick.highPrice();
+		slotValues[base + LOW] = tick.lowPrice();
+		slotValues[base + LAST] = tick.lastPrice();
+		slotValues[base + SETTLE] = tick.settlePrice();
+		slotValues[base + PRE_CLOSE] = tick.preClosePrice();
+		slotValues[base + PRE_SETTLE] = tick.preSettlePrice();
+		slotValues[base + TURNOVER] = tick.turnover();
+		slotValues[base + TURNOVER_DELTA] = tick.turnoverDelta();
+		slotValues[base + OI_DELTA] = tick.openInterestDelta();
+		slotValues[base + PRE_OI] = tick.preOpenInterest();
+		slotVolume[slot] = tick.volume();
+		slotVolumeDelta[slot] = tick.volumeDelta();
+		contribute(base, 1);
+		sumVolume += slotVolume[slot];
+		sumVolumeDelta += slotVolumeDelta[slot];
 	}
 	
-	private RealMatrix matrixOf(List<Tick> ticks) {
-	    int numFeatures = 14; // Open Interest, Open, High, Low, Last, Settle, Pre-Close, Pre-Settle prices
-	    int numTicks = ticks.size();
-
-	    // 创建一个空的矩阵
-	    RealMatrix tickMatrix = new Array2DRowRealMatrix(numTicks, numFeatures);
-
-	    // 填充矩阵
-	    for (int i = 0; i < numTicks; i++) {
-	        tickMatrix.setRow(i, vectorize(ticks.get(i)));
-	    }
-	    return tickMatrix;
+	private void contribute(int base, int sign) {
+		accumulate(OI, sign * slotValues[base + OI]);
+		for(int field = TURNOVER; field < NUM_OF_FIELDS; field++) {
+			accumulate(field, sign * slotValues[base + field]);
+		}
 	}
-
-	private double[] vectorize(Tick t) {
-	    return new double[] {
-	        t.openInterest(),			// 0
-	        t.openPrice(),				
-	        t.highPrice(),				// 2
-	        t.lowPrice(),
-	        t.lastPrice(),				// 4
-	        t.settlePrice(),
-	        t.preClosePrice(),			// 6
-	        t.preSettlePrice(),			
-	        t.volume(),					// 8
-	        t.volumeDelta(),
-	        t.turnover(),				// 10
-	        t.turnoverDelta(),
-	        t.openInterestDelta(),		// 12
-	        t.preOpenInterest()
-	    };
+	
+	/* Neumaier补偿求和 */
+	private void accumulate(int field, double value) {
+		double sum = sums[field];
+		double t = sum + value;
+		if(Math.abs(sum) >= Math.abs(value)) {
+			compensations[field] += (sum - t) + value;
+		} else {
+			compensations[field] += (value - t) + sum;
+		}
+		sums[field] = t;
 	}
-
-	private RealMatrix oiWeighted(RealMatrix matrix) {
-	    RealMatrix oi = matrix.getColumnMatrix(0); // 获取第一列
-	    
-	    double sumOI = DoubleStream.of(oi.getColumn(0)).sum();
-	    for (int i = 0; i < oi.getRowDimension(); i++) {
-	        oi.setEntry(i, 0, oi.getEntry(i, 0) / sumOI);
-	    }
-	    return oi;
+	
+	private double total(int field) {
+		return sums[field] + compensations[field];
 	}
-
+	
+	/*
+	 * 持仓量加权价格，权重与求和方式均与原算法一致：先求各槽位的权重 持仓量/总持仓量，再对 价格*权重 做与 DoubleStream.sum 相同的Kahan补偿求和
+	 */
+	private double weightedPrice(int field, double sumOI) {
+		double sum = 0;
+		double compensation = 0;
+		for(int slot = 0; slot < slotActive.length; slot++) {
+			if(!slotActive[slot]) {
+				continue;
+			}
+			int base = slot * NUM_OF_FIELDS;
+			double weight = slotValues[base + OI] / sumOI;
+			double y = slotValues[base + field] * weight - compensation;
+			double t = sum + y;
+			compensation = (t - sum) - y;
+			sum = t;
+		}
+		return sum - compensation;
+	}
+	
 	//四舍五入处理
 	private double roundWithPriceTick(double weightedPrice) {
 		int enlargePrice = (int) (weightedPrice * 1000);
-		int enlargePriceTick = (int) (idxContract.contract().priceTick() * 1000);
 		int numOfTicks = enlargePrice / enlargePriceTick;
 		int tickCarry = (enlargePrice % enlargePriceTick) < (enlargePriceTick / 2) ? 0 : 1;
 		  
@@ -22,6 +22,7 @@ import org.dromara.northstar.common.exception.NoSuchElementException;
 import org.dromara.northstar.common.model.Identifier;
 import org.dromara.northstar.common.model.core.Contract;
 import org.dromara.northstar.common.model.core.ContractDefinition;
+import org.dromara.northstar.common.model.core.ContractHandleMap;
 import org.dromara.northstar.common.model.core.Tick;
 import org.dromara.northstar.gateway.IContract;
 import org.dromara.northstar.gateway.IMarketCenter;
@@ -65,7 +66,10 @@ public class MarketCenter implements IMarketCenter{
 	
 	private final Map<ChannelType, MarketGateway> gatewayMap = new EnumMap<>(ChannelType.class);
 	
-	private final ConcurrentMap<Contract, Tick> tickMap = new ConcurrentHashMap<>();
+	private final ContractHandleMap<Tick> tickMap = new ContractHandleMap<>();
+	
+	/* 合约 -> 行情路由，按合约句柄缓存，避免每个TICK都查询合约表；合约登记或合约组加载后失效 */
+	private final ContractHandleMap<TickRoute> tickRouteMap = new ContractHandleMap<>();
 	
 	private final FastEventEngine feEngine;
 	
@@ -115,6 +119,7 @@ public class MarketCenter implements IMarketCenter{
 				if(log.isTraceEnabled()) {					
 					log.trace("合约登记成功：{}", contract.contract());
 				}
+				tickRouteMap.clear();
 			});
 
 		if(!contractMap.containsKey(ins.identifier())) {
@@ -161,6 +166,7 @@ public class MarketCenter implements IMarketCenter{
 		}
 		
 		loadedGroupOfChannel.add(channelType);
+		tickRouteMap.clear();
 	}
 	
 	private void aggregateOptionContracts(List<IContract> optContracts, Map<String, IContract> symbolContractMap) {
@@ -262,7 +268,7 @@ public class MarketCenter implements IMarketCenter{
 	@Override
 	public void onTick(Tick tick) {
 		// 避免同一个TICK进入两次
-		if(tickMap.containsKey(tick.contract()) && tickMap.get(tick.contract()) == tick) {
+		if(tickMap.get(tick.contract()) == tick) {
 			return; 
 		}
 		tickMap.put(tick.contract(), tick);
@@ -271,14 +277,21 @@ public class MarketCenter implements IMarketCenter{
 			return; // 直接忽略指数TICK的后续处理
 		}
 		
+		TickRoute route = tickRouteMap.get(tick.contract());
+		if(Objects.isNull(route)) {
+			IContract contract = getContract(tick.channelType(), tick.contract().unifiedSymbol());
+			route = new TickRoute(contract, idxContractMap.get(contract));
+			tickRouteMap.put(tick.contract(), route);
+		}
+		
 		// 更新普通合约
-		IContract contract = getContract(tick.channelType(), tick.contract().unifiedSymbol());
+		IContract contract = route.contract();
 		if(contract instanceof TickDataAware tdAware) {
 			tdAware.onTick(tick);
 		}
 		
 		// 更新指数合约
-		IndexContract idxContract = idxContractMap.get(contract);
+		IndexContract idxContract = route.idxContract();
 		if(Objects.nonNull(idxContract)) {
 			idxContract.onTick(tick);
 		} else if(contract.productClass() == ProductClassEnum.FUTURES && loadedGroupOfChannel.contains(tick.channelType())){
@@ -305,4 +318,7 @@ public class MarketCenter implements IMarketCenter{
 		return Optional.ofNullable(tickMap.get(contract));
 	}
 
+	
+	private record TickRoute(IContract contract, IndexContract idxContract) {}
+
 }
@@ -1,13 +1,14 @@
 package org.dromara.northstar.indicator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Stream;
 
 import org.dromara.northstar.indicator.model.Configuration;
+import org.dromara.northstar.indicator.model.DoubleRingArray;
 import org.dromara.northstar.indicator.model.Num;
-import org.dromara.northstar.indicator.model.RingArray;
 import org.springframework.util.Assert;
 
 
@@ -19,23 +20,23 @@ import org.springframework.util.Assert;
  */
 public abstract class AbstractIndicator implements Indicator {
 	
-	protected RingArray<Num> ringBuf;
+	protected DoubleRingArray ringBuf;
 	
 	protected Configuration cfg;
 	
 	protected AbstractIndicator(Configuration cfg) {
 		this.cfg = cfg;
-		ringBuf = new RingArray<>(cfg.cacheLength());
+		ringBuf = new DoubleRingArray(cfg.cacheLength());
 	}
 	
 	@Override
 	public void update(Num num) {
-		if(ringBuf.size() > 0 && (num.timestamp() < get(0).timestamp() && num.unstable() == get(0).unstable() || num.timestamp() == get(0).timestamp() && !get(0).unstable())) {
+		if(ringBuf.size() > 0 && (num.timestamp() < ringBuf.timestamp(0) && num.unstable() == ringBuf.unstable(0) || num.timestamp() == ringBuf.timestamp(0) && !ringBuf.unstable(0))) {
 			return;	// 通过时间戳比对，确保同一个指标在同一种状态下只能被同一个时间的值更新一次
 		}
 		Num updateNum = evaluate(num);
 		if(!updateNum.isNaN()) {
-			ringBuf.update(updateNum, updateNum.unstable());
+			ringBuf.update(updateNum.value(), updateNum.timestamp(), updateNum.unstable());
 		}
 	}
 	
@@ -48,17 +49,23 @@ public abstract class AbstractIndicator implements Indicator {
 
 	@Override
 	public Num get(int step) {
-		Assert.isTrue(step <= 0, "回溯步长不能是正数");
-		Assert.isTrue(step > -cfg.cacheLength(), "回溯长度超过指标缓存大小");
-		if(Objects.isNull(ringBuf.get(step))) {
-			return Num.NaN();
-		}
-		return ringBuf.get(step);
+		checkStep(step);
+		Num num = ringBuf.get(step);
+		return num == null ? Num.NaN() : num;
 	}
 	
+	/**
+	 * 直接从原始类型缓存中取值，不产生对象分配
+	 */
 	@Override
 	public double value(int step) {
-		return get(step).value();
+		checkStep(step);
+		return ringBuf.value(step);
+	}
+	
+	private void checkStep(int step) {
+		Assert.isTrue(step <= 0, "回溯步长不能是正数");
+		Assert.isTrue(step > -cfg.cacheLength(), "回溯长度超过指标缓存大小");
 	}
 
 	/**
@@ -71,7 +78,27 @@ public abstract class AbstractIndicator implements Indicator {
 
 	@Override
 	public List<Num> getData() {
-		return Stream.of(ringBuf.toArray()).filter(Objects::nonNull).map(Num.class::cast).toList();
+		return ringBuf.toList();
+	}
+	
+	/**
+	 * 写出指标值缓存
+	 * 只有值缓存这一项内部状态的子类，声明实现 {@link org.dromara.northstar.common.StateSnapshotAware} 即可支持快照；
+	 * 带有其他内部状态的子类需要覆盖本方法与 {@link #readState(DataInput)} 追加读写
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeState(DataOutput out) throws IOException {
+		ringBuf.writeTo(out);
+	}
+	
+	/**
+	 * 恢复指标值缓存
+	 * @param in
+	 * @throws IOException
+	 */
+	public void readState(DataInput in) throws IOException {
+		ringBuf.readFrom(in);
 	}
 	
 	@Override
@@ -2,6 +2,7 @@ package org.dromara.northstar.indicator.helper;
 
 import java.util.List;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.model.Configuration;
@@ -12,7 +13,7 @@ import org.dromara.northstar.indicator.model.Num;
  * @author KevinHuangwl
  *
  */
-public class DiffIndicator extends AbstractIndicator implements Indicator {
+public class DiffIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware {
 
 	private Indicator line1;
 	private Indicator line2;
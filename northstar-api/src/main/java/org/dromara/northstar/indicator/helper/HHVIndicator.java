@@ -1,24 +1,45 @@
 package org.dromara.northstar.indicator.helper;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.model.Configuration;
 import org.dromara.northstar.indicator.model.Num;
+import org.dromara.northstar.indicator.window.RollingExtremum;
 
 /**
  * 最大值指标
  * @author KevinHuangwl
  *
  */
-public class HHVIndicator extends AbstractIndicator implements Indicator{
+public class HHVIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware{
 
 	private Indicator srcIndicator;
 	
+	private RollingExtremum extremum;
+	
 	public HHVIndicator(Configuration cfg, Indicator indicator) {
 		super(cfg);
 		this.srcIndicator = indicator;
+		this.extremum = RollingExtremum.max(indicator.getConfiguration().cacheLength());	// 窗口与源指标的可回溯长度一致
+		this.extremum.seed(indicator.getData());
+	}
+	
+	@Override
+	public void writeState(DataOutput out) throws IOException {
+		super.writeState(out);
+		extremum.writeTo(out);
+	}
+	
+	@Override
+	public void readState(DataInput in) throws IOException {
+		super.readState(in);
+		extremum.readFrom(in);
 	}
 	
 	@Override
@@ -28,12 +49,12 @@ public class HHVIndicator extends AbstractIndicator implements Indicator{
 
 	@Override
 	protected Num evaluate(Num num) {
+		Num srcVal = srcIndicator.get(0);
+		extremum.update(srcVal.value(), srcVal.timestamp(), srcVal.unstable());
 		if(!srcIndicator.isReady()) {
 			return Num.NaN();
 		}
-		double val = srcIndicator.getData().stream().filter(nm -> !nm.isNaN()).mapToDouble(Num::value).max().getAsDouble();
-		return Num.of(val, num.timestamp(), num.unstable());
+		return Num.of(extremum.value(), num.timestamp(), num.unstable());
 	}
 	
-	
 }
@@ -3,6 +3,7 @@ package org.dromara.northstar.indicator.helper;
 import java.util.List;
 
 import org.apache.commons.math3.stat.descriptive.moment.StandardDeviation;
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.model.Configuration;
@@ -13,7 +14,7 @@ import org.dromara.northstar.indicator.model.Num;
  * @author KevinHuangwl
  *
  */
-public class NormalizeIndicator extends AbstractIndicator implements Indicator{
+public class NormalizeIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware{
 
 	private Indicator srcIndicator;
 	
@@ -33,7 +34,10 @@ public class NormalizeIndicator extends AbstractIndicator implements Indicator{
 			return Num.NaN();
 		}
 		StandardDeviation std = new StandardDeviation();
-		double[] data = srcIndicator.getData().stream().mapToDouble(Num::value).toArray();
+		double[] data = new double[srcIndicator.getConfiguration().cacheLength()];
+		for(int i=0; i<data.length; i++) {
+			data[i] = srcIndicator.value(-i);
+		}
 		double stdVal = std.evaluate(data, 0);
 		return Num.of(srcIndicator.value(0) / stdVal, num.timestamp());
 	}
@@ -1,5 +1,6 @@
 package org.dromara.northstar.indicator.helper;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.model.Configuration;
@@ -10,7 +11,7 @@ import org.dromara.northstar.indicator.model.Num;
  * @author KevinHuangwl
  *
  */
-public class SimpleValueIndicator extends AbstractIndicator implements Indicator {
+public class SimpleValueIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware {
 
 	public SimpleValueIndicator(Configuration cfg) {
 		super(cfg);
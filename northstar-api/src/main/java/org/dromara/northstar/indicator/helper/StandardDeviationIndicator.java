@@ -1,27 +1,29 @@
 package org.dromara.northstar.indicator.helper;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Stream;
 
-import org.apache.commons.math3.stat.descriptive.moment.StandardDeviation;
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.model.Configuration;
 import org.dromara.northstar.indicator.model.Num;
-import org.dromara.northstar.indicator.model.RingArray;
+import org.dromara.northstar.indicator.window.RollingMeanVariance;
 
 /**
  * 标准差指标
  * @author KevinHuangwl
  *
  */
-public class StandardDeviationIndicator extends AbstractIndicator implements Indicator {
+public class StandardDeviationIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware {
 
 	private Indicator srcIndicator;
 	
-	private RingArray<Num> sample;
+	private RollingMeanVariance sample;
 	
 	/**
 	 * 标准差指标
@@ -30,7 +32,7 @@ public class StandardDeviationIndicator extends AbstractIndicator implements Ind
 	 */
 	public StandardDeviationIndicator(Configuration cfg, int barCount) {
 		super(cfg);
-		this.sample = new RingArray<>(barCount);
+		this.sample = new RollingMeanVariance(barCount);
 	}
 	
 	/**
@@ -39,30 +41,34 @@ public class StandardDeviationIndicator extends AbstractIndicator implements Ind
 	 * @param indicator		样本指标（指标的可回溯长度就是样本大小）
 	 */
 	public StandardDeviationIndicator(Configuration cfg, Indicator indicator) {
-		this(cfg, 0);
+		super(cfg);
 		this.srcIndicator = indicator;
+		this.sample = new RollingMeanVariance(indicator.getConfiguration().cacheLength());
+		this.sample.seed(indicator.getData());
 	}
 	
 	@Override
 	protected Num evaluate(Num num) {
-		double[] data = null;
-		if(Objects.isNull(srcIndicator)) {
-			sample.update(num, num.unstable());
-			if(sample.toArray().length != sample.size()) {
-				return Num.NaN();
-			}
-			data = Stream.of(sample.toArray()).map(Num.class::cast).mapToDouble(Num::value).toArray();
-		} else {
-			if(!srcIndicator.isReady()) {
-				return Num.NaN();
-			}
-			data = srcIndicator.getData().stream().mapToDouble(Num::value).toArray();
+		Num newVal = Objects.isNull(srcIndicator) ? num : srcIndicator.get(0);
+		sample.update(newVal.value(), newVal.timestamp(), newVal.unstable());
+		if(!sample.isFull()) {
+			return Num.NaN();
 		}
-		
-		double std = new StandardDeviation().evaluate(data);
-		return Num.of(std, num.timestamp(), num.unstable());
+		return Num.of(sample.standardDeviation(), num.timestamp(), num.unstable());
 	}
 
+	@Override
+	public void writeState(DataOutput out) throws IOException {
+		super.writeState(out);
+		sample.writeTo(out);
+	}
+	
+	@Override
+	public void readState(DataInput in) throws IOException {
+		super.readState(in);
+		sample.readFrom(in);
+	}
+	
 	@Override
 	public List<Indicator> dependencies() {
 		if(Objects.isNull(srcIndicator)) {
@@ -0,0 +1,219 @@
+package org.dromara.northstar.indicator.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 这是一个面向原始类型的环型数组，用于指标值的滑动窗口缓存
+ * 数值、时间戳与不稳定标识分别以平行数组保存，更新与访问过程不产生对象分配
+ * 更新语义与 {@link RingArray#update(Object, boolean)} 保持一致
+ * @author KevinHuangwl
+ */
+public class DoubleRingArray {
+
+	private final double[] values;
+
+	private final long[] timestamps;
+
+	private final long[] unstableBits;
+
+	private int cursor;
+
+	private int count;
+
+	private boolean lastFlag = true;
+
+	public DoubleRingArray(int size) {
+		this.values = new double[size];
+		this.timestamps = new long[size];
+		this.unstableBits = new long[(size + 63) >>> 6];
+	}
+
+	/**
+	 * value(0) 是访问队头（最新的）数值
+	 * value(-1) 是访问队头第二个数值
+	 * value(1) 是访问队尾数值
+	 * @param step
+	 * @return		未填充的位置返回NaN
+	 */
+	public double value(int step) {
+		int index = getIndex(step);
+		return isFilled(index) ? values[index] : Double.NaN;
+	}
+
+	/**
+	 * 访问对应位置的时间戳
+	 * @param step
+	 * @return		未填充的位置返回0
+	 */
+	public long timestamp(int step) {
+		int index = getIndex(step);
+		return isFilled(index) ? timestamps[index] : 0;
+	}
+
+	/**
+	 * 访问对应位置的不稳定标识
+	 * @param step
+	 * @return		未填充的位置返回true
+	 */
+	public boolean unstable(int step) {
+		int index = getIndex(step);
+		return !isFilled(index) || (unstableBits[index >>> 6] & (1L << index)) != 0;
+	}
+
+	public Num get() {
+		return get(0);
+	}
+
+	/**
+	 * 兼容视图，以Num对象形式访问对应位置的值
+	 * @param step
+	 * @return		未填充的位置返回null
+	 */
+	public Num get(int step) {
+		int index = getIndex(step);
+		if(!isFilled(index)) {
+			return null;
+		}
+		return Num.of(values[index], timestamps[index], (unstableBits[index >>> 6] & (1L << index)) != 0);
+	}
+
+	/**
+	 * 更新值
+	 * @param value
+	 * @param timestamp
+	 * @param unstable
+	 * @return			返回被覆盖的旧值，若该位置原来未被填充则返回NaN
+	 */
+	public synchronized double update(double value, long timestamp, boolean unstable) {
+		boolean advance = unstable ? lastFlag != unstable : lastFlag == unstable;
+		lastFlag = unstable;
+		if(advance) {
+			cursor = getIndex(1);
+		}
+		double old = isFilled(cursor) ? values[cursor] : Double.NaN;
+		if(count < values.length && (advance || count == 0)) {
+			count++;
+		}
+		values[cursor] = value;
+		timestamps[cursor] = timestamp;
+		if(unstable) {
+			unstableBits[cursor >>> 6] |= 1L << cursor;
+		} else {
+			unstableBits[cursor >>> 6] &= ~(1L << cursor);
+		}
+		return old;
+	}
+
+	public double update(Num num) {
+		return update(num.value(), num.timestamp(), num.unstable());
+	}
+
+	/**
+	 * 由于数组是从零号位置开始顺序填充的，未填满时已填充的位置即为[0, count)
+	 */
+	private boolean isFilled(int index) {
+		return index < count;
+	}
+
+	private int getIndex(int incr) {
+		return (cursor + values.length + incr % values.length) % values.length;
+	}
+
+	/**
+	 * 按从新到旧的顺序导出已填充的值
+	 * @return
+	 */
+	public double[] toValueArray() {
+		double[] result = new double[count];
+		for(int i=0; i<count; i++) {
+			result[i] = value(-i);
+		}
+		return result;
+	}
+
+	/**
+	 * 按从新到旧的顺序导出已填充的值对象
+	 * @return
+	 */
+	public List<Num> toList() {
+		List<Num> result = new ArrayList<>(count);
+		for(int i=0; i<count; i++) {
+			result.add(get(-i));
+		}
+		return result;
+	}
+
+	/**
+	 * 写出缓存状态
+	 * @param out
+	 * @throws IOException
+	 */
+	public synchronized void writeTo(DataOutput out) throws IOException {
+		out.writeInt(values.length);
+		out.writeInt(cursor);
+		out.writeInt(count);
+		out.writeBoolean(lastFlag);
+		for(int i=0; i<values.length; i++) {
+			out.writeDouble(values[i]);
+			out.writeLong(timestamps[i]);
+		}
+		for(long bits : unstableBits) {
+			out.writeLong(bits);
+		}
+	}
+
+	/**
+	 * 恢复缓存状态
+	 * @param in
+	 * @throws IOException		快照长度与当前长度不一致时抛出，此时不修改任何状态
+	 */
+	public synchronized void readFrom(DataInput in) throws IOException {
+		int length = in.readInt();
+		if(length != values.length) {
+			throw new IOException(String.format("缓存长度不一致。期望：%d，实际：%d", values.length, length));
+		}
+		int newCursor = in.readInt();
+		int newCount = in.readInt();
+		boolean newLastFlag = in.readBoolean();
+		double[] newValues = new double[length];
+		long[] newTimestamps = new long[length];
+		long[] newUnstableBits = new long[unstableBits.length];
+		for(int i=0; i<length; i++) {
+			newValues[i] = in.readDouble();
+			newTimestamps[i] = in.readLong();
+		}
+		for(int i=0; i<newUnstableBits.length; i++) {
+			newUnstableBits[i] = in.readLong();
+		}
+		if(newCursor < 0 || newCursor >= length || newCount < 0 || newCount > length) {
+			throw new IOException("缓存快照数据异常");
+		}
+		// 全部读取成功后才替换，避免读取中途失败导致状态不完整
+		cursor = newCursor;
+		count = newCount;
+		lastFlag = newLastFlag;
+		System.arraycopy(newValues, 0, values, 0, length);
+		System.arraycopy(newTimestamps, 0, timestamps, 0, length);
+		System.arraycopy(newUnstableBits, 0, unstableBits, 0, newUnstableBits.length);
+	}
+
+	/**
+	 * 实际大小
+	 * @return
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * 最大长度
+	 * @return
+	 */
+	public int length() {
+		return values.length;
+	}
+}
@@ -2,6 +2,7 @@ package org.dromara.northstar.indicator.momentum;
 
 import java.util.List;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.constant.ValueType;
@@ -21,7 +22,7 @@ import org.dromara.northstar.indicator.trend.SMAIndicator;
  * @author KevinHuangwl
  *
  */
-public class KDIndicator extends AbstractIndicator implements Indicator{
+public class KDIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware{
 
 	private Indicator rsv;
 	private Indicator k;
@@ -46,6 +47,11 @@ public class KDIndicator extends AbstractIndicator implements Indicator{
 	public Num get(int step) {
 		return Num.NaN();
 	}
+	
+	@Override
+	public double value(int step) {
+		return Double.NaN;
+	}
 
 	@Override
 	public List<Indicator> dependencies() {
@@ -60,7 +66,7 @@ public class KDIndicator extends AbstractIndicator implements Indicator{
 		return d;
 	}
 	
-	public class RSVIndicator extends AbstractIndicator implements Indicator {
+	public class RSVIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware {
 		
 		private Indicator close;
 		private Indicator high;
@@ -1,7 +1,11 @@
 package org.dromara.northstar.indicator.momentum;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.constant.ValueType;
@@ -18,11 +22,11 @@ import org.dromara.northstar.indicator.trend.SMAIndicator;
  * @author KevinHuangwl
  *
  */
-public class RSIIndicator extends AbstractIndicator implements Indicator {
+public class RSIIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware {
 
 	private Indicator close;
-	private Indicator numerator;	//分子
-	private Indicator denominator;	//分母
+	private SMAIndicator numerator;	//分子
+	private SMAIndicator denominator;	//分母
 	
 	public RSIIndicator(Configuration cfg, int barCount) {
 		super(cfg);
@@ -49,4 +53,19 @@ public class RSIIndicator extends AbstractIndicator implements Indicator {
 		return Num.of(val, num.timestamp(), num.unstable());
 	}
 	
+	/* 分子与分母不在依赖图中，由本指标直接更新，因此随本指标一起保存 */
+	@Override
+	public void writeState(DataOutput out) throws IOException {
+		super.writeState(out);
+		numerator.writeState(out);
+		denominator.writeState(out);
+	}
+	
+	@Override
+	public void readState(DataInput in) throws IOException {
+		super.readState(in);
+		numerator.readState(in);
+		denominator.readState(in);
+	}
+	
 }
@@ -2,6 +2,7 @@ package org.dromara.northstar.indicator.trend;
 
 import java.util.List;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.helper.DiffIndicator;
@@ -22,7 +23,7 @@ import org.springframework.util.Assert;
  * @author KevinHuangwl
  *
  */
-public class MACDIndicator extends AbstractIndicator implements Indicator{
+public class MACDIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware{
 	
 	protected Indicator diffLine;
 	protected Indicator deaLine;
@@ -1,31 +1,33 @@
 package org.dromara.northstar.indicator.trend;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.model.Configuration;
 import org.dromara.northstar.indicator.model.Num;
-import org.dromara.northstar.indicator.model.RingArray;
+import org.dromara.northstar.indicator.window.RollingSum;
 
 /**
  * MA算术平均线
  * @author KevinHuangwl
  *
  */
-public class MAIndicator extends AbstractIndicator implements Indicator {
+public class MAIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware {
 
-	private RingArray<Num> sample;
-	
-	private double sum;
+	private RollingSum sample;
 	
 	private Indicator srcIndicator;
 	
 	public MAIndicator(Configuration cfg, int barCount) {
 		super(cfg);
-		sample = new RingArray<>(barCount);
+		sample = new RollingSum(barCount);
 	}
 	
 	public MAIndicator(Configuration cfg, Indicator srcIndicator, int barCount) {
@@ -38,9 +40,20 @@ public class MAIndicator extends AbstractIndicator implements Indicator {
 		if(newVal.isNaN()) {
 			return newVal;
 		}
-		sample.update(newVal, newVal.unstable()).ifPresent(val -> sum -= val.value());	// 减去旧的值
-		sum += newVal.value();															// 加上新的值
-		return Num.of(sum / sample.size(), num.timestamp(), num.unstable());
+		sample.update(newVal.value(), newVal.timestamp(), newVal.unstable());	// 增量维护窗口之和
+		return Num.of(sample.mean(), num.timestamp(), num.unstable());
+	}
+	
+	@Override
+	public void writeState(DataOutput out) throws IOException {
+		super.writeState(out);
+		sample.writeTo(out);
+	}
+	
+	@Override
+	public void readState(DataInput in) throws IOException {
+		super.readState(in);
+		sample.readFrom(in);
 	}
 	
 	@Override
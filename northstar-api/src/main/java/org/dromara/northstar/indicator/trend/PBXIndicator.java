@@ -2,6 +2,7 @@ package org.dromara.northstar.indicator.trend;
 
 import java.util.List;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.model.Configuration;
@@ -10,7 +11,7 @@ import org.dromara.northstar.indicator.model.Num;
 import lombok.Getter;
 
 @Getter
-public class PBXIndicator extends AbstractIndicator implements Indicator {
+public class PBXIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware {
 
 	private PuBuIndicator pb1;
 	private PuBuIndicator pb2;
@@ -4,6 +4,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.model.Configuration;
@@ -15,7 +16,7 @@ import org.springframework.util.Assert;
  * @author KevinHuangwl
  *
  */
-public class SMAIndicator extends AbstractIndicator implements Indicator{
+public class SMAIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware{
 
 	private double factor;
 	
@@ -43,15 +44,15 @@ public class SMAIndicator extends AbstractIndicator implements Indicator{
 	@Override
 	protected Num evaluate(Num num) {
 		Num newVal = Objects.isNull(srcIndicator) ? num : srcIndicator.get(0);
-		if(newVal.isNaN() || ringBuf.size() == 0 || ringBuf.size() == 1 && ringBuf.get().unstable()) {
+		if(newVal.isNaN() || ringBuf.size() == 0 || ringBuf.size() == 1 && ringBuf.unstable(0)) {
 			// 当计算样本没有值，或只有一个不稳定值时
 			return newVal;
 		}
-		Num preVal = ringBuf.get().unstable() ? get(-1) : get(0); 
-		if(preVal.isNaN()) {
+		double preVal = ringBuf.unstable(0) ? value(-1) : value(0); 
+		if(Double.isNaN(preVal)) {
 			return newVal;
 		}
-		double val = factor * newVal.value() + (1 - factor) * preVal.value();
+		double val = factor * newVal.value() + (1 - factor) * preVal;
 		return Num.of(val, num.timestamp(), num.unstable());
 	}
 
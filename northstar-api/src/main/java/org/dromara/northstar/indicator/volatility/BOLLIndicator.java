@@ -2,6 +2,7 @@ package org.dromara.northstar.indicator.volatility;
 
 import java.util.List;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.helper.DiffIndicator;
@@ -17,7 +18,7 @@ import org.dromara.northstar.indicator.trend.MAIndicator;
  * @author KevinHuangwl
  *
  */
-public class BOLLIndicator extends AbstractIndicator implements Indicator{
+public class BOLLIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware{
 
 	private Indicator mid;		// 中轨
 	private Indicator std;		// 标准差
@@ -53,6 +54,11 @@ public class BOLLIndicator extends AbstractIndicator implements Indicator{
 	public Num get(int step) {
 		return Num.NaN();
 	}
+	
+	@Override
+	public double value(int step) {
+		return Double.NaN;
+	}
 
 	public Indicator getMid() {
 		return mid;
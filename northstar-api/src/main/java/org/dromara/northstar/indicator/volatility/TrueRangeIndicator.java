@@ -2,6 +2,7 @@ package org.dromara.northstar.indicator.volatility;
 
 import java.util.List;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.constant.ValueType;
@@ -17,7 +18,7 @@ import org.dromara.northstar.indicator.model.Num;
  * @author KevinHuangwl
  *
  */
-public class TrueRangeIndicator extends AbstractIndicator implements Indicator{
+public class TrueRangeIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware{
 
 	private Indicator close;
 	private Indicator high;
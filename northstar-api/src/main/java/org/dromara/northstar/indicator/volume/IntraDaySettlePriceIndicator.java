@@ -1,8 +1,12 @@
 package org.dromara.northstar.indicator.volume;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.constant.PeriodUnit;
@@ -17,7 +21,7 @@ import org.dromara.northstar.indicator.model.Num;
  * @author KevinHuangwl
  *
  */
-public class IntraDaySettlePriceIndicator extends AbstractIndicator implements Indicator{
+public class IntraDaySettlePriceIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware{
 
 	private Indicator close;
 	private Indicator volume;
@@ -45,7 +49,7 @@ public class IntraDaySettlePriceIndicator extends AbstractIndicator implements I
 			tradingDayIntFormat = curTradeDate;
 			vols.clear();
 		}
-		if(vols.isEmpty() || !get(0).unstable()) {
+		if(vols.isEmpty() || !ringBuf.unstable(0)) {
 			vols.add(volume.get(0));
 		} else {
 			vols.set(vols.size() - 1, volume.get(0));
@@ -57,4 +61,29 @@ public class IntraDaySettlePriceIndicator extends AbstractIndicator implements I
 		return Num.of(val, num.timestamp(), num.unstable());			// 输出的是加权均价值
 	}
 	
+	@Override
+	public void writeState(DataOutput out) throws IOException {
+		super.writeState(out);
+		out.writeLong(tradingDayIntFormat);
+		out.writeInt(vols.size());
+		for(Num vol : vols) {
+			out.writeDouble(vol.value());
+			out.writeLong(vol.timestamp());
+			out.writeBoolean(vol.unstable());
+		}
+	}
+	
+	@Override
+	public void readState(DataInput in) throws IOException {
+		super.readState(in);
+		long newTradingDayIntFormat = in.readLong();
+		int size = in.readInt();
+		List<Num> newVols = new ArrayList<>(size);
+		for(int i=0; i<size; i++) {
+			newVols.add(Num.of(in.readDouble(), in.readLong(), in.readBoolean()));
+		}
+		tradingDayIntFormat = newTradingDayIntFormat;
+		vols = newVols;
+	}
+	
 }
@@ -2,6 +2,7 @@ package org.dromara.northstar.indicator.volume;
 
 import java.util.List;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.constant.ValueType;
@@ -14,7 +15,7 @@ import org.dromara.northstar.indicator.model.Num;
  * @author KevinHuangwl
  *
  */
-public class VWAPIndicator extends AbstractIndicator implements Indicator{
+public class VWAPIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware{
 
 	private Indicator close;
 	private Indicator volume;
@@ -35,12 +36,12 @@ public class VWAPIndicator extends AbstractIndicator implements Indicator{
 		if(!volume.isReady()) {
 			return Num.NaN();
 		}
-		double accVol = volume.getData().stream().mapToDouble(Num::value).sum();
-		List<Num> volumes = volume.getData();
-		List<Num> closes = close.getData();
+		int size = volume.getConfiguration().cacheLength();
+		double accVol = 0;
 		double val = 0;
-		for(int i=0; i<volumes.size(); i++) {
-			val += closes.get(i).value() * volumes.get(i).value();
+		for(int i=0; i<size; i++) {
+			accVol += volume.value(-i);
+			val += close.value(-i) * volume.value(-i);
 		}
 		return Num.of(val/accVol, num.timestamp(), num.unstable());
 	}
@@ -1,5 +1,8 @@
 package org.dromara.northstar.indicator.volume;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -8,6 +11,7 @@ import org.apache.commons.math3.ml.clustering.CentroidCluster;
 import org.apache.commons.math3.ml.clustering.Clusterable;
 import org.apache.commons.math3.ml.clustering.KMeansPlusPlusClusterer;
 import org.apache.commons.math3.stat.descriptive.moment.StandardDeviation;
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.constant.ValueType;
@@ -17,10 +21,11 @@ import org.dromara.northstar.indicator.model.Num;
 
 /**
  * 成交放量阈值指标
+ * 只有已完成的K线参与样本统计，未完成的K线只返回当前阈值
  * @author KevinHuangwl
  *
  */
-public class VolumeBoostingIndicator extends AbstractIndicator implements Indicator{
+public class VolumeBoostingIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware{
 	
 	private int countOfDays;
 	
@@ -49,6 +54,10 @@ public class VolumeBoostingIndicator extends AbstractIndicator implements Indica
 
 	@Override
 	protected Num evaluate(Num num) {
+		if(num.unstable()) {
+			// 未完成的K线会被反复更新，其成交量只是中间值，不计入样本，也不触发换日聚类
+			return Num.of(threshold, num.timestamp(), true);
+		}
 		long tradeDateInt = Math.round(num.value());
 		if(lastTradeDateInt != tradeDateInt) {
 			lastTradeDateInt = tradeDateInt;
@@ -73,7 +82,44 @@ public class VolumeBoostingIndicator extends AbstractIndicator implements Indica
 		if(stepCount++ > 0) {			
 			data.peekLast().add(new VolumePoint(volume.value(0)));
 		}
-		return Num.of(threshold, num.timestamp(), num.unstable());
+		return Num.of(threshold, num.timestamp(), false);
+	}
+
+	@Override
+	public void writeState(DataOutput out) throws IOException {
+		super.writeState(out);
+		out.writeInt(stepCount);
+		out.writeLong(lastTradeDateInt);
+		out.writeDouble(threshold);
+		out.writeInt(data.size());
+		for(List<VolumePoint> points : data) {
+			out.writeInt(points.size());
+			for(VolumePoint p : points) {
+				out.writeDouble(p.getPoint()[0]);
+			}
+		}
+	}
+	
+	@Override
+	public void readState(DataInput in) throws IOException {
+		super.readState(in);
+		int newStepCount = in.readInt();
+		long newLastTradeDateInt = in.readLong();
+		double newThreshold = in.readDouble();
+		LinkedList<List<VolumePoint>> newData = new LinkedList<>();
+		int numOfDays = in.readInt();
+		for(int i=0; i<numOfDays; i++) {
+			int numOfPoints = in.readInt();
+			List<VolumePoint> points = new ArrayList<>(numOfPoints);
+			for(int j=0; j<numOfPoints; j++) {
+				points.add(new VolumePoint(in.readDouble()));
+			}
+			newData.add(points);
+		}
+		stepCount = newStepCount;
+		lastTradeDateInt = newLastTradeDateInt;
+		threshold = newThreshold;
+		data = newData;
 	}
 
 	private static class VolumePoint implements Clusterable{
@@ -1,8 +1,12 @@
 package org.dromara.northstar.indicator.wave;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
 
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.indicator.AbstractIndicator;
 import org.dromara.northstar.indicator.Indicator;
 import org.dromara.northstar.indicator.constant.ValueType;
@@ -17,7 +21,7 @@ import org.springframework.util.Assert;
  * @author KevinHuangwl
  *
  */
-public class MABasedWaveIndicator extends AbstractIndicator implements Indicator {
+public class MABasedWaveIndicator extends AbstractIndicator implements Indicator, StateSnapshotAware {
 
 	private int numOfBarToConfirmTheSegment;
 	private EndpointType type;
@@ -108,6 +112,36 @@ public class MABasedWaveIndicator extends AbstractIndicator implements Indicator
 		return Num.NaN();
 	}
 
+	@Override
+	public void writeState(DataOutput out) throws IOException {
+		super.writeState(out);
+		out.writeBoolean(Objects.nonNull(isGoingUp));
+		if(Objects.nonNull(isGoingUp)) {
+			out.writeBoolean(isGoingUp);
+		}
+		writeNullable(out, sectionMax);
+		writeNullable(out, sectionMin);
+	}
+	
+	@Override
+	public void readState(DataInput in) throws IOException {
+		super.readState(in);
+		isGoingUp = in.readBoolean() ? in.readBoolean() : null;
+		sectionMax = readNullable(in);
+		sectionMin = readNullable(in);
+	}
+	
+	private static void writeNullable(DataOutput out, Double value) throws IOException {
+		out.writeBoolean(Objects.nonNull(value));
+		if(Objects.nonNull(value)) {
+			out.writeDouble(value);
+		}
+	}
+	
+	private static Double readNullable(DataInput in) throws IOException {
+		return in.readBoolean() ? in.readDouble() : null;
+	}
+
 	public enum EndpointType {
 		CLOSE, HIGH_LOW;
 	}
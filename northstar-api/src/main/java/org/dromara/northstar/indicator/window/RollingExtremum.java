@@ -0,0 +1,136 @@
+package org.dromara.northstar.indicator.window;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 滑动窗口最值
+ * 采用单调队列维护窗口内的稳定值；不稳定值不入队，只在取值时参与比较，
+ * 因此不稳定值被覆盖时无需回滚队列
+ * @author KevinHuangwl
+ *
+ */
+public class RollingExtremum extends RollingWindow {
+	
+	private final boolean isMax;
+	
+	private final double[] dequeValues;
+	
+	private final long[] dequeSeqs;
+	
+	private int head;
+	
+	private int dequeSize;
+	
+	private double pendingValue = Double.NaN;
+	
+	private RollingExtremum(int length, boolean isMax) {
+		super(length);
+		this.isMax = isMax;
+		this.dequeValues = new double[length];
+		this.dequeSeqs = new long[length];
+	}
+	
+	/**
+	 * 滑动窗口最大值
+	 * @param length
+	 * @return
+	 */
+	public static RollingExtremum max(int length) {
+		return new RollingExtremum(length, true);
+	}
+	
+	/**
+	 * 滑动窗口最小值
+	 * @param length
+	 * @return
+	 */
+	public static RollingExtremum min(int length) {
+		return new RollingExtremum(length, false);
+	}
+
+	@Override
+	protected void onUpdate(double oldValue, double newValue, boolean unstable) {
+		// 移出已离开窗口的队头
+		while(dequeSize > 0 && dequeSeqs[head] <= seq - length()) {
+			head = (head + 1) % dequeValues.length;
+			dequeSize--;
+		}
+		if(unstable) {
+			pendingValue = newValue;
+			return;
+		}
+		pendingValue = Double.NaN;
+		// 移出被新值支配的队尾
+		while(dequeSize > 0 && !prefer(dequeValues[tail()], newValue)) {
+			dequeSize--;
+		}
+		int index = (head + dequeSize) % dequeValues.length;
+		dequeValues[index] = newValue;
+		dequeSeqs[index] = seq;
+		dequeSize++;
+	}
+	
+	@Override
+	public synchronized void writeTo(DataOutput out) throws IOException {
+		out.writeInt(dequeValues.length);
+		out.writeInt(head);
+		out.writeInt(dequeSize);
+		out.writeDouble(pendingValue);
+		for(int i=0; i<dequeValues.length; i++) {
+			out.writeDouble(dequeValues[i]);
+			out.writeLong(dequeSeqs[i]);
+		}
+		super.writeTo(out);
+	}
+	
+	@Override
+	public synchronized void readFrom(DataInput in) throws IOException {
+		int length = in.readInt();
+		if(length != dequeValues.length) {
+			throw new IOException(String.format("队列长度不一致。期望：%d，实际：%d", dequeValues.length, length));
+		}
+		int newHead = in.readInt();
+		int newDequeSize = in.readInt();
+		double newPendingValue = in.readDouble();
+		double[] newValues = new double[length];
+		long[] newSeqs = new long[length];
+		for(int i=0; i<length; i++) {
+			newValues[i] = in.readDouble();
+			newSeqs[i] = in.readLong();
+		}
+		if(newHead < 0 || newHead >= length || newDequeSize < 0 || newDequeSize > length) {
+			throw new IOException("队列快照数据异常");
+		}
+		super.readFrom(in);
+		head = newHead;
+		dequeSize = newDequeSize;
+		pendingValue = newPendingValue;
+		System.arraycopy(newValues, 0, dequeValues, 0, length);
+		System.arraycopy(newSeqs, 0, dequeSeqs, 0, length);
+	}
+	
+	private int tail() {
+		return (head + dequeSize - 1) % dequeValues.length;
+	}
+	
+	private boolean prefer(double a, double b) {
+		return isMax ? a > b : a < b;
+	}
+	
+	/**
+	 * 窗口内的最值
+	 * @return		窗口为空时返回NaN
+	 */
+	public double value() {
+		if(dequeSize == 0) {
+			return pendingValue;
+		}
+		double result = dequeValues[head];
+		if(!Double.isNaN(pendingValue) && prefer(pendingValue, result)) {
+			return pendingValue;
+		}
+		return result;
+	}
+}
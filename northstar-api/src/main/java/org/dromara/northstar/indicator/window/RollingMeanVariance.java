@@ -0,0 +1,114 @@
+package org.dromara.northstar.indicator.window;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 滑动窗口均值与方差
+ * 采用Welford算法增量更新，并且每推进一个窗口长度便按两遍法重新校准一次，以消除累积误差（均摊后仍为O(1)）
+ * @author KevinHuangwl
+ *
+ */
+public class RollingMeanVariance extends RollingWindow {
+
+	private double mean;
+	
+	private double m2;
+	
+	private int updatesSinceResync;
+	
+	public RollingMeanVariance(int length) {
+		super(length);
+	}
+
+	@Override
+	protected void onUpdate(double oldValue, double newValue, boolean unstable) {
+		int n = size();
+		if(Double.isNaN(oldValue)) {
+			double delta = newValue - mean;
+			mean += delta / n;
+			m2 += delta * (newValue - mean);
+		} else {
+			double newMean = mean + (newValue - oldValue) / n;
+			m2 += (newValue - oldValue) * (newValue - newMean + oldValue - mean);
+			mean = newMean;
+		}
+		if(++updatesSinceResync >= length()) {
+			resync();
+		}
+	}
+	
+	@Override
+	public synchronized void writeTo(DataOutput out) throws IOException {
+		out.writeDouble(mean);
+		out.writeDouble(m2);
+		out.writeInt(updatesSinceResync);
+		super.writeTo(out);
+	}
+	
+	@Override
+	public synchronized void readFrom(DataInput in) throws IOException {
+		double newMean = in.readDouble();
+		double newM2 = in.readDouble();
+		int newUpdatesSinceResync = in.readInt();
+		super.readFrom(in);
+		mean = newMean;
+		m2 = newM2;
+		updatesSinceResync = newUpdatesSinceResync;
+	}
+	
+	private void resync() {
+		int n = size();
+		double total = 0;
+		for(int i=0; i<n; i++) {
+			total += window.value(-i);
+		}
+		double avg = total / n;
+		double sumSq = 0;
+		for(int i=0; i<n; i++) {
+			double dev = window.value(-i) - avg;
+			sumSq += dev * dev;
+		}
+		mean = avg;
+		m2 = sumSq;
+		updatesSinceResync = 0;
+	}
+	
+	/**
+	 * 窗口内的值的算术平均
+	 * @return		窗口为空时返回NaN
+	 */
+	public double mean() {
+		return size() == 0 ? Double.NaN : mean;
+	}
+	
+	/**
+	 * 样本方差（无偏估计，与commons-math的Variance默认口径一致）
+	 * @return		窗口为空时返回NaN
+	 */
+	public double variance() {
+		int n = size();
+		if(n == 0) {
+			return Double.NaN;
+		}
+		return n == 1 ? 0 : Math.max(m2, 0) / (n - 1);
+	}
+	
+	/**
+	 * 总体方差
+	 * @return		窗口为空时返回NaN
+	 */
+	public double populationVariance() {
+		int n = size();
+		return n == 0 ? Double.NaN : Math.max(m2, 0) / n;
+	}
+	
+	/**
+	 * 样本标准差
+	 * @return		窗口为空时返回NaN
+	 */
+	public double standardDeviation() {
+		return Math.sqrt(variance());
+	}
+}
@@ -0,0 +1,69 @@
+package org.dromara.northstar.indicator.window;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 滑动窗口求和
+ * 采用Kahan补偿求和，避免长期加减运算导致的精度漂移
+ * @author KevinHuangwl
+ *
+ */
+public class RollingSum extends RollingWindow {
+
+	private double sum;
+	
+	private double compensation;
+	
+	public RollingSum(int length) {
+		super(length);
+	}
+
+	@Override
+	protected void onUpdate(double oldValue, double newValue, boolean unstable) {
+		if(!Double.isNaN(oldValue)) {
+			add(-oldValue);
+		}
+		add(newValue);
+	}
+	
+	private void add(double val) {
+		double y = val - compensation;
+		double t = sum + y;
+		compensation = (t - sum) - y;
+		sum = t;
+	}
+	
+	@Override
+	public synchronized void writeTo(DataOutput out) throws IOException {
+		out.writeDouble(sum);
+		out.writeDouble(compensation);
+		super.writeTo(out);
+	}
+	
+	@Override
+	public synchronized void readFrom(DataInput in) throws IOException {
+		double newSum = in.readDouble();
+		double newCompensation = in.readDouble();
+		super.readFrom(in);
+		sum = newSum;
+		compensation = newCompensation;
+	}
+	
+	/**
+	 * 窗口内的值之和
+	 * @return
+	 */
+	public double sum() {
+		return sum;
+	}
+	
+	/**
+	 * 窗口内的值的算术平均
+	 * @return		窗口为空时返回NaN
+	 */
+	public double mean() {
+		return size() == 0 ? Double.NaN : sum / size();
+	}
+}
@@ -0,0 +1,118 @@
+package org.dromara.northstar.indicator.window;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+import org.dromara.northstar.indicator.model.DoubleRingArray;
+import org.dromara.northstar.indicator.model.Num;
+
+/**
+ * 滑动窗口聚合器的基类
+ * 负责维护窗口内的原始值，子类只需根据被移出（或被覆盖）的旧值与新值增量地更新聚合结果
+ * @author KevinHuangwl
+ *
+ */
+public abstract class RollingWindow {
+
+	protected final DoubleRingArray window;
+	
+	/**
+	 * 窗口最新位置的序号，每推进一格加一
+	 */
+	protected long seq;
+	
+	protected RollingWindow(int length) {
+		if(length <= 0) {
+			throw new IllegalArgumentException("窗口长度必须为正数");
+		}
+		this.window = new DoubleRingArray(length);
+	}
+	
+	/**
+	 * 值更新
+	 * 此接口为幂等设计：与最新值时间戳相同的稳定值会被忽略；NaN值也会被忽略
+	 * @param value
+	 * @param timestamp
+	 * @param unstable		不稳定值会覆盖上一个不稳定值，而不是推进窗口
+	 */
+	public synchronized void update(double value, long timestamp, boolean unstable) {
+		if(Double.isNaN(value)) {
+			return;
+		}
+		boolean latestUnstable = window.unstable(0);
+		if(!unstable && !latestUnstable && window.timestamp(0) == timestamp) {
+			return;
+		}
+		if(window.size() > 0 && !latestUnstable) {
+			seq++;
+		}
+		onUpdate(window.update(value, timestamp, unstable), value, unstable);
+	}
+	
+	/**
+	 * 用已有的值填充窗口
+	 * 绑定的源指标在绑定前已经有值时，需要先同步这部分值，否则窗口只覆盖绑定之后的值
+	 * @param values	按指标缓存的顺序，即最新值在前
+	 */
+	public synchronized void seed(List<Num> values) {
+		for(int i=values.size() - 1; i>=0; i--) {
+			Num num = values.get(i);
+			update(num.value(), num.timestamp(), num.unstable());
+		}
+	}
+	
+	/**
+	 * 增量更新聚合结果
+	 * @param oldValue		被移出窗口或被覆盖的旧值，窗口未满时为NaN
+	 * @param newValue		新值
+	 * @param unstable		新值是否为不稳定值
+	 */
+	protected abstract void onUpdate(double oldValue, double newValue, boolean unstable);
+	
+	/**
+	 * 写出窗口状态，子类需要追加写出自身的聚合状态
+	 * @param out
+	 * @throws IOException
+	 */
+	public synchronized void writeTo(DataOutput out) throws IOException {
+		out.writeLong(seq);
+		window.writeTo(out);
+	}
+	
+	/**
+	 * 恢复窗口状态
+	 * @param in
+	 * @throws IOException
+	 */
+	public synchronized void readFrom(DataInput in) throws IOException {
+		long newSeq = in.readLong();
+		window.readFrom(in);
+		seq = newSeq;
+	}
+	
+	/**
+	 * 窗口内的实际值个数
+	 * @return
+	 */
+	public int size() {
+		return window.size();
+	}
+	
+	/**
+	 * 窗口长度
+	 * @return
+	 */
+	public int length() {
+		return window.length();
+	}
+	
+	/**
+	 * 窗口是否已填满
+	 * @return
+	 */
+	public boolean isFull() {
+		return window.size() == window.length();
+	}
+}
@@ -0,0 +1,8 @@
+package org.dromara.northstar.indicator.window;
+/**
+ * 
+ * 滑动窗口聚合器
+ * 以增量方式维护窗口内的最值、求和、均值与方差，每次更新的开销与窗口长度无关。
+ * 更新语义与 {@link org.dromara.northstar.indicator.model.RingArray#update(Object, boolean)} 保持一致：不稳定值会覆盖上一个不稳定值。
+ * 
+ * */
@@ -58,4 +58,9 @@ public interface TradeStrategy extends TickDataAware, MergedBarListener, Transac
 	 * @return
 	 */
 	String name();
+	/**
+	 * 释放资源
+	 * 模组卸载（删除、修改或重置）且不再接收事件后调用一次，用于关闭策略自行创建的线程、模型会话等资源；之后该策略实例不再被使用
+	 */
+	default void dispose() {}
 }
@@ -4,9 +4,23 @@ import java.beans.PropertyDescriptor;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import org.apache.commons.io.FileUtils;
@@ -20,6 +34,8 @@ import org.dromara.northstar.common.constant.DateTimeConstant;
 import org.dromara.northstar.common.constant.GatewayUsage;
 import org.dromara.northstar.common.constant.ModuleType;
 import org.dromara.northstar.common.constant.ModuleUsage;
+import org.dromara.northstar.common.constant.PlaybackSpeed;
+import org.dromara.northstar.common.event.FastEventEngine;
 import org.dromara.northstar.common.model.ComponentAndParamsPair;
 import org.dromara.northstar.common.model.ComponentField;
 import org.dromara.northstar.common.model.ComponentMetaInfo;
@@ -28,6 +44,7 @@ import org.dromara.northstar.common.model.DynamicParams;
 import org.dromara.northstar.common.model.GatewayDescription;
 import org.dromara.northstar.common.model.Identifier;
 import org.dromara.northstar.common.model.ModuleAccountDescription;
+import org.dromara.northstar.common.model.ModuleAccountRuntimeDescription;
 import org.dromara.northstar.common.model.ModuleDescription;
 import org.dromara.northstar.common.model.ModuleRuntimeDescription;
 import org.dromara.northstar.common.model.core.Contract;
@@ -35,6 +52,7 @@ import org.dromara.northstar.gateway.Gateway;
 import org.dromara.northstar.gateway.IContract;
 import org.dromara.northstar.gateway.IContractManager;
 import org.dromara.northstar.gateway.MarketGateway;
+import org.dromara.northstar.gateway.PlaybackMarketGateway;
 import org.dromara.northstar.gateway.TradeGateway;
 import org.dromara.northstar.strategy.IModule;
 import org.springframework.beans.BeanUtils;
@@ -56,8 +74,27 @@ public abstract class AbstractTester implements ModuleTesterContext{
 	
 	protected IModuleService moduleService;
 	
+	protected FastEventEngine feEngine;
+	
+	private static final String COMPLETED_HEADER = "#completed";
+	
+	private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(30);
+	
+	private final Object setupLock = new Object();
+	
+	private final Object checkpointLock = new Object();
+	
 	protected AbstractTester(ObjectManager<Gateway> gatewayMgr, ObjectManager<IModule> moduleMgr, IContractManager contractMgr, 
 			IGatewayService gatewayService, IModuleService moduleService) {
+		this(gatewayMgr, moduleMgr, contractMgr, gatewayService, moduleService, null);
+	}
+	
+	/**
+	 * @param feEngine	用于在回放结束后等待事件处理完毕，为空时固定等待30秒
+	 */
+	protected AbstractTester(ObjectManager<Gateway> gatewayMgr, ObjectManager<IModule> moduleMgr, IContractManager contractMgr, 
+			IGatewayService gatewayService, IModuleService moduleService, FastEventEngine feEngine) {
+		this.feEngine = feEngine;
 		this.contractMgr = contractMgr;
 		this.gatewayMgr = gatewayMgr;
 		this.moduleMgr = moduleMgr;
@@ -88,20 +125,73 @@ public abstract class AbstractTester implements ModuleTesterContext{
 		return fieldMap.values().stream().toList();
 	}
 	
-	// 开始测试 
+	/**
+	 * 开始测试
+	 * 各合约的回测任务在大小为 {@link #parallelism()} 的线程池中并发执行，每个任务使用独立的回放网关与模拟账户；
+	 * 预热与回放的结束由网关的停止通知驱动，完成的合约记入检查点文件，中断后重新执行会跳过已完成的合约；
+	 * 各合约的结果追加到同一份报告文件中
+	 */
 	public void start() {
-		String currentSymbol = load();
-		for(String symbol : testSymbols()) {
-			if(StringUtils.isNotEmpty(currentSymbol) && !StringUtils.equals(symbol, currentSymbol)) {
-				continue;
+		Set<String> completed = loadCompleted();
+		if(completed.isEmpty()) {
+			resetReport();
+		}
+		List<String> symbols = testSymbols().stream().filter(symbol -> !completed.contains(symbol)).toList();
+		log.info("待回测合约{}个，已完成{}个，并发数：{}", symbols.size(), completed.size(), parallelism());
+		
+		ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, parallelism()));
+		List<BacktestResult> results = new CopyOnWriteArrayList<>();
+		AtomicInteger failures = new AtomicInteger();
+		try {
+			List<Future<?>> jobs = symbols.stream()
+					.<Future<?>>map(symbol -> pool.submit(() -> {
+						try {
+							List<BacktestResult> symbolResults = test(symbol);
+							results.addAll(symbolResults);
+							report(symbolResults);
+							markCompleted(symbol);
+						} catch (Exception e) {
+							failures.incrementAndGet();
+							log.error("[{}] 回测异常", symbol, e);
+						}
+					}))
+					.toList();
+			for(Future<?> job : jobs) {
+				job.get();
 			}
-			currentSymbol = "";
-			save(symbol);
-			
-			///////////////////////////////////////
-			/// 			准备工作 				///
-			///////////////////////////////////////
-			String idxSymbol = symbol + "0000";
+		} catch (InterruptedException e) {
+			log.warn("回测等待被中断", e);
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			log.error("", e);
+		} finally {
+			pool.shutdownNow();
+		}
+		
+		results.stream()
+			.sorted(Comparator.comparingDouble(BacktestResult::earningRiskRate).reversed())
+			.forEach(r -> log.info("回测结果：{}", r));
+		if(failures.get() == 0 && !Thread.currentThread().isInterrupted()) {
+			// 清空测试状态
+			save("");
+		}
+	}
+	
+	/**
+	 * 回测单个合约的所有周期
+	 * @param symbol
+	 * @return
+	 * @throws InterruptedException
+	 */
+	protected List<BacktestResult> test(String symbol) throws InterruptedException {
+		///////////////////////////////////////
+		/// 			准备工作 				///
+		///////////////////////////////////////
+		String idxSymbol = symbol + "0000";
+		PlaybackMarketGateway mktGateway;
+		List<IModule> testModules;
+		// 网关与模组的创建会修改共享的管理器，串行执行
+		synchronized (setupLock) {
 			IContract c = contractMgr.getContract(ChannelType.PLAYBACK, idxSymbol);
 			Contract cf = c.contract();
 			ContractSimpleInfo csi = ContractSimpleInfo.builder()
@@ -111,7 +201,7 @@ public abstract class AbstractTester implements ModuleTesterContext{
 					.value(c.identifier().value())
 					.precision(cf.pricePrecision())
 					.build();
-			MarketGateway mktGateway = createPlaybackGateway(csi, this);
+			mktGateway = createPlaybackGateway(csi, this);
 			TradeGateway tdGateway = createSimGateway(mktGateway);
 			tdGateway.connect();
 			gatewayService.simMoneyIO(tdGateway.gatewayId(), symbolTestAmount().get(symbol));
@@ -123,7 +213,7 @@ public abstract class AbstractTester implements ModuleTesterContext{
 					.componentMeta(strategy())
 					.initParams(convertParams(strategyParams(csi)))
 					.build();
-			List<IModule> testModules = IntStream.of(testPeriods())
+			testModules = IntStream.of(testPeriods())
 					.mapToObj(min -> ModuleDescription.builder()
 							.moduleName(String.format("%s%d分钟", symbol, min))
 							.initBalance(symbolTestAmount().get(symbol))
@@ -138,48 +228,82 @@ public abstract class AbstractTester implements ModuleTesterContext{
 					.map(this::createModule)
 					.map(md -> moduleMgr.get(Identifier.of(md.getModuleName())))
 					.toList();
+		}
 
-			///////////////////////////////////////
-			/// 			数据预热 				///
-			///////////////////////////////////////
-			mktGateway.connect();
-			while (mktGateway.isActive()) {
-				pause(5);
-				log.info("{} 数据预热中", idxSymbol);
-			}
+		///////////////////////////////////////
+		/// 			数据预热 				///
+		///////////////////////////////////////
+		log.info("{} 数据预热中", idxSymbol);
+		CompletableFuture<Void> warmedUp = mktGateway.nextStop();
+		mktGateway.connect();
+		awaitStop(warmedUp);
 
-			///////////////////////////////////////
-			/// 			开始回测 				///
-			///////////////////////////////////////
-			testModules.forEach(m -> m.setEnabled(true));
-			pause(1);
-			mktGateway.connect();
-			while (mktGateway.isActive() && testModules.stream().anyMatch(IModule::isEnabled)) {
-				log.info("{} 回测中", idxSymbol);
-				pause(30);
-			}
-			log.info("回测结束");
-			if(mktGateway.isActive()) {				
-				mktGateway.disconnect();
-			}
-			pause(30); // 等待计算结束
+		///////////////////////////////////////
+		/// 			开始回测 				///
+		///////////////////////////////////////
+		testModules.forEach(m -> m.setEnabled(true));
+		CompletableFuture<Void> finished = mktGateway.nextStop();
+		mktGateway.connect();
+		// 模组全部停用时提前结束
+		while (!awaitStop(finished, PROGRESS_INTERVAL) && testModules.stream().anyMatch(IModule::isEnabled)) {
+			log.info("{} 回测中", idxSymbol);
+		}
+		log.info("{} 回测结束", idxSymbol);
+		if(mktGateway.isActive()) {				
+			mktGateway.disconnect();
+		}
+		awaitCalculation();
 
-			///////////////////////////////////////
-			/// 			统计结果 				///
-			///////////////////////////////////////
-			for(IModule m : testModules) {
-				ModuleRuntimeDescription mrd = m.getModuleContext().getRuntimeDescription(false);
-				double totalEarning = mrd.getModuleAccountRuntime().getAccCloseProfit() - mrd.getModuleAccountRuntime().getAccCommission();
-				double earningRiskRate = totalEarning / Math.abs(mrd.getModuleAccountRuntime().getMaxDrawback());
-				if (mrd.getModuleAccountRuntime().getAccCloseProfit() < 0 
-						|| mrd.getModuleAccountRuntime().getMaxDrawbackPercentage() > 0.5
-						|| earningRiskRate < 2 ) { 
-					moduleService.removeModule(m.getName());
-				}
+		///////////////////////////////////////
+		/// 			统计结果 				///
+		///////////////////////////////////////
+		List<BacktestResult> results = new ArrayList<>(testModules.size());
+		for(IModule m : testModules) {
+			ModuleRuntimeDescription mrd = m.getModuleContext().getRuntimeDescription(false);
+			ModuleAccountRuntimeDescription accRt = mrd.getModuleAccountRuntime();
+			double totalEarning = accRt.getAccCloseProfit() - accRt.getAccCommission();
+			double earningRiskRate = totalEarning / Math.abs(accRt.getMaxDrawback());
+			boolean accepted = accRt.getAccCloseProfit() >= 0 
+					&& accRt.getMaxDrawbackPercentage() <= 0.5
+					&& earningRiskRate >= 2;
+			if (!accepted) { 
+				moduleService.removeModule(m.getName());
 			}
+			results.add(new BacktestResult(symbol, m.getName(), accRt.getAccCloseProfit(), accRt.getAccCommission(), 
+					accRt.getMaxDrawback(), accRt.getMaxDrawbackPercentage(), earningRiskRate, accepted));
 		}
-		// 清空测试状态
-		save("");
+		return results;
+	}
+	
+	private void awaitStop(CompletableFuture<Void> stop) throws InterruptedException {
+		try {
+			stop.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private boolean awaitStop(CompletableFuture<Void> stop, Duration timeout) throws InterruptedException {
+		try {
+			stop.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+			return true;
+		} catch (TimeoutException e) {
+			return false;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/* 等待回放结束前发出的事件处理完毕 */
+	private void awaitCalculation() throws InterruptedException {
+		if(speed() == PlaybackSpeed.LOCKSTEP) {
+			return;		// 同步极速回放的每一帧都已处理完毕
+		}
+		if(feEngine != null) {
+			feEngine.awaitIdle();
+			return;
+		}
+		pause(30); 
 	}
 	
 	protected void save(String symbol) {
@@ -203,6 +327,62 @@ public abstract class AbstractTester implements ModuleTesterContext{
 		return "";
 	}
 	
+	/**
+	 * 读取已完成的合约
+	 * 检查点文件以 {@value #COMPLETED_HEADER} 开头，之后每行一个已完成的合约；
+	 * 兼容旧格式：文件内容为正在回测的合约，其之前的合约视为已完成
+	 * @return
+	 */
+	protected Set<String> loadCompleted() {
+		String content = load();
+		Set<String> completed = new LinkedHashSet<>();
+		if(StringUtils.isBlank(content)) {
+			return completed;
+		}
+		List<String> lines = content.lines().map(String::trim).filter(StringUtils::isNotEmpty).toList();
+		if(COMPLETED_HEADER.equals(lines.get(0))) {
+			completed.addAll(lines.subList(1, lines.size()));
+			return completed;
+		}
+		String currentSymbol = lines.get(0);
+		List<String> symbols = testSymbols();
+		int index = symbols.indexOf(currentSymbol);
+		if(index > 0) {
+			completed.addAll(symbols.subList(0, index));
+		}
+		return completed;
+	}
+	
+	protected void markCompleted(String symbol) {
+		synchronized (checkpointLock) {
+			Set<String> completed = loadCompleted();
+			completed.add(symbol);
+			save(COMPLETED_HEADER + System.lineSeparator() + String.join(System.lineSeparator(), completed));
+		}
+	}
+	
+	private File reportFile() {
+		return new File("data/module-tester/" + strategy().getName() + ".report.csv");
+	}
+	
+	private void resetReport() {
+		try {
+			FileUtils.write(reportFile(), BacktestResult.CSV_HEADER + System.lineSeparator(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			log.error("", e);
+		}
+	}
+	
+	protected void report(List<BacktestResult> results) {
+		synchronized (checkpointLock) {
+			try {
+				FileUtils.writeLines(reportFile(), StandardCharsets.UTF_8.name(), results.stream().map(BacktestResult::toCsv).toList(), true);
+			} catch (IOException e) {
+				log.error("", e);
+			}
+		}
+	}
+	
 	protected void pause(int sec) {
 		try {
 			Thread.sleep(sec * 1000L);
@@ -219,7 +399,7 @@ public abstract class AbstractTester implements ModuleTesterContext{
 		}
 	}
 	
-	private MarketGateway createPlaybackGateway(ContractSimpleInfo csi, ModuleTesterContext ctx) {
+	private PlaybackMarketGateway createPlaybackGateway(ContractSimpleInfo csi, ModuleTesterContext ctx) {
 		String gatewayId = "历史回放_" + csi.getName();
 		JSONObject settings = new JSONObject();
 		settings.put("preStartDate", ctx.preStartDate().format(DateTimeConstant.D_FORMAT_INT_FORMATTER));
@@ -237,7 +417,7 @@ public abstract class AbstractTester implements ModuleTesterContext{
 				.settings(settings)
 				.build();
 		gatewayService.createGateway(gd);
-		return (MarketGateway) gatewayMgr.get(Identifier.of(gatewayId));
+		return (PlaybackMarketGateway) gatewayMgr.get(Identifier.of(gatewayId));
 	}
 	
 	protected TradeGateway createSimGateway(MarketGateway mktGateway) {
@@ -252,4 +432,26 @@ public abstract class AbstractTester implements ModuleTesterContext{
 		gatewayService.createGateway(gd);
 		return (TradeGateway) gatewayMgr.get(Identifier.of(gatewayId));
 	}
+	
+	/**
+	 * 单个模组的回测结果
+	 * @param symbol
+	 * @param moduleName
+	 * @param closeProfit			累计平仓盈亏
+	 * @param commission			累计手续费
+	 * @param maxDrawback			最大回撤
+	 * @param maxDrawbackPercentage	最大回撤比例
+	 * @param earningRiskRate		收益风险比
+	 * @param accepted				是否达标（未达标的模组会被移除）
+	 */
+	public static record BacktestResult(String symbol, String moduleName, double closeProfit, double commission, 
+			double maxDrawback, double maxDrawbackPercentage, double earningRiskRate, boolean accepted) {
+		
+		static final String CSV_HEADER = "symbol,moduleName,closeProfit,commission,maxDrawback,maxDrawbackPercentage,earningRiskRate,accepted";
+		
+		String toCsv() {
+			return String.join(",", symbol, moduleName, String.valueOf(closeProfit), String.valueOf(commission), String.valueOf(maxDrawback), 
+					String.valueOf(maxDrawbackPercentage), String.valueOf(earningRiskRate), String.valueOf(accepted));
+		}
+	}
 }
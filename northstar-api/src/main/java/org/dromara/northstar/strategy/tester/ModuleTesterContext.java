@@ -49,12 +49,22 @@ public interface ModuleTesterContext {
 	
 	/**
 	 * 回测速度
+	 * 需要逐帧确定性的回测结果时可返回 {@link PlaybackSpeed#LOCKSTEP}
 	 * @return
 	 */
 	default PlaybackSpeed speed() {
 		return PlaybackSpeed.RUSH;
 	}
 	
+	/**
+	 * 同时回测的合约数量
+	 * 每个合约使用独立的回放网关与模拟账户，互不影响
+	 * @return
+	 */
+	default int parallelism() {
+		return Runtime.getRuntime().availableProcessors();
+	}
+	
 	/**
 	 * 测试合约列表
 	 * @return
@@ -0,0 +1,114 @@
+package org.dromara.northstar.common.model.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.dromara.northstar.common.constant.ChannelType;
+import org.junit.jupiter.api.Test;
+
+class ContractHandleMapTest {
+
+	private Contract contract(String symbol) {
+		return Contract.builder()
+				.gatewayId("HandleTest")
+				.contractId(symbol + "@SHFE@FUTURES@HandleTest")
+				.unifiedSymbol(symbol + "@SHFE@FUTURES")
+				.symbol(symbol)
+				.channelType(ChannelType.SIM)
+				.build();
+	}
+
+	@Test
+	void testInternAssignsStableHandle() {
+		Contract c = contract("hdl2401");
+		Contract registered = ContractHandles.intern(c);
+		assertThat(registered.handle()).isPositive();
+		assertThat(registered).isEqualTo(c);
+		assertThat(ContractHandles.intern(contract("hdl2401")).handle()).isEqualTo(registered.handle());
+		assertThat(ContractHandles.intern(contract("hdl2402")).handle()).isNotEqualTo(registered.handle());
+		// 未附带句柄的相等合约也能查到句柄
+		assertThat(ContractHandles.handleOf(c)).isEqualTo(registered.handle());
+		assertThat(ContractHandles.handleOf(contract("hdl9999"))).isZero();
+	}
+
+	@Test
+	void testDerivedContractDoesNotInheritHandle() {
+		Contract registered = ContractHandles.intern(contract("hdl2403"));
+		Contract derived = registered.toBuilder().contractId("hdl2403_derived").build();
+		assertThat(derived.handle()).isEqualTo(registered.handle());
+		assertThat(ContractHandles.handleOf(derived)).isZero();
+	}
+
+	@Test
+	void testHashCodeUnchanged() {
+		Contract c = contract("hdl2404");
+		assertThat(c.hashCode()).isEqualTo(java.util.Objects.hash(c.channelType(), c.contractId(), c.gatewayId(), c.unifiedSymbol()));
+		assertThat(ContractHandles.intern(c).hashCode()).isEqualTo(c.hashCode());
+	}
+
+	@Test
+	void testBehavesLikeMap() {
+		Contract c1 = ContractHandles.intern(contract("hdl2405"));
+		Contract c2 = ContractHandles.intern(contract("hdl2406"));
+		Contract unregistered = contract("hdl2407");
+		ContractHandleMap<String> map = new ContractHandleMap<>();
+		assertThat(map.put(c1, "a")).isNull();
+		assertThat(map.put(c2, "b")).isNull();
+		assertThat(map.put(unregistered, "c")).isNull();
+		assertThat(map.put(c1, "a2")).isEqualTo("a");
+		assertThat(map.size()).isEqualTo(3);
+
+		// 以未附带句柄的相等合约查询，结果一致
+		assertThat(map.get(contract("hdl2405"))).isEqualTo("a2");
+		assertThat(map.get(c2)).isEqualTo("b");
+		assertThat(map.get(contract("hdl2407"))).isEqualTo("c");
+		assertThat(map.containsKey(contract("hdl2408"))).isFalse();
+
+		Map<Contract, String> entries = new HashMap<>();
+		map.forEach(entries::put);
+		assertThat(entries).containsOnly(Map.entry(c1, "a2"), Map.entry(c2, "b"), Map.entry(unregistered, "c"));
+		assertThat(map.values()).containsExactlyInAnyOrder("a2", "b", "c");
+
+		assertThat(map.remove(c1)).isEqualTo("a2");
+		assertThat(map.remove(unregistered)).isEqualTo("c");
+		assertThat(map.get(c1)).isNull();
+		assertThat(map.size()).isEqualTo(1);
+		map.clear();
+		assertThat(map.isEmpty()).isTrue();
+	}
+
+	@Test
+	void testPutBeforeIntern() {
+		ContractHandleMap<String> map = new ContractHandleMap<>();
+		Contract early = contract("hdl2409");
+		Contract other = contract("hdl2410");
+		map.put(early, "a");
+		map.put(other, "b");
+		Contract registered = ContractHandles.intern(contract("hdl2409"));
+
+		assertThat(map.get(registered)).isEqualTo("a");
+		assertThat(map.get(early)).isEqualTo("a");
+		assertThat(map.put(registered, "a2")).isEqualTo("a");
+		assertThat(map.size()).isEqualTo(2);
+		assertThat(map.values()).containsExactlyInAnyOrder("a2", "b");
+
+		Contract registeredOther = ContractHandles.intern(contract("hdl2410"));
+		assertThat(map.remove(registeredOther)).isEqualTo("b");
+		assertThat(map.get(other)).isNull();
+		assertThat(map.size()).isEqualTo(1);
+	}
+
+	@Test
+	void testGrow() {
+		ContractHandleMap<Integer> map = new ContractHandleMap<>();
+		for(int i=0; i<100; i++) {
+			map.put(ContractHandles.intern(contract("grow" + i)), i);
+		}
+		for(int i=0; i<100; i++) {
+			assertThat(map.get(contract("grow" + i))).isEqualTo(i);
+		}
+		assertThat(map.size()).isEqualTo(100);
+	}
+}
@@ -0,0 +1,366 @@
+package org.dromara.northstar.gateway.mktdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.dromara.northstar.common.constant.ChannelType;
+import org.dromara.northstar.common.constant.Constants;
+import org.dromara.northstar.common.constant.TickType;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.gateway.IContract;
+import org.dromara.northstar.gateway.contract.IndexContract;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * 增量式指数合成与原矩阵算法的一致性测试
+ * 以随机游走的月份合约行情同时驱动两种实现，逐个比较合成的指数TICK，要求每个字段完全相等
+ * 原算法按ConcurrentHashMap的遍历顺序求和，而合约的哈希值包含枚举的identityHashCode，遍历顺序在不同进程间并不固定，
+ * 因此对照实现按月份合约的声明顺序求和，其余计算与原算法完全一致
+ * @author KevinHuangwl
+ *
+ */
+class IndexTickerParityTest {
+
+	@ParameterizedTest
+	@CsvSource({
+		"1, 10, 6, 1, 1000, 500000, false",
+		"0.2, 5, 8, 2, 1000, 500000, false",
+		"0.5, 10, 12, 3, 1000, 500000, false",
+		"0.01, 1000, 4, 4, 1000, 500000, false",
+		"1, 10, 2, 5, 1, 10, false",
+		"1, 10, 6, 6, 1, 30, false",
+		"0.2, 5, 8, 7, 1, 100, false",
+		"0.5, 10, 12, 8, 1, 20, false",
+		"1, 10, 3, 9, 7, 1, true",
+		"0.2, 5, 7, 10, 3, 1, true",
+		"0.5, 10, 12, 11, 1, 1, true"
+	})
+	void shouldMatchMatrixAlgorithm(double priceTick, int multiplier, int numOfMembers, long seed, int minOI, int rangeOI, boolean equalWeight) {
+		IndexContract idxContract = mockIndexContract(priceTick, numOfMembers);
+		List<Tick> expected = new ArrayList<>();
+		List<Tick> actual = new ArrayList<>();
+		LegacyIndexTicker legacy = new LegacyIndexTicker(idxContract, expected::add);
+		IndexTicker ticker = new IndexTicker(idxContract, actual::add);
+
+		for(Tick tick : replay(idxContract, priceTick, multiplier, seed, minOI, rangeOI, equalWeight)) {
+			legacy.update(tick);
+			ticker.update(tick);
+		}
+
+		assertThat(expected).hasSizeGreaterThan(1000);
+		assertThat(actual).containsExactlyElementsOf(expected);
+	}
+
+	/*
+	 * 按 (ΣOI*价格)/ΣOI 计算时结果为3149，原算法按 价格*(OI/ΣOI) 求和后为3148
+	 */
+	@Test
+	void shouldRoundLikeMatrixAlgorithmNearBoundary() {
+		IndexContract idxContract = mockIndexContract(1, 2);
+		List<Tick> expected = new ArrayList<>();
+		List<Tick> actual = new ArrayList<>();
+		LegacyIndexTicker legacy = new LegacyIndexTicker(idxContract, expected::add);
+		IndexTicker ticker = new IndexTicker(idxContract, actual::add);
+		List<IContract> members = idxContract.memberContracts();
+		long timestamp = 1704157200000L;
+		List<Tick> ticks = List.of(
+				tickOf(members.get(0).contract(), timestamp, 3117, 3),
+				tickOf(members.get(1).contract(), timestamp, 3162, 7),
+				tickOf(members.get(0).contract(), timestamp + 500, 3117, 3));
+		for(Tick tick : ticks) {
+			legacy.update(tick);
+			ticker.update(tick);
+		}
+
+		assertThat(expected).hasSize(1);
+		assertThat(expected.get(0).lastPrice()).isEqualTo(3148);
+		assertThat(actual).containsExactlyElementsOf(expected);
+	}
+
+	private Tick tickOf(Contract contract, long timestamp, double price, double openInterest) {
+		LocalDate today = LocalDate.of(2024, 1, 2);
+		return Tick.builder()
+				.gatewayId("CTP")
+				.contract(contract)
+				.actionDay(today)
+				.actionTime(LocalTime.of(9, 0))
+				.tradingDay(today)
+				.actionTimestamp(timestamp)
+				.lastPrice(price)
+				.openPrice(price)
+				.highPrice(price)
+				.lowPrice(price)
+				.preClosePrice(price)
+				.preSettlePrice(price)
+				.openInterest(openInterest)
+				.preOpenInterest(openInterest)
+				.type(TickType.MARKET_TICK)
+				.channelType(ChannelType.CTP)
+				.build();
+	}
+
+	private IndexContract mockIndexContract(double priceTick, int numOfMembers) {
+		List<IContract> members = new ArrayList<>();
+		for(int i=0; i<numOfMembers; i++) {
+			Contract c = Contract.builder().unifiedSymbol(String.format("rb24%02d@SHFE@FUTURES", i + 1)).symbol(String.format("rb24%02d", i + 1)).priceTick(priceTick).build();
+			IContract ic = mock(IContract.class);
+			when(ic.contract()).thenReturn(c);
+			members.add(ic);
+		}
+		IndexContract idxContract = mock(IndexContract.class);
+		when(idxContract.contract()).thenReturn(Contract.builder().unifiedSymbol("rb0000@SHFE@FUTURES").priceTick(priceTick).build());
+		when(idxContract.memberContracts()).thenReturn(members);
+		return idxContract;
+	}
+
+	/*
+	 * 各月份合约的价格在最小变动价位上随机游走，持仓量与成交量为整数，成交额为价格、成交量、合约乘数之积；
+	 * 每个时刻只有部分合约有行情，部分合约在开头一段时间内没有行情，以覆盖活跃率不足的情况；
+	 * 持仓量在 [minOI, minOI + rangeOI) 内取值，小持仓量时权重的舍入最容易影响结果；等权重时各合约持仓量相同且保持不变
+	 */
+	private List<Tick> replay(IndexContract idxContract, double priceTick, int multiplier, long seed, int minOI, int rangeOI, boolean equalWeight) {
+		Random rand = new Random(seed);
+		List<IContract> members = idxContract.memberContracts();
+		int n = members.size();
+		long[] priceTicks = new long[n];
+		long[] openTicks = new long[n];
+		long[] highTicks = new long[n];
+		long[] lowTicks = new long[n];
+		long[] preCloseTicks = new long[n];
+		long[] openInterest = new long[n];
+		long[] volume = new long[n];
+		double[] turnover = new double[n];
+		for(int i=0; i<n; i++) {
+			priceTicks[i] = (long) (3000 / priceTick) + rand.nextInt(200);
+			openTicks[i] = highTicks[i] = lowTicks[i] = priceTicks[i];
+			preCloseTicks[i] = priceTicks[i] + rand.nextInt(21) - 10;
+			openInterest[i] = equalWeight ? minOI : minOI + rand.nextInt(rangeOI);
+		}
+		List<Tick> ticks = new ArrayList<>();
+		LocalDate today = LocalDate.of(2024, 1, 2);
+		long timestamp = 1704157200000L;
+		for(int step=0; step<3000; step++) {
+			timestamp += 500;
+			for(int i=0; i<n; i++) {
+				if(step < 20 * i || rand.nextInt(3) == 0) {
+					continue;
+				}
+				priceTicks[i] += rand.nextInt(5) - 2;
+				highTicks[i] = Math.max(highTicks[i], priceTicks[i]);
+				lowTicks[i] = Math.min(lowTicks[i], priceTicks[i]);
+				long volDelta = rand.nextInt(50);
+				long oiDelta = equalWeight ? 0 : Math.max(rand.nextInt(41) - 20, minOI - openInterest[i]);
+				double turnoverDelta = volDelta * priceTicks[i] * priceTick * multiplier;
+				volume[i] += volDelta;
+				openInterest[i] += oiDelta;
+				turnover[i] += turnoverDelta;
+				ticks.add(Tick.builder()
+						.gatewayId("CTP")
+						.contract(members.get(i).contract())
+						.actionDay(today)
+						.actionTime(LocalTime.of(9, 0).plusNanos((timestamp - 1704157200000L) * 1000000))
+						.tradingDay(today)
+						.actionTimestamp(timestamp)
+						.lastPrice(priceTicks[i] * priceTick)
+						.openPrice(openTicks[i] * priceTick)
+						.highPrice(highTicks[i] * priceTick)
+						.lowPrice(lowTicks[i] * priceTick)
+						.settlePrice(0)
+						.preClosePrice(preCloseTicks[i] * priceTick)
+						.preSettlePrice(preCloseTicks[i] * priceTick)
+						.preOpenInterest(openInterest[i] - oiDelta)
+						.openInterest(openInterest[i])
+						.openInterestDelta(oiDelta)
+						.volume(volume[i])
+						.volumeDelta(volDelta)
+						.turnover(turnover[i])
+						.turnoverDelta(turnoverDelta)
+						.type(TickType.MARKET_TICK)
+						.channelType(ChannelType.CTP)
+						.build());
+			}
+		}
+		return ticks;
+	}
+
+	/**
+	 * 原矩阵算法，作为对照
+	 */
+	static class LegacyIndexTicker {
+
+		private IndexContract idxContract;
+
+		private Consumer<Tick> onTickCallback;
+
+		private final Set<Contract> memberContracts;
+
+		private ConcurrentHashMap<Contract, Tick> tickMap = new ConcurrentHashMap<>(20);
+
+		private long lastTickTimestamp = -1;
+
+		private double lastPrice;
+		private double highPrice;
+		private double lowPrice;
+		private double openPrice;
+		private long totalVolume;
+		private long totalVolumeDelta;
+		private double totalOpenInterest;
+		private double totalOpenInterestDelta;
+		private double totalTurnover;
+		private double totalTurnoverDelta;
+		private double preClose;
+		private double preOpenInterest;
+		private double preSettlePrice;
+		private double settlePrice;
+
+		private Tick lastIdxTick;
+
+		LegacyIndexTicker(IndexContract idxContract, Consumer<Tick> onTickCallback) {
+			this.idxContract = idxContract;
+			this.memberContracts = idxContract.memberContracts().stream().map(c -> c.contract()).collect(Collectors.toSet());
+			this.onTickCallback = onTickCallback;
+		}
+
+		private double activeRate() {
+			return (double) tickMap.size() / memberContracts.size();
+		}
+
+		synchronized void update(Tick tick) {
+			if(!memberContracts.contains(tick.contract())) {
+				return;
+			}
+			if (0 < lastTickTimestamp && lastTickTimestamp < tick.actionTimestamp()) {
+				boolean isReady = activeRate() > 0.7;
+				if(isReady) {
+					final Double zeroD = Constants.ZERO_D;
+					final Integer zero = Constants.ZERO;
+					calculate();
+					lastIdxTick = Tick.builder()
+							.gatewayId(tick.gatewayId())
+							.contract(idxContract.contract())
+							.actionDay(tick.actionDay())
+							.actionTime(tick.actionTime())
+							.tradingDay(tick.tradingDay())
+							.actionTimestamp(lastTickTimestamp)
+							.openPrice(openPrice)
+							.highPrice(highPrice)
+							.lowPrice(lowPrice)
+							.lastPrice(lastPrice)
+							.openInterest(totalOpenInterest)
+							.openInterestDelta(totalOpenInterestDelta)
+							.volume(totalVolume)
+							.volumeDelta(totalVolumeDelta)
+							.turnover(totalTurnover)
+							.turnoverDelta(totalTurnoverDelta)
+							.preClosePrice(preClose)
+							.preOpenInterest(preOpenInterest)
+							.preSettlePrice(preSettlePrice)
+							.settlePrice(settlePrice)
+							.askPrice(List.of(zeroD,zeroD,zeroD,zeroD,zeroD))
+							.bidPrice(List.of(zeroD,zeroD,zeroD,zeroD,zeroD))
+							.askVolume(List.of(zero,zero,zero,zero,zero))
+							.bidVolume(List.of(zero,zero,zero,zero,zero))
+							.type(tick.type())
+							.channelType(tick.channelType())
+							.build();
+					onTickCallback.accept(lastIdxTick);
+				}
+			}
+			if(tick.type() == TickType.MARKET_TICK && tick.actionTimestamp() > lastTickTimestamp) {
+				lastTickTimestamp = tick.actionTimestamp();
+			}
+			tickMap.compute(tick.contract(), (k, v) -> tick);
+		}
+
+		private void calculate() {
+			List<Tick> ticks = idxContract.memberContracts().stream().map(c -> tickMap.get(c.contract())).filter(Objects::nonNull).toList();
+			RealMatrix priceMat = matrixOf(ticks);
+			RealMatrix oiWeight = oiWeighted(priceMat);
+			RealMatrix bcResult = new Array2DRowRealMatrix(priceMat.getRowDimension(), priceMat.getColumnDimension());
+			for(int i=0; i<priceMat.getRowDimension(); i++) {
+				double scalar = oiWeight.getEntry(i, 0);
+				bcResult.setRow(i, priceMat.getRowMatrix(i).scalarMultiply(scalar).getRow(0));
+			}
+
+			preOpenInterest = DoubleStream.of(priceMat.getColumn(13)).sum();
+
+			totalOpenInterest = DoubleStream.of(priceMat.getColumn(0)).sum();
+			totalOpenInterestDelta = Objects.nonNull(lastIdxTick) ? totalOpenInterest - lastIdxTick.openInterest() : DoubleStream.of(priceMat.getColumn(12)).sum();
+
+			totalVolume = (long) DoubleStream.of(priceMat.getColumn(8)).sum();
+			totalVolumeDelta = Objects.nonNull(lastIdxTick) ? totalVolume - lastIdxTick.volume() : (long) DoubleStream.of(priceMat.getColumn(9)).sum();
+			totalTurnover = (long) DoubleStream.of(priceMat.getColumn(10)).sum();
+			totalTurnoverDelta = Objects.nonNull(lastIdxTick) ? totalTurnover - lastIdxTick.turnover() : (long) DoubleStream.of(priceMat.getColumn(11)).sum();
+
+			openPrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(1)).sum());
+			highPrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(2)).sum());
+			lowPrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(3)).sum());
+			lastPrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(4)).sum());
+			settlePrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(5)).sum());
+			preClose = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(6)).sum());
+			preSettlePrice = roundWithPriceTick(DoubleStream.of(bcResult.getColumn(7)).sum());
+		}
+
+		private RealMatrix matrixOf(List<Tick> ticks) {
+			RealMatrix tickMatrix = new Array2DRowRealMatrix(ticks.size(), 14);
+			for (int i = 0; i < ticks.size(); i++) {
+				tickMatrix.setRow(i, vectorize(ticks.get(i)));
+			}
+			return tickMatrix;
+		}
+
+		private double[] vectorize(Tick t) {
+			return new double[] {
+				t.openInterest(),
+				t.openPrice(),
+				t.highPrice(),
+				t.lowPrice(),
+				t.lastPrice(),
+				t.settlePrice(),
+				t.preClosePrice(),
+				t.preSettlePrice(),
+				t.volume(),
+				t.volumeDelta(),
+				t.turnover(),
+				t.turnoverDelta(),
+				t.openInterestDelta(),
+				t.preOpenInterest()
+			};
+		}
+
+		private RealMatrix oiWeighted(RealMatrix matrix) {
+			RealMatrix oi = matrix.getColumnMatrix(0);
+			double sumOI = DoubleStream.of(oi.getColumn(0)).sum();
+			for (int i = 0; i < oi.getRowDimension(); i++) {
+				oi.setEntry(i, 0, oi.getEntry(i, 0) / sumOI);
+			}
+			return oi;
+		}
+
+		private double roundWithPriceTick(double weightedPrice) {
+			int enlargePrice = (int) (weightedPrice * 1000);
+			int enlargePriceTick = (int) (idxContract.contract().priceTick() * 1000);
+			int numOfTicks = enlargePrice / enlargePriceTick;
+			int tickCarry = (enlargePrice % enlargePriceTick) < (enlargePriceTick / 2) ? 0 : 1;
+			return idxContract.contract().priceTick() * (numOfTicks + tickCarry);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package org.dromara.northstar.indicator.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.List;
+import java.util.Random;
+
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.indicator.Indicator;
+import org.dromara.northstar.indicator.model.Configuration;
+import org.dromara.northstar.indicator.model.Num;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 绑定到已有数据的源指标时，滑动窗口类指标应与从一开始就绑定的指标结果一致
+ */
+class SeededWindowIndicatorTest {
+
+	Contract contract = Contract.builder().unifiedSymbol("rb0000@SHFE@FUTURES").build();
+
+	Configuration cfg = Configuration.builder().contract(contract).cacheLength(8).build();
+
+	Random rand = new Random(3);
+
+	@Test
+	void testBindToFilledSource() {
+		Indicator src = new SimpleValueIndicator(cfg);
+		Indicator refSrc = new SimpleValueIndicator(cfg);
+		List<Indicator> refs = helpersOf(refSrc);
+		int i = 0;
+		for(; i<20; i++) {
+			Num num = Num.of(3000 + rand.nextInt(100), i);
+			src.update(num);
+			refSrc.update(num);
+			refs.forEach(ind -> ind.update(num));
+		}
+		List<Indicator> seeded = helpersOf(src);
+
+		for(; i<40; i++) {
+			Num num = Num.of(3000 + rand.nextInt(100), i, i % 3 == 0);
+			src.update(num);
+			refSrc.update(num);
+			seeded.forEach(ind -> ind.update(num));
+			refs.forEach(ind -> ind.update(num));
+			for(int k=0; k<refs.size(); k++) {
+				// 标准差增量计算的舍入顺序不同，只要求在误差范围内一致
+				assertThat(seeded.get(k).value(0)).isCloseTo(refs.get(k).value(0), offset(1e-9));
+			}
+		}
+	}
+
+	private List<Indicator> helpersOf(Indicator src) {
+		Configuration helperCfg = cfg.toBuilder().cacheLength(1).build();
+		return List.of(
+				new HHVIndicator(helperCfg, src),
+				new LLVIndicator(helperCfg, src),
+				new StandardDeviationIndicator(helperCfg, src));
+	}
+}
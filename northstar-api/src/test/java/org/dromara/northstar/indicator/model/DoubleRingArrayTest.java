@@ -0,0 +1,108 @@
+package org.dromara.northstar.indicator.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DoubleRingArrayTest {
+
+	private DoubleRingArray ringArray;
+
+	@BeforeEach
+	void setUp() {
+		ringArray = new DoubleRingArray(5);
+	}
+
+	@Test
+	void testGet() {
+		assertThat(ringArray.get()).isNull();
+		assertThat(ringArray.value(0)).isNaN();
+		ringArray.update(1, 1, false);
+		assertThat(ringArray.value(0)).isEqualTo(1);
+		assertThat(ringArray.timestamp(0)).isEqualTo(1);
+		assertThat(ringArray.unstable(0)).isFalse();
+		ringArray.update(2, 2, true);
+		assertThat(ringArray.get(0)).isEqualTo(Num.of(2, 2, true));
+		assertThat(ringArray.get(-1)).isEqualTo(Num.of(1, 1, false));
+	}
+
+	@Test
+	void testUpdate() {
+		assertThat(ringArray.update(1, 1, false)).isNaN();
+		assertThat(ringArray.update(2, 2, true)).isNaN();
+		assertThat(ringArray.update(3, 3, true)).isEqualTo(2);
+	}
+
+	@Test
+	void testSize() {
+		assertThat(ringArray.size()).isZero();
+		ringArray.update(1, 1, true);
+		ringArray.update(1, 1, true);
+		assertThat(ringArray.size()).isEqualTo(1);
+		ringArray.update(1, 1, false);
+		assertThat(ringArray.size()).isEqualTo(1);
+		for(int i=2; i<10; i++) {
+			ringArray.update(i, i, false);
+		}
+		assertThat(ringArray.size()).isEqualTo(5);
+		assertThat(ringArray.toValueArray()).containsExactly(9, 8, 7, 6, 5);
+	}
+
+	@Test
+	void testParityWithRingArray() {
+		RingArray<Num> ref = new RingArray<>(4);
+		DoubleRingArray ring = new DoubleRingArray(4);
+		for(int i=0; i<200; i++) {
+			Num num = Num.of(ThreadLocalRandom.current().nextDouble(), i, ThreadLocalRandom.current().nextBoolean());
+			Num oldVal = ref.update(num, num.unstable()).orElse(null);
+			double old = ring.update(num.value(), num.timestamp(), num.unstable());
+			if(oldVal == null) {
+				assertThat(old).isNaN();
+			} else {
+				assertThat(old).isEqualTo(oldVal.value());
+			}
+			assertThat(ring.size()).isEqualTo(ref.size());
+			for(int j=0; j>-4; j--) {
+				assertThat(ring.get(j)).isEqualTo(ref.get(j));
+			}
+		}
+	}
+
+	@Test
+	void testSnapshotRoundTrip() throws IOException {
+		for(int i=0; i<7; i++) {
+			ringArray.update(i, i, i % 3 == 0);
+		}
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ringArray.writeTo(new DataOutputStream(bos));
+		DoubleRingArray restored = new DoubleRingArray(5);
+		restored.readFrom(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		assertThat(restored.size()).isEqualTo(ringArray.size());
+		assertThat(restored.toList()).isEqualTo(ringArray.toList());
+		
+		ringArray.update(10, 10, false);
+		restored.update(10, 10, false);
+		assertThat(restored.toList()).isEqualTo(ringArray.toList());
+	}
+
+	@Test
+	void testSnapshotLengthMismatch() throws IOException {
+		ringArray.update(1, 1, false);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ringArray.writeTo(new DataOutputStream(bos));
+		DoubleRingArray other = new DoubleRingArray(3);
+		assertThatThrownBy(() -> other.readFrom(new DataInputStream(new ByteArrayInputStream(bos.toByteArray()))))
+			.isInstanceOf(IOException.class);
+		assertThat(other.size()).isZero();
+	}
+}
@@ -3,6 +3,11 @@ package org.dromara.northstar.indicator.trend;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.offset;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.concurrent.ThreadLocalRandom;
 
 import org.dromara.northstar.common.model.core.Contract;
@@ -56,4 +61,26 @@ class MAIndicatorTest {
 		assertThat(ma5.value(-1)).isCloseTo(7.0, offset(1e-9));
 		assertThat(ma5.value(-2)).isCloseTo(6.0, offset(1e-9));
 	}
+
+	@Test
+	void testSnapshotRoundTrip() throws IOException {
+		Configuration cfg = Configuration.builder().contract(c).cacheLength(10).build();
+		MAIndicator ma5 = new MAIndicator(cfg, 5);
+		long t = 0L;
+		for (int i=0; i<8; i++) {
+			ma5.update(Num.of(ThreadLocalRandom.current().nextDouble(100), t++));
+		}
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ma5.writeState(new DataOutputStream(bos));
+		MAIndicator restored = new MAIndicator(cfg, 5);
+		restored.readState(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		assertThat(restored.value(0)).isEqualTo(ma5.value(0));
+		
+		for (int i=0; i<5; i++) {
+			Num num = Num.of(ThreadLocalRandom.current().nextDouble(100), t++);
+			ma5.update(num);
+			restored.update(num);
+			assertThat(restored.value(0)).isCloseTo(ma5.value(0), offset(1e-9));
+		}
+	}
 }
@@ -0,0 +1,65 @@
+package org.dromara.northstar.indicator.window;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import org.dromara.northstar.indicator.model.Num;
+import org.dromara.northstar.indicator.model.RingArray;
+import org.junit.jupiter.api.Test;
+
+class RollingExtremumTest {
+
+	@Test
+	void testMax() {
+		RollingExtremum max = RollingExtremum.max(3);
+		assertThat(max.value()).isNaN();
+		max.update(5, 1, false);
+		max.update(3, 2, false);
+		max.update(4, 3, false);
+		assertThat(max.value()).isEqualTo(5);
+		max.update(1, 4, false);
+		assertThat(max.value()).isEqualTo(4);
+		max.update(9, 5, true);
+		assertThat(max.value()).isEqualTo(9);
+		max.update(2, 5, true);		// 覆盖上一个不稳定值
+		assertThat(max.value()).isEqualTo(4);
+		max.update(0, 5, false);
+		assertThat(max.value()).isEqualTo(4);
+		max.update(-1, 6, false);
+		assertThat(max.value()).isEqualTo(1);
+	}
+	
+	@Test
+	void testIdempotent() {
+		RollingExtremum min = RollingExtremum.min(2);
+		min.update(1, 1, false);
+		min.update(5, 2, false);
+		min.update(5, 2, false);
+		assertThat(min.value()).isEqualTo(1);
+		assertThat(min.size()).isEqualTo(2);
+	}
+	
+	@Test
+	void testAgainstBruteForce() {
+		for(int length : new int[] {1, 2, 5, 16}) {
+			RollingExtremum max = RollingExtremum.max(length);
+			RollingExtremum min = RollingExtremum.min(length);
+			RingArray<Num> ref = new RingArray<>(length);
+			for(int i=0; i<500; i++) {
+				Num num = Num.of(ThreadLocalRandom.current().nextInt(100), i, ThreadLocalRandom.current().nextInt(3) > 0);
+				ref.update(num, num.unstable());
+				max.update(num.value(), num.timestamp(), num.unstable());
+				min.update(num.value(), num.timestamp(), num.unstable());
+				assertThat(max.value()).isEqualTo(values(ref).max().getAsDouble());
+				assertThat(min.value()).isEqualTo(values(ref).min().getAsDouble());
+			}
+		}
+	}
+	
+	private java.util.stream.DoubleStream values(RingArray<Num> ref) {
+		return Stream.of(ref.toArray()).filter(Objects::nonNull).map(Num.class::cast).mapToDouble(Num::value);
+	}
+}
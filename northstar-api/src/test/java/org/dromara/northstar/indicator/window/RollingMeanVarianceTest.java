@@ -0,0 +1,51 @@
+package org.dromara.northstar.indicator.window;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import org.apache.commons.math3.stat.descriptive.moment.StandardDeviation;
+import org.dromara.northstar.indicator.model.Num;
+import org.dromara.northstar.indicator.model.RingArray;
+import org.junit.jupiter.api.Test;
+
+class RollingMeanVarianceTest {
+
+	@Test
+	void testEmpty() {
+		RollingMeanVariance mv = new RollingMeanVariance(3);
+		assertThat(mv.mean()).isNaN();
+		assertThat(mv.variance()).isNaN();
+		mv.update(2, 1, false);
+		assertThat(mv.mean()).isEqualTo(2);
+		assertThat(mv.variance()).isZero();
+	}
+	
+	@Test
+	void testAgainstBruteForce() {
+		for(int length : new int[] {1, 2, 5, 20}) {
+			RollingMeanVariance mv = new RollingMeanVariance(length);
+			RollingSum sum = new RollingSum(length);
+			RingArray<Num> ref = new RingArray<>(length);
+			for(int i=0; i<2000; i++) {
+				Num num = Num.of(3000 + ThreadLocalRandom.current().nextDouble(100), i, ThreadLocalRandom.current().nextInt(3) > 0);
+				ref.update(num, num.unstable());
+				mv.update(num.value(), num.timestamp(), num.unstable());
+				sum.update(num.value(), num.timestamp(), num.unstable());
+				double[] data = Stream.of(ref.toArray()).filter(Objects::nonNull).map(Num.class::cast).mapToDouble(Num::value).toArray();
+				double expectedSum = 0;
+				for(double d : data) {
+					expectedSum += d;
+				}
+				assertThat(mv.size()).isEqualTo(data.length);
+				assertThat(sum.sum()).isCloseTo(expectedSum, offset(1e-6));
+				assertThat(sum.mean()).isCloseTo(expectedSum / data.length, offset(1e-9));
+				assertThat(mv.mean()).isCloseTo(expectedSum / data.length, offset(1e-9));
+				assertThat(mv.standardDeviation()).isCloseTo(new StandardDeviation().evaluate(data), offset(1e-6));
+			}
+		}
+	}
+}
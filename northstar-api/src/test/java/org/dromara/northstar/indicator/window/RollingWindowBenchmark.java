@@ -0,0 +1,104 @@
+package org.dromara.northstar.indicator.window;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.indicator.Indicator;
+import org.dromara.northstar.indicator.helper.HHVIndicator;
+import org.dromara.northstar.indicator.helper.SimpleValueIndicator;
+import org.dromara.northstar.indicator.helper.StandardDeviationIndicator;
+import org.dromara.northstar.indicator.model.Configuration;
+import org.dromara.northstar.indicator.model.Num;
+import org.dromara.northstar.indicator.trend.MAIndicator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 滑动窗口指标的单次更新开销基准
+ * 期望结果是各指标的 ns/op 不随 window 增大而增长，运行main方法即可
+ * @author KevinHuangwl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RollingWindowBenchmark {
+
+	@Param({"16", "128", "1024", "4096"})
+	int window;
+
+	Indicator src;
+	Indicator hhv;
+	Indicator std;
+	Indicator ma;
+
+	double[] samples = new double[1024];
+
+	long time;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Contract c = Contract.builder().unifiedSymbol("rb0000@SHFE@FUTURES").build();
+		Configuration cfg = Configuration.builder().contract(c).cacheLength(window).build();
+		src = new SimpleValueIndicator(cfg);
+		hhv = new HHVIndicator(cfg.toBuilder().cacheLength(1).build(), src);
+		std = new StandardDeviationIndicator(cfg.toBuilder().cacheLength(1).build(), window);
+		ma = new MAIndicator(cfg.toBuilder().cacheLength(1).build(), window);
+		for(int i=0; i<samples.length; i++) {
+			samples[i] = 3000 + ThreadLocalRandom.current().nextDouble(100);
+		}
+		// 先填满各指标的窗口，使测量的是窗口满载后的滑动更新
+		for(int i=0; i<window * 2; i++) {
+			Num num = next();
+			src.update(num);
+			hhv.update(num);
+			std.update(num);
+			ma.update(num);
+		}
+	}
+
+	private Num next() {
+		return Num.of(samples[(int) (time & (samples.length - 1))], time++);
+	}
+
+	@Benchmark
+	public double hhv() {
+		Num num = next();
+		src.update(num);
+		hhv.update(num);
+		return hhv.value(0);
+	}
+
+	@Benchmark
+	public double standardDeviation() {
+		std.update(next());
+		return std.value(0);
+	}
+
+	@Benchmark
+	public double movingAverage() {
+		ma.update(next());
+		return ma.value(0);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(RollingWindowBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,200 @@
+package org.dromara.northstar.strategy.tester;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.dromara.northstar.common.IGatewayService;
+import org.dromara.northstar.common.IModuleService;
+import org.dromara.northstar.common.ObjectManager;
+import org.dromara.northstar.common.constant.ChannelType;
+import org.dromara.northstar.common.constant.PlaybackSpeed;
+import org.dromara.northstar.common.model.ComponentMetaInfo;
+import org.dromara.northstar.common.model.ContractSimpleInfo;
+import org.dromara.northstar.common.model.DynamicParams;
+import org.dromara.northstar.common.model.GatewayDescription;
+import org.dromara.northstar.common.model.Identifier;
+import org.dromara.northstar.common.model.ModuleAccountRuntimeDescription;
+import org.dromara.northstar.common.model.ModuleDescription;
+import org.dromara.northstar.common.model.ModuleRuntimeDescription;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.gateway.Gateway;
+import org.dromara.northstar.gateway.IContract;
+import org.dromara.northstar.gateway.IContractManager;
+import org.dromara.northstar.gateway.PlaybackMarketGateway;
+import org.dromara.northstar.gateway.TradeGateway;
+import org.dromara.northstar.strategy.IModule;
+import org.dromara.northstar.strategy.IModuleContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AbstractTesterTest {
+
+	ObjectManager<Gateway> gatewayMgr = mock(ObjectManager.class);
+	ObjectManager<IModule> moduleMgr = mock(ObjectManager.class);
+	IContractManager contractMgr = mock(IContractManager.class);
+	IGatewayService gatewayService = mock(IGatewayService.class);
+	IModuleService moduleService = mock(IModuleService.class);
+
+	String strategyName = "tester-" + System.nanoTime();
+	Set<String> playedSymbols = ConcurrentHashMap.newKeySet();
+	AtomicInteger running = new AtomicInteger();
+	AtomicInteger maxRunning = new AtomicInteger();
+
+	@BeforeEach
+	void prepare() throws Exception {
+		when(contractMgr.getContract(eq(ChannelType.PLAYBACK), anyString())).thenAnswer(inv -> {
+			String symbol = inv.getArgument(1);
+			IContract c = mock(IContract.class);
+			when(c.contract()).thenReturn(Contract.builder().name(symbol).unifiedSymbol(symbol + "@SHFE@FUTURES").build());
+			when(c.identifier()).thenReturn(Identifier.of(symbol + "@SHFE@FUTURES@PLAYBACK"));
+			return c;
+		});
+		when(gatewayService.createGateway(any())).thenAnswer(inv -> {
+			GatewayDescription gd = inv.getArgument(0);
+			Gateway gateway = gd.getChannelType() == ChannelType.PLAYBACK ? playbackGateway(gd) : mock(TradeGateway.class);
+			when(gateway.gatewayId()).thenReturn(gd.getGatewayId());
+			when(gatewayMgr.get(Identifier.of(gd.getGatewayId()))).thenReturn(gateway);
+			return true;
+		});
+		when(moduleService.createModule(any())).thenAnswer(inv -> {
+			ModuleDescription md = inv.getArgument(0);
+			IModule module = mock(IModule.class);
+			IModuleContext ctx = mock(IModuleContext.class);
+			// 偶数周期的模组盈利达标，奇数周期的模组亏损
+			double profit = md.getNumOfMinPerBar() % 2 == 0 ? 1000 : -100;
+			when(ctx.getRuntimeDescription(false)).thenReturn(ModuleRuntimeDescription.builder()
+					.moduleAccountRuntime(ModuleAccountRuntimeDescription.builder().accCloseProfit(profit).maxDrawback(-100).build())
+					.build());
+			when(module.getName()).thenReturn(md.getModuleName());
+			when(module.getModuleContext()).thenReturn(ctx);
+			when(module.isEnabled()).thenReturn(true);
+			when(moduleMgr.get(Identifier.of(md.getModuleName()))).thenReturn(module);
+			return md;
+		});
+	}
+
+	/* 每次连线立即在另一个线程上结束回放 */
+	private PlaybackMarketGateway playbackGateway(GatewayDescription gd) {
+		PlaybackMarketGateway gateway = mock(PlaybackMarketGateway.class);
+		CompletableFuture<?>[] next = new CompletableFuture<?>[1];
+		when(gateway.gatewayDescription()).thenReturn(gd);
+		when(gateway.nextStop()).thenAnswer(inv -> {
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			next[0] = future;
+			return future;
+		});
+		doAnswer(inv -> {
+			int current = running.incrementAndGet();
+			maxRunning.accumulateAndGet(current, Math::max);
+			playedSymbols.add(gd.getSubscribedContracts().get(0).getName());
+			CompletableFuture.runAsync(() -> {
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				running.decrementAndGet();
+				next[0].complete(null);
+			});
+			return null;
+		}).when(gateway).connect();
+		return gateway;
+	}
+
+	@AfterEach
+	void cleanup() {
+		FileUtils.deleteQuietly(new File("data/module-tester/" + strategyName));
+		FileUtils.deleteQuietly(new File("data/module-tester/" + strategyName + ".report.csv"));
+	}
+
+	class SampleTester extends AbstractTester {
+
+		final List<String> symbols;
+
+		SampleTester(List<String> symbols) {
+			super(AbstractTesterTest.this.gatewayMgr, AbstractTesterTest.this.moduleMgr, AbstractTesterTest.this.contractMgr,
+					AbstractTesterTest.this.gatewayService, AbstractTesterTest.this.moduleService);
+			this.symbols = symbols;
+		}
+
+		@Override
+		public DynamicParams strategyParams(ContractSimpleInfo csi) {
+			return mock(DynamicParams.class);
+		}
+
+		@Override
+		public ComponentMetaInfo strategy() {
+			return ComponentMetaInfo.builder().name(strategyName).build();
+		}
+
+		@Override
+		public int[] testPeriods() {
+			return new int[] {1, 2};
+		}
+
+		@Override
+		public List<String> testSymbols() {
+			return symbols;
+		}
+
+		@Override
+		public PlaybackSpeed speed() {
+			return PlaybackSpeed.LOCKSTEP;
+		}
+
+		@Override
+		public int parallelism() {
+			return 2;
+		}
+	}
+
+	@Test
+	void testSymbolsRunConcurrentlyAndReportAggregated() throws Exception {
+		SampleTester tester = new SampleTester(List.of("rb", "hc", "i", "j"));
+		tester.start();
+
+		assertThat(playedSymbols).containsExactlyInAnyOrder("rb0000", "hc0000", "i0000", "j0000");
+		assertThat(maxRunning.get()).isBetween(1, 2);
+		List<String> report = FileUtils.readLines(new File("data/module-tester/" + strategyName + ".report.csv"), StandardCharsets.UTF_8);
+		assertThat(report).hasSize(9);
+		assertThat(report.stream().filter(line -> line.endsWith(",true"))).hasSize(4);
+		verify(moduleService).removeModule("rb1分钟");
+		verify(moduleService, never()).removeModule("rb2分钟");
+		// 全部完成后清空检查点
+		assertThat(tester.load()).isEmpty();
+	}
+
+	@Test
+	void testResumeFromCheckpoint() {
+		SampleTester tester = new SampleTester(List.of("rb", "hc", "i", "j"));
+		tester.save("#completed\nrb\ni");
+		assertThat(tester.loadCompleted()).containsExactly("rb", "i");
+
+		tester.start();
+		assertThat(playedSymbols).containsExactlyInAnyOrder("hc0000", "j0000");
+	}
+
+	@Test
+	void testResumeFromLegacyCheckpoint() {
+		SampleTester tester = new SampleTester(List.of("rb", "hc", "i", "j"));
+		tester.save("i");
+		assertThat(tester.loadCompleted()).containsExactly("rb", "hc");
+	}
+}
@@ -0,0 +1,73 @@
+package org.dromara.northstar.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.support.utils.bar.BarMerger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * K线合成基准
+ * {@link BarMerger#onBar} 把分钟线合成为多分钟K线；每次调用都重建合成器并完整重放一遍数据，结果为单根分钟线的平均耗时
+ * @author KevinHuangwl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BarMergerBenchmark {
+
+	static final int NUM_OF_BARS = 600;
+
+	@Param({"5", "30"})
+	int numOfMinPerBar;
+
+	Contract contract;
+
+	Bar[] bars;
+
+	BarMerger merger;
+
+	long barCount;
+
+	@Setup(Level.Trial)
+	public void prepareData() {
+		contract = MarketDataFixtures.simContracts().get(0);
+		bars = MarketDataFixtures.minuteBars(contract, NUM_OF_BARS);
+	}
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		barCount = 0;
+		merger = new BarMerger(numOfMinPerBar, contract);
+		merger.addListener(bar -> barCount++);
+	}
+
+	@TearDown(Level.Trial)
+	public void verify() {
+		if(barCount == 0) {
+			throw new IllegalStateException("没有合成出K线，基准测试数据无效");
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_BARS)
+	public void onBar(Blackhole bh) {
+		for(Bar bar : bars) {
+			merger.onBar(bar);
+		}
+		bh.consume(barCount);
+	}
+}
@@ -0,0 +1,71 @@
+package org.dromara.northstar.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 基准测试报告对比
+ * 按测试方法与参数组合对齐两份JMH的JSON报告，输出分数变化；耗时类指标数值越小越好，吞吐类指标数值越大越好
+ * 用法：java -cp northstar-benchmark/target/benchmarks.jar org.dromara.northstar.benchmark.BenchmarkComparator 旧报告.json 新报告.json
+ * @author KevinHuangwl
+ *
+ */
+public class BenchmarkComparator {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final String PACKAGE_PREFIX = BenchmarkComparator.class.getPackageName() + ".";
+
+	public static void main(String[] args) throws IOException {
+		if(args.length != 2) {
+			System.err.println("用法：BenchmarkComparator <基准报告.json> <对比报告.json>");
+			System.exit(1);
+		}
+		Map<String, Score> baseline = load(new File(args[0]));
+		Map<String, Score> current = load(new File(args[1]));
+		System.out.println(String.format("%-70s %16s %16s %10s", "Benchmark", "Baseline", "Current", "Change"));
+		for(Entry<String, Score> e : baseline.entrySet()) {
+			Score base = e.getValue();
+			Score cur = current.get(e.getKey());
+			if(cur == null) {
+				System.out.println(String.format("%-70s %16.3f %16s %10s", e.getKey(), base.value(), "-", "removed"));
+				continue;
+			}
+			double change = (cur.value() - base.value()) / base.value() * 100;
+			// 统一为正数表示性能提升
+			double improvement = base.lowerIsBetter() ? -change : change;
+			System.out.println(String.format("%-70s %16.3f %16.3f %+9.1f%%  %s", e.getKey(), base.value(), cur.value(), improvement, cur.unit()));
+		}
+		for(Entry<String, Score> e : current.entrySet()) {
+			if(!baseline.containsKey(e.getKey())) {
+				System.out.println(String.format("%-70s %16s %16.3f %10s", e.getKey(), "-", e.getValue().value(), "added"));
+			}
+		}
+	}
+
+	private static Map<String, Score> load(File file) throws IOException {
+		Map<String, Score> result = new LinkedHashMap<>();
+		for(JsonNode run : MAPPER.readTree(file)) {
+			StringBuilder key = new StringBuilder(run.get("benchmark").asText().replace(PACKAGE_PREFIX, ""));
+			JsonNode params = run.get("params");
+			if(params != null) {
+				Map<String, String> sorted = new TreeMap<>();
+				params.fields().forEachRemaining(p -> sorted.put(p.getKey(), p.getValue().asText()));
+				sorted.forEach((k, v) -> key.append(':').append(k).append('=').append(v));
+			}
+			String mode = run.get("mode").asText();
+			JsonNode metric = run.get("primaryMetric");
+			result.put(key.toString(), new Score(metric.get("score").asDouble(), metric.get("scoreUnit").asText(), !"thrpt".equals(mode)));
+		}
+		return result;
+	}
+
+	private record Score(double value, String unit, boolean lowerIsBetter) {}
+}
@@ -0,0 +1,62 @@
+package org.dromara.northstar.benchmark;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * 基准测试入口
+ * 支持全部JMH命令行参数（例如 -wi 3 -i 5 -f 1 或只运行某个测试类），未指定结果文件时，
+ * 默认以JSON格式输出到 benchmark-results/northstar-{版本号}-{时间}.json，便于不同版本之间对比
+ * 用法：java -jar northstar-benchmark/target/benchmarks.jar [JMH参数] [测试类名正则]
+ * @author KevinHuangwl
+ *
+ */
+public class BenchmarkRunner {
+
+	private static final String RESULT_DIR = "benchmark-results";
+
+	private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmdOptions = new CommandLineOptions(args);
+		ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmdOptions);
+		// 命令行未指定时采用的默认值，整套测试约需二十分钟
+		if(!cmdOptions.getWarmupIterations().hasValue()) {
+			builder.warmupIterations(3);
+		}
+		if(!cmdOptions.getWarmupTime().hasValue()) {
+			builder.warmupTime(TimeValue.seconds(2));
+		}
+		if(!cmdOptions.getMeasurementIterations().hasValue()) {
+			builder.measurementIterations(5);
+		}
+		if(!cmdOptions.getMeasurementTime().hasValue()) {
+			builder.measurementTime(TimeValue.seconds(2));
+		}
+		if(!cmdOptions.getForkCount().hasValue()) {
+			builder.forks(1);
+		}
+		if(cmdOptions.getIncludes().isEmpty()) {
+			builder.include(BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+		}
+		if(cmdOptions.getResult().hasValue()) {
+			builder.result(cmdOptions.getResult().get());
+		} else {
+			File dir = new File(RESULT_DIR);
+			dir.mkdirs();
+			String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+			String fileName = String.format("northstar-%s-%s.json", version == null ? "dev" : version, LocalDateTime.now().format(FMT));
+			builder.result(new File(dir, fileName).getPath());
+		}
+		builder.resultFormat(cmdOptions.getResultFormat().orElse(ResultFormatType.JSON));
+		new Runner(builder.build()).run();
+	}
+}
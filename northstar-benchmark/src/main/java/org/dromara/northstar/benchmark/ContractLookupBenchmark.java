@@ -0,0 +1,128 @@
+package org.dromara.northstar.benchmark;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.northstar.common.constant.ChannelType;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.ContractHandleMap;
+import org.dromara.northstar.common.model.core.ContractHandles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 合约查表基准
+ * 模拟热点路径上以合约信息为键的查表：TICK携带的合约是行情中心登记时的同一实例，或者是由其复制出来的相等实例；
+ * 分别衡量哈希表与按句柄索引的映射表每次查表的开销
+ * @author KevinHuangwl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContractLookupBenchmark {
+
+	static final int NUM_OF_LOOKUPS = 1024;
+
+	@Param({"4", "64"})
+	int numOfContracts;
+
+	/* 每次查表使用的合约，已登记（附带句柄） */
+	Contract[] interned;
+
+	/* 与已登记合约相等且附带相同句柄，但不是同一实例 */
+	Contract[] copies;
+
+	ConcurrentMap<Contract, Integer> hashMap = new ConcurrentHashMap<>();
+
+	ContractHandleMap<Integer> handleMap = new ContractHandleMap<>();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Contract[] keys = new Contract[numOfContracts];
+		for(int i=0; i<numOfContracts; i++) {
+			keys[i] = ContractHandles.intern(contract("bm" + (2401 + i)));
+			hashMap.put(keys[i], i);
+			handleMap.put(keys[i], i);
+		}
+		interned = new Contract[NUM_OF_LOOKUPS];
+		copies = new Contract[NUM_OF_LOOKUPS];
+		for(int i=0; i<NUM_OF_LOOKUPS; i++) {
+			Contract c = keys[i % numOfContracts];
+			interned[i] = c;
+			copies[i] = c.toBuilder().build();
+		}
+	}
+
+	private static Contract contract(String symbol) {
+		return Contract.builder()
+				.gatewayId(MarketDataFixtures.GATEWAY_ID)
+				.contractId(symbol + "@SHFE@FUTURES@" + MarketDataFixtures.GATEWAY_ID)
+				.unifiedSymbol(symbol + "@SHFE@FUTURES")
+				.symbol(symbol)
+				.channelType(ChannelType.SIM)
+				.build();
+	}
+
+	/**
+	 * 改动前的哈希算法，每次调用分配一个可变参数数组
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_LOOKUPS)
+	public void legacyHashCode(Blackhole bh) {
+		for(Contract c : copies) {
+			bh.consume(Objects.hash(c.channelType(), c.contractId(), c.gatewayId(), c.unifiedSymbol()));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_LOOKUPS)
+	public void hashCode(Blackhole bh) {
+		for(Contract c : copies) {
+			bh.consume(c.hashCode());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_LOOKUPS)
+	public void hashMapGetWithCopy(Blackhole bh) {
+		for(Contract c : copies) {
+			bh.consume(hashMap.get(c));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_LOOKUPS)
+	public void hashMapGetWithInterned(Blackhole bh) {
+		for(Contract c : interned) {
+			bh.consume(hashMap.get(c));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_LOOKUPS)
+	public void handleMapGetWithCopy(Blackhole bh) {
+		for(Contract c : copies) {
+			bh.consume(handleMap.get(c));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_LOOKUPS)
+	public void handleMapGetWithInterned(Blackhole bh) {
+		for(Contract c : interned) {
+			bh.consume(handleMap.get(c));
+		}
+	}
+}
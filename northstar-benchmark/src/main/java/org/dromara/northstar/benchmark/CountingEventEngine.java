@@ -0,0 +1,53 @@
+package org.dromara.northstar.benchmark;
+
+import org.dromara.northstar.common.event.FastEventEngine;
+import org.dromara.northstar.common.event.NorthstarEventType;
+
+/**
+ * 只计数不分发的事件引擎
+ * 用于隔离被测组件本身的开销，事件分发的开销由 {@link EventEngineBenchmark} 单独衡量
+ * @author KevinHuangwl
+ *
+ */
+public class CountingEventEngine implements FastEventEngine {
+
+	private long tickCount;
+
+	private long barCount;
+
+	@Override
+	public void addHandler(NorthstarEventDispatcher handler) {
+		// 不分发
+	}
+
+	@Override
+	public void addHandler(NorthstarEventDispatcher handler, NorthstarEventDispatcher... dependencies) {
+		// 不分发
+	}
+
+	@Override
+	public void removeHandler(NorthstarEventDispatcher handler) {
+		// 不分发
+	}
+
+	@Override
+	public void emitEvent(NorthstarEventType event, Object obj) {
+		count(event);
+	}
+
+	private void count(NorthstarEventType event) {
+		if(event == NorthstarEventType.TICK) {
+			tickCount++;
+		} else if(event == NorthstarEventType.BAR) {
+			barCount++;
+		}
+	}
+
+	public long tickCount() {
+		return tickCount;
+	}
+
+	public long barCount() {
+		return barCount;
+	}
+}
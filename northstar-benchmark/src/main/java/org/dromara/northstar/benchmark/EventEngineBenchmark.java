@@ -0,0 +1,70 @@
+package org.dromara.northstar.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.northstar.common.event.FastEventEngine.NorthstarEventDispatcher;
+import org.dromara.northstar.common.event.NorthstarEventType;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.event.DisruptorFastEventEngine;
+import org.dromara.northstar.event.DisruptorFastEventEngine.WaitStrategyEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 事件引擎发布基准
+ * 逐个等待策略衡量 {@link DisruptorFastEventEngine#emitEvent} 的吞吐，消费端只读取最新价；
+ * 环形队列写满后发布方会被消费速度反压，因此结果反映的是端到端的事件吞吐
+ * @author KevinHuangwl
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventEngineBenchmark {
+
+	@Param({"BlockingWaitStrategy", "BusySpinWaitStrategy", "SleepingWaitStrategy", "TimeoutBlockingWaitStrategy", "YieldingWaitStrategy"})
+	String waitStrategy;
+
+	DisruptorFastEventEngine engine;
+
+	volatile double sink;
+
+	NorthstarEventDispatcher handler = (e, seq, endOfBatch) -> {
+		if(e.getData() instanceof Tick tick) {
+			sink = tick.lastPrice();
+		}
+	};
+
+	Tick[] ticks;
+
+	int cursor;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		Contract contract = MarketDataFixtures.simContracts().get(0);
+		ticks = MarketDataFixtures.simTicks(contract, 4096, 500);
+		engine = new DisruptorFastEventEngine(WaitStrategyEnum.valueOf(waitStrategy));
+		engine.addHandler(handler);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		// 停止消费线程，避免忙等待策略的线程干扰后续的测试
+		engine.removeHandler(handler);
+		engine.destroy();
+	}
+
+	@Benchmark
+	public void emitEvent() {
+		engine.emitEvent(NorthstarEventType.TICK, ticks[cursor++ & (ticks.length - 1)]);
+	}
+}
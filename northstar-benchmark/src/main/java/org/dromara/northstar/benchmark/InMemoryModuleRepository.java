@@ -0,0 +1,77 @@
+package org.dromara.northstar.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.dromara.northstar.common.model.ModuleDealRecord;
+import org.dromara.northstar.common.model.ModuleDescription;
+import org.dromara.northstar.common.model.ModuleRuntimeDescription;
+import org.dromara.northstar.data.IModuleRepository;
+
+/**
+ * 内存版模组仓储
+ * 基准测试不落盘，避免把数据库写入耗时计入被测链路
+ * @author KevinHuangwl
+ *
+ */
+public class InMemoryModuleRepository implements IModuleRepository {
+
+	private final Map<String, ModuleDescription> settingsMap = new ConcurrentHashMap<>();
+
+	private final Map<String, ModuleRuntimeDescription> runtimeMap = new ConcurrentHashMap<>();
+
+	private final Map<String, List<ModuleDealRecord>> dealRecordMap = new ConcurrentHashMap<>();
+
+	@Override
+	public void saveSettings(ModuleDescription moduleDescription) {
+		settingsMap.put(moduleDescription.getModuleName(), moduleDescription);
+	}
+
+	@Override
+	public ModuleDescription findSettingsByName(String moduleName) {
+		return settingsMap.get(moduleName);
+	}
+
+	@Override
+	public List<ModuleDescription> findAllSettings() {
+		return List.copyOf(settingsMap.values());
+	}
+
+	@Override
+	public void deleteSettingsByName(String moduleName) {
+		settingsMap.remove(moduleName);
+	}
+
+	@Override
+	public void saveRuntime(ModuleRuntimeDescription moduleRtDescription) {
+		runtimeMap.put(moduleRtDescription.getModuleName(), moduleRtDescription);
+	}
+
+	@Override
+	public ModuleRuntimeDescription findRuntimeByName(String moduleName) {
+		return runtimeMap.get(moduleName);
+	}
+
+	@Override
+	public void deleteRuntimeByName(String moduleName) {
+		runtimeMap.remove(moduleName);
+	}
+
+	@Override
+	public void saveDealRecord(ModuleDealRecord dealRecord) {
+		dealRecordMap.computeIfAbsent(dealRecord.getModuleName(), name -> new ArrayList<>()).add(dealRecord);
+	}
+
+	@Override
+	public List<ModuleDealRecord> findAllDealRecords(String moduleName) {
+		return List.copyOf(dealRecordMap.getOrDefault(moduleName, List.of()));
+	}
+
+	@Override
+	public void removeAllDealRecords(String moduleName) {
+		dealRecordMap.remove(moduleName);
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.dromara.northstar.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.indicator.IndicatorValueUpdateHelper;
+import org.dromara.northstar.indicator.model.Configuration;
+import org.dromara.northstar.indicator.trend.MACDIndicator;
+import org.dromara.northstar.indicator.volatility.BOLLIndicator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 指标更新基准
+ * 同一合约、同一周期的MACD(12,26,9)与BOLL(20,2)由一个 {@link IndicatorValueUpdateHelper} 按依赖图更新；
+ * onMergedBar 对应K线收盘时的稳定值更新，onTick 对应盘中的不稳定值更新
+ * @author KevinHuangwl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IndicatorBenchmark {
+
+	static final int NUM_OF_BARS = 600;
+
+	static final int NUM_OF_TICK_PER_BAR = 60;
+
+	Contract contract;
+
+	Bar[] bars;
+
+	Tick[] ticks;
+
+	IndicatorValueUpdateHelper helper;
+
+	MACDIndicator macd;
+
+	BOLLIndicator boll;
+
+	@Setup(Level.Trial)
+	public void prepareData() {
+		contract = MarketDataFixtures.simContracts().get(0);
+		bars = MarketDataFixtures.minuteBars(contract, NUM_OF_BARS);
+		ticks = MarketDataFixtures.randomWalkTicks(bars, NUM_OF_TICK_PER_BAR);
+	}
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		macd = new MACDIndicator(Configuration.builder().contract(contract).indicatorName("MACD").build(), 12, 26, 9);
+		boll = new BOLLIndicator(Configuration.builder().contract(contract).indicatorName("BOLL").build(), 20, 2);
+		helper = new IndicatorValueUpdateHelper(macd);
+		helper.addIndicator(boll);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_BARS)
+	public void onMergedBar(Blackhole bh) {
+		for(Bar bar : bars) {
+			helper.onMergedBar(bar);
+		}
+		bh.consume(macd.value(0));
+		bh.consume(boll.value(0));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_BARS * NUM_OF_TICK_PER_BAR)
+	public void onTick(Blackhole bh) {
+		for(Tick tick : ticks) {
+			helper.onTick(tick);
+		}
+		bh.consume(macd.value(0));
+		bh.consume(boll.value(0));
+	}
+}
@@ -0,0 +1,66 @@
+package org.dromara.northstar.benchmark;
+
+import org.dromara.northstar.common.model.DynamicParams;
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.indicator.model.Configuration;
+import org.dromara.northstar.indicator.trend.EMAIndicator;
+import org.dromara.northstar.indicator.trend.MACDIndicator;
+import org.dromara.northstar.strategy.AbstractStrategy;
+
+/**
+ * 只注册指标、不发单的策略
+ * 指标组合与示例指标策略一致，使模组上下文的指标更新、K线合成与图表数据链路都被完整执行；策略本身只计数
+ * @author KevinHuangwl
+ *
+ */
+public class IndicatorOnlyStrategy extends AbstractStrategy {
+
+	private long tickCount;
+
+	private long mergedBarCount;
+
+	@Override
+	protected void initIndicators() {
+		Contract c = ctx.getContract(bindedContracts().get(0).getUnifiedSymbol());
+		Configuration cfg = Configuration.builder().contract(c).numOfUnits(ctx.numOfMinPerMergedBar()).build();
+		ctx.registerIndicator(new EMAIndicator(cfg.toBuilder().indicatorName("EMA10").build(), 10));
+		ctx.registerIndicator(new EMAIndicator(cfg.toBuilder().indicatorName("EMA20").build(), 20));
+		ctx.registerIndicator(new MACDIndicator(cfg.toBuilder().indicatorName("MACD").build(), 12, 26, 9));
+	}
+
+	@Override
+	public void onTick(Tick tick) {
+		tickCount++;
+	}
+
+	@Override
+	public void onMergedBar(Bar bar) {
+		mergedBarCount++;
+	}
+
+	public long tickCount() {
+		return tickCount;
+	}
+
+	public long mergedBarCount() {
+		return mergedBarCount;
+	}
+
+	@Override
+	public DynamicParams getDynamicParams() {
+		return new DynamicParams() {};
+	}
+
+	@Override
+	public void initWithParams(DynamicParams params) {
+		// 没有参数
+	}
+
+	@Override
+	public String name() {
+		return "基准-指标策略";
+	}
+
+}
@@ -0,0 +1,78 @@
+package org.dromara.northstar.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.northstar.common.constant.ChannelType;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.gateway.mktdata.MarketCenter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 行情中心基准
+ * 两个同品种合约的TICK交错推送，每个TICK经过 {@link MarketCenter#onTick} 更新合约分钟线并合成指数TICK与指数分钟线；
+ * 每次调用都重建行情中心并完整重放一遍数据，保证K线与指数的合成状态与时间戳一致，结果为单个TICK的平均耗时
+ * @author KevinHuangwl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MarketCenterBenchmark {
+
+	static final int TICKS_PER_CONTRACT = 2400;
+
+	static final int NUM_OF_CONTRACTS = 2;
+
+	Tick[] ticks;
+
+	MarketCenter mktCenter;
+
+	CountingEventEngine feEngine;
+
+	@Setup(Level.Trial)
+	public void prepareData() {
+		List<Contract> contracts = MarketDataFixtures.simContracts();
+		ticks = MarketDataFixtures.interleave(
+				MarketDataFixtures.simTicks(contracts.get(0), TICKS_PER_CONTRACT, 500),
+				MarketDataFixtures.simTicks(contracts.get(1), TICKS_PER_CONTRACT, 500));
+	}
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		feEngine = new CountingEventEngine();
+		mktCenter = new MarketCenter(feEngine);
+		mktCenter.addDefinitions(MarketDataFixtures.simDefinitions());
+		MarketDataFixtures.simInstruments().forEach(mktCenter::addInstrument);
+		mktCenter.loadContractGroup(ChannelType.SIM);
+	}
+
+	@TearDown(Level.Trial)
+	public void verify() {
+		// 行情转发由网关负责，事件引擎只会收到指数TICK与分钟线
+		if(feEngine.tickCount() == 0 || feEngine.barCount() == 0) {
+			throw new IllegalStateException("没有合成出指数TICK或分钟线，基准测试数据无效");
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TICKS_PER_CONTRACT * NUM_OF_CONTRACTS)
+	public void onTickWithIndex(Blackhole bh) {
+		for(Tick tick : ticks) {
+			mktCenter.onTick(tick);
+		}
+		bh.consume(feEngine.tickCount());
+		bh.consume(feEngine.barCount());
+	}
+}
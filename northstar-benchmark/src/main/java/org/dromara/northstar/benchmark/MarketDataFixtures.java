@@ -0,0 +1,207 @@
+package org.dromara.northstar.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.dromara.northstar.common.constant.ChannelType;
+import org.dromara.northstar.common.constant.TickType;
+import org.dromara.northstar.common.model.GatewayDescription;
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.ContractDefinition;
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.common.utils.CommonUtils;
+import org.dromara.northstar.gateway.Instrument;
+import org.dromara.northstar.gateway.MarketGateway;
+import org.dromara.northstar.gateway.mktdata.MarketCenter;
+import org.dromara.northstar.gateway.playback.ticker.RandomWalkTickSimulation;
+import org.dromara.northstar.gateway.playback.ticker.TickEntry;
+import org.dromara.northstar.gateway.sim.SimContractDefProvider;
+import org.dromara.northstar.gateway.sim.market.SimMarketGatewayLocal;
+import org.dromara.northstar.gateway.sim.market.SimTickGenerator;
+import org.dromara.northstar.gateway.sim.trade.SimContractGenerator;
+
+/**
+ * 基准测试的行情数据
+ * 合约与合约定义取自模拟网关；TICK由 {@link SimTickGenerator} 或 {@link RandomWalkTickSimulation} 生成，
+ * 并统一改写为等间隔的时间戳，使数据流可以离线重放，且不依赖系统时钟
+ * @author KevinHuangwl
+ *
+ */
+public final class MarketDataFixtures {
+
+	public static final String GATEWAY_ID = "SIM";
+
+	/* 不能取00:00，否则会被当作开盘K线 */
+	public static final LocalDateTime START = LocalDateTime.of(2024, 1, 2, 9, 0);
+
+	/* K线数据的随机种子固定，保证每次运行的数据形态一致 */
+	private static final long SEED = 20240102L;
+
+	/* 合约定义含有正则对象，只有同一个定义实例生成的合约才会被判定为相等，因此全局共用一份 */
+	private static final List<ContractDefinition> DEFINITIONS = new SimContractDefProvider().get();
+
+	private MarketDataFixtures() {}
+
+	/**
+	 * 模拟网关的期货合约，同属一个合约定义，可以合成指数
+	 * @return
+	 */
+	public static List<Instrument> simInstruments(){
+		SimContractGenerator gen = new SimContractGenerator(GATEWAY_ID);
+		return List.of(gen.getContract(), gen.getContract2());
+	}
+
+	public static List<ContractDefinition> simDefinitions(){
+		return DEFINITIONS;
+	}
+
+	/**
+	 * 绑定了合约定义的合约信息
+	 * @return
+	 */
+	public static List<Contract> simContracts(){
+		ContractDefinition def = DEFINITIONS.get(0);
+		return simInstruments().stream()
+				.map(ins -> {
+					ins.setContractDefinition(def);
+					return ins.contract();
+				})
+				.toList();
+	}
+
+	/**
+	 * 未连线的模拟行情网关，只提供网关标识，不会主动推送行情
+	 * @return
+	 */
+	public static MarketGateway simMarketGateway() {
+		CountingEventEngine feEngine = new CountingEventEngine();
+		return new SimMarketGatewayLocal(GatewayDescription.builder().gatewayId(GATEWAY_ID).channelType(ChannelType.SIM).build(),
+				feEngine, new MarketCenter(feEngine), Map.of());
+	}
+
+	/**
+	 * 由SimTickGenerator生成的TICK流
+	 * @param contract
+	 * @param numOfTicks
+	 * @param intervalMillis	相邻TICK的时间间隔
+	 * @return
+	 */
+	public static Tick[] simTicks(Contract contract, int numOfTicks, long intervalMillis) {
+		MarketGateway gateway = simMarketGateway();
+		SimTickGenerator tickGen = new SimTickGenerator(contract);
+		Tick[] ticks = new Tick[numOfTicks];
+		for(int i=0; i<numOfTicks; i++) {
+			LocalDateTime ldt = START.plusNanos(i * intervalMillis * 1000000);
+			ticks[i] = tickGen.generateNextTick(ldt, gateway).toBuilder()
+					.actionTimestamp(CommonUtils.localDateTimeToMills(ldt))
+					.build();
+		}
+		return ticks;
+	}
+
+	/**
+	 * 随机漫步生成的分钟K线
+	 * @param contract
+	 * @param numOfBars
+	 * @return
+	 */
+	public static Bar[] minuteBars(Contract contract, int numOfBars) {
+		Random rand = new Random(SEED);
+		double priceTick = contract.priceTick();
+		double close = 5000 * priceTick;
+		long volume = 0;
+		double openInterest = 20000;
+		Bar[] bars = new Bar[numOfBars];
+		for(int i=0; i<numOfBars; i++) {
+			LocalDateTime ldt = START.plusMinutes(i + 1L);
+			double open = close;
+			close = open + (int) (rand.nextGaussian() * 5) * priceTick;
+			double high = Math.max(open, close) + (1 + rand.nextInt(5)) * priceTick;
+			double low = Math.min(open, close) - (1 + rand.nextInt(5)) * priceTick;
+			long volumeDelta = 100 + rand.nextInt(900);
+			double openInterestDelta = rand.nextInt(201) - 100D;
+			volume += volumeDelta;
+			openInterest += openInterestDelta;
+			bars[i] = Bar.builder()
+					.gatewayId(GATEWAY_ID)
+					.contract(contract)
+					.actionDay(ldt.toLocalDate())
+					.actionTime(ldt.toLocalTime())
+					.actionTimestamp(CommonUtils.localDateTimeToMills(ldt))
+					.tradingDay(ldt.toLocalDate())
+					.channelType(ChannelType.SIM)
+					.openPrice(open)
+					.highPrice(high)
+					.lowPrice(low)
+					.closePrice(close)
+					.volume(volume)
+					.volumeDelta(volumeDelta)
+					.openInterest(openInterest)
+					.openInterestDelta(openInterestDelta)
+					.turnover(volume * close)
+					.turnoverDelta(volumeDelta * close)
+					.build();
+		}
+		return bars;
+	}
+
+	/**
+	 * 由RandomWalkTickSimulation把分钟K线还原成的TICK流
+	 * @param bars
+	 * @param numOfTickPerBar
+	 * @return
+	 */
+	public static Tick[] randomWalkTicks(Bar[] bars, int numOfTickPerBar) {
+		RandomWalkTickSimulation simulation = new RandomWalkTickSimulation(numOfTickPerBar);
+		List<Tick> ticks = new ArrayList<>(bars.length * numOfTickPerBar);
+		for(Bar bar : bars) {
+			double openInterest = bar.openInterest() - bar.openInterestDelta();
+			long volume = bar.volume() - bar.volumeDelta();
+			for(TickEntry e : simulation.generateFrom(bar)) {
+				LocalDateTime ldt = CommonUtils.millsToLocalDateTime(e.timestamp());
+				openInterest += e.openInterestDelta();
+				volume += e.volume();
+				ticks.add(Tick.builder()
+						.gatewayId(bar.gatewayId())
+						.contract(bar.contract())
+						.actionDay(ldt.toLocalDate())
+						.actionTime(ldt.toLocalTime())
+						.tradingDay(bar.tradingDay())
+						.actionTimestamp(e.timestamp())
+						.lastPrice(e.price())
+						.askPrice(List.of(e.askPrice0()))
+						.bidPrice(List.of(e.bidPrice0()))
+						.askVolume(List.of(1))
+						.bidVolume(List.of(1))
+						.volume(volume)
+						.volumeDelta(e.volume())
+						.openInterest(openInterest)
+						.openInterestDelta(e.openInterestDelta())
+						.type(TickType.MARKET_TICK)
+						.channelType(bar.channelType())
+						.build());
+			}
+		}
+		return ticks.toArray(Tick[]::new);
+	}
+
+	/**
+	 * 按时间交错合并多个合约的TICK流，模拟同一网关同时推送多个合约的行情
+	 * @param streams	各个流的长度需一致
+	 * @return
+	 */
+	public static Tick[] interleave(Tick[]... streams) {
+		int len = streams[0].length;
+		Tick[] result = new Tick[len * streams.length];
+		for(int i=0; i<len; i++) {
+			for(int j=0; j<streams.length; j++) {
+				result[i * streams.length + j] = streams[j][i];
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,72 @@
+package org.dromara.northstar.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.gateway.mktdata.MinuteBarGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 分钟线合成基准
+ * 以随机漫步还原的TICK流驱动 {@link MinuteBarGenerator#update}；每次调用都重建合成器并完整重放一遍数据，结果为单个TICK的平均耗时
+ * @author KevinHuangwl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MinuteBarGeneratorBenchmark {
+
+	static final int NUM_OF_BARS = 600;
+
+	static final int NUM_OF_TICK_PER_BAR = 60;
+
+	Contract contract;
+
+	Tick[] ticks;
+
+	MinuteBarGenerator barGen;
+
+	long barCount;
+
+	@Setup(Level.Trial)
+	public void prepareData() {
+		contract = MarketDataFixtures.simContracts().get(0);
+		Bar[] bars = MarketDataFixtures.minuteBars(contract, NUM_OF_BARS);
+		ticks = MarketDataFixtures.randomWalkTicks(bars, NUM_OF_TICK_PER_BAR);
+	}
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		barCount = 0;
+		barGen = new MinuteBarGenerator(contract, bar -> barCount++);
+	}
+
+	@TearDown(Level.Trial)
+	public void verify() {
+		if(barCount == 0) {
+			throw new IllegalStateException("没有合成出分钟线，基准测试数据无效");
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_BARS * NUM_OF_TICK_PER_BAR)
+	public void update(Blackhole bh) {
+		for(Tick tick : ticks) {
+			barGen.update(tick);
+		}
+		bh.consume(barCount);
+	}
+}
@@ -0,0 +1,80 @@
+package org.dromara.northstar.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.SubmitOrderReq;
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.gateway.sim.trade.OrderReqManager;
+import org.dromara.northstar.gateway.sim.trade.OrderRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import xyz.redtorch.pb.CoreEnum.DirectionEnum;
+import xyz.redtorch.pb.CoreEnum.OffsetFlagEnum;
+import xyz.redtorch.pb.CoreEnum.OrderPriceTypeEnum;
+
+/**
+ * 模拟撮合基准
+ * 两个合约上各挂有一半远离市价、不会成交的限价单（买单在下方，卖单在上方），衡量每个TICK在 {@link OrderReqManager#onTick} 中的撮合检查开销
+ * @author KevinHuangwl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderReqManagerBenchmark {
+
+	@Param({"10", "100", "1000"})
+	int numOfOrders;
+
+	OrderReqManager orderReqMgr;
+
+	Tick[] ticks;
+
+	int cursor;
+
+	long fillCount;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		List<Contract> contracts = MarketDataFixtures.simContracts();
+		ticks = MarketDataFixtures.simTicks(contracts.get(0), 4096, 500);
+		orderReqMgr = new OrderReqManager();
+		for(int i=0; i<numOfOrders; i++) {
+			boolean buy = i % 2 == 0;
+			SubmitOrderReq req = SubmitOrderReq.builder()
+					.originOrderId("order" + i)
+					.contract(contracts.get(i / 2 % contracts.size()))
+					.gatewayId(MarketDataFixtures.GATEWAY_ID)
+					.direction(buy ? DirectionEnum.D_Buy : DirectionEnum.D_Sell)
+					.offsetFlag(OffsetFlagEnum.OF_Open)
+					.orderPriceType(OrderPriceTypeEnum.OPT_LimitPrice)
+					.price(buy ? 1 : 1000000)
+					.volume(1)
+					.build();
+			orderReqMgr.submitOrder(new OrderRequest(null, req, order -> fillCount++, trade -> fillCount++));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void verify() {
+		if(fillCount > 0) {
+			throw new IllegalStateException("挂单不应成交，基准测试数据无效");
+		}
+	}
+
+	@Benchmark
+	public void onTick() {
+		orderReqMgr.onTick(ticks[cursor++ & (ticks.length - 1)]);
+	}
+}
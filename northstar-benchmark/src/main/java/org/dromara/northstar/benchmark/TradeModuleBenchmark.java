@@ -0,0 +1,162 @@
+package org.dromara.northstar.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.northstar.account.AccountManager;
+import org.dromara.northstar.account.TradeAccount;
+import org.dromara.northstar.common.constant.ChannelType;
+import org.dromara.northstar.common.constant.ClosingPolicy;
+import org.dromara.northstar.common.constant.ModuleState;
+import org.dromara.northstar.common.constant.ModuleUsage;
+import org.dromara.northstar.common.event.NorthstarEvent;
+import org.dromara.northstar.common.event.NorthstarEventType;
+import org.dromara.northstar.common.model.ContractSimpleInfo;
+import org.dromara.northstar.common.model.GatewayDescription;
+import org.dromara.northstar.common.model.ModuleAccountDescription;
+import org.dromara.northstar.common.model.ModuleAccountRuntimeDescription;
+import org.dromara.northstar.common.model.ModuleDescription;
+import org.dromara.northstar.common.model.ModuleRuntimeDescription;
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.gateway.mktdata.MarketCenter;
+import org.dromara.northstar.module.ModuleContext;
+import org.dromara.northstar.module.TradeModule;
+import org.dromara.northstar.support.utils.bar.BarMergerRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 模组事件处理基准
+ * 模组只绑定两个合约中的一个，事件流为两个合约的TICK交错并夹杂分钟线，衡量 {@link TradeModule#onEvent} 及其后真实模组上下文的处理开销
+ * （行情过滤、指标更新、K线合成、图表数据与模组持仓），策略只注册指标、不发单，仓储为内存实现；
+ * 指标与K线合成都会按时间戳丢弃过时数据，因此每次调用都重建模组并完整重放一遍数据，结果为单个事件的平均耗时
+ * @author KevinHuangwl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TradeModuleBenchmark {
+
+	static final String ACCOUNT_ID = "SIM_ACCOUNT";
+
+	static final int NUM_OF_CONTRACTS = 2;
+
+	static final int NUM_OF_BARS = 64;
+
+	static final int NUM_OF_TICK_PER_BAR = 64;
+
+	static final int NUM_OF_EVENTS = NUM_OF_CONTRACTS * NUM_OF_BARS * (NUM_OF_TICK_PER_BAR + 1);
+
+	NorthstarEvent[] events;
+
+	MarketCenter mktCenter;
+
+	AccountManager accountMgr;
+
+	ModuleDescription md;
+
+	TradeModule module;
+
+	IndicatorOnlyStrategy strategy;
+
+	@Setup(Level.Trial)
+	public void prepareData() throws IOException {
+		if(System.getProperty("LOG_PATH") == null) {
+			// 模组日志写到临时目录，日志级别为WARN，正常情况下不会有输出
+			System.setProperty("LOG_PATH", Files.createTempDirectory("northstar-benchmark").toString());
+		}
+		List<Contract> contracts = MarketDataFixtures.simContracts();
+		Contract bindedContract = contracts.get(0);
+
+		mktCenter = new MarketCenter(new CountingEventEngine());
+		mktCenter.addDefinitions(MarketDataFixtures.simDefinitions());
+		MarketDataFixtures.simInstruments().forEach(mktCenter::addInstrument);
+		mktCenter.loadContractGroup(ChannelType.SIM);
+		// 模组不启用、不发单，账户无需交易网关
+		accountMgr = new AccountManager();
+		accountMgr.add(new TradeAccount(MarketDataFixtures.simMarketGateway(), null, GatewayDescription.builder().gatewayId(ACCOUNT_ID).build()));
+
+		md = ModuleDescription.builder()
+				.moduleName("benchmark")
+				.usage(ModuleUsage.UAT)
+				.numOfMinPerBar(1)
+				.moduleCacheDataSize(NUM_OF_BARS)
+				.closingPolicy(ClosingPolicy.FIRST_IN_FIRST_OUT)
+				.initBalance(100000)
+				.logLevel("WARN")
+				.moduleAccountSettingsDescription(List.of(ModuleAccountDescription.builder()
+						.accountGatewayId(ACCOUNT_ID)
+						.bindedContracts(List.of(ContractSimpleInfo.builder()
+								.unifiedSymbol(bindedContract.unifiedSymbol())
+								.value(bindedContract.contractId())
+								.build()))
+						.build()))
+				.build();
+
+		Bar[][] bars = new Bar[NUM_OF_CONTRACTS][];
+		Tick[][] ticks = new Tick[NUM_OF_CONTRACTS][];
+		for(int i=0; i<NUM_OF_CONTRACTS; i++) {
+			bars[i] = MarketDataFixtures.minuteBars(contracts.get(i), NUM_OF_BARS);
+			ticks[i] = MarketDataFixtures.randomWalkTicks(bars[i], NUM_OF_TICK_PER_BAR);
+		}
+		Tick[] tickStream = MarketDataFixtures.interleave(ticks);
+		int ticksPerMinute = NUM_OF_TICK_PER_BAR * NUM_OF_CONTRACTS;
+		events = new NorthstarEvent[NUM_OF_EVENTS];
+		int n = 0;
+		for(int i=0; i<tickStream.length; i++) {
+			events[n++] = new NorthstarEvent(NorthstarEventType.TICK, tickStream[i]);
+			if((i + 1) % ticksPerMinute == 0) {
+				int barIndex = i / ticksPerMinute;
+				for(Bar[] barStream : bars) {
+					events[n++] = new NorthstarEvent(NorthstarEventType.BAR, barStream[barIndex]);
+				}
+			}
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		ModuleRuntimeDescription mrd = ModuleRuntimeDescription.builder()
+				.moduleName(md.getModuleName())
+				.moduleState(ModuleState.EMPTY)
+				.moduleAccountRuntime(ModuleAccountRuntimeDescription.builder()
+						.initBalance(md.getInitBalance())
+						.build())
+				.build();
+		strategy = new IndicatorOnlyStrategy();
+		ModuleContext ctx = new ModuleContext(strategy, md, mrd, mktCenter, new InMemoryModuleRepository(), new BarMergerRegistry());
+		module = new TradeModule(md, ctx, accountMgr, mktCenter);
+		strategy.setContext(ctx);
+		ctx.onReady();
+	}
+
+	@TearDown(Level.Trial)
+	public void verify() {
+		if(strategy.tickCount() == 0 || strategy.mergedBarCount() == 0) {
+			throw new IllegalStateException("模组没有收到绑定合约的行情，基准测试数据无效");
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_EVENTS)
+	public void onEvent(Blackhole bh) {
+		for(NorthstarEvent event : events) {
+			module.onEvent(event);
+		}
+		bh.consume(strategy.mergedBarCount());
+	}
+}
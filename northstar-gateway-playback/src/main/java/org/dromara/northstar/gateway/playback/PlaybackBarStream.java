@@ -0,0 +1,162 @@
+package org.dromara.northstar.gateway.playback;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.BiFunction;
+
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.gateway.playback.model.DataFrame;
+import org.dromara.northstar.gateway.utils.DataLoadUtil;
+import org.springframework.util.Assert;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 回放K线数据流
+ * 后台预取线程按周查询各合约的分钟K线，查询结果进入容量为 lookAhead 的有界队列，因此回放第N周时第N+1周的数据已在加载；
+ * 消费方对当周各合约的K线做多路归并（每个合约一个游标，按时间戳出堆），逐帧产出时间戳相同的K线，
+ * 不再为每个日历分钟预先分配数据帧。内存占用上限为：正在回放的一周 + 队列中的 lookAhead 周 + 正在查询的一周
+ * 数据流只允许单线程消费
+ * @author KevinHuangwl
+ *
+ */
+@Slf4j
+public class PlaybackBarStream implements AutoCloseable {
+
+	private final BlockingQueue<WeekData> queue;
+
+	private final Thread prefetcher;
+
+	private final PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparingLong(Cursor::timestamp));
+
+	private volatile boolean closed;
+
+	private boolean exhausted;
+
+	/**
+	 * @param startDate
+	 * @param endDate
+	 * @param fetcher		按起止日期查询各合约的分钟K线，每个合约一个列表
+	 * @param lookAhead		最多提前缓存的周数
+	 */
+	public PlaybackBarStream(LocalDate startDate, LocalDate endDate, BiFunction<LocalDate, LocalDate, List<List<Bar>>> fetcher, int lookAhead) {
+		Assert.isTrue(lookAhead > 0, "预取周数必须为正数");
+		this.queue = new ArrayBlockingQueue<>(lookAhead);
+		List<LocalDate[]> weeks = new ArrayList<>();
+		new DataLoadUtil().splitByWeek(startDate, endDate, (start, end) -> weeks.add(new LocalDate[] {start, end}));
+		this.prefetcher = Thread.ofVirtual().name("PlaybackPrefetch-" + System.identityHashCode(this)).start(() -> prefetch(weeks, fetcher));
+	}
+
+	private void prefetch(List<LocalDate[]> weeks, BiFunction<LocalDate, LocalDate, List<List<Bar>>> fetcher) {
+		try {
+			for(LocalDate[] week : weeks) {
+				if(closed) {
+					return;
+				}
+				log.debug("预取回放数据：{} -> {}", week[0], week[1]);
+				List<List<Bar>> data;
+				try {
+					data = fetcher.apply(week[0], week[1]);
+				} catch (Exception e) {
+					queue.put(WeekData.failure(e));
+					return;
+				}
+				queue.put(new WeekData(data, null));
+			}
+			queue.put(WeekData.END);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 下一个数据帧
+	 * @return	数据取完时返回null
+	 * @throws InterruptedException
+	 */
+	public DataFrame<Bar> next() throws InterruptedException {
+		while(cursors.isEmpty()) {
+			if(exhausted || !loadNextWeek()) {
+				exhausted = true;
+				return null;
+			}
+		}
+		long timestamp = cursors.peek().timestamp();
+		DataFrame<Bar> frame = new DataFrame<>(timestamp);
+		while(!cursors.isEmpty() && cursors.peek().timestamp() == timestamp) {
+			Cursor cursor = cursors.poll();
+			frame.add(cursor.current());
+			if(cursor.advance()) {
+				cursors.offer(cursor);
+			}
+		}
+		return frame;
+	}
+
+	private boolean loadNextWeek() throws InterruptedException {
+		WeekData week = queue.take();
+		if(week.error() != null) {
+			throw new IllegalStateException("回放数据加载异常", week.error());
+		}
+		if(week == WeekData.END) {
+			return false;
+		}
+		for(List<Bar> bars : week.bars()) {
+			if(!bars.isEmpty()) {
+				List<Bar> sorted = new ArrayList<>(bars);
+				sorted.sort(Comparator.comparingLong(Bar::actionTimestamp));
+				cursors.offer(new Cursor(sorted));
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 停止预取并释放缓存的数据
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		prefetcher.interrupt();
+		queue.clear();
+		cursors.clear();
+	}
+
+	private record WeekData(List<List<Bar>> bars, Exception error) {
+
+		static final WeekData END = new WeekData(List.of(), null);
+
+		static WeekData failure(Exception e) {
+			return new WeekData(List.of(), e);
+		}
+	}
+
+	/* 单个合约在当周K线上的游标 */
+	private static class Cursor {
+
+		private final List<Bar> bars;
+
+		private int pos;
+
+		Cursor(List<Bar> bars) {
+			this.bars = bars;
+		}
+
+		Bar current() {
+			return bars.get(pos);
+		}
+
+		long timestamp() {
+			return bars.get(pos).actionTimestamp();
+		}
+
+		boolean advance() {
+			return ++pos < bars.size();
+		}
+	}
+}
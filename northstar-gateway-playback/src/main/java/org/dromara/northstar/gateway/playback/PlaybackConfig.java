@@ -5,6 +5,7 @@ import org.dromara.northstar.data.IPlaybackRuntimeRepository;
 import org.dromara.northstar.gateway.IContractManager;
 import org.dromara.northstar.gateway.mktdata.NorthstarDataSource;
 import org.dromara.northstar.gateway.mktdata.QuantitDataServiceManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.retry.annotation.EnableRetry;
@@ -25,7 +26,8 @@ public class PlaybackConfig {
 	}
 	
 	@Bean
-	PlaybackGatewayFactory playbackGatewayFactory(FastEventEngine feEngine, IContractManager contractMgr, IPlaybackRuntimeRepository pbrtRepo) {
-		return new PlaybackGatewayFactory(feEngine, contractMgr, pbrtRepo);
+	PlaybackGatewayFactory playbackGatewayFactory(FastEventEngine feEngine, IContractManager contractMgr, IPlaybackRuntimeRepository pbrtRepo,
+			@Value("${northstar.playback.look-ahead-weeks:1}") int lookAheadWeeks) {
+		return new PlaybackGatewayFactory(feEngine, contractMgr, pbrtRepo, lookAheadWeeks);
 	}
 }
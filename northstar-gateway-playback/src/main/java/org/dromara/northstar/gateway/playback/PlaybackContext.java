@@ -17,6 +17,7 @@ import java.util.stream.Collectors;
 
 import org.dromara.northstar.common.constant.ChannelType;
 import org.dromara.northstar.common.constant.DateTimeConstant;
+import org.dromara.northstar.common.constant.PlaybackSpeed;
 import org.dromara.northstar.common.constant.TickType;
 import org.dromara.northstar.common.event.FastEventEngine;
 import org.dromara.northstar.common.event.NorthstarEventType;
@@ -60,12 +61,19 @@ public class PlaybackContext implements IPlaybackContext{
 	
 	private final AtomicLong pauseInterval = new AtomicLong();
 	
+	private boolean lockstep;		// 同步极速：每帧等待下游处理完毕，而不是按固定间隔推进
+	
 	private final PlaybackGatewaySettings settings;
 	
 	private ExecutorService exec = CommonUtils.newThreadPerTaskExecutor(getClass());
 	
 	public PlaybackContext(GatewayDescription gd, LocalDateTime currentTimeState, 
 			FastEventEngine feEngine, IPlaybackRuntimeRepository rtRepo, IContractManager contractMgr) {
+		this(gd, currentTimeState, feEngine, rtRepo, contractMgr, 1);
+	}
+	
+	public PlaybackContext(GatewayDescription gd, LocalDateTime currentTimeState, 
+			FastEventEngine feEngine, IPlaybackRuntimeRepository rtRepo, IContractManager contractMgr, int lookAheadWeeks) {
 		this.rtRepo = rtRepo;
 		this.feEngine = feEngine;
 		this.mktCenter = (IMarketCenter) contractMgr;
@@ -75,14 +83,15 @@ public class PlaybackContext implements IPlaybackContext{
 		this.contracts = settings.getPlayContracts().stream()
 				.map(csi -> contractMgr.getContract(ChannelType.PLAYBACK, csi.getUnifiedSymbol()))
 				.collect(Collectors.toSet());
-		this.dataLoader = new PlaybackDataLoader(gatewayId, contracts, settings.getPrecision());
+		this.dataLoader = new PlaybackDataLoader(gatewayId, contracts, settings.getPrecision(), lookAheadWeeks);
 		int interval = switch (settings.getSpeed()) {
 			case NORMAL -> 500;
 			case SPRINT -> 5;
-			case RUSH -> 0;
+			case RUSH, LOCKSTEP -> 0;
 			default -> throw new IllegalArgumentException("Unexpected value: " + settings.getSpeed());
 		};
 		this.pauseInterval.set(interval);
+		this.lockstep = settings.getSpeed() == PlaybackSpeed.LOCKSTEP;
 	}
 	
 	// 如何处理TICK数据帧
@@ -97,9 +106,14 @@ public class PlaybackContext implements IPlaybackContext{
 			feEngine.emitEvent(NorthstarEventType.TICK, tick);
 		});
 		try {
-			Thread.sleep(pauseInterval.get());
+			if(lockstep) {
+				feEngine.awaitIdle();
+			} else {
+				Thread.sleep(pauseInterval.get());
+			}
 		} catch (InterruptedException e) {
-			log.error("等待中断", e);
+			log.warn("回放网关 [{}] 等待被中断", gatewayId);
+			Thread.currentThread().interrupt();
 		}
 	};
 	
@@ -111,6 +125,15 @@ public class PlaybackContext implements IPlaybackContext{
 			return;
 		}
 		df.items().forEach(bar -> feEngine.emitEvent(NorthstarEventType.BAR, bar));
+		if(lockstep) {
+			try {
+				feEngine.awaitIdle();
+			} catch (InterruptedException e) {
+				log.warn("回放网关 [{}] 等待被中断", gatewayId);
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
 		
 		playbackState = curState;
 		// 收到检查点标志位时，保存回放状态
@@ -180,8 +203,11 @@ public class PlaybackContext implements IPlaybackContext{
 			exec.execute(() -> {
 				try {
 					runningJob.get();
-				} catch (InterruptedException | ExecutionException e) {
+				} catch (InterruptedException e) {
 					log.warn("预热加载等待被中断", e);
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException e) {
+					log.warn("预热加载出错", e);
 				}
 				log.debug("回放网关 [{}] 数据预热完毕", gatewayId);
 				feEngine.emitEvent(NorthstarEventType.NOTICE, Notice.builder()
@@ -5,8 +5,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -15,6 +15,7 @@ import java.util.function.BiConsumer;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.dromara.northstar.common.IDataSource;
 import org.dromara.northstar.common.constant.ChannelType;
@@ -25,7 +26,6 @@ import org.dromara.northstar.common.model.core.Contract;
 import org.dromara.northstar.common.model.core.Tick;
 import org.dromara.northstar.common.model.core.TimeSlot;
 import org.dromara.northstar.common.model.core.TradeTimeDefinition;
-import org.dromara.northstar.common.utils.CommonUtils;
 import org.dromara.northstar.gateway.IContract;
 import org.dromara.northstar.gateway.contract.OptionChainContract;
 import org.dromara.northstar.gateway.playback.model.DataFrame;
@@ -33,13 +33,12 @@ import org.dromara.northstar.gateway.playback.ticker.RandomWalkTickSimulation;
 import org.dromara.northstar.gateway.playback.ticker.SimpleCloseSimulation;
 import org.dromara.northstar.gateway.playback.ticker.SimplePriceSimulation;
 import org.dromara.northstar.gateway.playback.ticker.TickSimulationAlgorithm;
-import org.dromara.northstar.gateway.utils.DataLoadUtil;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 回测数据加载器
- * 不止要负责加载历史数据，还要把数据分成数据帧供消费方消费
+ * 不止要负责加载历史数据，还要把数据分成数据帧供消费方消费（见 {@link PlaybackBarStream}）
  * 同时封装了Bar转TICK数据的处理
  * @auth KevinHuangwl
  */
@@ -54,11 +53,17 @@ public class PlaybackDataLoader {
 	
 	private final String gatewayId;
 	
-	private final DataLoadUtil util = new DataLoadUtil();
+	/* 回放时最多提前加载的周数 */
+	private final int lookAheadWeeks;
 	
 	public PlaybackDataLoader(String gatewayId, Collection<IContract> contracts, PlaybackPrecision precision) {
+		this(gatewayId, contracts, precision, 1);
+	}
+	
+	public PlaybackDataLoader(String gatewayId, Collection<IContract> contracts, PlaybackPrecision precision, int lookAheadWeeks) {
 		this.gatewayId = gatewayId;
 		this.contracts = contracts;
+		this.lookAheadWeeks = lookAheadWeeks;
 		this.numOfTickPerBar = switch(precision) {
 			case LITE -> 1;
 			case LOW -> 4;
@@ -75,73 +80,64 @@ public class PlaybackDataLoader {
 	}
 	
 	public CompletableFuture<Void> preload(LocalDate startDate, LocalDate endDate, Consumer<DataFrame<Bar>> onDataCallback) {
-		return CompletableFuture.runAsync(() -> 
-			// 切分为按周查询
-			util.splitByWeek(startDate, endDate, 
-					(start, end) -> loadBarDataFrame(start, end)
-							.stream()
-							.forEach(onDataCallback::accept))
-		);
+		return CompletableFuture.runAsync(() -> {
+			try(PlaybackBarStream stream = new PlaybackBarStream(startDate, endDate, this::loadBars, lookAheadWeeks)) {
+				DataFrame<Bar> df;
+				while((df = stream.next()) != null) {
+					onDataCallback.accept(df);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				log.warn("预热数据加载被中断");
+			}
+		});
 	}
 	
-	// 把查询到的Bar数据按时间帧切片
-	private List<DataFrame<Bar>> loadBarDataFrame(LocalDate startDate, LocalDate endDate){
-		LocalDateTime ldt = LocalDateTime.of(startDate.minusDays(3), LocalTime.of(0, 0));	// 要考虑周五夜盘的数据
-		LocalDateTime endDateTime = LocalDateTime.of(endDate.plusDays(1), LocalTime.of(0, 0));
-		LinkedList<DataFrame<Bar>> dataFrameList = new LinkedList<>();
-		while(!ldt.isAfter(endDateTime)) {
-			dataFrameList.add(new DataFrame<>(CommonUtils.localDateTimeToMills(ldt)));
-			ldt = ldt.plusMinutes(1);
-		}
-		Map<Long, DataFrame<Bar>> timeDataMap = dataFrameList.stream().collect(Collectors.toMap(DataFrame::getTimestamp, df -> df));
-		
+	// 查询各合约的分钟K线，每个合约（期权链的每个成员合约）一个列表
+	private List<List<Bar>> loadBars(LocalDate startDate, LocalDate endDate){
+		List<Contract> contractList = new ArrayList<>();
+		List<IDataSource> dataSources = new ArrayList<>();
 		for(IContract ic : contracts) {
-			IDataSource ds = ic.dataSource();
 			if(ic instanceof OptionChainContract) {
-				ic.memberContracts().parallelStream()
-					.map(IContract::contract)
-					.forEach(c -> 
-						ds.getMinutelyData(c, startDate, endDate)
-							.stream()
-							.map(bar -> bar.toBuilder()
-									.gatewayId(gatewayId)
-									.channelType(ChannelType.PLAYBACK)
-									.build())
-							.forEach(bar -> timeDataMap.get(bar.actionTimestamp()).add(bar))
-					);
+				ic.memberContracts().forEach(member -> {
+					contractList.add(member.contract());
+					dataSources.add(ic.dataSource());
+				});
 			} else {
-				Contract c = ic.contract();
-				ds.getMinutelyData(c, startDate, endDate)
-					.stream()
-					.map(bar -> bar.toBuilder()
-							.gatewayId(gatewayId)
-							.channelType(ChannelType.PLAYBACK)
-							.build())
-					.forEach(bar -> timeDataMap.get(bar.actionTimestamp()).add(bar));
+				contractList.add(ic.contract());
+				dataSources.add(ic.dataSource());
 			}
 		}
-		return dataFrameList.stream().filter(df -> !df.isEmpty()).toList();
+		return IntStream.range(0, contractList.size())
+				.parallel()
+				.mapToObj(i -> dataSources.get(i).getMinutelyData(contractList.get(i), startDate, endDate)
+						.stream()
+						.map(bar -> bar.toBuilder()
+								.gatewayId(gatewayId)
+								.channelType(ChannelType.PLAYBACK)
+								.build())
+						.toList())
+				.toList();
 	}
 	
 	public CompletableFuture<Void> load(LocalDate startDate, LocalDate endDate, BooleanSupplier interceptedFlagSupplier,
 			Consumer<DataFrame<Tick>> onTickDataCallback,
 			BiConsumer<DataFrame<Bar>, Boolean> onBarDataCallback) {
-		return CompletableFuture.runAsync(() -> 
-			// 切分为按周查询
-			util.splitByWeek(startDate, endDate, (start, end) -> {
+		return CompletableFuture.runAsync(() -> {
+			try(PlaybackBarStream stream = new PlaybackBarStream(startDate, endDate, this::loadBars, lookAheadWeeks)) {
+				DataFrame<Bar> df;
 				// 中断信号检测，确保能正常中断
-				if(interceptedFlagSupplier.getAsBoolean()) {
-					return;
-				}
-				List<DataFrame<Bar>> dataBars = loadBarDataFrame(start, end);
-				for(DataFrame<Bar> df : dataBars) {
+				while(!interceptedFlagSupplier.getAsBoolean() && (df = stream.next()) != null) {
 					generateTickFrames(df).forEach(onTickDataCallback::accept);
 					Bar bar = df.getSample();
 					boolean isLastBar = isLastBarOfTradeDay(bar);
 					onBarDataCallback.accept(df, isLastBar);
 				}
-			})
-		);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				log.warn("回放数据加载被中断");
+			}
+		});
 	}
 	
 	private boolean isLastBarOfTradeDay(Bar bar) {
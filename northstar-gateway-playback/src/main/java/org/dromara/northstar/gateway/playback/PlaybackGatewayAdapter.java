@@ -1,12 +1,16 @@
 package org.dromara.northstar.gateway.playback;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import org.dromara.northstar.common.constant.ChannelType;
 import org.dromara.northstar.common.constant.ConnectionState;
 import org.dromara.northstar.common.model.GatewayDescription;
 import org.dromara.northstar.common.model.core.Contract;
-import org.dromara.northstar.gateway.MarketGateway;
+import org.dromara.northstar.gateway.PlaybackMarketGateway;
 
-public class PlaybackGatewayAdapter implements MarketGateway {
+public class PlaybackGatewayAdapter implements PlaybackMarketGateway {
 	
 	private IPlaybackContext ctx;
 	
@@ -14,10 +18,18 @@ public class PlaybackGatewayAdapter implements MarketGateway {
 	
 	private ConnectionState connState = ConnectionState.DISCONNECTED;
 	
+	private final List<CompletableFuture<Void>> stopListeners = new CopyOnWriteArrayList<>();
+	
 	public PlaybackGatewayAdapter(IPlaybackContext ctx, GatewayDescription gd) {
 		this.ctx = ctx;
 		this.gd = gd;
-		ctx.onStopCallback(() -> connState = ConnectionState.DISCONNECTED);
+		ctx.onStopCallback(() -> {
+			connState = ConnectionState.DISCONNECTED;
+			for(CompletableFuture<Void> listener : stopListeners) {
+				stopListeners.remove(listener);
+				listener.complete(null);
+			}
+		});
 	}
 
 	@Override
@@ -59,6 +71,13 @@ public class PlaybackGatewayAdapter implements MarketGateway {
 		return ctx.isRunning();
 	}
 
+	@Override
+	public CompletableFuture<Void> nextStop() {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		stopListeners.add(future);
+		return future;
+	}
+
 	@Override
 	public ChannelType channelType() {
 		return ChannelType.PLAYBACK;
@@ -24,10 +24,17 @@ public class PlaybackGatewayFactory implements GatewayFactory{
 	
 	private IContractManager contractMgr;
 	
+	private int lookAheadWeeks;
+	
 	public PlaybackGatewayFactory(FastEventEngine feEngine, IContractManager contractMgr, IPlaybackRuntimeRepository rtRepo) {
+		this(feEngine, contractMgr, rtRepo, 1);
+	}
+	
+	public PlaybackGatewayFactory(FastEventEngine feEngine, IContractManager contractMgr, IPlaybackRuntimeRepository rtRepo, int lookAheadWeeks) {
 		this.rtRepo = rtRepo;
 		this.feEngine = feEngine;
 		this.contractMgr = contractMgr;
+		this.lookAheadWeeks = lookAheadWeeks;
 	}
 	
 	@Override
@@ -38,7 +45,7 @@ public class PlaybackGatewayFactory implements GatewayFactory{
 		LocalDateTime ldt = Objects.nonNull(playbackRt) 
 				? playbackRt.getPlaybackTimeState() 
 				: LocalDateTime.of(LocalDate.parse(settings.getStartDate(), DateTimeConstant.D_FORMAT_INT_FORMATTER), DateTimeUtils.fromCacheTime(20, 0));
-		IPlaybackContext context = new PlaybackContext(gatewayDescription, ldt, feEngine, rtRepo, contractMgr);
+		IPlaybackContext context = new PlaybackContext(gatewayDescription, ldt, feEngine, rtRepo, contractMgr, lookAheadWeeks);
 		return new PlaybackGatewayAdapter(context, gatewayDescription);
 	}
 	
@@ -0,0 +1,93 @@
+package org.dromara.northstar.gateway.playback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.utils.CommonUtils;
+import org.dromara.northstar.gateway.playback.model.DataFrame;
+import org.junit.jupiter.api.Test;
+
+class PlaybackBarStreamTest {
+
+	Contract c1 = Contract.builder().unifiedSymbol("rb2401@SHFE@FUTURES").build();
+
+	Contract c2 = Contract.builder().unifiedSymbol("hc2401@SHFE@FUTURES").build();
+
+	LocalDate monday = LocalDate.of(2023, 10, 9);
+
+	private Bar bar(Contract c, LocalDate date, int minute) {
+		LocalDateTime ldt = LocalDateTime.of(date, LocalTime.of(9, 0).plusMinutes(minute));
+		return Bar.builder()
+				.contract(c)
+				.actionDay(date)
+				.actionTime(ldt.toLocalTime())
+				.tradingDay(date)
+				.actionTimestamp(CommonUtils.localDateTimeToMills(ldt))
+				.closePrice(minute)
+				.build();
+	}
+
+	/* 每周首日产生K线，c1每分钟一根，c2每两分钟一根 */
+	private List<List<Bar>> weekData(LocalDate start) {
+		List<Bar> bars1 = new ArrayList<>();
+		List<Bar> bars2 = new ArrayList<>();
+		for(int i=0; i<10; i++) {
+			bars1.add(bar(c1, start, i));
+			if(i % 2 == 0) {
+				bars2.add(bar(c2, start, i));
+			}
+		}
+		return List.of(bars1, bars2);
+	}
+
+	@Test
+	void testMergeAcrossContractsAndWeeks() throws InterruptedException {
+		List<DataFrame<Bar>> frames = new ArrayList<>();
+		try(PlaybackBarStream stream = new PlaybackBarStream(monday, monday.plusDays(13), (s, e) -> weekData(s), 1)) {
+			DataFrame<Bar> df;
+			while((df = stream.next()) != null) {
+				frames.add(df);
+			}
+			assertThat(stream.next()).isNull();
+		}
+		assertThat(frames).hasSize(20);
+		assertThat(frames).extracting(DataFrame::getTimestamp).isSorted().doesNotHaveDuplicates();
+		assertThat(frames.get(0).items()).hasSize(2);
+		assertThat(frames.get(1).items()).hasSize(1);
+		assertThat(frames.stream().mapToInt(df -> df.items().size()).sum()).isEqualTo(30);
+	}
+
+	@Test
+	void testPrefetchBoundedByLookAhead() throws InterruptedException {
+		List<LocalDate> fetched = new CopyOnWriteArrayList<>();
+		try(PlaybackBarStream stream = new PlaybackBarStream(monday, monday.plusWeeks(10), (s, e) -> {
+			fetched.add(s);
+			return weekData(s);
+		}, 2)) {
+			Thread.sleep(200);
+			// 队列中两周，预取线程阻塞在第三周的入队上
+			assertThat(fetched).hasSize(3);
+			assertThat(stream.next()).isNotNull();
+			Thread.sleep(200);
+			assertThat(fetched).hasSize(4);
+		}
+	}
+
+	@Test
+	void testFetchFailure() {
+		try(PlaybackBarStream stream = new PlaybackBarStream(monday, monday.plusDays(6), (s, e) -> {
+			throw new IllegalStateException("data service down");
+		}, 1)) {
+			assertThrows(IllegalStateException.class, stream::next);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package org.dromara.northstar.gateway.sim.trade;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.common.utils.FieldUtils;
+
+import xyz.redtorch.pb.CoreEnum.OrderPriceTypeEnum;
+
+/**
+ * 按盘口数量撮合
+ * 主动成交（市价单，或委托价已越过对手价的限价单）只能吃掉对手方价格可接受的各档挂单量，同一TICK上的多笔委托共享这些挂单量；
+ * 被动限价单按先来后到排队：入簿时以同价位的挂单量作为前方排队量，此后在成交价触及委托价的TICK上，
+ * 该TICK的成交量先抵扣前方排队量，剩余部分才成交本委托；成交价穿过委托价时视为前方排队已全部成交
+ * 行情不含盘口数量时主动成交不受限制
+ * 非线程安全，由 {@link OrderReqManager} 加锁访问
+ * @author KevinHuangwl
+ *
+ */
+public class DepthQueueFillModel implements FillModel {
+	
+	private static final double EPSILON = 1e-9;
+	
+	private final Map<String, Tick> lastTickMap = new HashMap<>();
+	
+	private final Map<String, TickBudget> budgetMap = new HashMap<>();
+	
+	/* 被动限价单前方的排队手数 */
+	private final Map<String, Long> queueAheadMap = new HashMap<>();
+	
+	@Override
+	public void onTick(Tick tick) {
+		String unifiedSymbol = tick.contract().unifiedSymbol();
+		lastTickMap.put(unifiedSymbol, tick);
+		budgetMap.computeIfAbsent(unifiedSymbol, s -> new TickBudget()).reset(tick);
+	}
+	
+	@Override
+	public void onSubmit(OrderRequest orderReq) {
+		Tick lastTick = lastTickMap.get(orderReq.unifiedSymbol());
+		if(lastTick != null && orderReq.orderPriceType() != OrderPriceTypeEnum.OPT_AnyPrice) {
+			queueAheadMap.put(orderReq.originOrderId(), displayedVolume(lastTick, FieldUtils.isBuy(orderReq.direction()), orderReq.price()));
+		}
+	}
+	
+	@Override
+	public void onRemove(OrderRequest orderReq) {
+		queueAheadMap.remove(orderReq.originOrderId());
+	}
+
+	@Override
+	public int fillableVolume(OrderRequest orderReq, Tick tick) {
+		TickBudget budget = budgetMap.get(tick.contract().unifiedSymbol());
+		if(budget == null || budget.tick != tick) {
+			onTick(tick);
+			budget = budgetMap.get(tick.contract().unifiedSymbol());
+		}
+		int pending = orderReq.pendingVolume();
+		boolean buy = FieldUtils.isBuy(orderReq.direction());
+		if(orderReq.orderPriceType() == OrderPriceTypeEnum.OPT_AnyPrice) {
+			return budget.take(buy, buy ? Double.MAX_VALUE : 0, pending);
+		}
+		double price = orderReq.price();
+		if(buy ? hasQuote(tick.askPrice()) && tick.askPrice().get(0) <= price 
+				: hasQuote(tick.bidPrice()) && tick.bidPrice().get(0) >= price) {
+			return budget.take(buy, price, pending);
+		}
+		return passiveFill(orderReq, tick, budget, buy, price, pending);
+	}
+	
+	private int passiveFill(OrderRequest orderReq, Tick tick, TickBudget budget, boolean buy, double price, int pending) {
+		double lastPrice = tick.lastPrice();
+		boolean touched = buy ? lastPrice <= price + EPSILON : lastPrice >= price - EPSILON;
+		Long ahead = queueAheadMap.get(orderReq.originOrderId());
+		if(ahead == null) {
+			ahead = displayedVolume(tick, buy, price);
+		}
+		if(!touched || budget.tradedVolume <= 0) {
+			// 同价位挂单量减少说明前方有撤单
+			queueAheadMap.put(orderReq.originOrderId(), Math.min(ahead, displayedVolumeOrMax(tick, buy, price)));
+			return 0;
+		}
+		if(Math.abs(lastPrice - price) > EPSILON) {
+			ahead = 0L;
+		}
+		long consumed = Math.min(ahead, budget.tradedVolume);
+		ahead -= consumed;
+		budget.tradedVolume -= consumed;
+		int fill = (int) Math.min(pending, budget.tradedVolume);
+		budget.tradedVolume -= fill;
+		queueAheadMap.put(orderReq.originOrderId(), ahead);
+		return fill;
+	}
+	
+	/* 本方同价位的挂单量；价格优于本方最优价时为0，价位未显示时以本方最优价的挂单量估计 */
+	private static long displayedVolume(Tick tick, boolean buy, double price) {
+		List<Double> prices = buy ? tick.bidPrice() : tick.askPrice();
+		List<Integer> volumes = buy ? tick.bidVolume() : tick.askVolume();
+		if(!hasQuote(prices) || !hasQuote(volumes)) {
+			return 0;
+		}
+		if(buy ? price > prices.get(0) + EPSILON : price < prices.get(0) - EPSILON) {
+			return 0;
+		}
+		for(int i=0; i<Math.min(prices.size(), volumes.size()); i++) {
+			if(Math.abs(prices.get(i) - price) < EPSILON) {
+				return volumes.get(i);
+			}
+		}
+		return volumes.get(0);
+	}
+	
+	private static long displayedVolumeOrMax(Tick tick, boolean buy, double price) {
+		List<Double> prices = buy ? tick.bidPrice() : tick.askPrice();
+		List<Integer> volumes = buy ? tick.bidVolume() : tick.askVolume();
+		if(hasQuote(prices) && hasQuote(volumes)) {
+			for(int i=0; i<Math.min(prices.size(), volumes.size()); i++) {
+				if(Math.abs(prices.get(i) - price) < EPSILON) {
+					return volumes.get(i);
+				}
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+	
+	private static boolean hasQuote(List<?> values) {
+		return values != null && !values.isEmpty();
+	}
+	
+	/* 单个TICK上尚未被本账户委托占用的盘口数量与成交量 */
+	private static class TickBudget {
+		
+		private Tick tick;
+		
+		private final int[] askRemaining = new int[10];
+		
+		private final int[] bidRemaining = new int[10];
+		
+		private long tradedVolume;
+		
+		void reset(Tick tick) {
+			this.tick = tick;
+			this.tradedVolume = Math.max(0, tick.volumeDelta());
+			fill(askRemaining, tick.askVolume());
+			fill(bidRemaining, tick.bidVolume());
+		}
+		
+		private static void fill(int[] remaining, List<Integer> volumes) {
+			for(int i=0; i<remaining.length; i++) {
+				remaining[i] = volumes != null && i < volumes.size() ? volumes.get(i) : 0;
+			}
+		}
+		
+		/* 从对手方价格可接受的各档中依次取量 */
+		int take(boolean buy, double limitPrice, int volume) {
+			List<Double> prices = buy ? tick.askPrice() : tick.bidPrice();
+			List<Integer> volumes = buy ? tick.askVolume() : tick.bidVolume();
+			if(!hasQuote(volumes)) {
+				return volume;
+			}
+			int[] remaining = buy ? askRemaining : bidRemaining;
+			int levels = Math.min(remaining.length, Math.min(volumes.size(), prices == null ? 0 : prices.size()));
+			int taken = 0;
+			for(int i=0; i<levels && taken < volume; i++) {
+				double levelPrice = prices.get(i);
+				if(levelPrice <= 0 || (buy ? levelPrice > limitPrice + EPSILON : levelPrice < limitPrice - EPSILON)) {
+					break;
+				}
+				int take = Math.min(volume - taken, remaining[i]);
+				remaining[i] -= take;
+				taken += take;
+			}
+			return taken;
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package org.dromara.northstar.gateway.sim.trade;
+
+import org.dromara.northstar.common.model.core.Tick;
+
+/**
+ * 撮合模型
+ * 决定一个TICK能让委托成交多少手。同一TICK上，委托簿按价格优先、时间优先的顺序依次询问各委托，
+ * 模型可以据此在委托之间分配该TICK的盘口数量；每次询问的开销应与委托数量无关
+ * @author KevinHuangwl
+ *
+ */
+public interface FillModel {
+
+	/**
+	 * 委托在该TICK上可以成交的手数
+	 * @param orderReq	未完成的委托
+	 * @param tick		与委托同一合约的TICK
+	 * @return			不超过委托剩余手数，0表示不成交
+	 */
+	int fillableVolume(OrderRequest orderReq, Tick tick);
+	
+	/**
+	 * 每个TICK在询问委托之前调用一次
+	 * @param tick
+	 */
+	default void onTick(Tick tick) {}
+	
+	/**
+	 * 委托进入委托簿
+	 * @param orderReq
+	 */
+	default void onSubmit(OrderRequest orderReq) {}
+	
+	/**
+	 * 委托成交完毕或撤单后离开委托簿
+	 * @param orderReq
+	 */
+	default void onRemove(OrderRequest orderReq) {}
+	
+}
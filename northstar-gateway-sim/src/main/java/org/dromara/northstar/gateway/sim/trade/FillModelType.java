@@ -0,0 +1,29 @@
+package org.dromara.northstar.gateway.sim.trade;
+
+/**
+ * 模拟账户的撮合模型，通过网关配置的 fillModel 字段选择
+ * @author KevinHuangwl
+ *
+ */
+public enum FillModelType {
+	/**
+	 * 价格满足即全部成交
+	 */
+	IMMEDIATE {
+		@Override
+		public FillModel newInstance() {
+			return ImmediateFillModel.INSTANCE;
+		}
+	},
+	/**
+	 * 按盘口挂单量与成交量部分成交，被动限价单按先来后到排队
+	 */
+	DEPTH_QUEUE {
+		@Override
+		public FillModel newInstance() {
+			return new DepthQueueFillModel();
+		}
+	};
+	
+	public abstract FillModel newInstance();
+}
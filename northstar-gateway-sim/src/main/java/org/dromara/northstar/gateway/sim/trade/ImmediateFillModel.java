@@ -0,0 +1,34 @@
+package org.dromara.northstar.gateway.sim.trade;
+
+import java.util.List;
+
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.common.utils.FieldUtils;
+
+import xyz.redtorch.pb.CoreEnum.OrderPriceTypeEnum;
+
+/**
+ * 价格满足即全部成交：市价单直接成交，限价买单在卖一价不高于委托价时成交，限价卖单在买一价不低于委托价时成交
+ * 不考虑盘口数量，适合小资金或信号验证；TICK没有盘口报价时以最新价代替
+ * @author KevinHuangwl
+ *
+ */
+public class ImmediateFillModel implements FillModel {
+	
+	public static final ImmediateFillModel INSTANCE = new ImmediateFillModel();
+
+	@Override
+	public int fillableVolume(OrderRequest orderReq, Tick tick) {
+		if(orderReq.orderPriceType() == OrderPriceTypeEnum.OPT_AnyPrice
+				|| FieldUtils.isSell(orderReq.direction()) && quote(tick.bidPrice(), tick) >= orderReq.price()
+				|| FieldUtils.isBuy(orderReq.direction()) && quote(tick.askPrice(), tick) <= orderReq.price()) {
+			return orderReq.pendingVolume();
+		}
+		return 0;
+	}
+	
+	private static double quote(List<Double> prices, Tick tick) {
+		return prices == null || prices.isEmpty() ? tick.lastPrice() : prices.get(0);
+	}
+
+}
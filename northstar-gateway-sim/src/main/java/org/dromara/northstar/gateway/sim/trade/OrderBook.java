@@ -0,0 +1,110 @@
+package org.dromara.northstar.gateway.sim.trade;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.common.utils.FieldUtils;
+
+import xyz.redtorch.pb.CoreEnum.OrderPriceTypeEnum;
+
+/**
+ * 单个合约的委托簿
+ * 限价买单按价格从高到低、限价卖单按价格从低到高分档存放，同一价位按委托先后排列；
+ * 每个TICK只取出可能成交的委托：全部市价单、价格不低于卖一价或最新价的买单、价格不高于买一价或最新价的卖单（后者用于被动排队成交），
+ * 是否成交及成交手数由撮合模型判定
+ * 非线程安全，由 {@link OrderReqManager} 加锁访问
+ * @author KevinHuangwl
+ *
+ */
+class OrderBook {
+
+	private final NavigableMap<Double, Map<String, OrderRequest>> bids = new TreeMap<>(Comparator.reverseOrder());
+	
+	private final NavigableMap<Double, Map<String, OrderRequest>> asks = new TreeMap<>();
+	
+	/* 市价单及方向无法识别的委托，每个TICK都参与撮合 */
+	private final Map<String, OrderRequest> anyPrice = new LinkedHashMap<>();
+	
+	private int size;
+	
+	public void add(OrderRequest orderReq) {
+		Map<String, OrderRequest> level = levelOf(orderReq, true);
+		if(level.put(orderReq.originOrderId(), orderReq) == null) {
+			size++;
+		}
+	}
+	
+	public boolean remove(OrderRequest orderReq) {
+		Map<String, OrderRequest> level = levelOf(orderReq, false);
+		if(level == null || level.remove(orderReq.originOrderId()) == null) {
+			return false;
+		}
+		size--;
+		if(level.isEmpty() && level != anyPrice) {
+			sideOf(orderReq).remove(orderReq.price());
+		}
+		return true;
+	}
+	
+	/**
+	 * 按价格优先、时间优先的顺序列出可能被该TICK成交的委托
+	 * @param tick
+	 * @return
+	 */
+	public List<OrderRequest> crossable(Tick tick) {
+		List<OrderRequest> results = new ArrayList<>(anyPrice.values());
+		if(!bids.isEmpty()) {
+			double threshold = hasQuote(tick.askPrice()) ? Math.min(tick.askPrice().get(0), tick.lastPrice()) : tick.lastPrice();
+			collect(bids.headMap(threshold, true).values(), results);
+		}
+		if(!asks.isEmpty()) {
+			double threshold = hasQuote(tick.bidPrice()) ? Math.max(tick.bidPrice().get(0), tick.lastPrice()) : tick.lastPrice();
+			collect(asks.headMap(threshold, true).values(), results);
+		}
+		return results;
+	}
+	
+	private static boolean hasQuote(List<Double> prices) {
+		return prices != null && !prices.isEmpty();
+	}
+	
+	private static void collect(Collection<Map<String, OrderRequest>> levels, List<OrderRequest> results) {
+		levels.forEach(level -> results.addAll(level.values()));
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	private Map<String, OrderRequest> levelOf(OrderRequest orderReq, boolean create) {
+		NavigableMap<Double, Map<String, OrderRequest>> side = sideOf(orderReq);
+		if(side == null) {
+			return anyPrice;
+		}
+		return create ? side.computeIfAbsent(orderReq.price(), p -> new LinkedHashMap<>()) : side.get(orderReq.price());
+	}
+	
+	private NavigableMap<Double, Map<String, OrderRequest>> sideOf(OrderRequest orderReq) {
+		if(orderReq.orderPriceType() == OrderPriceTypeEnum.OPT_AnyPrice) {
+			return null;
+		}
+		if(FieldUtils.isBuy(orderReq.direction())) {
+			return bids;
+		}
+		if(FieldUtils.isSell(orderReq.direction())) {
+			return asks;
+		}
+		return null;
+	}
+}
@@ -10,6 +10,8 @@ import org.dromara.northstar.gateway.sim.trade.OrderRequest.Type;
 
 /**
  * 委托请求管理器
+ * 未完成的委托按合约存放在各自的委托簿中（见 {@link OrderBook}），TICK只撮合本合约中价格可能成交的委托，成交手数由撮合模型决定；
+ * 委托成交完毕或撤单后立即移除，开仓冻结资金随委托的增减与部分成交同步累计
  * @author KevinHuangwl
  *
  */
@@ -17,34 +19,95 @@ public class OrderReqManager implements TickDataAware{
 
 	protected Map<String, OrderRequest> orderMap = new HashMap<>();
 	
+	private final Map<String, OrderBook> bookMap = new HashMap<>();
+	
+	/* 各开仓委托剩余的冻结资金 */
+	private final Map<String, Double> frozenMap = new HashMap<>();
+	
+	private double frozenAmount;
+	
+	private final FillModel fillModel;
+	
+	public OrderReqManager() {
+		this(ImmediateFillModel.INSTANCE);
+	}
+	
+	public OrderReqManager(FillModel fillModel) {
+		this.fillModel = fillModel;
+	}
+	
 	@Override
 	public synchronized void onTick(Tick tick) {
-		orderMap.values().parallelStream().forEach(orderReq -> orderReq.onTick(tick));
+		// 撮合模型需要每个TICK的盘口，以便新委托按最新盘口计算排队位置
+		fillModel.onTick(tick);
+		OrderBook book = bookMap.get(tick.contract().unifiedSymbol());
+		if(book == null) {
+			return;
+		}
+		for(OrderRequest orderReq : book.crossable(tick)) {
+			int pendingVolume = orderReq.pendingVolume();
+			orderReq.onTick(tick);
+			if(orderReq.hasDone()) {
+				remove(orderReq);
+			} else if(orderReq.pendingVolume() < pendingVolume) {
+				releaseFrozen(orderReq, pendingVolume - orderReq.pendingVolume());
+			}
+		}
 	}
 	
 	public synchronized void submitOrder(OrderRequest orderReq) {
-		orderMap.values().stream()
-			.filter(OrderRequest::hasDone)
-			.map(OrderRequest::originOrderId)
-			.toList()
-			.forEach(id -> orderMap.remove(id));
-		
+		OrderRequest prev = orderMap.get(orderReq.originOrderId());
+		if(prev != null) {
+			remove(prev);	// 委托号重复时以新委托为准
+		}
 		orderMap.put(orderReq.originOrderId(), orderReq);
+		bookMap.computeIfAbsent(orderReq.unifiedSymbol(), s -> new OrderBook()).add(orderReq);
+		if(orderReq.orderType() == Type.OPEN) {
+			double cost = orderReq.cost();
+			frozenMap.put(orderReq.originOrderId(), cost);
+			frozenAmount += cost;
+		}
+		fillModel.onSubmit(orderReq);
 	}
 	
 	public synchronized boolean cancelOrder(String originOrderId) {
-		OrderRequest orderReq = orderMap.remove(originOrderId);
+		OrderRequest orderReq = orderMap.get(originOrderId);
 		if(Objects.isNull(orderReq)) {
 			return false;
 		}
+		remove(orderReq);
 		orderReq.cancelOrder();
 		return true;
 	}
 	
+	private void remove(OrderRequest orderReq) {
+		orderMap.remove(orderReq.originOrderId());
+		OrderBook book = bookMap.get(orderReq.unifiedSymbol());
+		if(book != null && book.remove(orderReq) && book.isEmpty()) {
+			bookMap.remove(orderReq.unifiedSymbol());
+		}
+		Double frozen = frozenMap.remove(orderReq.originOrderId());
+		if(frozen != null) {
+			frozenAmount -= frozen;
+		}
+		if(orderMap.isEmpty()) {
+			frozenAmount = 0;	// 消除浮点累计误差
+		}
+		fillModel.onRemove(orderReq);
+	}
+	
+	/* 部分成交后按成交手数释放冻结资金 */
+	private void releaseFrozen(OrderRequest orderReq, int tradedVolume) {
+		Double frozen = frozenMap.get(orderReq.originOrderId());
+		if(frozen == null || orderReq.totalVolume() <= 0) {
+			return;
+		}
+		double released = orderReq.cost() * tradedVolume / orderReq.totalVolume();
+		frozenMap.put(orderReq.originOrderId(), frozen - released);
+		frozenAmount -= released;
+	}
+	
 	public synchronized double totalFrozenAmount() {
-		return orderMap.values().stream()
-					.filter(orderReq -> orderReq.orderType() == Type.OPEN)
-					.mapToDouble(OrderRequest::cost)
-					.sum();
+		return frozenAmount;
 	}
 }
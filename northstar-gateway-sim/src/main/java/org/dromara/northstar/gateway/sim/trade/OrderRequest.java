@@ -35,8 +35,16 @@ public class OrderRequest implements TickDataAware{
 	
 	private boolean hasCancelled;
 	
+	private FillModel fillModel;
+	
 	public OrderRequest(SimGatewayAccount account, SubmitOrderReq submitOrderReq, 
 			Consumer<Order> onOrderCallback, Consumer<Transaction> onTradeCallback) {
+		this(account, submitOrderReq, onOrderCallback, onTradeCallback, ImmediateFillModel.INSTANCE);
+	}
+	
+	public OrderRequest(SimGatewayAccount account, SubmitOrderReq submitOrderReq, 
+			Consumer<Order> onOrderCallback, Consumer<Transaction> onTradeCallback, FillModel fillModel) {
+		this.fillModel = fillModel;
 		this.account = account;
 		this.submitOrderReq = submitOrderReq;
 		this.onOrderCallback = onOrderCallback;
@@ -63,6 +71,22 @@ public class OrderRequest implements TickDataAware{
 		return submitOrderReq.originOrderId();
 	}
 	
+	public String unifiedSymbol() {
+		return submitOrderReq.contract().unifiedSymbol();
+	}
+	
+	public double price() {
+		return submitOrderReq.price();
+	}
+	
+	public DirectionEnum direction() {
+		return submitOrderReq.direction();
+	}
+	
+	public OrderPriceTypeEnum orderPriceType() {
+		return submitOrderReq.orderPriceType();
+	}
+	
 	@Override
 	public void onTick(Tick tick) {
 		if(!StringUtils.equals(submitOrderReq.contract().unifiedSymbol(), tick.contract().unifiedSymbol())) {
@@ -74,27 +98,28 @@ public class OrderRequest implements TickDataAware{
 			if(hasDone()) {
 				return;
 			}
-			if(submitOrderReq.orderPriceType() == OrderPriceTypeEnum.OPT_AnyPrice
-					|| FieldUtils.isSell(submitOrderReq.direction()) && tick.bidPrice().get(0) >= submitOrderReq.price()
-					|| FieldUtils.isBuy(submitOrderReq.direction()) && tick.askPrice().get(0) <= submitOrderReq.price()) {
-				onOrderCallback.accept(orderTemplate.toBuilder()
-						.tradedVolume(submitOrderReq.volume())
-						.tradingDay(tick.tradingDay())
-						.orderDate(tick.actionDay())
-						.updateDate(tick.actionDay())
-						.orderTime(tick.actionTime())
-						.updateTime(tick.actionTime())
-						.statusMsg("全部成交")
-						.orderStatus(OrderStatusEnum.OS_AllTraded)
-						.build());
-				
-				onTradeCallback.accept(Transaction.builder()
-						.dealTick(tick)
-						.orderReq(submitOrderReq)
-						.build());
-				
-				tradedVolume = submitOrderReq.volume();
+			int volume = Math.min(fillModel.fillableVolume(this, tick), pendingVolume());
+			if(volume <= 0) {
+				return;
 			}
+			tradedVolume += volume;
+			boolean allTraded = tradedVolume == submitOrderReq.volume();
+			onOrderCallback.accept(orderTemplate.toBuilder()
+					.tradedVolume(tradedVolume)
+					.tradingDay(tick.tradingDay())
+					.orderDate(tick.actionDay())
+					.updateDate(tick.actionDay())
+					.orderTime(tick.actionTime())
+					.updateTime(tick.actionTime())
+					.statusMsg(allTraded ? "全部成交" : "部分成交")
+					.orderStatus(allTraded ? OrderStatusEnum.OS_AllTraded : OrderStatusEnum.OS_PartTradedQueueing)
+					.build());
+			
+			onTradeCallback.accept(Transaction.builder()
+					.dealTick(tick)
+					.orderReq(submitOrderReq)
+					.volume(volume)
+					.build());
 		}
 	}
 	
@@ -146,6 +171,7 @@ public class OrderRequest implements TickDataAware{
 			return;
 		}
 		onOrderCallback.accept(orderTemplate.toBuilder().statusMsg("已撤单")
+										.tradedVolume(tradedVolume)
 										.orderStatus(OrderStatusEnum.OS_Canceled)
 										.updateTime(LocalTime.now())
 										.build());
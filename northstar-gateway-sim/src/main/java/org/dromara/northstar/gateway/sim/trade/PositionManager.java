@@ -3,13 +3,12 @@ package org.dromara.northstar.gateway.sim.trade;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import org.dromara.northstar.common.TickDataAware;
 import org.dromara.northstar.common.TransactionAware;
 import org.dromara.northstar.common.exception.NoSuchElementException;
 import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.ContractHandleMap;
 import org.dromara.northstar.common.model.core.Order;
 import org.dromara.northstar.common.model.core.Position;
 import org.dromara.northstar.common.model.core.Tick;
@@ -20,6 +19,8 @@ import xyz.redtorch.pb.CoreEnum.DirectionEnum;
 
 /**
  * 管理持仓
+ * 占用保证金与持仓浮盈按各持仓的变化量增量汇总，TICK只更新该合约的两个持仓；
+ * 增量累加会积累浮点误差，因此每隔 RECALIBRATE_INTERVAL 次变更按全部持仓重新汇总一次
  * @author KevinHuangwl
  *
  */
@@ -27,9 +28,16 @@ public class PositionManager implements TransactionAware, TickDataAware {
 	
 	private SimGatewayAccount account;
 	
-	/* unifiedSymbol -> tick */
-	private ConcurrentMap<Contract, TradePosition> buyPosMap = new ConcurrentHashMap<>();
-	private ConcurrentMap<Contract, TradePosition> sellPosMap = new ConcurrentHashMap<>();
+	/* contract -> position，按合约句柄索引 */
+	private ContractHandleMap<TradePosition> buyPosMap = new ContractHandleMap<>();
+	private ContractHandleMap<TradePosition> sellPosMap = new ContractHandleMap<>();
+	
+	private static final int RECALIBRATE_INTERVAL = 1000;
+	
+	/* 增量维护的持仓汇总 */
+	private double holdingMargin;
+	private double holdingProfit;
+	private int numOfUpdates;
 	
 	public PositionManager(SimGatewayAccount account) {
 		this.account = account;
@@ -42,8 +50,43 @@ public class PositionManager implements TransactionAware, TickDataAware {
 
 	@Override
 	public void onTick(Tick tick) {
-		buyPosMap.values().forEach(tp -> tp.onTick(tick));
-		sellPosMap.values().forEach(tp -> tp.onTick(tick));
+		TradePosition buyPos = buyPosMap.get(tick.contract());
+		if(Objects.nonNull(buyPos)) {
+			update(buyPos, () -> buyPos.onTick(tick));
+		}
+		TradePosition sellPos = sellPosMap.get(tick.contract());
+		if(Objects.nonNull(sellPos)) {
+			update(sellPos, () -> sellPos.onTick(tick));
+		}
+	}
+	
+	/* 执行持仓变更，并把该持仓保证金与浮盈的变化量计入汇总 */
+	private void update(TradePosition tp, Runnable action) {
+		double margin = tp.totalMargin();
+		double profit = tp.profit();
+		action.run();
+		holdingMargin += tp.totalMargin() - margin;
+		holdingProfit += tp.profit() - profit;
+		if(++numOfUpdates >= RECALIBRATE_INTERVAL) {
+			recalibrate();
+		}
+	}
+	
+	/* 按全部持仓重新汇总，消除增量累加的误差 */
+	private void recalibrate() {
+		double margin = 0;
+		double profit = 0;
+		for(TradePosition tp : buyPosMap.values()) {
+			margin += tp.totalMargin();
+			profit += tp.profit();
+		}
+		for(TradePosition tp : sellPosMap.values()) {
+			margin += tp.totalMargin();
+			profit += tp.profit();
+		}
+		holdingMargin = margin;
+		holdingProfit = profit;
+		numOfUpdates = 0;
 	}
 
 	@Override
@@ -61,18 +104,16 @@ public class PositionManager implements TransactionAware, TickDataAware {
 	public void onTrade(Trade trade) {
 		DirectionEnum dir = trade.direction();
 		if(FieldUtils.isOpen(trade.offsetFlag())) {
-			TradePosition tp = getPosition(dir, trade.contract(), false);
-			if(Objects.isNull(tp)) {
-				tp = new TradePosition(trade.contract(), dir);
-				getPosMap(dir, false).put(trade.contract(), tp);
-			}
-			tp.onTrade(trade);
+			TradePosition tp = getOrCreatePosition(dir, trade.contract());
+			update(tp, () -> tp.onTrade(trade));
 		} else {
 			TradePosition tp = getPosition(dir, trade.contract(), true);
 			if(Objects.isNull(tp)) {
 				throw new NoSuchElementException(String.format("找不到%s头持仓：%s", FieldUtils.chn(dir), trade.contract().unifiedSymbol()));
 			}
-			tp.onTrade(trade).forEach(account::onDeal);
+			List<Deal> deals = new ArrayList<>();
+			update(tp, () -> deals.addAll(tp.onTrade(trade)));
+			deals.forEach(account::onDeal);
 		}
 	}
 	
@@ -83,6 +124,26 @@ public class PositionManager implements TransactionAware, TickDataAware {
 		return resultList;
 	}
 	
+	/**
+	 * 自上次调用以来有变化的持仓
+	 * @return
+	 */
+	public List<Position> changedPositionFields() {
+		List<Position> resultList = new ArrayList<>();
+		String gatewayId = account.getAccountDescription().getGatewayId();
+		buyPosMap.forEachValue(tp -> {
+			if(tp.pollChanged()) {
+				resultList.add(tp.convertToPosition(gatewayId));
+			}
+		});
+		sellPosMap.forEachValue(tp -> {
+			if(tp.pollChanged()) {
+				resultList.add(tp.convertToPosition(gatewayId));
+			}
+		});
+		return resultList;
+	}
+	
 	public List<Trade> getNonclosedTrade() {
 		List<Trade> resultList = new ArrayList<>();
 		resultList.addAll(buyPosMap.values().stream().flatMap(tp -> tp.getUncloseTrades().stream()).toList());
@@ -91,11 +152,11 @@ public class PositionManager implements TransactionAware, TickDataAware {
 	}
 	
 	public double totalHoldingProfit() {
-		return positionFields().stream().mapToDouble(Position::positionProfit).sum();
+		return holdingProfit;
 	}
 	
 	public double totalMargin() {
-		return positionFields().stream().mapToDouble(Position::exchangeMargin).sum();
+		return holdingMargin;
 	}
 
 	public int getAvailablePosition(DirectionEnum direction, Contract contract) {
@@ -110,7 +171,16 @@ public class PositionManager implements TransactionAware, TickDataAware {
 		return getPosMap(dir, reverse).get(contract);
 	}
 	
-	private ConcurrentMap<Contract, TradePosition> getPosMap(DirectionEnum dir, boolean reverse){
+	private TradePosition getOrCreatePosition(DirectionEnum dir, Contract contract) {
+		TradePosition tp = getPosition(dir, contract, false);
+		if(Objects.isNull(tp)) {
+			tp = new TradePosition(contract, dir);
+			getPosMap(dir, false).put(contract, tp);
+		}
+		return tp;
+	}
+	
+	private ContractHandleMap<TradePosition> getPosMap(DirectionEnum dir, boolean reverse){
 		return switch(dir) {
 		case D_Buy -> reverse ? sellPosMap : buyPosMap;
 		case D_Sell -> reverse ? buyPosMap : sellPosMap;
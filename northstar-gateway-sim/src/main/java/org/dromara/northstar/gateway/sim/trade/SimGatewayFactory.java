@@ -2,6 +2,7 @@ package org.dromara.northstar.gateway.sim.trade;
 
 import java.util.Map;
 
+import org.apache.commons.lang3.StringUtils;
 import org.dromara.northstar.common.constant.GatewayUsage;
 import org.dromara.northstar.common.event.FastEventEngine;
 import org.dromara.northstar.common.model.GatewayDescription;
@@ -13,6 +14,9 @@ import org.dromara.northstar.gateway.IMarketCenter;
 import org.dromara.northstar.gateway.sim.market.SimMarketGatewayLocal;
 import org.dromara.northstar.gateway.sim.market.SimTickGenerator;
 
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
 public class SimGatewayFactory implements GatewayFactory{
 	
 	private FastEventEngine fastEventEngine;
@@ -52,7 +56,17 @@ public class SimGatewayFactory implements GatewayFactory{
 		} else {
 			account = new SimGatewayAccount(simAccountDescription, mktCenter);
 		}
-		return new SimTradeGatewayLocal(fastEventEngine, gatewayDescription, account, simAccountRepo, mktCenter);
+		return new SimTradeGatewayLocal(fastEventEngine, gatewayDescription, account, simAccountRepo, mktCenter, fillModelOf(gatewayDescription));
+	}
+	
+	/* 网关配置中 fillModel 字段指定撮合模型，缺省为价格满足即全部成交 */
+	private FillModel fillModelOf(GatewayDescription gatewayDescription) {
+		if(gatewayDescription.getSettings() == null) {
+			return FillModelType.IMMEDIATE.newInstance();
+		}
+		JSONObject settings = JSON.parseObject(JSON.toJSONString(gatewayDescription.getSettings()));
+		String type = settings == null ? null : settings.getString("fillModel");
+		return StringUtils.isBlank(type) ? FillModelType.IMMEDIATE.newInstance() : FillModelType.valueOf(type).newInstance();
 	}
 
 }
@@ -1,5 +1,6 @@
 package org.dromara.northstar.gateway.sim.trade;
 
+import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.CompletableFuture;
@@ -12,6 +13,7 @@ import org.dromara.northstar.common.event.NorthstarEventType;
 import org.dromara.northstar.common.exception.TradeException;
 import org.dromara.northstar.common.model.GatewayDescription;
 import org.dromara.northstar.common.model.core.Order;
+import org.dromara.northstar.common.model.core.Position;
 import org.dromara.northstar.common.model.core.SubmitOrderReq;
 import org.dromara.northstar.common.model.core.Tick;
 import org.dromara.northstar.common.model.core.Trade;
@@ -56,12 +58,21 @@ public class SimTradeGatewayLocal implements SimTradeGateway{
 	
 	private Timer statusReportTimer;
 	
-	private OrderReqManager orderReqMgr =  new OrderReqManager();
+	private OrderReqManager orderReqMgr;
+	
+	private FillModel fillModel;
 	
 	private IMarketCenter mktCenter;
 	
 	public SimTradeGatewayLocal(FastEventEngine feEngine, GatewayDescription gd, SimGatewayAccount account, ISimAccountRepository simAccountRepo,
 			IMarketCenter mktCenter) {
+		this(feEngine, gd, account, simAccountRepo, mktCenter, ImmediateFillModel.INSTANCE);
+	}
+	
+	public SimTradeGatewayLocal(FastEventEngine feEngine, GatewayDescription gd, SimGatewayAccount account, ISimAccountRepository simAccountRepo,
+			IMarketCenter mktCenter, FillModel fillModel) {
+		this.fillModel = fillModel;
+		this.orderReqMgr = new OrderReqManager(fillModel);
 		this.feEngine = feEngine;
 		this.account = account;
 		this.gd = gd;
@@ -81,10 +92,16 @@ public class SimTradeGatewayLocal implements SimTradeGateway{
 		statusReportTimer = new Timer("SimGatewayTimelyReport", true);
 		statusReportTimer.scheduleAtFixedRate(new TimerTask() {
 			
+			private boolean fullReport = true;
+			
+			// 连线后首次报告全部持仓，之后只报告有变化的持仓
 			@Override
 			public void run() {
 				feEngine.emitEvent(NorthstarEventType.ACCOUNT, account.account());
-				account.getPositionManager().positionFields().forEach(pf -> feEngine.emitEvent(NorthstarEventType.POSITION, pf));
+				PositionManager posMgr = account.getPositionManager();
+				List<Position> positions = fullReport ? posMgr.positionFields() : posMgr.changedPositionFields();
+				fullReport = false;
+				positions.forEach(pf -> feEngine.emitEvent(NorthstarEventType.POSITION, pf));
 			}
 			
 		}, 0, 1000);
@@ -110,7 +127,7 @@ public class SimTradeGatewayLocal implements SimTradeGateway{
 			throw new IllegalStateException("网关未连线");
 		}
 		log.info("[{}] 模拟网关收到下单请求", gd.getGatewayId());
-		OrderRequest orderReq = new OrderRequest(account, submitOrderReq, onOrderCallback, onTradeCallback);
+		OrderRequest orderReq = new OrderRequest(account, submitOrderReq, onOrderCallback, onTradeCallback, fillModel);
 		if(orderReq.validate()) {
 			orderReqMgr.submitOrder(orderReq);
 		}
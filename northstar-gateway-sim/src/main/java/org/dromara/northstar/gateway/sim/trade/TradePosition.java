@@ -7,6 +7,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.dromara.northstar.common.model.core.Contract;
 import org.dromara.northstar.common.model.core.Order;
@@ -23,6 +24,8 @@ import xyz.redtorch.pb.CoreEnum.PositionDirectionEnum;
 /**
  * 交易持仓，代表某个合约一个方向的持仓汇总信息
  * 负责计算加减仓与浮动盈亏
+ * 持仓手数、开仓成本与冻结手数随成交与订单增量维护，查询均为常数时间；
+ * 行情、成交、订单引起的变化会标记为待报告，供定时报告只发送有变化的持仓
  * @author KevinHuangwl
  *
  */
@@ -39,6 +42,15 @@ public class TradePosition {
 	
 	private Tick lastTick;
 	
+	/* 以下为增量维护的汇总值 */
+	private int totalVol;
+	private int tdVol;
+	private double openCost;
+	private int frozenVol;
+	private int tdFrozenVol;
+	
+	private final AtomicBoolean changed = new AtomicBoolean(true);
+	
 	public TradePosition(Contract contract, DirectionEnum direction) {
 		this.contract = contract;
 		this.dir = direction;
@@ -49,9 +61,19 @@ public class TradePosition {
 	 * @param tick
 	 */
 	public void onTick(Tick tick) {
-		if(contract.equals(tick.contract())) {
-			lastTick = tick;
+		if(!contract.equals(tick.contract())) {
+			return;
 		}
+		if(Objects.isNull(lastTick) || !Objects.equals(lastTick.tradingDay(), tick.tradingDay())) {
+			tdVol = trades.stream()
+					.filter(t -> Objects.equals(t.tradingDay(), tick.tradingDay()))
+					.mapToInt(Trade::volume)
+					.sum();
+			changed.set(true);
+		} else if(totalVol > 0 && lastTick.lastPrice() != tick.lastPrice()) {
+			changed.set(true);
+		}
+		lastTick = tick;
 	}
 	
 	/**
@@ -66,10 +88,25 @@ public class TradePosition {
 			) {
 			return;
 		}
+		Order prev;
 		if(order.orderStatus() == OrderStatusEnum.OS_AllTraded || order.orderStatus() == OrderStatusEnum.OS_Canceled) {
-			pendingOrderMap.remove(order.originOrderId());
+			prev = pendingOrderMap.remove(order.originOrderId());
 		} else {
-			pendingOrderMap.put(order.originOrderId(), order);
+			prev = pendingOrderMap.put(order.originOrderId(), order);
+			updateFrozen(order, 1);
+		}
+		if(Objects.nonNull(prev)) {
+			updateFrozen(prev, -1);
+		}
+		changed.set(true);
+	}
+	
+	// 部分成交的委托只冻结未成交部分
+	private void updateFrozen(Order order, int sign) {
+		int vol = order.totalVolume() - order.tradedVolume();
+		frozenVol += sign * vol;
+		if(order.offsetFlag() == OffsetFlagEnum.OF_CloseToday) {
+			tdFrozenVol += sign * vol;
 		}
 	}
 	
@@ -84,11 +121,13 @@ public class TradePosition {
 		}
 		if(FieldUtils.isClose(trade.offsetFlag()) && FieldUtils.isOpposite(dir, trade.direction()))	//平仓时，方向要反向
 		{
+			changed.set(true);
 			return closingOpenTrade(trade);
 		}
 		if(FieldUtils.isOpen(trade.offsetFlag()) && trade.direction() == dir) //开仓时，方向要同向 
 		{
-			trades.add(trade);
+			offerLast(trade);
+			changed.set(true);
 		}
 		return Collections.emptyList();
 	}
@@ -97,11 +136,11 @@ public class TradePosition {
 		List<Deal> resultList = new ArrayList<>();
 		int restVol = trade.volume();
 		while(restVol > 0 && !trades.isEmpty()) {
-			Trade t = trades.pollFirst();
+			Trade t = pollFirst();
 			if(t.volume() > restVol) {
 				Trade openTrade = t.toBuilder().volume(restVol).build();
 				Trade restTrade = t.toBuilder().volume(t.volume() - restVol).build();
-				trades.offerFirst(restTrade);
+				offerFirst(restTrade);
 				resultList.add(Deal.builder().openTrade(openTrade).closeTrade(trade).build());
 				restVol = 0;
 			} else {
@@ -114,6 +153,42 @@ public class TradePosition {
 		return resultList;
 	}
 	
+	/* 成交队列的增删统一经过以下方法，以同步更新汇总值 */
+	private void offerLast(Trade trade) {
+		trades.offerLast(trade);
+		accumulate(trade, 1);
+	}
+	
+	private void offerFirst(Trade trade) {
+		trades.offerFirst(trade);
+		accumulate(trade, 1);
+	}
+	
+	private Trade pollFirst() {
+		Trade trade = trades.pollFirst();
+		accumulate(trade, -1);
+		return trade;
+	}
+	
+	private void accumulate(Trade trade, int sign) {
+		totalVol += sign * trade.volume();
+		openCost += sign * trade.volume() * trade.price();
+		if(Objects.nonNull(lastTick) && Objects.equals(lastTick.tradingDay(), trade.tradingDay())) {
+			tdVol += sign * trade.volume();
+		}
+		if(totalVol == 0) {
+			openCost = 0;	// 清仓时消除浮点累计误差
+		}
+	}
+	
+	/**
+	 * 自上次调用以来持仓是否有变化，调用后清除变化标记
+	 * @return
+	 */
+	public boolean pollChanged() {
+		return changed.getAndSet(false);
+	}
+	
 	/**
 	 * 获取未平仓原始成交
 	 * @return
@@ -127,9 +202,7 @@ public class TradePosition {
 	 * @return
 	 */
 	public int totalVolume() {
-		return trades.stream()
-				.mapToInt(Trade::volume)
-				.reduce(0, Integer::sum);
+		return totalVol;
 	}
 	
 	/**
@@ -138,10 +211,7 @@ public class TradePosition {
 	 */
 	public int tdVolume() {
 		if(Objects.isNull(lastTick)) return 0;
-		return trades.stream()
-				.filter(t -> Objects.equals(t.tradingDay(), lastTick.tradingDay()))
-				.mapToInt(Trade::volume)
-				.reduce(0, Integer::sum);
+		return tdVol;
 	}
 	
 	/**
@@ -150,10 +220,7 @@ public class TradePosition {
 	 */
 	public int ydVolume() {
 		if(Objects.isNull(lastTick)) return 0;
-		return trades.stream()
-				.filter(t -> !Objects.equals(t.tradingDay(), lastTick.tradingDay()))
-				.mapToInt(Trade::volume)
-				.reduce(0, Integer::sum);
+		return totalVol - tdVol;
 	}
 	
 	/**
@@ -161,10 +228,7 @@ public class TradePosition {
 	 * @return
 	 */
 	public int totalAvailable() {
-		int frozen = pendingOrderMap.values().stream()
-				.mapToInt(Order::totalVolume)
-				.reduce(0, Integer::sum);
-		return totalVolume() - frozen;
+		return totalVol - frozenVol;
 	}
 	
 	/**
@@ -172,11 +236,7 @@ public class TradePosition {
 	 * @return
 	 */
 	public int tdAvailable() {
-		int tdFrozen = pendingOrderMap.values().stream()
-				.filter(order -> order.offsetFlag() == OffsetFlagEnum.OF_CloseToday)
-				.mapToInt(Order::totalVolume)
-				.reduce(0, Integer::sum);
-		return tdVolume() - tdFrozen;
+		return tdVolume() - tdFrozenVol;
 	}
 	
 	/**
@@ -184,11 +244,7 @@ public class TradePosition {
 	 * @return
 	 */
 	public int ydAvailable() {
-		int ydFrozen = pendingOrderMap.values().stream()
-				.filter(order -> order.offsetFlag() != OffsetFlagEnum.OF_CloseToday)
-				.mapToInt(Order::totalVolume)
-				.reduce(0, Integer::sum);
-		return ydVolume() - ydFrozen;
+		return ydVolume() - (frozenVol - tdFrozenVol);
 	}
 	
 	/**
@@ -196,11 +252,8 @@ public class TradePosition {
 	 * @return
 	 */
 	public double avgOpenPrice() {
-		int totalVol = totalVolume();
 		if(totalVol == 0) 	return 0;
-		return trades.stream()
-				.mapToDouble(t -> t.volume() * t.price())
-				.reduce(0D, Double::sum) / totalVol;
+		return openCost / totalVol;
 	}
 	
 	/**
@@ -210,8 +263,7 @@ public class TradePosition {
 	public double profit() {
 		if(Objects.isNull(lastTick)) return 0;
 		int factor = FieldUtils.directionFactor(dir);
-		double priceDiff = factor * (lastTick.lastPrice() - avgOpenPrice());
-		return priceDiff * totalVolume() * contract.multiplier();
+		return factor * (lastTick.lastPrice() * totalVol - openCost) * contract.multiplier();
 	}
 	
 	/**
@@ -220,7 +272,7 @@ public class TradePosition {
 	 */
 	public double totalMargin() {
 		double ratio = FieldUtils.isBuy(dir) ? contract.longMarginRatio() : contract.shortMarginRatio();
-		return totalVolume() * avgOpenPrice() * contract.multiplier() * ratio;
+		return openCost * contract.multiplier() * ratio;
 	}
 	
 	/**
@@ -257,6 +309,9 @@ public class TradePosition {
 	 */
 	public void releaseOrders() {
 		pendingOrderMap.clear();
+		frozenVol = 0;
+		tdFrozenVol = 0;
+		changed.set(true);
 	}
 
 }
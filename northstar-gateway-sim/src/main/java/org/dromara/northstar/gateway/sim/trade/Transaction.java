@@ -1,5 +1,7 @@
 package org.dromara.northstar.gateway.sim.trade;
 
+import java.util.List;
+
 import org.dromara.northstar.common.model.core.SubmitOrderReq;
 import org.dromara.northstar.common.model.core.Tick;
 import org.dromara.northstar.common.model.core.Trade;
@@ -24,6 +26,13 @@ public class Transaction {
 	
 	private SubmitOrderReq orderReq;
 	
+	/* 本次成交手数，为0时表示委托全部成交 */
+	private int volume;
+	
+	public Transaction(Tick dealTick, SubmitOrderReq orderReq) {
+		this(dealTick, orderReq, 0);
+	}
+	
 	public Trade trade() {
 		return Trade.builder()
 				.contract(orderReq.contract())
@@ -38,7 +47,7 @@ public class Transaction {
 				.tradeDate(dealTick.actionDay())
 				.tradingDay(dealTick.tradingDay())
 				.tradeTime(dealTick.actionTime())
-				.volume(orderReq.volume())
+				.volume(volume > 0 ? volume : orderReq.volume())
 				.build();
 	}
 	
@@ -46,8 +55,8 @@ public class Transaction {
 		double dealPrice = 0;
 		if(orderReq.orderPriceType() == OrderPriceTypeEnum.OPT_AnyPrice) {
 			dealPrice = switch(orderReq.direction()) {
-				case D_Buy -> dealTick.askPrice().get(0) > 0 ? dealTick.askPrice().get(0) : dealTick.lastPrice();
-				case D_Sell -> dealTick.bidPrice().get(0) > 0 ? dealTick.bidPrice().get(0) : dealTick.lastPrice();
+				case D_Buy -> quote(dealTick.askPrice());
+				case D_Sell -> quote(dealTick.bidPrice());
 				default -> throw new IllegalArgumentException("Unexpected value: " + orderReq.direction());
 			};
 		} else {
@@ -55,4 +64,9 @@ public class Transaction {
 		}
 		return dealPrice;
 	}
+	
+	/* 没有盘口报价时以最新价成交 */
+	private double quote(List<Double> prices) {
+		return prices != null && !prices.isEmpty() && prices.get(0) > 0 ? prices.get(0) : dealTick.lastPrice();
+	}
 }
@@ -0,0 +1,114 @@
+package org.dromara.northstar.gateway.sim.trade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.Tick;
+import org.junit.jupiter.api.Test;
+
+import xyz.redtorch.pb.CoreEnum.DirectionEnum;
+import xyz.redtorch.pb.CoreEnum.OrderPriceTypeEnum;
+
+class DepthQueueFillModelTest {
+
+	DepthQueueFillModel model = new DepthQueueFillModel();
+
+	Contract contract = Contract.builder().unifiedSymbol("rb2205@SHFE@FUTURES").build();
+
+	private Tick tick(double last, long volumeDelta) {
+		return Tick.builder().contract(contract).lastPrice(last).volumeDelta(volumeDelta)
+				.bidPrice(List.of(5000D, 4999D)).bidVolume(List.of(5, 8))
+				.askPrice(List.of(5001D, 5002D)).askVolume(List.of(3, 4))
+				.build();
+	}
+
+	private OrderRequest order(String id, DirectionEnum direction, OrderPriceTypeEnum priceType, double price, int pendingVolume) {
+		OrderRequest orderReq = mock(OrderRequest.class);
+		when(orderReq.originOrderId()).thenReturn(id);
+		when(orderReq.unifiedSymbol()).thenReturn(contract.unifiedSymbol());
+		when(orderReq.direction()).thenReturn(direction);
+		when(orderReq.orderPriceType()).thenReturn(priceType);
+		when(orderReq.price()).thenReturn(price);
+		when(orderReq.pendingVolume()).thenReturn(pendingVolume);
+		return orderReq;
+	}
+
+	@Test
+	void testAggressiveOrdersShareDisplayedDepth() {
+		Tick tick = tick(5001, 0);
+		model.onTick(tick);
+		OrderRequest first = order("1", DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_LimitPrice, 5002, 10);
+		OrderRequest second = order("2", DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_LimitPrice, 5002, 10);
+
+		assertThat(model.fillableVolume(first, tick)).isEqualTo(7);
+		assertThat(model.fillableVolume(second, tick)).isZero();
+		// 新TICK恢复盘口数量
+		Tick next = tick(5001, 0);
+		model.onTick(next);
+		assertThat(model.fillableVolume(second, next)).isEqualTo(7);
+	}
+
+	@Test
+	void testLimitPriceCapsLevels() {
+		Tick tick = tick(5001, 0);
+		model.onTick(tick);
+		OrderRequest order = order("1", DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_LimitPrice, 5001, 10);
+		assertThat(model.fillableVolume(order, tick)).isEqualTo(3);
+	}
+
+	@Test
+	void testMarketOrderSweepsVisibleLevels() {
+		Tick tick = tick(5000, 0);
+		model.onTick(tick);
+		OrderRequest order = order("1", DirectionEnum.D_Sell, OrderPriceTypeEnum.OPT_AnyPrice, 0, 20);
+		assertThat(model.fillableVolume(order, tick)).isEqualTo(13);
+	}
+
+	@Test
+	void testPassiveOrderWaitsForQueueAhead() {
+		model.onTick(tick(5001, 0));
+		OrderRequest order = order("1", DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_LimitPrice, 5000, 4);
+		model.onSubmit(order);	// 前方排队5手
+
+		Tick t1 = tick(5000, 3);
+		model.onTick(t1);
+		assertThat(model.fillableVolume(order, t1)).isZero();
+
+		Tick t2 = tick(5000, 4);
+		model.onTick(t2);
+		assertThat(model.fillableVolume(order, t2)).isEqualTo(2);
+	}
+
+	@Test
+	void testTradeThroughClearsQueue() {
+		model.onTick(tick(5001, 0));
+		OrderRequest order = order("1", DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_LimitPrice, 5000, 4);
+		model.onSubmit(order);
+
+		Tick t1 = Tick.builder().contract(contract).lastPrice(4998).volumeDelta(3)
+				.bidPrice(List.of(4997D)).bidVolume(List.of(5))
+				.askPrice(List.of(4998D)).askVolume(List.of(1))
+				.build();
+		model.onTick(t1);
+		// 卖一价已低于委托价，先按对手盘主动成交
+		assertThat(model.fillableVolume(order, t1)).isEqualTo(1);
+	}
+
+	@Test
+	void testPassiveOrderBetterThanBestHasNoQueue() {
+		model.onTick(tick(5001, 0));
+		OrderRequest order = order("1", DirectionEnum.D_Sell, OrderPriceTypeEnum.OPT_LimitPrice, 5000.5, 4);
+		model.onSubmit(order);
+
+		Tick t1 = Tick.builder().contract(contract).lastPrice(5000.5).volumeDelta(3)
+				.bidPrice(List.of(5000D)).bidVolume(List.of(5))
+				.askPrice(List.of(5000.5)).askVolume(List.of(4))
+				.build();
+		model.onTick(t1);
+		assertThat(model.fillableVolume(order, t1)).isEqualTo(3);
+	}
+}
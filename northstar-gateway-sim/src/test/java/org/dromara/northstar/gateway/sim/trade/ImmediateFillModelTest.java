@@ -0,0 +1,59 @@
+package org.dromara.northstar.gateway.sim.trade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.Tick;
+import org.junit.jupiter.api.Test;
+
+import xyz.redtorch.pb.CoreEnum.DirectionEnum;
+import xyz.redtorch.pb.CoreEnum.OrderPriceTypeEnum;
+
+class ImmediateFillModelTest {
+
+	ImmediateFillModel model = ImmediateFillModel.INSTANCE;
+
+	Contract contract = Contract.builder().unifiedSymbol("rb2205@SHFE@FUTURES").build();
+
+	Tick quote = Tick.builder().contract(contract).lastPrice(5000)
+			.bidPrice(List.of(5000D)).askPrice(List.of(5001D))
+			.build();
+
+	Tick noDepth = Tick.builder().contract(contract).lastPrice(5000)
+			.bidPrice(List.of()).askPrice(List.of())
+			.build();
+
+	private OrderRequest order(DirectionEnum direction, OrderPriceTypeEnum priceType, double price, int pendingVolume) {
+		OrderRequest orderReq = mock(OrderRequest.class);
+		when(orderReq.unifiedSymbol()).thenReturn(contract.unifiedSymbol());
+		when(orderReq.direction()).thenReturn(direction);
+		when(orderReq.orderPriceType()).thenReturn(priceType);
+		when(orderReq.price()).thenReturn(price);
+		when(orderReq.pendingVolume()).thenReturn(pendingVolume);
+		return orderReq;
+	}
+
+	@Test
+	void testMarketOrderFillsAll() {
+		assertThat(model.fillableVolume(order(DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_AnyPrice, 0, 5), quote)).isEqualTo(5);
+		assertThat(model.fillableVolume(order(DirectionEnum.D_Sell, OrderPriceTypeEnum.OPT_AnyPrice, 0, 5), quote)).isEqualTo(5);
+	}
+
+	@Test
+	void testLimitOrderFillsWhenPriceCrosses() {
+		assertThat(model.fillableVolume(order(DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_LimitPrice, 5001, 2), quote)).isEqualTo(2);
+		assertThat(model.fillableVolume(order(DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_LimitPrice, 5000, 2), quote)).isZero();
+		assertThat(model.fillableVolume(order(DirectionEnum.D_Sell, OrderPriceTypeEnum.OPT_LimitPrice, 5000, 3), quote)).isEqualTo(3);
+		assertThat(model.fillableVolume(order(DirectionEnum.D_Sell, OrderPriceTypeEnum.OPT_LimitPrice, 5001, 3), quote)).isZero();
+	}
+
+	@Test
+	void testLastPriceUsedWithoutDepth() {
+		assertThat(model.fillableVolume(order(DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_LimitPrice, 5001, 2), noDepth)).isEqualTo(2);
+		assertThat(model.fillableVolume(order(DirectionEnum.D_Sell, OrderPriceTypeEnum.OPT_LimitPrice, 5001, 3), noDepth)).isZero();
+	}
+}
@@ -2,10 +2,13 @@ package org.dromara.northstar.gateway.sim.trade;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Map;
 
 import org.dromara.northstar.common.model.core.Contract;
@@ -15,6 +18,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import xyz.redtorch.pb.CoreEnum.DirectionEnum;
+import xyz.redtorch.pb.CoreEnum.OrderPriceTypeEnum;
+
 class OrderReqManagerTest {
 
 	private OrderReqManager manager;
@@ -74,4 +80,84 @@ class OrderReqManagerTest {
 		assertEquals(300.0, totalFrozenAmount, 0.0);
 	}
 
+	private OrderRequest limitOrder(String id, String unifiedSymbol, DirectionEnum direction, double price) {
+		OrderRequest orderReq = Mockito.mock(OrderRequest.class);
+		when(orderReq.originOrderId()).thenReturn(id);
+		when(orderReq.unifiedSymbol()).thenReturn(unifiedSymbol);
+		when(orderReq.direction()).thenReturn(direction);
+		when(orderReq.price()).thenReturn(price);
+		when(orderReq.orderPriceType()).thenReturn(OrderPriceTypeEnum.OPT_LimitPrice);
+		when(orderReq.orderType()).thenReturn(Type.OPEN);
+		when(orderReq.cost()).thenReturn(100.0);
+		return orderReq;
+	}
+
+	private Tick quote(String unifiedSymbol, double bid, double ask) {
+		return Tick.builder().contract(Contract.builder().unifiedSymbol(unifiedSymbol).build())
+				.bidPrice(List.of(bid)).askPrice(List.of(ask)).lastPrice(ask).build();
+	}
+
+	@Test
+	void testTickOnlyTouchesCrossableOrdersOfItsContract() {
+		OrderRequest farBuy = limitOrder("1", "rb@SHFE", DirectionEnum.D_Buy, 4000);
+		OrderRequest nearBuy = limitOrder("2", "rb@SHFE", DirectionEnum.D_Buy, 5001);
+		OrderRequest farSell = limitOrder("3", "rb@SHFE", DirectionEnum.D_Sell, 6000);
+		OrderRequest nearSell = limitOrder("4", "rb@SHFE", DirectionEnum.D_Sell, 4999);
+		OrderRequest otherContract = limitOrder("5", "hc@SHFE", DirectionEnum.D_Buy, 9999);
+		List.of(farBuy, nearBuy, farSell, nearSell, otherContract).forEach(manager::submitOrder);
+
+		Tick tick = quote("rb@SHFE", 5000, 5001);
+		manager.onTick(tick);
+
+		verify(nearBuy).onTick(tick);
+		verify(nearSell).onTick(tick);
+		verify(farBuy, never()).onTick(any());
+		verify(farSell, never()).onTick(any());
+		verify(otherContract, never()).onTick(any());
+	}
+
+	@Test
+	void testDoneOrdersRemovedEagerly() {
+		OrderRequest order = limitOrder("1", "rb@SHFE", DirectionEnum.D_Buy, 5001);
+		manager.submitOrder(order);
+		assertEquals(100.0, manager.totalFrozenAmount(), 0.0);
+
+		when(order.hasDone()).thenReturn(true);
+		manager.onTick(quote("rb@SHFE", 5000, 5001));
+
+		assertEquals(0, manager.orderMap.size());
+		assertEquals(0.0, manager.totalFrozenAmount(), 0.0);
+		manager.onTick(quote("rb@SHFE", 5000, 5001));
+		verify(order, times(1)).onTick(any());
+	}
+
+	@Test
+	void testFrozenAmountReleasedOnCancel() {
+		manager.submitOrder(limitOrder("1", "rb@SHFE", DirectionEnum.D_Buy, 4000));
+		manager.submitOrder(limitOrder("2", "rb@SHFE", DirectionEnum.D_Sell, 6000));
+		assertEquals(200.0, manager.totalFrozenAmount(), 0.0);
+
+		assertTrue(manager.cancelOrder("1"));
+		assertEquals(100.0, manager.totalFrozenAmount(), 0.0);
+	}
+
+	@Test
+	void testFillModelSeesEveryTick() {
+		FillModel fillModel = Mockito.mock(FillModel.class);
+		manager = new OrderReqManager(fillModel);
+		Tick tick = quote("rb@SHFE", 5000, 5001);
+		manager.onTick(tick);
+
+		verify(fillModel).onTick(tick);
+	}
+
+	@Test
+	void testTickWithoutDepthReachesOrders() {
+		OrderRequest buy = limitOrder("1", "rb@SHFE", DirectionEnum.D_Buy, 5001);
+		Tick noDepth = Tick.builder().contract(Contract.builder().unifiedSymbol("rb@SHFE").build())
+				.bidPrice(List.of()).askPrice(List.of()).lastPrice(5000).build();
+		manager.submitOrder(buy);
+		manager.onTick(noDepth);
+		verify(buy).onTick(noDepth);
+	}
 }
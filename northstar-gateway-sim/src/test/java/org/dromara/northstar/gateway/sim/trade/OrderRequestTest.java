@@ -16,10 +16,12 @@ import org.dromara.northstar.common.model.core.Order;
 import org.dromara.northstar.common.model.core.SubmitOrderReq;
 import org.dromara.northstar.common.model.core.Tick;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import xyz.redtorch.pb.CoreEnum.DirectionEnum;
 import xyz.redtorch.pb.CoreEnum.OffsetFlagEnum;
 import xyz.redtorch.pb.CoreEnum.OrderPriceTypeEnum;
+import xyz.redtorch.pb.CoreEnum.OrderStatusEnum;
 
 class OrderRequestTest {
 
@@ -89,4 +91,26 @@ class OrderRequestTest {
     	assertThat(orderRequest.validate()).isFalse();
     }
     
+    @Test
+    void testPartialFills() {
+    	SubmitOrderReq req = mockSubmitOrderReq.toBuilder().direction(DirectionEnum.D_Buy).offsetFlag(OffsetFlagEnum.OF_Open).build();
+    	// 每个TICK最多成交4手
+    	orderRequest = new OrderRequest(mockAccount, req, mockOnOrderCallback, mockOnTradeCallback, (orderReq, tick) -> 4);
+    	ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+    	ArgumentCaptor<Transaction> tradeCaptor = ArgumentCaptor.forClass(Transaction.class);
+    	
+    	orderRequest.onTick(tick1);
+    	orderRequest.onTick(tick1);
+    	assertThat(orderRequest.hasDone()).isFalse();
+    	orderRequest.onTick(tick1);
+    	assertThat(orderRequest.hasDone()).isTrue();
+    	orderRequest.onTick(tick1);
+    	
+    	verify(mockOnOrderCallback, times(3)).accept(orderCaptor.capture());
+    	verify(mockOnTradeCallback, times(3)).accept(tradeCaptor.capture());
+    	assertThat(orderCaptor.getAllValues()).extracting(Order::orderStatus)
+    		.containsExactly(OrderStatusEnum.OS_PartTradedQueueing, OrderStatusEnum.OS_PartTradedQueueing, OrderStatusEnum.OS_AllTraded);
+    	assertThat(orderCaptor.getAllValues()).extracting(Order::tradedVolume).containsExactly(4, 8, 10);
+    	assertThat(tradeCaptor.getAllValues()).extracting(Transaction::getVolume).containsExactly(4, 4, 2);
+    }
 }
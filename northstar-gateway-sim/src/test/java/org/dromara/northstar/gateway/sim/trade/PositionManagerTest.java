@@ -4,9 +4,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.offset;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
 
 import org.dromara.northstar.common.model.core.Contract;
 import org.dromara.northstar.common.model.core.Order;
+import org.dromara.northstar.common.model.core.Position;
 import org.dromara.northstar.common.model.core.Tick;
 import org.dromara.northstar.common.model.core.Trade;
 import org.junit.jupiter.api.Test;
@@ -73,4 +76,52 @@ class PositionManagerTest {
 		assertThat(posMgr.totalHoldingProfit()).isCloseTo(330, offset(1D));
 	}
 
+	@Test
+	void testIncrementalAggregates() {
+		posMgr.onTrade(openTrade);
+		posMgr.onTrade(openTrade1);
+		posMgr.onTick(tick1);
+		posMgr.onTick(tick2);
+		posMgr.onTrade(closeTrade);
+		
+		assertThat(posMgr.totalMargin()).isCloseTo(4240, offset(1D));
+		assertThat(posMgr.totalHoldingProfit()).isCloseTo(-1890, offset(1D));
+		assertThat(posMgr.totalMargin()).isCloseTo(posMgr.positionFields().stream().mapToDouble(Position::exchangeMargin).sum(), offset(1e-6));
+	}
+
+	@Test
+	void testAggregatesMatchPositionsAfterManyUpdates() {
+		posMgr.onTrade(openTrade);
+		posMgr.onTrade(openTrade1);
+		posMgr.onTrade(Trade.builder().tradingDay(today).contract(c2).price(4000).volume(3).direction(DirectionEnum.D_Sell).offsetFlag(OffsetFlagEnum.OF_Open).build());
+		Random rand = new Random(1);
+		for(int i=0; i<10000; i++) {
+			Contract c = i % 2 == 0 ? c1 : c2;
+			posMgr.onTick(Tick.builder().tradingDay(today).contract(c).lastPrice(4000 + rand.nextInt(2000) + rand.nextDouble()).build());
+			if(i % 3000 == 0) {
+				posMgr.onTrade(Trade.builder().tradingDay(today).contract(c1).price(5000 + rand.nextInt(100)).volume(1).direction(DirectionEnum.D_Buy).offsetFlag(OffsetFlagEnum.OF_Open).build());
+			}
+		}
+		
+		List<Position> positions = posMgr.positionFields();
+		assertThat(posMgr.totalMargin()).isCloseTo(positions.stream().mapToDouble(Position::exchangeMargin).sum(), offset(1e-6));
+		assertThat(posMgr.totalHoldingProfit()).isCloseTo(positions.stream().mapToDouble(Position::positionProfit).sum(), offset(1e-6));
+	}
+
+	@Test
+	void testChangedPositionFields() {
+		posMgr.onTrade(openTrade);
+		assertThat(posMgr.changedPositionFields()).hasSize(1);
+		assertThat(posMgr.changedPositionFields()).isEmpty();
+		
+		posMgr.onTick(tick1);
+		assertThat(posMgr.changedPositionFields()).hasSize(1);
+		posMgr.onTick(tick1);
+		posMgr.onTick(tick2);
+		assertThat(posMgr.changedPositionFields()).isEmpty();
+		
+		posMgr.onOrder(order2);
+		assertThat(posMgr.changedPositionFields()).hasSize(1);
+	}
+
 }
@@ -0,0 +1,47 @@
+package org.dromara.northstar.gateway.sim.trade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.SubmitOrderReq;
+import org.dromara.northstar.common.model.core.Tick;
+import org.junit.jupiter.api.Test;
+
+import xyz.redtorch.pb.CoreEnum.DirectionEnum;
+import xyz.redtorch.pb.CoreEnum.OrderPriceTypeEnum;
+
+class TransactionTest {
+
+	Contract contract = Contract.builder().unifiedSymbol("rb2205@SHFE@FUTURES").build();
+
+	Tick quote = Tick.builder().contract(contract).lastPrice(5000)
+			.bidPrice(List.of(4999D)).askPrice(List.of(5001D))
+			.build();
+
+	Tick noDepth = Tick.builder().contract(contract).lastPrice(5000)
+			.bidPrice(List.of()).askPrice(List.of())
+			.build();
+
+	private SubmitOrderReq orderReq(DirectionEnum direction, OrderPriceTypeEnum priceType) {
+		return SubmitOrderReq.builder().contract(contract).direction(direction).orderPriceType(priceType).price(5100).build();
+	}
+
+	@Test
+	void testMarketOrderDealsAtOppositeQuote() {
+		assertThat(Transaction.builder().dealTick(quote).orderReq(orderReq(DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_AnyPrice)).build().dealPrice()).isEqualTo(5001);
+		assertThat(Transaction.builder().dealTick(quote).orderReq(orderReq(DirectionEnum.D_Sell, OrderPriceTypeEnum.OPT_AnyPrice)).build().dealPrice()).isEqualTo(4999);
+	}
+
+	@Test
+	void testMarketOrderDealsAtLastPriceWithoutDepth() {
+		assertThat(Transaction.builder().dealTick(noDepth).orderReq(orderReq(DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_AnyPrice)).build().dealPrice()).isEqualTo(5000);
+		assertThat(Transaction.builder().dealTick(noDepth).orderReq(orderReq(DirectionEnum.D_Sell, OrderPriceTypeEnum.OPT_AnyPrice)).build().dealPrice()).isEqualTo(5000);
+	}
+
+	@Test
+	void testLimitOrderDealsAtLastPrice() {
+		assertThat(Transaction.builder().dealTick(quote).orderReq(orderReq(DirectionEnum.D_Buy, OrderPriceTypeEnum.OPT_LimitPrice)).build().dealPrice()).isEqualTo(5000);
+	}
+}
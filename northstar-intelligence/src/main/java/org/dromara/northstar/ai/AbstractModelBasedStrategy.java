@@ -2,11 +2,11 @@ package org.dromara.northstar.ai;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
 
+import org.dromara.northstar.ai.infer.BatchPredictExecutor;
 import org.dromara.northstar.ai.infer.PretrainedModel;
-import org.dromara.northstar.common.utils.CommonUtils;
 import org.dromara.northstar.strategy.AbstractStrategy;
 import org.dromara.northstar.strategy.IModuleContext;
 import org.slf4j.Logger;
@@ -20,9 +20,12 @@ public abstract class AbstractModelBasedStrategy extends AbstractStrategy implem
 	protected static final String MODE_PREDICTING = "predicting";
 	protected static final String MODE_SAMPLING = "sampling";
 	
+	/* 单个批次的最大样本数 */
+	private static final int MAX_BATCH_SIZE = 64;
+	
 	protected PretrainedModel model;
 	
-	private ExecutorService exec = CommonUtils.newThreadPerTaskExecutor(getClass());
+	private BatchPredictExecutor predictor;
 	
 	@Override
 	public void setContext(IModuleContext context) {
@@ -35,7 +38,28 @@ public abstract class AbstractModelBasedStrategy extends AbstractStrategy implem
 			if(!path.toFile().exists()) {
 				throw new IllegalStateException("在models目录下找不到此模组的预训练模型");
 			}
+			release();		// 模组重新设置上下文时，释放之前的模型会话
 			model = new PretrainedModel(path, inputDim(), outputDim());
+			// 不额外等待，只合并推理期间积压的请求，多合约同时触发预测时可以共用一次会话调用
+			predictor = new BatchPredictExecutor(model, MAX_BATCH_SIZE, Duration.ZERO);
+		}
+	}
+	
+	/* 模组卸载时，停止推理线程并释放模型会话 */
+	@Override
+	public void dispose() {
+		release();
+	}
+	
+	/* 先停止执行器再关闭模型，避免推理线程使用已关闭的会话 */
+	private void release() {
+		if(predictor != null) {
+			predictor.close();
+			predictor = null;
+		}
+		if(model != null) {
+			model.close();
+			model = null;
 		}
 	}
 
@@ -53,10 +77,11 @@ public abstract class AbstractModelBasedStrategy extends AbstractStrategy implem
 	/**
 	 * 预测
 	 * 注意，由于model.predict是阻塞方法，因此应该使用异步回调来处理计算结果
+	 * 请求经由批量推理执行器提交，与同一模组的其他预测请求合并推理
 	 * @return
 	 */
 	protected CompletableFuture<float[]> predict(){
-		return CompletableFuture.supplyAsync(() -> model.predict(sample().states()), exec);
+		return predictor.submit(sample().states());
 	}
 	
 }
@@ -0,0 +1,161 @@
+package org.dromara.northstar.ai.infer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 批量推理执行器
+ * 多个合约或模组异步提交的预测请求进入同一个队列，由唯一的虚拟线程合并成批次后调用一次 {@link PretrainedModel#predict(float[][])}；
+ * 每个批次最多包含 maxBatchSize 个样本，首个请求到达后最多等待 maxWait 以凑满批次。maxWait 为零时不额外等待，
+ * 只合并上一批次推理期间积压的请求，因此在低负载下不会增加延时
+ * 执行器不负责关闭模型，模型的生命周期由调用方管理
+ * @author KevinHuangwl
+ *
+ */
+@Slf4j
+public class BatchPredictExecutor implements AutoCloseable {
+
+	private final PretrainedModel model;
+
+	private final int maxBatchSize;
+
+	private final long maxWaitNanos;
+
+	private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+
+	private final InferenceMetrics metrics = new InferenceMetrics();
+
+	private final Thread worker;
+
+	private volatile boolean closed;
+
+	public BatchPredictExecutor(PretrainedModel model, int maxBatchSize, Duration maxWait) {
+		Assert.isTrue(maxBatchSize > 0, "批量大小必须为正数");
+		Assert.isTrue(!maxWait.isNegative(), "等待时间不能为负数");
+		this.model = model;
+		this.maxBatchSize = maxBatchSize;
+		this.maxWaitNanos = maxWait.toNanos();
+		this.worker = Thread.ofVirtual().name("BatchPredict-" + System.identityHashCode(this)).start(this::consume);
+	}
+
+	/**
+	 * 提交预测请求
+	 * @param inputs
+	 * @return		推理完成时返回模型输出；推理失败或执行器关闭时异常结束
+	 */
+	public CompletableFuture<float[]> submit(float... inputs) {
+		Assert.isTrue(inputs.length == model.inputDim(), () -> String.format("输入层的维度与期望不一致。期望%s，实际%s", model.inputDim(), inputs.length));
+		CompletableFuture<float[]> future = new CompletableFuture<>();
+		if(closed) {
+			future.completeExceptionally(new IllegalStateException("批量推理执行器已关闭"));
+			return future;
+		}
+		Request req = new Request(inputs, future, System.nanoTime());
+		queue.offer(req);
+		// 与关闭操作并发时，确保请求不会遗留在队列中
+		if(closed && queue.remove(req)) {
+			future.completeExceptionally(new IllegalStateException("批量推理执行器已关闭"));
+		}
+		return future;
+	}
+
+	private void consume() {
+		List<Request> batch = new ArrayList<>(maxBatchSize);
+		while(!closed) {
+			try {
+				batch.add(queue.take());
+				fill(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				failAll(batch);
+				return;
+			}
+			execute(batch);
+			batch.clear();
+		}
+	}
+
+	private void fill(List<Request> batch) throws InterruptedException {
+		queue.drainTo(batch, maxBatchSize - batch.size());
+		long deadline = System.nanoTime() + maxWaitNanos;
+		while(batch.size() < maxBatchSize) {
+			long remaining = deadline - System.nanoTime();
+			if(remaining <= 0) {
+				return;
+			}
+			Request req = queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if(req == null) {
+				return;
+			}
+			batch.add(req);
+			queue.drainTo(batch, maxBatchSize - batch.size());
+		}
+	}
+
+	private void execute(List<Request> batch) {
+		float[][] inputs = new float[batch.size()][];
+		for(int i=0; i<inputs.length; i++) {
+			inputs[i] = batch.get(i).inputs();
+		}
+		float[][] outputs;
+		try {
+			outputs = model.predict(inputs);
+		} catch (Exception e) {
+			log.warn("批量推理异常", e);
+			record(batch);
+			batch.forEach(req -> req.future().completeExceptionally(e));
+			return;
+		}
+		record(batch);
+		for(int i=0; i<outputs.length; i++) {
+			batch.get(i).future().complete(outputs[i]);
+		}
+	}
+
+	/* 先记录统计再完成请求，调用方拿到结果时统计已经更新；以批次中最早的请求计算从提交到完成的耗时 */
+	private void record(List<Request> batch) {
+		metrics.record(batch.size(), System.nanoTime() - batch.get(0).submitNanos());
+	}
+
+	private void failAll(List<Request> requests) {
+		IllegalStateException ex = new IllegalStateException("批量推理执行器已关闭");
+		requests.forEach(req -> req.future().completeExceptionally(ex));
+	}
+
+	/**
+	 * 停止执行器
+	 * 正在推理的批次会正常完成，尚未处理的请求以异常结束
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		worker.interrupt();
+		try {
+			worker.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		List<Request> pending = new ArrayList<>();
+		queue.drainTo(pending);
+		failAll(pending);
+	}
+
+	/**
+	 * 请求维度的统计，耗时包含排队时间
+	 * @return
+	 */
+	public InferenceMetrics metrics() {
+		return metrics;
+	}
+
+	private record Request(float[] inputs, CompletableFuture<float[]> future, long submitNanos) {}
+}
@@ -0,0 +1,102 @@
+package org.dromara.northstar.ai.infer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 推理统计
+ * 按批次累计调用次数、样本数与耗时，用于观察批量推理的效果
+ * @author KevinHuangwl
+ *
+ */
+public class InferenceMetrics {
+
+	private final AtomicLong batchCount = new AtomicLong();
+
+	private final AtomicLong sampleCount = new AtomicLong();
+
+	private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+	private final AtomicLong maxBatchSize = new AtomicLong();
+
+	private volatile long lastLatencyNanos;
+
+	/**
+	 * 记录一个批次
+	 * @param batchSize
+	 * @param latencyNanos
+	 */
+	public void record(int batchSize, long latencyNanos) {
+		batchCount.incrementAndGet();
+		sampleCount.addAndGet(batchSize);
+		totalLatencyNanos.addAndGet(latencyNanos);
+		maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+		maxBatchSize.accumulateAndGet(batchSize, Math::max);
+		lastLatencyNanos = latencyNanos;
+	}
+
+	/**
+	 * 批次数
+	 * @return
+	 */
+	public long batchCount() {
+		return batchCount.get();
+	}
+
+	/**
+	 * 样本数
+	 * @return
+	 */
+	public long sampleCount() {
+		return sampleCount.get();
+	}
+
+	/**
+	 * 平均批量大小
+	 * @return
+	 */
+	public double avgBatchSize() {
+		long batches = batchCount.get();
+		return batches == 0 ? 0 : (double) sampleCount.get() / batches;
+	}
+
+	/**
+	 * 最大批量大小
+	 * @return
+	 */
+	public long maxBatchSize() {
+		return maxBatchSize.get();
+	}
+
+	/**
+	 * 每个批次的平均耗时（纳秒）
+	 * @return
+	 */
+	public double avgLatencyNanos() {
+		long batches = batchCount.get();
+		return batches == 0 ? 0 : (double) totalLatencyNanos.get() / batches;
+	}
+
+	/**
+	 * 单个批次的最大耗时（纳秒）
+	 * @return
+	 */
+	public long maxLatencyNanos() {
+		return maxLatencyNanos.get();
+	}
+
+	/**
+	 * 最近一个批次的耗时（纳秒）
+	 * @return
+	 */
+	public long lastLatencyNanos() {
+		return lastLatencyNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("批次数：%d，样本数：%d，平均批量：%.2f，最大批量：%d，平均耗时：%.3fms，最大耗时：%.3fms",
+				batchCount(), sampleCount(), avgBatchSize(), maxBatchSize(), avgLatencyNanos() / 1e6, maxLatencyNanos() / 1e6);
+	}
+}
@@ -1,6 +1,8 @@
 package org.dromara.northstar.ai.infer;
 
 import java.nio.file.Path;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.springframework.util.Assert;
 import org.tensorflow.SavedModelBundle;
@@ -14,32 +16,48 @@ import org.tensorflow.ndarray.buffer.FloatDataBuffer;
 import org.tensorflow.ndarray.impl.buffer.raw.RawDataBufferFactory;
 import org.tensorflow.types.TFloat32;
 
+import lombok.extern.slf4j.Slf4j;
+
 
 /**
  * 预训练模型
+ * 模型在首次预测时加载，之后在整个生命周期内复用同一个会话，直到调用 {@link #close()}；
+ * 模型文件更新后可调用 {@link #reload()} 热替换，新模型加载成功后才会关闭旧模型
  * @auth KevinHuangwl
  */
-public class PretrainedModel {
-	
+@Slf4j
+public class PretrainedModel implements AutoCloseable {
+
 	private static final String TAG = "serve";
-	
+
 	private final Loader loader;
-	
+
 	private final int inputDim;
 	private final int outputDim;
 
+	/* 预测共享读锁，加载、重载与关闭使用写锁，保证不会在推理过程中释放会话 */
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private SavedModelBundle bundle;
+
+	private volatile SessionFunction function;
+
+	private volatile boolean closed;
+
+	private final InferenceMetrics metrics = new InferenceMetrics();
+
 	public PretrainedModel(String modelName, int inputDim, int outputDim) {
 		this.loader = SavedModelBundle.loader("data/" + modelName).withTags(TAG);	// 默认加载JAR包同级目录下的data目录下的模型
 		this.inputDim = inputDim;
 		this.outputDim = outputDim;
 	}
-	
+
 	public PretrainedModel(Path path, int inputDim, int outputDim) {
 		this.loader = SavedModelBundle.loader(path.toString()).withTags(TAG);
 		this.inputDim = inputDim;
 		this.outputDim = outputDim;
 	}
-	
+
 	/**
 	 * 使用预训练的模型进行预测
 	 * 该方法为阻塞方法，应该在调用时进行异步处理
@@ -49,16 +67,120 @@ public class PretrainedModel {
 	public float[] predict(float... inputs) {
 		Assert.isTrue(inputs.length == inputDim, () -> String.format("输入层的维度与期望不一致。期望%s，实际%s", inputDim, inputs.length));
 		float[] result = new float[outputDim];
-		try (SavedModelBundle model = loader.load()) {
-			// 获取默认的推理函数
-			SessionFunction function = model.function(Signature.DEFAULT_KEY);
-			FloatDataBuffer dataBuf = RawDataBufferFactory.create(inputs, true);
-			try (Tensor inputTensor = TFloat32.tensorOf(NdArrays.wrap(Shape.of(1L, inputs.length), dataBuf))) {
-				try (Tensor outputTensor = function.call(inputTensor)) {
-					outputTensor.asRawTensor().data().asFloats().read(result);
-				}
+		run(inputs, 1, result);
+		return result;
+	}
+
+	/**
+	 * 批量预测
+	 * 多个样本合并为一个 [批量大小, 输入维度] 的张量，只调用一次会话
+	 * @param inputs		每一行为一个样本
+	 * @return				每一行为对应样本的输出
+	 */
+	public float[][] predict(float[][] inputs) {
+		Assert.isTrue(inputs.length > 0, "批量预测的样本不能为空");
+		float[] flatInputs = new float[inputs.length * inputDim];
+		for(int i=0; i<inputs.length; i++) {
+			final int row = i;
+			Assert.isTrue(inputs[i].length == inputDim, () -> String.format("第%s个样本的输入层维度与期望不一致。期望%s，实际%s", row, inputDim, inputs[row].length));
+			System.arraycopy(inputs[i], 0, flatInputs, i * inputDim, inputDim);
+		}
+		float[] flatOutputs = new float[inputs.length * outputDim];
+		run(flatInputs, inputs.length, flatOutputs);
+		float[][] results = new float[inputs.length][outputDim];
+		for(int i=0; i<inputs.length; i++) {
+			System.arraycopy(flatOutputs, i * outputDim, results[i], 0, outputDim);
+		}
+		return results;
+	}
+
+	private void run(float[] flatInputs, int batchSize, float[] flatOutputs) {
+		if(function == null) {
+			load();
+		}
+		long startTime = System.nanoTime();
+		lock.readLock().lock();
+		try {
+			Assert.state(!closed, "模型已关闭");
+			FloatDataBuffer dataBuf = RawDataBufferFactory.create(flatInputs, true);
+			try (Tensor inputTensor = TFloat32.tensorOf(NdArrays.wrap(Shape.of(batchSize, inputDim), dataBuf));
+					Tensor outputTensor = function.call(inputTensor)) {
+				outputTensor.asRawTensor().data().asFloats().read(flatOutputs);
 			}
+		} finally {
+			lock.readLock().unlock();
 		}
-		return result;
+		metrics.record(batchSize, System.nanoTime() - startTime);
+	}
+
+	private void load() {
+		lock.writeLock().lock();
+		try {
+			Assert.state(!closed, "模型已关闭");
+			if(function == null) {
+				bundle = loader.load();
+				// 获取默认的推理函数
+				function = bundle.function(Signature.DEFAULT_KEY);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 重新加载模型
+	 * 适用于模型文件更新后热替换；新模型加载失败时保留旧模型并抛出异常
+	 */
+	public void reload() {
+		SavedModelBundle newBundle = loader.load();
+		SavedModelBundle oldBundle;
+		lock.writeLock().lock();
+		try {
+			oldBundle = bundle;
+			bundle = newBundle;
+			function = newBundle.function(Signature.DEFAULT_KEY);
+			closed = false;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		if(oldBundle != null) {
+			oldBundle.close();
+		}
+		log.info("预训练模型已重新加载");
+	}
+
+	/**
+	 * 释放模型会话
+	 * 关闭后的模型不能再预测，除非调用 {@link #reload()}
+	 */
+	@Override
+	public void close() {
+		lock.writeLock().lock();
+		try {
+			closed = true;
+			function = null;
+			if(bundle != null) {
+				bundle.close();
+				bundle = null;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int inputDim() {
+		return inputDim;
+	}
+
+	public int outputDim() {
+		return outputDim;
+	}
+
+	/**
+	 * 会话调用的统计，每次调用计一个批次
+	 * @return
+	 */
+	public InferenceMetrics metrics() {
+		return metrics;
 	}
 }
@@ -0,0 +1,83 @@
+package org.dromara.northstar.ai.infer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BatchPredictExecutorTest {
+
+	@TempDir
+	Path modelDir;
+
+	PretrainedModel model;
+
+	@BeforeEach
+	void prepare() throws IOException {
+		PretrainedModelTest.exportLinearModel(modelDir);
+		model = new PretrainedModel(modelDir, 3, 1);
+	}
+
+	@AfterEach
+	void cleanup() {
+		model.close();
+	}
+
+	@Test
+	void testCoalesceRequests() throws Exception {
+		try (BatchPredictExecutor exec = new BatchPredictExecutor(model, 16, Duration.ofMillis(200))) {
+			List<CompletableFuture<float[]>> futures = new ArrayList<>();
+			for(int i=0; i<16; i++) {
+				futures.add(exec.submit(i, 0, 1));
+			}
+			for(int i=0; i<16; i++) {
+				assertThat(futures.get(i).get()).containsExactly(i + 3);
+			}
+			// 16个请求在等待窗口内凑满一个批次
+			assertThat(exec.metrics().batchCount()).isEqualTo(1);
+			assertThat(exec.metrics().maxBatchSize()).isEqualTo(16);
+			assertThat(model.metrics().batchCount()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void testBatchSizeLimit() throws Exception {
+		try (BatchPredictExecutor exec = new BatchPredictExecutor(model, 4, Duration.ofMillis(200))) {
+			List<CompletableFuture<float[]>> futures = new ArrayList<>();
+			for(int i=0; i<10; i++) {
+				futures.add(exec.submit(1, 1, 1));
+			}
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+			assertThat(exec.metrics().sampleCount()).isEqualTo(10);
+			assertThat(exec.metrics().maxBatchSize()).isLessThanOrEqualTo(4);
+		}
+	}
+
+	@Test
+	void testFailureCompletesExceptionally() {
+		model.close();
+		try (BatchPredictExecutor exec = new BatchPredictExecutor(model, 4, Duration.ZERO)) {
+			CompletableFuture<float[]> future = exec.submit(1, 1, 1);
+			assertThatThrownBy(future::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+		}
+	}
+
+	@Test
+	void testSubmitAfterClose() {
+		BatchPredictExecutor exec = new BatchPredictExecutor(model, 4, Duration.ZERO);
+		exec.close();
+		assertThat(exec.submit(1, 1, 1)).isCompletedExceptionally();
+		assertThatThrownBy(() -> exec.submit(1, 1)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -1,9 +1,25 @@
 package org.dromara.northstar.ai.infer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tensorflow.Graph;
+import org.tensorflow.Session;
+import org.tensorflow.SessionFunction;
+import org.tensorflow.Signature;
+import org.tensorflow.ndarray.Shape;
+import org.tensorflow.op.Ops;
+import org.tensorflow.op.core.Placeholder;
+import org.tensorflow.types.TFloat32;
+
 /**
  * @auth KevinHuangwl
  */
@@ -26,6 +42,66 @@ class PretrainedModelTest {
 	        -0.94445217f,  -1.0498289f ,  -1.1681589f ,  -1.3130333f ,
 	        -3.3061903f ,  -3.4965053f ,  -3.6902695f ,  -3.8852913f};
 	
+	@TempDir
+	Path modelDir;
+	
+	PretrainedModel model;
+	
+	@BeforeEach
+	void prepare() throws IOException {
+		exportLinearModel(modelDir);
+		model = new PretrainedModel(modelDir, 3, 1);
+	}
+	
+	@AfterEach
+	void cleanup() {
+		model.close();
+	}
+	
+	/* 导出一个 y = x1 + 2*x2 + 3*x3 的线性模型，批量维度不固定 */
+	static void exportLinearModel(Path dir) throws IOException {
+		try (Graph graph = new Graph(); Session session = new Session(graph)) {
+			Ops tf = Ops.create(graph);
+			Placeholder<TFloat32> x = tf.placeholder(TFloat32.class, Placeholder.shape(Shape.of(-1, 3)));
+			var y = tf.linalg.matMul(x, tf.constant(new float[][] {{1}, {2}, {3}}));
+			Signature signature = Signature.builder().key(Signature.DEFAULT_KEY).input("x", x).output("y", y).build();
+			SessionFunction.create(signature, session).save(dir.toString());
+		}
+	}
+	
+	@Test
+	void testPredictReusesSession() {
+		assertThat(model.predict(1, 1, 1)).containsExactly(6);
+		assertThat(model.predict(1, 0, 2)).containsExactly(7);
+		assertThat(model.metrics().batchCount()).isEqualTo(2);
+	}
+	
+	@Test
+	void testBatchPredict() {
+		float[][] results = model.predict(new float[][] {{1, 1, 1}, {1, 0, 2}, {0, 0, 0}});
+		assertThat(results).hasDimensions(3, 1);
+		assertThat(results[0]).containsExactly(6);
+		assertThat(results[1]).containsExactly(7);
+		assertThat(results[2]).containsExactly(0);
+		assertThat(model.metrics().sampleCount()).isEqualTo(3);
+		assertThat(model.metrics().maxBatchSize()).isEqualTo(3);
+	}
+	
+	@Test
+	void testWrongDimension() {
+		assertThatThrownBy(() -> model.predict(1, 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> model.predict(new float[][] {{1, 1, 1}, {1, 1}})).isInstanceOf(IllegalArgumentException.class);
+	}
+	
+	@Test
+	void testCloseAndReload() {
+		model.predict(1, 1, 1);
+		model.close();
+		assertThatThrownBy(() -> model.predict(1, 1, 1)).isInstanceOf(IllegalStateException.class);
+		model.reload();
+		assertThat(model.predict(1, 1, 1)).containsExactly(6);
+	}
+
 	static void testByName() {
 		PretrainedModel model = new PretrainedModel(Paths.get("C:\\Users\\KevinHuangwl\\northstar\\model"), 64, 1);
 		assertThat(model.predict(inputData)[0]).isNotZero();
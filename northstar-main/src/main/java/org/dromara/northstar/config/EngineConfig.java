@@ -3,6 +3,9 @@ package org.dromara.northstar.config;
 import org.dromara.northstar.common.event.FastEventEngine;
 import org.dromara.northstar.event.DisruptorFastEventEngine;
 import org.dromara.northstar.event.DisruptorFastEventEngine.WaitStrategyEnum;
+import org.dromara.northstar.event.EventDispatchTopology;
+import org.dromara.northstar.event.InternalDispatcher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,6 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * 引擎配置
+ * northstar.engine.wait-strategy	事件环的等待策略，作用于所有消费者组
+ * northstar.engine.topology		内部事件分发拓扑，SERIAL 或 PIPELINE
  * @author KevinHuangwl
  *
  */
@@ -18,9 +23,15 @@ import lombok.extern.slf4j.Slf4j;
 class EngineConfig {
 
 	@Bean
-	FastEventEngine eventEngine() throws Exception {
-		log.debug("创建EventEngine");
-		return new DisruptorFastEventEngine(WaitStrategyEnum.BlockingWaitStrategy);
+	FastEventEngine eventEngine(@Value("${northstar.engine.wait-strategy:BlockingWaitStrategy}") WaitStrategyEnum waitStrategy) throws Exception {
+		log.debug("创建EventEngine，等待策略：{}", waitStrategy);
+		return new DisruptorFastEventEngine(waitStrategy);
+	}
+	
+	@Bean
+	InternalDispatcher internalDispatcher(FastEventEngine feEngine, @Value("${northstar.engine.topology:SERIAL}") EventDispatchTopology topology) {
+		log.debug("创建InternalDispatcher");
+		return new InternalDispatcher(feEngine, topology);
 	}
 	
 }
@@ -1,5 +1,6 @@
 package org.dromara.northstar.config;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -7,6 +8,7 @@ import java.util.stream.Collectors;
 
 import org.dromara.northstar.account.AccountManager;
 import org.dromara.northstar.account.GatewayManager;
+import org.dromara.northstar.common.event.FastEventEngine;
 import org.dromara.northstar.common.event.NorthstarEventType;
 import org.dromara.northstar.data.IGatewayRepository;
 import org.dromara.northstar.data.IMarketDataRepository;
@@ -23,6 +25,7 @@ import org.dromara.northstar.gateway.IContractManager;
 import org.dromara.northstar.module.ModuleManager;
 import org.dromara.northstar.strategy.IMessageSender;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -41,9 +44,10 @@ class InternalEventHandlerConfig {
 	}
 	
 	@Bean
-	BroadcastHandler broadcastEventHandler(SocketIOServer socketServer) {
+	BroadcastHandler broadcastEventHandler(SocketIOServer socketServer, 
+			@Value("${northstar.broadcast.max-tick-rate:10}") int maxTickRate) {
 		log.debug("注册：BroadcastHandler");
-		return new BroadcastHandler(socketServer);
+		return new BroadcastHandler(socketServer, maxTickRate);
 	}
 	
 	@Bean
@@ -53,9 +57,11 @@ class InternalEventHandlerConfig {
 	}
 	
 	@Bean
-	SimMarketHandler simMarketHandler(GatewayManager gatewayMgr, AccountManager accountMgr) {
+	SimMarketHandler simMarketHandler(GatewayManager gatewayMgr, AccountManager accountMgr, FastEventEngine feEngine) {
 		log.debug("注册：SimMarketHandler");
-		return new SimMarketHandler(gatewayMgr, accountMgr);
+		SimMarketHandler handler = new SimMarketHandler(gatewayMgr, accountMgr);
+		feEngine.addIdleBarrier(handler::barrier);		// 同步极速回放需要等待模拟撮合完成
+		return handler;
 	}
 	
 	@Bean
@@ -65,9 +71,13 @@ class InternalEventHandlerConfig {
 	}
 	
 	@Bean 
-	MarketDataHandler marketDataHandler(IMarketDataRepository mdRepo) {
+	MarketDataHandler marketDataHandler(IMarketDataRepository mdRepo,
+			@Value("${northstar.market-data.queue-capacity:10000}") int queueCapacity,
+			@Value("${northstar.market-data.batch-size:500}") int batchSize,
+			@Value("${northstar.market-data.max-delay:200}") long maxDelay,
+			@Value("${northstar.market-data.max-block:20}") long maxBlock) {
 		log.debug("注册：MarketDataHandler");
-		return new MarketDataHandler(mdRepo);
+		return new MarketDataHandler(mdRepo, queueCapacity, batchSize, Duration.ofMillis(maxDelay), Duration.ofMillis(maxBlock));
 	}
 	
 	@Bean
@@ -1,11 +1,17 @@
 package org.dromara.northstar.config;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 import org.dromara.northstar.data.IGatewayRepository;
 import org.dromara.northstar.data.IMarketDataRepository;
 import org.dromara.northstar.data.IMessageSenderRepository;
 import org.dromara.northstar.data.IModuleRepository;
 import org.dromara.northstar.data.IPlaybackRuntimeRepository;
 import org.dromara.northstar.data.ISimAccountRepository;
+import org.dromara.northstar.data.columnar.BarTableMigration;
+import org.dromara.northstar.data.columnar.ColumnarBarStore;
+import org.dromara.northstar.data.columnar.ColumnarMarketDataRepoAdapter;
 import org.dromara.northstar.data.jdbc.GatewayDescriptionRepository;
 import org.dromara.northstar.data.jdbc.GatewayRepoAdapter;
 import org.dromara.northstar.data.jdbc.MarketDataRepoAdapter;
@@ -21,12 +27,25 @@ import org.dromara.northstar.data.jdbc.PlaybackRuntimeRepoAdapter;
 import org.dromara.northstar.data.jdbc.PlaybackRuntimeRepository;
 import org.dromara.northstar.data.jdbc.SimAccountRepoAdapter;
 import org.dromara.northstar.data.jdbc.SimAccountRepository;
+import org.dromara.northstar.data.jdbc.WriteBehindModuleRepoAdapter;
 import org.dromara.northstar.gateway.IContractManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * 持久化配置
+ * northstar.module.runtime-flush-interval	模组运行状态的延后写入间隔（毫秒），默认5000；不大于0时每次保存都立即写入
+ * northstar.bar-store.columnar			是否以列存储保存分钟K线，默认true；启用时会把数据库BAR表中的K线迁移到列存储
+ * northstar.bar-store.path				列存储的根目录，默认data/bars
+ * @author KevinHuangwl
+ *
+ */
 @Configuration
 public class RepositoryConfig {
+	
+	@Value("${northstar.module.runtime-flush-interval:5000}")
+	private long runtimeFlushInterval;
 
     @Bean
     IGatewayRepository gatewayRepo(GatewayDescriptionRepository delelgate) {
@@ -35,7 +54,10 @@ public class RepositoryConfig {
     
     @Bean
     IModuleRepository moduleRepo(ModuleDealRecordRepository mdrRepo, ModuleDescriptionRepository mdRepo, ModuleRuntimeDescriptionRepository mrdRepo) {
-    	return new ModuleRepoAdapter(mdRepo, mrdRepo, mdrRepo);
+    	if(runtimeFlushInterval <= 0) {
+    		return new ModuleRepoAdapter(mdRepo, mrdRepo, mdrRepo);
+    	}
+    	return new WriteBehindModuleRepoAdapter(mdRepo, mrdRepo, mdrRepo, Duration.ofMillis(runtimeFlushInterval));
     }
     
     @Bean
@@ -49,8 +71,14 @@ public class RepositoryConfig {
     }
     
     @Bean
-    IMarketDataRepository marketDataRepo(MarketDataRepository mdRepo, IContractManager contractMgr) {
-    	return new MarketDataRepoAdapter(mdRepo, contractMgr);
+    IMarketDataRepository marketDataRepo(MarketDataRepository mdRepo, IContractManager contractMgr,
+    		@Value("${northstar.bar-store.columnar:true}") boolean columnar, @Value("${northstar.bar-store.path:data/bars}") String storePath) {
+    	if(!columnar) {
+    		return new MarketDataRepoAdapter(mdRepo, contractMgr);
+    	}
+    	ColumnarBarStore store = new ColumnarBarStore(Path.of(storePath));
+    	new BarTableMigration(mdRepo, store).migrate(System.currentTimeMillis());
+    	return new ColumnarMarketDataRepoAdapter(store, contractMgr);
     }
     
     @Bean
@@ -1,20 +1,34 @@
 package org.dromara.northstar.config;
 
+import java.nio.file.Path;
+
 import org.dromara.northstar.account.AccountManager;
 import org.dromara.northstar.data.IMarketDataRepository;
 import org.dromara.northstar.data.IModuleRepository;
 import org.dromara.northstar.gateway.IContractManager;
 import org.dromara.northstar.module.ModuleManager;
+import org.dromara.northstar.module.ModuleSnapshotStore;
+import org.dromara.northstar.support.log.ModuleLogDispatcher;
+import org.dromara.northstar.support.log.ModuleLogDispatcher.OverflowPolicy;
 import org.dromara.northstar.web.service.AccountService;
 import org.dromara.northstar.web.service.GatewayService;
 import org.dromara.northstar.web.service.LogService;
 import org.dromara.northstar.web.service.ModuleService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.logging.LoggingSystem;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
 
+/**
+ * 服务配置
+ * northstar.module.snapshot-path	模组预热状态快照的存放目录，默认data/module-snapshot
+ * northstar.module.log.buffer-size	模组日志异步缓冲的容量，默认8192
+ * northstar.module.log.overflow-policy	模组日志缓冲写满时的处理策略：DROP_TRACE（丢弃TRACE与DEBUG日志，默认）或 BLOCK（等待）
+ * @author KevinHuangwl
+ *
+ */
 @DependsOn({ 
 	"internalDispatcher", 
 	"accountEventHandler",
@@ -33,15 +47,26 @@ public class ServiceConfig {
         return new GatewayService();
     }
 
+    @Bean
+    ModuleSnapshotStore moduleSnapshotStore(@Value("${northstar.module.snapshot-path:data/module-snapshot}") String snapshotPath) {
+        return new ModuleSnapshotStore(Path.of(snapshotPath));
+    }
+
+    @Bean(destroyMethod = "close")
+    ModuleLogDispatcher moduleLogDispatcher(@Value("${northstar.module.log.buffer-size:8192}") int bufferSize, 
+    		@Value("${northstar.module.log.overflow-policy:DROP_TRACE}") OverflowPolicy policy) {
+        return ModuleLogDispatcher.configureDefault(bufferSize, policy);
+    }
+
     @Bean
     ModuleService moduleService(ApplicationContext ctx, IModuleRepository moduleRepo, IMarketDataRepository mdRepo, 
-    		AccountManager accountMgr, ModuleManager moduleMgr, IContractManager contractMgr) {
-        return new ModuleService(ctx, moduleRepo, mdRepo, moduleMgr, contractMgr, accountMgr);
+    		AccountManager accountMgr, ModuleManager moduleMgr, IContractManager contractMgr, ModuleSnapshotStore snapshotStore) {
+        return new ModuleService(ctx, moduleRepo, mdRepo, moduleMgr, contractMgr, accountMgr, snapshotStore);
     }
 
     @Bean
-    LogService logService(LoggingSystem loggingSystem, ModuleManager moduleMgr) {
-        return new LogService(loggingSystem, moduleMgr);
+    LogService logService(LoggingSystem loggingSystem, ModuleManager moduleMgr, ModuleLogDispatcher moduleLogDispatcher) {
+        return new LogService(loggingSystem, moduleMgr, moduleLogDispatcher);
     }
 	
 }
@@ -0,0 +1,44 @@
+package org.dromara.northstar.data.columnar;
+
+/**
+ * K线列存储的数据列
+ * 每列的元素均为8字节，整数列以long存放，价格类列以double存放；列的顺序即其在数据段文件中的排列顺序，不能调整
+ * @author KevinHuangwl
+ *
+ */
+public enum BarColumn {
+
+	/* K线归属时间戳 */
+	ACTION_TIMESTAMP(false),
+	/* K线归属日，以EpochDay存放 */
+	ACTION_DAY(false),
+	/* K线归属时间，以NanoOfDay存放 */
+	ACTION_TIME(false),
+	OPEN_PRICE(true),
+	HIGH_PRICE(true),
+	LOW_PRICE(true),
+	CLOSE_PRICE(true),
+	OPEN_INTEREST(true),
+	OPEN_INTEREST_DELTA(true),
+	VOLUME(false),
+	VOLUME_DELTA(false),
+	TURNOVER(true),
+	TURNOVER_DELTA(true),
+	PRE_OPEN_INTEREST(true),
+	PRE_CLOSE_PRICE(true),
+	PRE_SETTLE_PRICE(true);
+
+	private final boolean floating;
+
+	private BarColumn(boolean floating) {
+		this.floating = floating;
+	}
+
+	/**
+	 * 是否为浮点列
+	 * @return
+	 */
+	public boolean isFloating() {
+		return floating;
+	}
+}
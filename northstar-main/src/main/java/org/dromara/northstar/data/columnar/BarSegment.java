@@ -0,0 +1,348 @@
+package org.dromara.northstar.data.columnar;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.dromara.northstar.common.constant.ChannelType;
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.springframework.util.Assert;
+
+/**
+ * K线列存储数据段
+ * 一个数据段对应一个合约一个交易日的K线，以内存映射文件存放。文件由128字节的文件头与若干等长的数据列组成，
+ * 每列连续存放同一字段的全部K线（见 {@link BarColumn}）；追加写入只修改各列末尾的元素与文件头中的数量，
+ * 容量用尽时以双倍容量重建文件
+ * 数据段只允许单线程追加，读操作可以与追加并发：读方先读取数量，再读取数量以内的数据
+ * @author KevinHuangwl
+ *
+ */
+public class BarSegment implements AutoCloseable {
+
+	static final int MAGIC = 0x4E534243;	// NSBC
+
+	static final int VERSION = 1;
+
+	static final int HEADER_SIZE = 128;
+
+	static final int INITIAL_CAPACITY = 1024;
+
+	private static final int OFFSET_CAPACITY = 8;
+	private static final int OFFSET_COUNT = 12;
+	private static final int OFFSET_EXPIRED_AT = 16;
+	private static final int OFFSET_TRADING_DAY = 24;
+	private static final int OFFSET_CHANNEL_TYPE = 32;
+	private static final int OFFSET_GATEWAY_ID = 64;
+	private static final int TEXT_LENGTH = 62;
+
+	private static final int NUM_OF_COLUMNS = BarColumn.values().length;
+
+	private final Path file;
+
+	private final LocalDate tradingDay;
+
+	private final long expiredAt;
+
+	private final String gatewayId;
+
+	private final ChannelType channelType;
+
+	private volatile MappedByteBuffer buffer;
+
+	private volatile int capacity;
+
+	private volatile int count;
+
+	private BarSegment(Path file, MappedByteBuffer buffer) {
+		Assert.isTrue(buffer.getInt(0) == MAGIC, () -> "不是K线数据段文件：" + file);
+		Assert.isTrue(buffer.getInt(4) == VERSION, () -> "不支持的K线数据段版本：" + file);
+		this.file = file;
+		this.buffer = buffer;
+		this.capacity = buffer.getInt(OFFSET_CAPACITY);
+		this.count = buffer.getInt(OFFSET_COUNT);
+		this.expiredAt = buffer.getLong(OFFSET_EXPIRED_AT);
+		this.tradingDay = LocalDate.ofEpochDay(buffer.getLong(OFFSET_TRADING_DAY));
+		this.channelType = ChannelType.valueOf(readText(buffer, OFFSET_CHANNEL_TYPE));
+		this.gatewayId = readText(buffer, OFFSET_GATEWAY_ID);
+	}
+
+	/**
+	 * 创建数据段
+	 * @param file
+	 * @param tradingDay
+	 * @param expiredAt
+	 * @param gatewayId
+	 * @param channelType
+	 * @return
+	 */
+	public static BarSegment create(Path file, LocalDate tradingDay, long expiredAt, String gatewayId, ChannelType channelType) {
+		try {
+			Files.createDirectories(file.getParent());
+			Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+			MappedByteBuffer buf = map(tmp, INITIAL_CAPACITY);
+			buf.putInt(0, MAGIC);
+			buf.putInt(4, VERSION);
+			buf.putInt(OFFSET_CAPACITY, INITIAL_CAPACITY);
+			buf.putInt(OFFSET_COUNT, 0);
+			buf.putLong(OFFSET_EXPIRED_AT, expiredAt);
+			buf.putLong(OFFSET_TRADING_DAY, tradingDay.toEpochDay());
+			writeText(buf, OFFSET_CHANNEL_TYPE, channelType.name());
+			writeText(buf, OFFSET_GATEWAY_ID, gatewayId);
+			buf.force();
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return new BarSegment(file, buf);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 打开已有的数据段
+	 * @param file
+	 * @return
+	 */
+	public static BarSegment open(Path file) {
+		try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			return new BarSegment(file, fc.map(MapMode.READ_WRITE, 0, fc.size()));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static MappedByteBuffer map(Path file, int capacity) throws IOException {
+		try (FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			return fc.map(MapMode.READ_WRITE, 0, fileSize(capacity));
+		}
+	}
+
+	private static long fileSize(int capacity) {
+		return HEADER_SIZE + (long) NUM_OF_COLUMNS * capacity * Long.BYTES;
+	}
+
+	private static int offset(BarColumn column, int capacity, int index) {
+		return HEADER_SIZE + (column.ordinal() * capacity + index) * Long.BYTES;
+	}
+
+	private static String readText(ByteBuffer buf, int offset) {
+		byte[] bytes = new byte[buf.getShort(offset)];
+		buf.get(offset + 2, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeText(ByteBuffer buf, int offset, String text) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		Assert.isTrue(bytes.length <= TEXT_LENGTH, () -> "文本过长：" + text);
+		buf.putShort(offset, (short) bytes.length);
+		buf.put(offset + 2, bytes);
+	}
+
+	/**
+	 * 追加一根K线
+	 * @param bar
+	 */
+	public synchronized void append(Bar bar) {
+		Assert.isTrue(bar.tradingDay().equals(tradingDay), () -> String.format("交易日不一致：期望%s 实际%s", tradingDay, bar.tradingDay()));
+		if(count == capacity) {
+			grow();
+		}
+		MappedByteBuffer buf = buffer;
+		int cap = capacity;
+		int i = count;
+		putLong(buf, BarColumn.ACTION_TIMESTAMP, cap, i, bar.actionTimestamp());
+		putLong(buf, BarColumn.ACTION_DAY, cap, i, bar.actionDay().toEpochDay());
+		putLong(buf, BarColumn.ACTION_TIME, cap, i, bar.actionTime().toNanoOfDay());
+		putDouble(buf, BarColumn.OPEN_PRICE, cap, i, bar.openPrice());
+		putDouble(buf, BarColumn.HIGH_PRICE, cap, i, bar.highPrice());
+		putDouble(buf, BarColumn.LOW_PRICE, cap, i, bar.lowPrice());
+		putDouble(buf, BarColumn.CLOSE_PRICE, cap, i, bar.closePrice());
+		putDouble(buf, BarColumn.OPEN_INTEREST, cap, i, bar.openInterest());
+		putDouble(buf, BarColumn.OPEN_INTEREST_DELTA, cap, i, bar.openInterestDelta());
+		putLong(buf, BarColumn.VOLUME, cap, i, bar.volume());
+		putLong(buf, BarColumn.VOLUME_DELTA, cap, i, bar.volumeDelta());
+		putDouble(buf, BarColumn.TURNOVER, cap, i, bar.turnover());
+		putDouble(buf, BarColumn.TURNOVER_DELTA, cap, i, bar.turnoverDelta());
+		putDouble(buf, BarColumn.PRE_OPEN_INTEREST, cap, i, bar.preOpenInterest());
+		putDouble(buf, BarColumn.PRE_CLOSE_PRICE, cap, i, bar.preClosePrice());
+		putDouble(buf, BarColumn.PRE_SETTLE_PRICE, cap, i, bar.preSettlePrice());
+		buf.putInt(OFFSET_COUNT, i + 1);
+		// 数量最后更新，读方看到新的数量时，对应的数据已经写入
+		count = i + 1;
+	}
+
+	private static void putLong(ByteBuffer buf, BarColumn column, int capacity, int index, long value) {
+		buf.putLong(offset(column, capacity, index), value);
+	}
+
+	private static void putDouble(ByteBuffer buf, BarColumn column, int capacity, int index, double value) {
+		buf.putDouble(offset(column, capacity, index), value);
+	}
+
+	/* 以双倍容量重建文件，逐列复制已有数据，再原子替换原文件 */
+	private void grow() {
+		int newCapacity = capacity * 2;
+		try {
+			Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+			MappedByteBuffer newBuf = map(tmp, newCapacity);
+			MappedByteBuffer oldBuf = buffer;
+			newBuf.put(0, oldBuf, 0, HEADER_SIZE);
+			for(BarColumn column : BarColumn.values()) {
+				newBuf.put(offset(column, newCapacity, 0), oldBuf, offset(column, capacity, 0), count * Long.BYTES);
+			}
+			newBuf.putInt(OFFSET_CAPACITY, newCapacity);
+			newBuf.force();
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			// 先替换映射再更新容量，读方以数量为界，新旧映射中已有的数据相同
+			buffer = newBuf;
+			capacity = newCapacity;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * K线数量
+	 * @return
+	 */
+	public int size() {
+		return count;
+	}
+
+	public LocalDate tradingDay() {
+		return tradingDay;
+	}
+
+	public long expiredAt() {
+		return expiredAt;
+	}
+
+	public String gatewayId() {
+		return gatewayId;
+	}
+
+	public ChannelType channelType() {
+		return channelType;
+	}
+
+	public Path file() {
+		return file;
+	}
+
+	/**
+	 * 读取整数列的元素
+	 * @param column
+	 * @param index
+	 * @return
+	 */
+	public long getLong(BarColumn column, int index) {
+		Assert.isTrue(!column.isFloating(), () -> column + "不是整数列");
+		int size = count;
+		MappedByteBuffer buf = buffer;
+		return buf.getLong(offset(column, buf, size, index));
+	}
+
+	/**
+	 * 读取浮点列的元素
+	 * @param column
+	 * @param index
+	 * @return
+	 */
+	public double getDouble(BarColumn column, int index) {
+		Assert.isTrue(column.isFloating(), () -> column + "不是浮点列");
+		int size = count;
+		MappedByteBuffer buf = buffer;
+		return buf.getDouble(offset(column, buf, size, index));
+	}
+
+	/*
+	 * 调用方须先读取数量再读取映射：超出旧容量的数量只会在替换映射之后写入，因此数量以内的下标在所读到的映射中一定有效；
+	 * 容量以映射自身的文件头为准，避免与扩容并发时映射与容量不匹配
+	 */
+	private int offset(BarColumn column, MappedByteBuffer buf, int size, int index) {
+		Assert.isTrue(index >= 0 && index < size, () -> "下标越界：" + index);
+		return offset(column, buf.getInt(OFFSET_CAPACITY), index);
+	}
+
+	/**
+	 * 整数列的只读视图，直接引用映射内存，不复制数据
+	 * 视图只包含调用时已写入的K线
+	 * @param column
+	 * @return
+	 */
+	public LongBuffer longColumn(BarColumn column) {
+		Assert.isTrue(!column.isFloating(), () -> column + "不是整数列");
+		return columnSlice(column).asLongBuffer();
+	}
+
+	/**
+	 * 浮点列的只读视图，直接引用映射内存，不复制数据
+	 * 视图只包含调用时已写入的K线
+	 * @param column
+	 * @return
+	 */
+	public DoubleBuffer doubleColumn(BarColumn column) {
+		Assert.isTrue(column.isFloating(), () -> column + "不是浮点列");
+		return columnSlice(column).asDoubleBuffer();
+	}
+
+	private ByteBuffer columnSlice(BarColumn column) {
+		int size = count;
+		MappedByteBuffer buf = buffer;
+		return buf.slice(offset(column, buf.getInt(OFFSET_CAPACITY), 0), size * Long.BYTES).asReadOnlyBuffer();
+	}
+
+	/**
+	 * 还原第index根K线
+	 * @param index
+	 * @param contract
+	 * @return
+	 */
+	public Bar getBar(int index, Contract contract) {
+		return Bar.builder()
+				.gatewayId(gatewayId)
+				.contract(contract)
+				.actionDay(LocalDate.ofEpochDay(getLong(BarColumn.ACTION_DAY, index)))
+				.actionTime(LocalTime.ofNanoOfDay(getLong(BarColumn.ACTION_TIME, index)))
+				.tradingDay(tradingDay)
+				.actionTimestamp(getLong(BarColumn.ACTION_TIMESTAMP, index))
+				.openPrice(getDouble(BarColumn.OPEN_PRICE, index))
+				.highPrice(getDouble(BarColumn.HIGH_PRICE, index))
+				.lowPrice(getDouble(BarColumn.LOW_PRICE, index))
+				.closePrice(getDouble(BarColumn.CLOSE_PRICE, index))
+				.openInterest(getDouble(BarColumn.OPEN_INTEREST, index))
+				.openInterestDelta(getDouble(BarColumn.OPEN_INTEREST_DELTA, index))
+				.volume(getLong(BarColumn.VOLUME, index))
+				.volumeDelta(getLong(BarColumn.VOLUME_DELTA, index))
+				.turnover(getDouble(BarColumn.TURNOVER, index))
+				.turnoverDelta(getDouble(BarColumn.TURNOVER_DELTA, index))
+				.preOpenInterest(getDouble(BarColumn.PRE_OPEN_INTEREST, index))
+				.preClosePrice(getDouble(BarColumn.PRE_CLOSE_PRICE, index))
+				.preSettlePrice(getDouble(BarColumn.PRE_SETTLE_PRICE, index))
+				.channelType(channelType)
+				.build();
+	}
+
+	/**
+	 * 把已写入的数据刷到磁盘
+	 */
+	public synchronized void force() {
+		buffer.force();
+	}
+
+	@Override
+	public void close() {
+		force();
+	}
+}
@@ -0,0 +1,104 @@
+package org.dromara.northstar.data.columnar;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.data.jdbc.MarketDataRepository;
+import org.dromara.northstar.data.jdbc.entity.BarDO;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import lombok.extern.slf4j.Slf4j;
+import xyz.redtorch.pb.CoreField.BarField;
+
+/**
+ * 把数据库BAR表中的K线迁移到列存储
+ * BAR表只保存未过期的近期数据，因此一次性读入全部记录；已过期的记录直接丢弃
+ * 每个合约交易日整段写入列存储（见 {@link ColumnarBarStore#writeSegment}），写入完成后才删除该组记录，使迁移中断后可以重复执行；
+ * 列存储中已存在的合约交易日，只有数据段的K线数量不少于该组记录时才视为已迁移并删除记录，否则保留记录待人工处理
+ * @author KevinHuangwl
+ *
+ */
+@Slf4j
+public class BarTableMigration {
+
+	private final MarketDataRepository delegate;
+
+	private final ColumnarBarStore store;
+
+	public BarTableMigration(MarketDataRepository delegate, ColumnarBarStore store) {
+		this.delegate = delegate;
+		this.store = store;
+	}
+
+	/**
+	 * 执行迁移
+	 * @param now	当前时间戳，用于判断记录是否过期
+	 * @return		迁移的K线数量
+	 */
+	public int migrate(long now) {
+		if(delegate.count() == 0) {
+			return 0;
+		}
+		List<BarDO> rows = new ArrayList<>();
+		delegate.findAll().forEach(rows::add);
+		rows.sort(Comparator.comparingInt(BarDO::getId));
+
+		Map<String, List<BarDO>> groups = new LinkedHashMap<>();
+		List<BarDO> expiredRows = new ArrayList<>();
+		for(BarDO row : rows) {
+			if(row.getExpiredAt() < now) {
+				expiredRows.add(row);
+				continue;
+			}
+			groups.computeIfAbsent(row.getUnifiedSymbol() + "|" + row.getTradingDay(), k -> new ArrayList<>()).add(row);
+		}
+
+		int migrated = 0;
+		int kept = 0;
+		for(List<BarDO> group : groups.values()) {
+			List<Bar> bars = group.stream().map(BarDO::getBarData).map(this::convertFrom).filter(Objects::nonNull).toList();
+			if(!bars.isEmpty()) {
+				Bar first = bars.get(0);
+				BarSegment existing = store.segment(first.contract().unifiedSymbol(), first.tradingDay());
+				if(existing == null) {
+					store.writeSegment(bars, group.get(0).getExpiredAt());
+					migrated += bars.size();
+				} else if(existing.size() >= bars.size()) {
+					log.info("[{}] {} 的K线已存在于列存储，跳过迁移", first.contract().unifiedSymbol(), first.tradingDay());
+				} else {
+					log.warn("[{}] {} 的K线在列存储中只有{}根，少于BAR表的{}条记录，保留BAR表记录", 
+							first.contract().unifiedSymbol(), first.tradingDay(), existing.size(), bars.size());
+					kept += group.size();
+					continue;
+				}
+			}
+			// 该组已确认迁移（无法还原的记录一并清理）
+			delegate.deleteAll(group);
+		}
+		delegate.deleteAll(expiredRows);
+		log.info("BAR表迁移完成，共迁移{}根K线，保留{}条未能确认迁移的记录，清理{}条过期或已迁移的记录", migrated, kept, rows.size() - migrated - kept);
+		return migrated;
+	}
+
+	private Bar convertFrom(byte[] data) {
+		try {
+			BarField field = BarField.parseFrom(data);
+			// 列存储只用到合约代码，合约详情在加载时重新查询
+			Contract contract = Contract.builder().unifiedSymbol(field.getUnifiedSymbol()).gatewayId(field.getGatewayId()).build();
+			return Bar.of(field, contract);
+		} catch (InvalidProtocolBufferException e) {
+			log.warn("", e);
+			return null;
+		} catch (Exception e) {
+			log.warn("无法还原K线数据", e);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package org.dromara.northstar.data.columnar;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import org.dromara.northstar.common.constant.DateTimeConstant;
+import org.dromara.northstar.common.model.core.Bar;
+import org.springframework.util.Assert;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * K线列存储
+ * 按“根目录/合约统一代码/交易日.bar”组织数据段（见 {@link BarSegment}），已打开的数据段常驻缓存
+ * @author KevinHuangwl
+ *
+ */
+@Slf4j
+public class ColumnarBarStore implements AutoCloseable {
+
+	static final String SUFFIX = ".bar";
+
+	static final String STAGING_SUFFIX = ".staging";
+
+	private final Path rootDir;
+
+	private final ConcurrentMap<Path, BarSegment> segmentMap = new ConcurrentHashMap<>();
+
+	public ColumnarBarStore(Path rootDir) {
+		this.rootDir = rootDir;
+		try {
+			Files.createDirectories(rootDir);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 追加K线到对应合约与交易日的数据段，数据段不存在时自动创建
+	 * @param bar
+	 * @param expiredAt		新建数据段时记录的过期时间
+	 */
+	public void append(Bar bar, long expiredAt) {
+		Path file = fileOf(bar.contract().unifiedSymbol(), bar.tradingDay());
+		BarSegment segment = segmentMap.computeIfAbsent(file, f -> Files.exists(f)
+				? BarSegment.open(f)
+				: BarSegment.create(f, bar.tradingDay(), expiredAt, gatewayIdOf(bar), bar.channelType()));
+		segment.append(bar);
+	}
+
+	/**
+	 * 整段写入一个合约一个交易日的K线
+	 * 先写入暂存文件并刷盘，再原子重命名为正式数据段，因此正式数据段要么不存在，要么包含全部K线；
+	 * 中途中断只会留下暂存文件，重新写入时覆盖
+	 * @param bars			同一合约同一交易日的K线，按时间顺序排列
+	 * @param expiredAt		数据段的过期时间
+	 */
+	public void writeSegment(List<Bar> bars, long expiredAt) {
+		Bar first = bars.get(0);
+		Path file = fileOf(first.contract().unifiedSymbol(), first.tradingDay());
+		Assert.isTrue(!Files.exists(file), () -> "数据段已存在：" + file);
+		Path staging = file.resolveSibling(file.getFileName() + STAGING_SUFFIX);
+		try {
+			try(BarSegment segment = BarSegment.create(staging, first.tradingDay(), expiredAt, gatewayIdOf(first), first.channelType())) {
+				bars.forEach(segment::append);
+			}
+			Files.move(staging, file, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private String gatewayIdOf(Bar bar) {
+		return bar.gatewayId() != null ? bar.gatewayId() : bar.contract().gatewayId();
+	}
+
+	/**
+	 * 查询数据段
+	 * @param unifiedSymbol
+	 * @param tradingDay
+	 * @return		不存在时返回null
+	 */
+	public BarSegment segment(String unifiedSymbol, LocalDate tradingDay) {
+		Path file = fileOf(unifiedSymbol, tradingDay);
+		BarSegment segment = segmentMap.get(file);
+		if(segment != null || !Files.exists(file)) {
+			return segment;
+		}
+		return segmentMap.computeIfAbsent(file, BarSegment::open);
+	}
+
+	/**
+	 * 按交易日顺序列出日期范围内的数据段
+	 * 只列举该合约目录下实际存在的文件，不逐日探测
+	 * @param unifiedSymbol
+	 * @param startDate		包含
+	 * @param endDate		包含
+	 * @return
+	 */
+	public List<BarSegment> segments(String unifiedSymbol, LocalDate startDate, LocalDate endDate) {
+		Path dir = rootDir.resolve(dirName(unifiedSymbol));
+		if(!Files.isDirectory(dir)) {
+			return List.of();
+		}
+		List<LocalDate> tradingDays = new ArrayList<>();
+		try (Stream<Path> files = Files.list(dir)) {
+			files.map(this::tradingDayOf)
+				.filter(date -> date != null && !date.isBefore(startDate) && !date.isAfter(endDate))
+				.forEach(tradingDays::add);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		tradingDays.sort(Comparator.naturalOrder());
+		List<BarSegment> results = new ArrayList<>(tradingDays.size());
+		for(LocalDate date : tradingDays) {
+			BarSegment segment = segment(unifiedSymbol, date);
+			if(segment != null) {
+				results.add(segment);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * 删除过期时间早于指定时间的数据段
+	 * @param expiredAt
+	 * @return	删除的数据段数量
+	 */
+	public int deleteExpiredBefore(long expiredAt) {
+		int removed = 0;
+		try (Stream<Path> dirs = Files.list(rootDir)) {
+			for(Path dir : dirs.filter(Files::isDirectory).toList()) {
+				removed += deleteExpiredBefore(dir, expiredAt);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return removed;
+	}
+
+	private int deleteExpiredBefore(Path dir, long expiredAt) throws IOException {
+		int removed = 0;
+		List<Path> files;
+		try (Stream<Path> stream = Files.list(dir)) {
+			files = stream.filter(f -> tradingDayOf(f) != null).toList();
+		}
+		for(Path file : files) {
+			BarSegment segment = segmentMap.computeIfAbsent(file, BarSegment::open);
+			if(segment.expiredAt() >= expiredAt) {
+				continue;
+			}
+			segmentMap.remove(file);
+			try {
+				Files.deleteIfExists(file);
+				removed++;
+			} catch (IOException e) {
+				// 部分操作系统不允许删除仍被映射的文件，留待下次清理
+				log.warn("无法删除过期K线数据段：{}", file, e);
+			}
+		}
+		return removed;
+	}
+
+	private Path fileOf(String unifiedSymbol, LocalDate tradingDay) {
+		return rootDir.resolve(dirName(unifiedSymbol)).resolve(tradingDay.format(DateTimeConstant.D_FORMAT_INT_FORMATTER) + SUFFIX);
+	}
+
+	/* 合约代码中文件名不允许的字符替换为下划线 */
+	private static String dirName(String unifiedSymbol) {
+		return unifiedSymbol.replaceAll("[^A-Za-z0-9@._-]", "_");
+	}
+
+	private LocalDate tradingDayOf(Path file) {
+		String name = file.getFileName().toString();
+		if(!name.endsWith(SUFFIX)) {
+			return null;
+		}
+		try {
+			return LocalDate.parse(name.substring(0, name.length() - SUFFIX.length()), DateTimeConstant.D_FORMAT_INT_FORMATTER);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 把所有数据段刷到磁盘
+	 */
+	public void force() {
+		segmentMap.values().forEach(BarSegment::force);
+	}
+
+	@Override
+	public void close() {
+		force();
+		segmentMap.clear();
+	}
+}
@@ -0,0 +1,90 @@
+package org.dromara.northstar.data.columnar;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.dromara.northstar.common.IDataSource;
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.utils.CommonUtils;
+import org.dromara.northstar.data.IMarketDataRepository;
+import org.dromara.northstar.gateway.IContract;
+import org.dromara.northstar.gateway.IContractManager;
+import org.springframework.beans.factory.DisposableBean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 基于列存储的本地行情数据仓库
+ * 每个合约每个交易日的分钟K线存放在一个内存映射的数据段中，写入是对各列的追加，加载时只列举日期范围内实际存在的数据段
+ * 过期语义与数据库实现一致：数据在交易日当天20:00后过期
+ * @author KevinHuangwl
+ *
+ */
+@Slf4j
+public class ColumnarMarketDataRepoAdapter implements IMarketDataRepository, DisposableBean {
+
+	private final ColumnarBarStore store;
+
+	private final IContractManager contractMgr;
+
+	public ColumnarMarketDataRepoAdapter(ColumnarBarStore store, IContractManager contractMgr) {
+		this.store = store;
+		this.contractMgr = contractMgr;
+	}
+
+	@Override
+	public void insert(Bar bar) {
+		log.trace("持久化行情数据：{} {} {} {}", bar.contract().name(), bar.actionDay(), bar.actionTime(), bar.actionTimestamp());
+		store.append(bar, expiredAtOf(bar.tradingDay()));
+	}
+
+	static long expiredAtOf(LocalDate tradingDay) {
+		return CommonUtils.localDateTimeToMills(LocalDateTime.of(tradingDay, LocalTime.of(20, 0)));
+	}
+
+	@Override
+	public List<Bar> loadBars(IContract contract, LocalDate startDate, LocalDate endDate) {
+		String unifiedSymbol = contract.contract().unifiedSymbol();
+		List<Bar> resultList = new ArrayList<>();
+		try {
+			for(BarSegment segment : store.segments(unifiedSymbol, startDate, endDate)) {
+				log.debug("加载 [{}] 本地行情数据：{}", unifiedSymbol, segment.tradingDay());
+				Contract c = contractMgr.getContract(segment.channelType(), unifiedSymbol).contract();
+				int size = segment.size();
+				for(int i=0; i<size; i++) {
+					resultList.add(segment.getBar(i, c));
+				}
+			}
+		} catch (Exception e) {
+			log.error("数据转换异常", e);
+		}
+		return resultList;
+	}
+
+	@Override
+	public List<Bar> loadDailyBars(IContract contract, LocalDate startDate, LocalDate endDate) {
+		IDataSource dataServiceDelegate = contract.dataSource();
+		try {
+			return dataServiceDelegate.getDailyData(contract.contract(), startDate, endDate);
+		} catch (Exception e) {
+			log.error("{}", e.getMessage());
+			return Collections.emptyList();
+		}
+	}
+
+	@Override
+	public void deleteExpiredBefore(long expiredAt) {
+		int removed = store.deleteExpiredBefore(expiredAt);
+		log.debug("移除{}个过期K线数据段", removed);
+	}
+
+	@Override
+	public void destroy() {
+		store.close();
+	}
+}
@@ -43,12 +43,25 @@ public class MarketDataRepoAdapter implements IMarketDataRepository{
 	@Override
 	public void insert(Bar bar) {
 		log.trace("持久化行情数据：{} {} {} {}", bar.contract().name(), bar.actionDay(), bar.actionTime(), bar.actionTimestamp());
-		delegate.save(BarDO.builder()
+		delegate.save(convertFrom(bar));
+	}
+
+	/**
+	 * 在同一个事务中写入，配合JDBC批量参数合并成批量插入
+	 */
+	@Override
+	public void insertAll(List<Bar> bars) {
+		log.trace("批量持久化行情数据：{}根", bars.size());
+		delegate.saveAll(bars.stream().map(this::convertFrom).toList());
+	}
+
+	private BarDO convertFrom(Bar bar) {
+		return BarDO.builder()
 				.unifiedSymbol(bar.contract().unifiedSymbol())
 				.tradingDay(bar.tradingDay().format(DateTimeConstant.D_FORMAT_INT_FORMATTER))
 				.expiredAt(CommonUtils.localDateTimeToMills(LocalDateTime.of(bar.tradingDay(), LocalTime.of(20, 0))))
 				.barData(bar.toBarField().toByteArray())
-				.build());
+				.build();
 	}
 
 	@Override
@@ -98,5 +111,10 @@ public class MarketDataRepoAdapter implements IMarketDataRepository{
 			return Collections.emptyList();
 		}
 	}
+
+	@Override
+	public void deleteExpiredBefore(long expiredAt) {
+		delegate.deleteByExpiredAtBefore(expiredAt);
+	}
 	
 }
@@ -0,0 +1,135 @@
+package org.dromara.northstar.data.jdbc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.LockSupport;
+
+import org.dromara.northstar.common.model.ModuleRuntimeDescription;
+import org.dromara.northstar.data.jdbc.entity.ModuleRuntimeDescriptionDO;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 延后写入模组运行状态的仓储
+ * 非持久化要求的运行状态只在内存中保留每个模组最新的一份，由后台线程按固定间隔在同一个事务中批量写入；
+ * 持久化要求的保存（例如成交、启停）会连同所有待写入的状态立即落盘；关闭时同步写入剩余状态
+ * 序列化在调用线程完成，因为运行状态中的自定义存储对象不是线程安全的
+ * @author KevinHuangwl
+ *
+ */
+@Slf4j
+public class WriteBehindModuleRepoAdapter extends ModuleRepoAdapter implements DisposableBean {
+
+	private final ModuleRuntimeDescriptionRepository mrdDelegate;
+
+	private final ConcurrentMap<String, ModuleRuntimeDescriptionDO> pending = new ConcurrentHashMap<>();
+
+	/* 保证批量写入与查询、删除之间互斥，避免已删除的运行状态被旧的批次写回 */
+	private final Object flushLock = new Object();
+
+	private final long flushIntervalNanos;
+
+	private final Thread flusher;
+
+	private volatile boolean closed;
+
+	public WriteBehindModuleRepoAdapter(ModuleDescriptionRepository mdDelegate, ModuleRuntimeDescriptionRepository mrdDelegate,
+			ModuleDealRecordRepository mdrDelegate, Duration flushInterval) {
+		super(mdDelegate, mrdDelegate, mdrDelegate);
+		Assert.isTrue(!flushInterval.isNegative() && !flushInterval.isZero(), "写入间隔必须为正数");
+		this.mrdDelegate = mrdDelegate;
+		this.flushIntervalNanos = flushInterval.toNanos();
+		this.flusher = Thread.ofVirtual().name("ModuleRuntimeWriter").start(this::run);
+	}
+
+	@Override
+	public void saveRuntime(ModuleRuntimeDescription moduleRtDescription) {
+		saveRuntime(moduleRtDescription, true);
+	}
+
+	@Override
+	public void saveRuntime(ModuleRuntimeDescription moduleRtDescription, boolean durable) {
+		ModuleRuntimeDescriptionDO obj = ModuleRuntimeDescriptionDO.convertFrom(moduleRtDescription);
+		pending.put(obj.getModuleName(), obj);
+		if(durable || closed) {
+			flush();
+		}
+	}
+
+	@Override
+	public ModuleRuntimeDescription findRuntimeByName(String moduleName) {
+		// 与批量写入互斥，避免读到已移出待写入队列但尚未提交的旧状态
+		synchronized (flushLock) {
+			ModuleRuntimeDescriptionDO obj = pending.get(moduleName);
+			return obj != null ? obj.convertTo() : super.findRuntimeByName(moduleName);
+		}
+	}
+
+	@Override
+	public void deleteRuntimeByName(String moduleName) {
+		synchronized (flushLock) {
+			pending.remove(moduleName);
+			super.deleteRuntimeByName(moduleName);
+		}
+	}
+
+	/**
+	 * 把所有待写入的运行状态在同一个事务中写入
+	 */
+	public void flush() {
+		synchronized (flushLock) {
+			if(pending.isEmpty()) {
+				return;
+			}
+			List<ModuleRuntimeDescriptionDO> batch = new ArrayList<>(pending.size());
+			for(String moduleName : pending.keySet()) {
+				ModuleRuntimeDescriptionDO obj = pending.remove(moduleName);
+				if(obj != null) {
+					batch.add(obj);
+				}
+			}
+			try {
+				mrdDelegate.saveAll(batch);
+			} catch (Exception e) {
+				log.error("批量写入模组运行状态失败，将在下次写入时重试", e);
+				// 写入失败期间若已有更新的状态，以更新的为准
+				batch.forEach(obj -> pending.putIfAbsent(obj.getModuleName(), obj));
+			}
+		}
+	}
+
+	/**
+	 * 待写入的模组数量
+	 * @return
+	 */
+	public int pendingCount() {
+		return pending.size();
+	}
+
+	private void run() {
+		while(!closed) {
+			LockSupport.parkNanos(flushIntervalNanos);
+			if(closed) {
+				return;
+			}
+			flush();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		closed = true;
+		LockSupport.unpark(flusher);
+		try {
+			flusher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+	}
+}
@@ -1,9 +1,19 @@
 package org.dromara.northstar.event;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 import org.dromara.northstar.common.event.AbstractEventHandler;
 import org.dromara.northstar.common.event.GenericEventHandler;
@@ -11,6 +21,7 @@ import org.dromara.northstar.common.event.NorthstarEvent;
 import org.dromara.northstar.common.event.NorthstarEventType;
 import org.dromara.northstar.common.model.core.Account;
 import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
 import org.dromara.northstar.common.model.core.Notice;
 import org.dromara.northstar.common.model.core.Order;
 import org.dromara.northstar.common.model.core.Position;
@@ -26,23 +37,49 @@ import com.corundumstudio.socketio.annotation.OnConnect;
 import com.corundumstudio.socketio.annotation.OnDisconnect;
 import com.corundumstudio.socketio.annotation.OnEvent;
 
-import cn.hutool.core.codec.Base64;
 import lombok.extern.slf4j.Slf4j;
 import xyz.redtorch.pb.CoreField.AccountField;
 import xyz.redtorch.pb.CoreField.BarField;
 import xyz.redtorch.pb.CoreField.PositionField;
 import xyz.redtorch.pb.CoreField.TickField;
 
+/**
+ * 向前端推送数据
+ * 行情数据按合约分房间（unifiedSymbol@gatewayId）推送，只有已有客户端加入的房间才会序列化并发送；
+ * TICK按房间合并，每个房间每秒最多推送 maxTickRate 次，期间只保留最新的一个TICK（maxTickRate 不大于0时不合并）
+ * 所有数据均以protobuf二进制帧发送
+ * @author KevinHuangwl
+ *
+ */
 /* 注意，本类的日志输出在logs/DEBUG/BroadcastHandler_*.log文件 */
 @Slf4j
 public class BroadcastHandler extends AbstractEventHandler implements GenericEventHandler, InitializingBean, DisposableBean {
 	
+	private static final String TICK = NorthstarEventType.TICK.toString();
+	private static final String BAR = NorthstarEventType.BAR.toString();
+	private static final String ACCOUNT = NorthstarEventType.ACCOUNT.toString();
+	private static final String POSITION = NorthstarEventType.POSITION.toString();
+	private static final String ORDER = NorthstarEventType.ORDER.toString();
+	private static final String TRADE = NorthstarEventType.TRADE.toString();
+	private static final String NOTICE = NorthstarEventType.NOTICE.toString();
+	
 	private SocketIOServer socketServer;
 	
 	private ExecutorService exec;
 	
+	private Thread flusher;
+	
 	private AtomicBoolean shutdown = new AtomicBoolean();
 	
+	private final int maxTickRate;
+	
+	/* gatewayId -> unifiedSymbol -> 房间，按两级查找以免每个TICK拼接房间名 */
+	private final Map<String, Map<String, RoomChannel>> rooms = new ConcurrentHashMap<>();
+	
+	private final Map<UUID, Set<String>> sessionRooms = new ConcurrentHashMap<>();
+	
+	private final AtomicLong skippedCount = new AtomicLong();
+	
 	private static final Set<NorthstarEventType> TARGET_TYPE = EnumSet.of(
 			NorthstarEventType.TICK, 
 			NorthstarEventType.BAR,
@@ -54,44 +91,110 @@ public class BroadcastHandler extends AbstractEventHandler implements GenericEve
 	); 
 	
 	public BroadcastHandler(SocketIOServer socketServer) {
+		this(socketServer, 10);
+	}
+	
+	/**
+	 * @param socketServer
+	 * @param maxTickRate	每个房间每秒最多推送的TICK数量，不大于0时不合并
+	 */
+	public BroadcastHandler(SocketIOServer socketServer, int maxTickRate) {
 		this.socketServer = socketServer;
+		this.maxTickRate = maxTickRate;
 	}
 	
 	/*****************************************************/
 	/**					消息发送端					  		**/
 	/*****************************************************/
 	public void emitEvent(NorthstarEvent event) throws SecurityException, IllegalArgumentException, InterruptedException {
-		// 为了避免接收端信息拥塞，把行情数据按合约分房间分发数据，可以提升客户端的接收效率
 		if(event.getData() instanceof Tick t) {
-			TickField tick = t.toTickField();
-			String rmid = String.format("%s@%s", tick.getUnifiedSymbol(), tick.getGatewayId());
-			log.trace("TICK数据分发：[{} {} {} {} 总仓：{} 仓：{} 总量：{} 量：{} 价：{} 类型：{}]", 
-					tick.getUnifiedSymbol(), tick.getActionDay(), tick.getActionTime(), tick.getActionTimestamp(),
-					(long)tick.getOpenInterest(), (long)tick.getOpenInterestDelta(), tick.getVolume(), tick.getVolumeDelta(), tick.getLastPrice(), t.type());
-			socketServer.getRoomOperations(rmid).sendEvent(NorthstarEventType.TICK.toString(), Base64.encode(tick.toByteArray()));
+			RoomChannel channel = activeChannel(t.gatewayId(), t.contract());
+			if(channel != null) {
+				sendTick(channel, t);
+			}
 		} else if(event.getData() instanceof Bar b) {
-			BarField bar = b.toBarField();
-			String rmid = String.format("%s@%s", bar.getUnifiedSymbol(), bar.getGatewayId());
-			log.trace("BAR数据分发：[{} {} {} {} 仓：{} 量：{} 价：{}]", rmid, bar.getActionDay(), bar.getActionTime(), bar.getActionTimestamp(),
-					(long)bar.getOpenInterestDelta(), bar.getVolumeDelta(), bar.getClosePrice());
-			socketServer.getRoomOperations(rmid).sendEvent(NorthstarEventType.BAR.toString(), Base64.encode(bar.toByteArray()));
+			RoomChannel channel = activeChannel(b.gatewayId(), b.contract());
+			if(channel != null) {
+				sendBar(channel, b);
+			}
 		} else if(event.getData() instanceof Account acc) {
 			AccountField account = acc.toAccountField();
 			log.trace("账户信息分发: [{} {} {}]", account.getAccountId(), account.getGatewayId(), account.getBalance());
-			socketServer.getBroadcastOperations().sendEvent(NorthstarEventType.ACCOUNT.toString(), Base64.encode(account.toByteArray()));
+			socketServer.getBroadcastOperations().sendEvent(ACCOUNT, account.toByteArray());
 		} else if(event.getData() instanceof Position pos) {
 			PositionField position = pos.toPositionField();
 			log.trace("持仓信息分发: [{} {} {}]", position.getAccountId(), position.getGatewayId(), position.getPositionId());
-			socketServer.getBroadcastOperations().sendEvent(NorthstarEventType.POSITION.toString(), Base64.encode(position.toByteArray()));
+			socketServer.getBroadcastOperations().sendEvent(POSITION, position.toByteArray());
 		} else if(event.getData() instanceof Order od) {
-			socketServer.getBroadcastOperations().sendEvent(NorthstarEventType.ORDER.toString(), Base64.encode(od.toOrderField().toByteArray()));
+			socketServer.getBroadcastOperations().sendEvent(ORDER, od.toOrderField().toByteArray());
 		} else if(event.getData() instanceof Trade tr) {
-			socketServer.getBroadcastOperations().sendEvent(NorthstarEventType.TRADE.toString(), Base64.encode(tr.toTradeField().toByteArray()));
+			socketServer.getBroadcastOperations().sendEvent(TRADE, tr.toTradeField().toByteArray());
 		} else if(event.getData() instanceof Notice note) {
-			socketServer.getBroadcastOperations().sendEvent(NorthstarEventType.NOTICE.toString(), Base64.encode(note.toNoticeField().toByteArray()));
+			socketServer.getBroadcastOperations().sendEvent(NOTICE, note.toNoticeField().toByteArray());
 		} 
 	}
 	
+	private void sendTick(RoomChannel channel, Tick t) {
+		TickField tick = t.toTickField();
+		if(log.isTraceEnabled()) {
+			log.trace("TICK数据分发：[{} {} {} {} 总仓：{} 仓：{} 总量：{} 量：{} 价：{} 类型：{}]", 
+					channel.room, tick.getActionDay(), tick.getActionTime(), tick.getActionTimestamp(),
+					(long)tick.getOpenInterest(), (long)tick.getOpenInterestDelta(), tick.getVolume(), tick.getVolumeDelta(), tick.getLastPrice(), t.type());
+		}
+		socketServer.getRoomOperations(channel.room).sendEvent(TICK, tick.toByteArray());
+		channel.onSent();
+	}
+	
+	private void sendBar(RoomChannel channel, Bar b) {
+		BarField bar = b.toBarField();
+		if(log.isTraceEnabled()) {
+			log.trace("BAR数据分发：[{} {} {} {} 仓：{} 量：{} 价：{}]", channel.room, bar.getActionDay(), bar.getActionTime(), bar.getActionTimestamp(),
+					(long)bar.getOpenInterestDelta(), bar.getVolumeDelta(), bar.getClosePrice());
+		}
+		socketServer.getRoomOperations(channel.room).sendEvent(BAR, bar.toByteArray());
+		channel.onSent();
+	}
+	
+	/* 有客户端加入的房间，没有时计入跳过数量并返回null */
+	private RoomChannel activeChannel(String gatewayId, Contract contract) {
+		String gid = gatewayId == null ? contract.gatewayId() : gatewayId;
+		Map<String, RoomChannel> gatewayRooms = gid == null ? null : rooms.get(gid);
+		RoomChannel channel = gatewayRooms == null ? null : gatewayRooms.get(contract.unifiedSymbol());
+		if(channel == null || channel.listeners.get() <= 0) {
+			skippedCount.incrementAndGet();
+			return null;
+		}
+		return channel;
+	}
+	
+	private RoomChannel channel(String room) {
+		int i = room.lastIndexOf('@');
+		String gatewayId = room.substring(i + 1);
+		String unifiedSymbol = i < 0 ? "" : room.substring(0, i);
+		return rooms.computeIfAbsent(gatewayId, k -> new ConcurrentHashMap<>())
+				.computeIfAbsent(unifiedSymbol, k -> new RoomChannel(room));
+	}
+	
+	private void flush() {
+		long interval = TimeUnit.SECONDS.toNanos(1) / maxTickRate;
+		while(!shutdown.get()) {
+			long start = System.nanoTime();
+			for(Map<String, RoomChannel> gatewayRooms : rooms.values()) {
+				for(RoomChannel channel : gatewayRooms.values()) {
+					Tick t = channel.pendingTick.getAndSet(null);
+					if(t != null && channel.listeners.get() > 0) {
+						try {							
+							sendTick(channel, t);
+						} catch (Exception ex) {
+							log.error("数据分发异常", ex);
+						}
+					}
+				}
+			}
+			LockSupport.parkNanos(interval - (System.nanoTime() - start));
+		}
+	}
+	
 	/*************************************************/
 	/**					消息接收端						**/
 	/*************************************************/
@@ -101,20 +204,31 @@ public class BroadcastHandler extends AbstractEventHandler implements GenericEve
     }  
   
     @OnDisconnect  
-    private void onDisconnect(final SocketIOClient client) {
+    void onDisconnect(final SocketIOClient client) {
     	log.info("【客户端断开】-[{}],断开连接", client.getSessionId());
+    	Set<String> joined = sessionRooms.remove(client.getSessionId());
+    	if(joined != null) {
+    		joined.forEach(room -> channel(room).listeners.decrementAndGet());
+    	}
     }
     
     @OnEvent("login")
-    private void login(final SocketIOClient client, String room) {
+    void login(final SocketIOClient client, String room) {
     	log.info("【登录房间】-[{}]加入房间{}", client.getSessionId(), room);
     	client.joinRoom(room);
+    	if(sessionRooms.computeIfAbsent(client.getSessionId(), id -> ConcurrentHashMap.newKeySet()).add(room)) {
+    		channel(room).listeners.incrementAndGet();
+    	}
     }
     
     @OnEvent("logout")
-    private void logout(final SocketIOClient client, String room) {
+    void logout(final SocketIOClient client, String room) {
     	log.info("【离开房间】-[{}]离开房间{}", client.getSessionId(), room);
     	client.leaveRoom(room);
+    	Set<String> joined = sessionRooms.get(client.getSessionId());
+    	if(joined != null && joined.remove(room)) {
+    		channel(room).listeners.decrementAndGet();
+    	}
     }
 
 	@Override
@@ -127,6 +241,14 @@ public class BroadcastHandler extends AbstractEventHandler implements GenericEve
 		if(shutdown.get()) {
 			return;
 		}
+		if(maxTickRate > 0 && e.getData() instanceof Tick t) {
+			// 只保留最新的TICK，由合并线程按频率推送
+			RoomChannel channel = activeChannel(t.gatewayId(), t.contract());
+			if(channel != null && channel.pendingTick.getAndSet(t) != null) {
+				channel.conflatedCount.incrementAndGet();
+			}
+			return;
+		}
 		exec.execute(() -> {
 			try {
 				BroadcastHandler.this.emitEvent(e);
@@ -139,11 +261,85 @@ public class BroadcastHandler extends AbstractEventHandler implements GenericEve
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		exec = CommonUtils.newThreadPerTaskExecutor(getClass());
+		if(maxTickRate > 0) {
+			flusher = Thread.ofVirtual().name("TickBroadcaster").start(this::flush);
+		}
 	}
 	
 	@Override
 	public void destroy() throws Exception {
 		shutdown.set(true);
 		exec.close();
+		if(flusher != null) {
+			flusher.join();
+		}
+	}
+	
+	/**
+	 * 推送统计
+	 * @return
+	 */
+	public BroadcastStatus status() {
+		List<RoomStatus> roomStatus = new ArrayList<>();
+		rooms.values().forEach(gatewayRooms -> gatewayRooms.values().forEach(channel -> roomStatus.add(channel.status())));
+		return new BroadcastStatus(maxTickRate, skippedCount.get(), roomStatus);
 	}
+	
+	private static class RoomChannel {
+		
+		private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+		
+		private final String room;
+		
+		private final AtomicInteger listeners = new AtomicInteger();
+		
+		private final AtomicReference<Tick> pendingTick = new AtomicReference<>();
+		
+		private final AtomicLong sentCount = new AtomicLong();
+		
+		private final AtomicLong conflatedCount = new AtomicLong();
+		
+		private long windowStart = System.nanoTime();
+		
+		private int windowCount;
+		
+		private double sendRate;
+		
+		RoomChannel(String room) {
+			this.room = room;
+		}
+		
+		synchronized void onSent() {
+			sentCount.incrementAndGet();
+			long now = System.nanoTime();
+			if(now - windowStart >= WINDOW) {
+				sendRate = windowCount * (double) WINDOW / (now - windowStart);
+				windowStart = now;
+				windowCount = 0;
+			}
+			windowCount++;
+		}
+		
+		synchronized RoomStatus status() {
+			// 超过一个统计周期没有推送时视为速率为0
+			double rate = System.nanoTime() - windowStart >= 2 * WINDOW ? 0 : sendRate;
+			return new RoomStatus(room, Math.max(0, listeners.get()), sentCount.get(), conflatedCount.get(), rate);
+		}
+	}
+	
+	/**
+	 * @param maxTickRate		每个房间每秒最多推送的TICK数量，不大于0代表不合并
+	 * @param skippedCount		因房间无人加入而未推送的行情数量
+	 * @param rooms				各房间的推送统计
+	 */
+	public static record BroadcastStatus(int maxTickRate, long skippedCount, List<RoomStatus> rooms) {}
+	
+	/**
+	 * @param room				房间名（unifiedSymbol@gatewayId）
+	 * @param listeners			房间内的客户端数量
+	 * @param sentCount			已推送的行情数量
+	 * @param conflatedCount	被更新的TICK覆盖而未推送的TICK数量
+	 * @param sendRate			最近一秒的推送速率（条/秒）
+	 */
+	public static record RoomStatus(String room, int listeners, long sentCount, long conflatedCount, double sendRate) {}
 }
@@ -1,15 +1,24 @@
 package org.dromara.northstar.event;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 import org.dromara.northstar.common.event.FastEventEngine;
 import org.dromara.northstar.common.event.NorthstarEvent;
 import org.dromara.northstar.common.event.NorthstarEventType;
 import org.dromara.northstar.common.model.core.Notice;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
 
 import com.lmax.disruptor.BatchEventProcessor;
 import com.lmax.disruptor.BlockingWaitStrategy;
@@ -17,6 +26,7 @@ import com.lmax.disruptor.BusySpinWaitStrategy;
 import com.lmax.disruptor.EventHandler;
 import com.lmax.disruptor.ExceptionHandler;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SleepingWaitStrategy;
 import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
 import com.lmax.disruptor.WaitStrategy;
@@ -38,6 +48,7 @@ public class DisruptorFastEventEngine implements FastEventEngine, DisposableBean
 
 	private static final ExecutorService executor = Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE);
 	private static final int BUF_SIZE = 65536;
+	private static final int MAX_IDLE_ROUNDS = 8;	// 事件派生链（如 TICK -> 下单 -> 成交）的最大追踪深度
 	
 	private final Map<EventHandler<NorthstarEvent>, BatchEventProcessor<NorthstarEvent>> handlerProcessorMap = new ConcurrentHashMap<>();
 
@@ -45,6 +56,8 @@ public class DisruptorFastEventEngine implements FastEventEngine, DisposableBean
 
 	private RingBuffer<NorthstarEvent> ringBuffer;
 	
+	private final List<Supplier<Future<?>>> idleBarriers = new CopyOnWriteArrayList<>();
+	
 	private ExceptionHandler<NorthstarEvent> commonExceptionHandler = new ExceptionHandler<>() {
 
 		@Override
@@ -69,7 +82,7 @@ public class DisruptorFastEventEngine implements FastEventEngine, DisposableBean
 	};
 	
 	public DisruptorFastEventEngine(WaitStrategyEnum strategy) throws Exception {
-		WaitStrategy s = (WaitStrategy) strategy.getStrategyClass().getDeclaredConstructor().newInstance();
+		WaitStrategy s = strategy.newInstance();
 		disruptor = new Disruptor<>(new NorthstarEventFactory(), BUF_SIZE, DaemonThreadFactory.INSTANCE,
 				ProducerType.MULTI, s);
 		ringBuffer = disruptor.start();
@@ -78,8 +91,23 @@ public class DisruptorFastEventEngine implements FastEventEngine, DisposableBean
 	
 	@Override
 	public void addHandler(NorthstarEventDispatcher handler) {
+		addHandler(handler, new NorthstarEventDispatcher[0]);
+	}
+	
+	/**
+	 * 注册为独立的消费者，且只有在所有依赖的消费者处理完某个事件后，才会处理该事件
+	 * 互不依赖的消费者各自在独立线程上并行消费
+	 */
+	@Override
+	public void addHandler(NorthstarEventDispatcher handler, NorthstarEventDispatcher... dependencies) {
 		log.debug("加载：{}", handler);
-		BatchEventProcessor<NorthstarEvent> processor = new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(), handler);
+		Sequence[] dependentSequences = new Sequence[dependencies.length];
+		for(int i=0; i<dependencies.length; i++) {
+			BatchEventProcessor<NorthstarEvent> dependency = handlerProcessorMap.get(dependencies[i]);
+			Assert.notNull(dependency, "依赖的处理器尚未注册：" + dependencies[i]);
+			dependentSequences[i] = dependency.getSequence();
+		}
+		BatchEventProcessor<NorthstarEvent> processor = new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(dependentSequences), handler);
 		processor.setExceptionHandler(commonExceptionHandler);
 		ringBuffer.addGatingSequences(processor.getSequence());
 		executor.execute(processor);
@@ -128,6 +156,49 @@ public class DisruptorFastEventEngine implements FastEventEngine, DisposableBean
 		}
 	}
 	
+	@Override
+	public void addIdleBarrier(Supplier<Future<?>> barrier) {
+		idleBarriers.add(barrier);
+	}
+	
+	/**
+	 * 先等所有消费者追上当前游标，再等各异步环节的屏障；
+	 * 期间派生了新事件时游标会前移，需要追踪到新的游标，直到游标在一轮检查前后保持不变。
+	 * 多个生产者并发发布时游标可能一直前移，因此最多追踪 MAX_IDLE_ROUNDS 轮，保证调用方不会被其他生产者拖住
+	 */
+	@Override
+	public void awaitIdle() throws InterruptedException {
+		for(int round = 0; round < MAX_IDLE_ROUNDS; round++) {
+			long cursor = ringBuffer.getCursor();
+			waitUntil(() -> ringBuffer.getMinimumGatingSequence() >= cursor);
+			for(Supplier<Future<?>> barrier : idleBarriers) {
+				try {
+					barrier.get().get();
+				} catch (ExecutionException e) {
+					log.warn("等待异步处理环节时出现异常", e);
+				}
+			}
+			if(ringBuffer.getCursor() == cursor) {
+				return;
+			}
+		}
+	}
+	
+	private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		for(int spins = 0; !condition.getAsBoolean(); spins++) {
+			if(Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			if(spins < 100) {
+				Thread.onSpinWait();
+			} else if(spins < 1000) {
+				Thread.yield();
+			} else {
+				LockSupport.parkNanos(10_000);
+			}
+		}
+	}
+	
 	public enum WaitStrategyEnum {
 		BlockingWaitStrategy(BlockingWaitStrategy.class),
 		BusySpinWaitStrategy(BusySpinWaitStrategy.class),
@@ -143,6 +214,14 @@ public class DisruptorFastEventEngine implements FastEventEngine, DisposableBean
 		public Class<?> getStrategyClass(){
 			return clz;
 		}
+		
+		public WaitStrategy newInstance() throws Exception {
+			if(this == TimeoutBlockingWaitStrategy) {
+				// 该策略没有无参构造器
+				return new TimeoutBlockingWaitStrategy(1, TimeUnit.MILLISECONDS);
+			}
+			return (WaitStrategy) clz.getDeclaredConstructor().newInstance();
+		}
 	}
 
 }
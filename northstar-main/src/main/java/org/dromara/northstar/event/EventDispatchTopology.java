@@ -0,0 +1,17 @@
+package org.dromara.northstar.event;
+
+/**
+ * 内部事件分发拓扑
+ * @author KevinHuangwl
+ *
+ */
+public enum EventDispatchTopology {
+	/**
+	 * 所有处理器在同一个消费者线程上按优先级串行处理
+	 */
+	SERIAL,
+	/**
+	 * 处理器分别作为独立的消费者并行处理，仅在有依赖关系的处理器之间设置屏障
+	 */
+	PIPELINE;
+}
@@ -1,16 +1,23 @@
 package org.dromara.northstar.event;
 
+import java.util.function.Supplier;
+
 import org.dromara.northstar.common.event.FastEventEngine;
 import org.dromara.northstar.common.event.FastEventEngine.NorthstarEventDispatcher;
+import org.dromara.northstar.common.event.GenericEventHandler;
 import org.dromara.northstar.common.event.NorthstarEvent;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * 此类为内部事件分发器，统一处理FastEventEngine的事件分发
+ * 串行拓扑下，所有处理器在同一消费者上按优先级依次处理；
+ * 流水线拓扑下，每个处理器是独立的消费者，只保留真正需要的先后关系：
+ * 模拟撮合与账户更新须在模组处理之后（回测模组要先下单再撮合），其余处理器互不依赖
  * @auth KevinHuangwl
  */
-@Component
+@Slf4j
 public class InternalDispatcher implements NorthstarEventDispatcher {
 
 	@Autowired
@@ -31,8 +38,21 @@ public class InternalDispatcher implements NorthstarEventDispatcher {
 	private IllegalOrderHandler illOrderHandler;
 	
 	
-	public InternalDispatcher(FastEventEngine feEngine) {
-		feEngine.addHandler(this);
+	public InternalDispatcher(FastEventEngine feEngine, EventDispatchTopology topology) {
+		log.info("内部事件分发拓扑：{}", topology);
+		if(topology == EventDispatchTopology.SERIAL) {
+			feEngine.addHandler(this);
+			return;
+		}
+		NorthstarEventDispatcher module = new HandlerDispatcher("ModuleHandler", () -> moduleHandler);
+		feEngine.addHandler(module);
+		feEngine.addHandler(new HandlerDispatcher("SimMarketHandler", () -> simMarketHandler), module);
+		feEngine.addHandler(new HandlerDispatcher("AccountHandler", () -> accountHandler), module);
+		feEngine.addHandler(new HandlerDispatcher("BroadcastHandler", () -> bcHandler));
+		feEngine.addHandler(new HandlerDispatcher("ConnectionHandler", () -> connHandler));
+		feEngine.addHandler(new HandlerDispatcher("MarketDataHandler", () -> mdHandler));
+		feEngine.addHandler(new HandlerDispatcher("IllegalOrderHandler", () -> illOrderHandler));
+		feEngine.addHandler(new HandlerDispatcher("EventNotificationHandler", () -> notificationHandler));
 	}
 	
 	@Override
@@ -47,5 +67,22 @@ public class InternalDispatcher implements NorthstarEventDispatcher {
 		illOrderHandler.onEvent(event);
 		notificationHandler.onEvent(event);
 	}
+	
+	/**
+	 * 把单个处理器包装为独立的消费者
+	 * 处理器通过字段注入，因此以Supplier延迟获取
+	 */
+	private record HandlerDispatcher(String name, Supplier<GenericEventHandler> handler) implements NorthstarEventDispatcher {
+
+		@Override
+		public void onEvent(NorthstarEvent event, long sequence, boolean endOfBatch) throws Exception {
+			handler.get().onEvent(event);
+		}
+		
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
 
 }
@@ -1,8 +1,13 @@
 package org.dromara.northstar.event;
 
-import java.util.concurrent.ExecutorService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.dromara.northstar.common.constant.ChannelType;
 import org.dromara.northstar.common.event.AbstractEventHandler;
@@ -10,28 +15,65 @@ import org.dromara.northstar.common.event.GenericEventHandler;
 import org.dromara.northstar.common.event.NorthstarEvent;
 import org.dromara.northstar.common.event.NorthstarEventType;
 import org.dromara.northstar.common.model.core.Bar;
-import org.dromara.northstar.common.utils.CommonUtils;
 import org.dromara.northstar.data.IMarketDataRepository;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * 处理K线数据持久化
+ * K线先进入有界队列，由唯一的虚拟线程合并成批次后调用 {@link IMarketDataRepository#insertAll(List)} 写入；
+ * 每个批次最多包含 batchSize 根K线，首根K线到达后最多等待 maxDelay 以凑满批次
+ * 队列满时事件线程最多阻塞 maxBlock 等待写入线程腾出空间（背压），仍然写不进时丢弃该K线并计数；关闭时同步写入队列中剩余的K线
+ * 注意：背压阻塞的是事件引擎的消费线程，阻塞期间该线程上的其他处理器（模组、推送等）都会被推迟，
+ * 而且每根K线都可能等待一次，因此 maxBlock 应远小于凑批等待 maxDelay，只用于吸收写入线程的短暂停顿
+ * 统计信息见 {@link #status()}，可通过 /northstar/data/ingestion/status 查询
  * @author KevinHuangwl
  *
  */
+@Slf4j
 public class MarketDataHandler extends AbstractEventHandler implements GenericEventHandler, InitializingBean, DisposableBean{
 
 	private IMarketDataRepository mdRepo;
-	
+
 	private AtomicBoolean shutdown = new AtomicBoolean();
-	
-	private ExecutorService exec;
-	
+
+	private final BlockingQueue<Bar> queue;
+
+	private final int batchSize;
+
+	private final long maxDelayNanos;
+
+	private final long maxBlockNanos;
+
+	private Thread writer;
+
+	private final AtomicLong acceptedCount = new AtomicLong();
+	private final AtomicLong persistedCount = new AtomicLong();
+	private final AtomicLong batchCount = new AtomicLong();
+	private final AtomicLong overflowCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+
 	public MarketDataHandler(IMarketDataRepository mdRepo) {
+		this(mdRepo, 10000, 500, Duration.ofMillis(200), Duration.ofMillis(20));
+	}
+
+	public MarketDataHandler(IMarketDataRepository mdRepo, int queueCapacity, int batchSize, Duration maxDelay, Duration maxBlock) {
+		Assert.isTrue(queueCapacity > 0, "队列容量必须为正数");
+		Assert.isTrue(batchSize > 0, "批量大小必须为正数");
+		Assert.isTrue(!maxDelay.isNegative(), "等待时间不能为负数");
+		Assert.isTrue(!maxBlock.isNegative(), "阻塞时间不能为负数");
+		Assert.isTrue(maxBlock.compareTo(maxDelay) <= 0, "背压阻塞时间不能超过凑批等待时间");
 		this.mdRepo = mdRepo;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+		this.maxDelayNanos = maxDelay.toNanos();
+		this.maxBlockNanos = maxBlock.toNanos();
 	}
-	
+
 	@Override
 	public boolean canHandle(NorthstarEventType eventType) {
 		return eventType == NorthstarEventType.BAR;
@@ -43,18 +85,116 @@ public class MarketDataHandler extends AbstractEventHandler implements GenericEv
 			return;
 		}
 		if(e.getData() instanceof Bar bar && System.currentTimeMillis() - bar.actionTimestamp() < TimeUnit.MINUTES.toMillis(5) && bar.channelType() != ChannelType.SIM) {
-			exec.execute(() -> mdRepo.insert(bar)); 
+			enqueue(bar);
+		}
+	}
+
+	private void enqueue(Bar bar) {
+		if(queue.offer(bar)) {
+			acceptedCount.incrementAndGet();
+			return;
+		}
+		overflowCount.incrementAndGet();
+		try {
+			if(queue.offer(bar, maxBlockNanos, TimeUnit.NANOSECONDS)) {
+				acceptedCount.incrementAndGet();
+				return;
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		droppedCount.incrementAndGet();
+		log.warn("K线持久化队列已满，丢弃数据：{} {}", bar.contract().unifiedSymbol(), bar.actionTime());
+	}
+
+	private void consume() {
+		List<Bar> batch = new ArrayList<>(batchSize);
+		while(!shutdown.get()) {
+			try {
+				Bar first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if(first == null) {
+					continue;
+				}
+				batch.add(first);
+				fill(batch);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			write(batch);
+			batch.clear();
+		}
+		// 退出前写入已取出的K线，队列中剩余的由关闭流程写入
+		write(batch);
+	}
+
+	private void fill(List<Bar> batch) throws InterruptedException {
+		queue.drainTo(batch, batchSize - batch.size());
+		long deadline = System.nanoTime() + maxDelayNanos;
+		while(batch.size() < batchSize) {
+			long remaining = deadline - System.nanoTime();
+			if(remaining <= 0) {
+				return;
+			}
+			Bar bar = queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if(bar == null) {
+				return;
+			}
+			batch.add(bar);
+			queue.drainTo(batch, batchSize - batch.size());
+		}
+	}
+
+	private void write(List<Bar> batch) {
+		if(batch.isEmpty()) {
+			return;
+		}
+		try {
+			mdRepo.insertAll(batch);
+			persistedCount.addAndGet(batch.size());
+			batchCount.incrementAndGet();
+		} catch (Exception ex) {
+			failedCount.addAndGet(batch.size());
+			log.error("批量写入K线数据失败，共{}根", batch.size(), ex);
 		}
 	}
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
-		exec = CommonUtils.newThreadPerTaskExecutor(getClass());
+		writer = Thread.ofVirtual().name("MarketDataWriter").start(this::consume);
 	}
-	
+
 	@Override
 	public void destroy() throws Exception {
 		shutdown.set(true);
-		exec.close();
+		if(writer != null) {
+			writer.join();
+		}
+		List<Bar> remaining = new ArrayList<>(queue.size());
+		queue.drainTo(remaining);
+		for(int i=0; i<remaining.size(); i+=batchSize) {
+			write(remaining.subList(i, Math.min(i + batchSize, remaining.size())));
+		}
+	}
+
+	/**
+	 * 持久化统计
+	 * @return
+	 */
+	public IngestionStatus status() {
+		return new IngestionStatus(queue.size(), acceptedCount.get(), persistedCount.get(), batchCount.get(),
+				overflowCount.get(), droppedCount.get(), failedCount.get());
 	}
+
+	/**
+	 * @param queueDepth		队列中待写入的K线数量
+	 * @param acceptedCount		进入队列的K线数量
+	 * @param persistedCount	写入成功的K线数量
+	 * @param batchCount		写入成功的批次数量
+	 * @param overflowCount		入队时队列已满的次数（触发背压）
+	 * @param droppedCount		背压等待超时后丢弃的K线数量
+	 * @param failedCount		写入失败的K线数量
+	 */
+	public static record IngestionStatus(int queueDepth, long acceptedCount, long persistedCount, long batchCount,
+			long overflowCount, long droppedCount, long failedCount) {}
 }
@@ -7,25 +7,37 @@ import org.dromara.northstar.common.event.AbstractEventHandler;
 import org.dromara.northstar.common.event.GenericEventHandler;
 import org.dromara.northstar.common.event.NorthstarEvent;
 import org.dromara.northstar.common.event.NorthstarEventType;
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Order;
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.common.model.core.Trade;
+import org.dromara.northstar.module.ModuleEventLane;
 import org.dromara.northstar.module.ModuleManager;
 
 
-
+/**
+ * 模组事件分发
+ * 按路由索引把事件只投递给关注它的模组事件通道
+ * @author KevinHuangwl
+ *
+ */
 public class ModuleHandler extends AbstractEventHandler implements GenericEventHandler{
 
+	private static final ModuleEventLane[] NONE = new ModuleEventLane[0];
+
 	private ModuleManager moduleMgr;
-	
+
 	private static final Set<NorthstarEventType> TARGET_TYPE = EnumSet.of(
 			NorthstarEventType.TICK,
 			NorthstarEventType.BAR,
 			NorthstarEventType.TRADE,
 			NorthstarEventType.ORDER
-	); 
-	
+	);
+
 	public ModuleHandler(ModuleManager moduleMgr) {
 		this.moduleMgr = moduleMgr;
 	}
-	
+
 	@Override
 	public boolean canHandle(NorthstarEventType eventType) {
 		return TARGET_TYPE.contains(eventType);
@@ -33,7 +45,16 @@ public class ModuleHandler extends AbstractEventHandler implements GenericEventH
 
 	@Override
 	protected void doHandle(NorthstarEvent e) {
-		moduleMgr.allModules().parallelStream().forEach(module -> module.onEvent(e));
+		ModuleEventLane[] lanes = switch(e.getData()) {
+			case Tick tick -> moduleMgr.marketDataLanes(tick.gatewayId(), tick.contract().unifiedSymbol());
+			case Bar bar -> moduleMgr.marketDataLanes(bar.gatewayId(), bar.contract().unifiedSymbol());
+			case Order order -> moduleMgr.accountDataLanes(order.gatewayId());
+			case Trade trade -> moduleMgr.accountDataLanes(trade.gatewayId());
+			default -> NONE;
+		};
+		for(ModuleEventLane lane : lanes) {
+			lane.publish(e);
+		}
 	}
 
 }
@@ -1,7 +1,9 @@
 package org.dromara.northstar.event;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.StringUtils;
 import org.dromara.northstar.account.AccountManager;
@@ -50,5 +52,13 @@ public class SimMarketHandler extends AbstractEventHandler implements GenericEve
 			);
 		}
 	}
+	
+	/**
+	 * 撮合屏障：工作线程按提交顺序执行，因此屏障任务完成时，此前提交的撮合任务（及其成交回报的发布）均已完成
+	 * @return
+	 */
+	public Future<?> barrier() {
+		return CompletableFuture.runAsync(() -> {}, exec);
+	}
 
 }
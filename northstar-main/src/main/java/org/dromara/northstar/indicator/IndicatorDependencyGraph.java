@@ -0,0 +1,132 @@
+package org.dromara.northstar.indicator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 指标依赖图
+ * 把多个顶层指标的依赖树合并为一个有向无环图，被多个指标共享的子指标只作为一个节点出现，
+ * 每次更新按拓扑顺序（依赖先于被依赖）对每个节点只求值一次
+ *
+ * 注意：节点按对象身份合并。配置相同但实例不同的指标不能合并，因为上层指标直接持有各自的实例引用，
+ * 而且配置信息也不包含指标的构造参数（例如RSI内部的两个SMA配置完全相同）
+ * @author KevinHuangwl
+ *
+ */
+public class IndicatorDependencyGraph {
+
+	private final List<Indicator> roots = new ArrayList<>();
+
+	private volatile List<Indicator> sortedNodes = Collections.emptyList();
+
+	/* 按依赖树逐层递归时，每次更新需要遍历的节点次数 */
+	private volatile long numOfTreeVisits;
+
+	private final AtomicLong evaluationCount = new AtomicLong();
+
+	private final AtomicLong avoidedEvaluationCount = new AtomicLong();
+
+	/**
+	 * 加入顶层指标，并重建拓扑顺序
+	 * @param indicator
+	 * @return			该指标是否为新加入的顶层指标
+	 */
+	public synchronized boolean addRoot(Indicator indicator) {
+		if(roots.stream().anyMatch(root -> root == indicator)) {
+			return false;
+		}
+		roots.add(indicator);
+
+		List<Indicator> order = new ArrayList<>();
+		Set<Indicator> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		Set<Indicator> visiting = Collections.newSetFromMap(new IdentityHashMap<>());
+		Map<Indicator, Long> treeSizeMap = new IdentityHashMap<>();
+		long treeVisits = 0;
+		for(Indicator root : roots) {
+			sort(root, visited, visiting, order);
+			treeVisits += treeSize(root, treeSizeMap);
+		}
+		numOfTreeVisits = treeVisits;
+		sortedNodes = List.copyOf(order);
+		return true;
+	}
+
+	private void sort(Indicator indicator, Set<Indicator> visited, Set<Indicator> visiting, List<Indicator> order) {
+		if(visited.contains(indicator)) {
+			return;
+		}
+		if(!visiting.add(indicator)) {
+			throw new IllegalStateException("指标依赖存在循环：" + indicator.getConfiguration().indicatorName());
+		}
+		for(Indicator dependency : indicator.dependencies()) {
+			sort(dependency, visited, visiting, order);
+		}
+		visiting.remove(indicator);
+		visited.add(indicator);
+		order.add(indicator);
+	}
+
+	private long treeSize(Indicator indicator, Map<Indicator, Long> treeSizeMap) {
+		Long size = treeSizeMap.get(indicator);
+		if(size == null) {
+			long total = 1;
+			for(Indicator dependency : indicator.dependencies()) {
+				total += treeSize(dependency, treeSizeMap);
+			}
+			size = total;
+			treeSizeMap.put(indicator, size);
+		}
+		return size;
+	}
+
+	/**
+	 * 按拓扑顺序对每个节点执行一次求值
+	 * @param evaluator
+	 */
+	public void evaluate(Consumer<Indicator> evaluator) {
+		List<Indicator> nodes = sortedNodes;
+		for(Indicator node : nodes) {
+			evaluator.accept(node);
+		}
+		evaluationCount.addAndGet(nodes.size());
+		avoidedEvaluationCount.addAndGet(numOfTreeVisits - nodes.size());
+	}
+
+	/**
+	 * 按拓扑顺序排列的全部节点
+	 * @return
+	 */
+	public List<Indicator> nodes() {
+		return sortedNodes;
+	}
+
+	/**
+	 * 顶层指标
+	 * @return
+	 */
+	public synchronized List<Indicator> roots() {
+		return List.copyOf(roots);
+	}
+
+	/**
+	 * 累计的节点求值次数
+	 * @return
+	 */
+	public long getEvaluationCount() {
+		return evaluationCount.get();
+	}
+
+	/**
+	 * 相比按依赖树逐个顶层指标递归更新，累计节省的重复求值次数
+	 * @return
+	 */
+	public long getAvoidedEvaluationCount() {
+		return avoidedEvaluationCount.get();
+	}
+}
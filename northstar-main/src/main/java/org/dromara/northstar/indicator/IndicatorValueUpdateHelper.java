@@ -1,71 +1,109 @@
 package org.dromara.northstar.indicator;
 
+import java.util.List;
+
 import org.apache.commons.lang3.StringUtils;
 import org.dromara.northstar.common.BarDataAware;
 import org.dromara.northstar.common.TickDataAware;
 import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
 import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.indicator.constant.PeriodUnit;
 import org.dromara.northstar.indicator.model.Configuration;
 import org.dromara.northstar.indicator.model.Num;
 import org.dromara.northstar.strategy.MergedBarListener;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 指标值更新辅助类
+ * 同一合约、同一周期的指标共用一个辅助类，其依赖关系合并为一个依赖图，每次行情更新时每个指标只求值一次
+ * @author KevinHuangwl
+ *
+ */
 @Slf4j
 public class IndicatorValueUpdateHelper implements MergedBarListener, BarDataAware, TickDataAware{
 
-	private Indicator indicator;
+	private final Contract contract;
+	
+	private final int numOfUnits;
 	
-	private Configuration cfg;
+	private final PeriodUnit period;
+	
+	private final IndicatorDependencyGraph graph = new IndicatorDependencyGraph();
 	
 	private InstantBarGenerator inbarGen;
 	
 	public IndicatorValueUpdateHelper(Indicator indicator) {
-		this.indicator = indicator;
-		this.cfg = indicator.getConfiguration();
-		this.inbarGen = new InstantBarGenerator(cfg.contract());
+		Configuration cfg = indicator.getConfiguration();
+		this.contract = cfg.contract();
+		this.numOfUnits = cfg.numOfUnits();
+		this.period = cfg.period();
+		this.inbarGen = new InstantBarGenerator(contract);
+		addIndicator(indicator);
+	}
+	
+	/**
+	 * 加入同一合约、同一周期的指标
+	 * @param indicator
+	 */
+	public void addIndicator(Indicator indicator) {
+		Configuration cfg = indicator.getConfiguration();
+		if(!contract.equals(cfg.contract()) || numOfUnits != cfg.numOfUnits() || period != cfg.period()) {
+			throw new IllegalArgumentException(String.format("指标 [%s] 的合约或周期与更新辅助类不一致", cfg.indicatorID()));
+		}
+		if(graph.addRoot(indicator) && log.isDebugEnabled()) {
+			log.debug("[{}_{}{}] 指标依赖图节点数：{}", contract.unifiedSymbol(), numOfUnits, period.symbol(), graph.nodes().size());
+		}
 	}
 	
 	@Override
 	public void onMergedBar(Bar bar) {
-		if(!StringUtils.equals(cfg.contract().unifiedSymbol(), bar.contract().unifiedSymbol())) {
+		if(!StringUtils.equals(contract.unifiedSymbol(), bar.contract().unifiedSymbol())) {
 			return;
 		}
-		recursiveUpdate(indicator, bar, false);
+		update(bar, false);
 		inbarGen.reset();
 	}
 
 	@Override
 	public void onBar(Bar bar) {
-		if(!StringUtils.equals(cfg.contract().unifiedSymbol(), bar.contract().unifiedSymbol())) {
+		if(!StringUtils.equals(contract.unifiedSymbol(), bar.contract().unifiedSymbol())) {
 			return;
 		}
-		recursiveUpdate(indicator, inbarGen.update(bar), true);
+		update(inbarGen.update(bar), true);
 	}
 
 	@Override
 	public void onTick(Tick tick) {
-		if(!StringUtils.equals(cfg.contract().unifiedSymbol(), tick.contract().unifiedSymbol())) {
+		if(!StringUtils.equals(contract.unifiedSymbol(), tick.contract().unifiedSymbol())) {
 			return;
 		}
-		inbarGen.update(tick).ifPresent(bar -> recursiveUpdate(indicator, bar, true));
+		inbarGen.update(tick).ifPresent(bar -> update(bar, true));
+	}
+	
+	/**
+	 * 注册到该辅助类的顶层指标
+	 * @return
+	 */
+	public List<Indicator> getIndicators() {
+		return graph.roots();
 	}
 	
-	public Indicator getIndicator() {
-		return indicator;
+	public IndicatorDependencyGraph getGraph() {
+		return graph;
 	}
 
 	/*
-	 * 递归更新
+	 * 按拓扑顺序更新，依赖的指标会先于被依赖的指标更新
 	 */
-	private void recursiveUpdate(Indicator indicator, Bar bar, boolean unstable) {
-		for(Indicator dependencyIndicator: indicator.dependencies()) {
-			recursiveUpdate(dependencyIndicator, bar, unstable);
-		}
-		try {			
-			indicator.update(Num.of(indicator.getConfiguration().valueType().resolve(bar), bar.actionTimestamp(), unstable));
-		} catch(Exception e) {
-			log.error("指标[{}] 数值更新异常", indicator.getConfiguration().indicatorName(), e);
-		}
+	private void update(Bar bar, boolean unstable) {
+		graph.evaluate(indicator -> {
+			try {			
+				indicator.update(Num.of(indicator.getConfiguration().valueType().resolve(bar), bar.actionTimestamp(), unstable));
+			} catch(Exception e) {
+				log.error("指标[{}] 数值更新异常", indicator.getConfiguration().indicatorName(), e);
+			}
+		});
 	}
 }
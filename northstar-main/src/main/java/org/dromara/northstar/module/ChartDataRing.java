@@ -0,0 +1,250 @@
+package org.dromara.northstar.module;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dromara.northstar.common.StateSnapshotAware;
+import org.dromara.northstar.common.model.core.Bar;
+import org.springframework.util.Assert;
+
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+
+/**
+ * 模组图表数据的列式环形缓冲
+ * 时间戳、每个K线字段与每个可见指标各占一列基本类型数组，追加与取长度均为O(1)，写满后覆盖最旧的行；
+ * 指标在某根K线上没有值时记为NaN
+ * 写入分为 {@link #newRow(Bar)}、{@link #put(String, double)}、{@link #commit()} 三步，提交前的行对读取方不可见，
+ * 因此增量查询不会取到指标值尚未写完的K线
+ * @author KevinHuangwl
+ *
+ */
+public class ChartDataRing implements StateSnapshotAware {
+
+	private static final String TIMESTAMP = "timestamp";
+
+	private static final String[] BAR_COLUMNS = {"open", "high", "low", "close", "volume", "openInterestDelta", "openInterest"};
+
+	private static final int VOLUME = 4;
+
+	private final int capacity;
+
+	/* 多分配一行作为待提交行，使其不会覆盖仍可见的最旧行 */
+	private final int slots;
+
+	private final long[] timestamps;
+
+	private final double[][] barColumns;
+
+	private final Map<String, double[]> indicatorColumns = new LinkedHashMap<>();
+
+	/* 待提交行的位置 */
+	private int head;
+
+	private int size;
+
+	public ChartDataRing(int capacity) {
+		Assert.isTrue(capacity > 0, "缓冲容量必须为正数");
+		this.capacity = capacity;
+		this.slots = capacity + 1;
+		this.timestamps = new long[slots];
+		this.barColumns = new double[BAR_COLUMNS.length][slots];
+	}
+
+	/**
+	 * 开始写入一行K线数据
+	 * @param bar
+	 */
+	public synchronized void newRow(Bar bar) {
+		timestamps[head] = bar.actionTimestamp();
+		barColumns[0][head] = bar.openPrice();
+		barColumns[1][head] = bar.highPrice();
+		barColumns[2][head] = bar.lowPrice();
+		barColumns[3][head] = bar.closePrice();
+		barColumns[VOLUME][head] = bar.volumeDelta();
+		barColumns[5][head] = bar.openInterestDelta();
+		barColumns[6][head] = bar.openInterest();
+		for(double[] column : indicatorColumns.values()) {
+			column[head] = Double.NaN;
+		}
+	}
+
+	/**
+	 * 写入待提交行的指标值
+	 * @param indicatorID
+	 * @param value
+	 */
+	public synchronized void put(String indicatorID, double value) {
+		indicatorColumns.computeIfAbsent(indicatorID, id -> newColumn())[head] = value;
+	}
+
+	/**
+	 * 提交待提交行
+	 */
+	public synchronized void commit() {
+		head = (head + 1) % slots;
+		size = Math.min(size + 1, capacity);
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	public synchronized void clear() {
+		size = 0;
+	}
+
+	/**
+	 * 全部数据，每行一个JSON对象，没有值的指标不输出
+	 * @return
+	 */
+	public synchronized JSONArray toJSONArray() {
+		JSONArray result = new JSONArray(size);
+		for(int i=0; i<size; i++) {
+			int row = rowIndex(i);
+			JSONObject json = new JSONObject();
+			for(int c=0; c<BAR_COLUMNS.length; c++) {
+				json.put(BAR_COLUMNS[c], c == VOLUME ? (long) barColumns[c][row] : barColumns[c][row]);
+			}
+			json.put(TIMESTAMP, timestamps[row]);
+			indicatorColumns.forEach((id, column) -> {
+				if(!Double.isNaN(column[row])) {
+					json.put(id, column[row]);
+				}
+			});
+			result.add(json);
+		}
+		return result;
+	}
+
+	/**
+	 * 时间戳大于 sinceTimestamp 的行，按列编码（大端序）：
+	 * 行数(int)、列数(int)、各列名称(UTF)、各行时间戳(long)，然后逐列输出各行的值(double)
+	 * @param sinceTimestamp	客户端已有的最新时间戳，首次查询传0
+	 * @return
+	 */
+	public synchronized byte[] encodeSince(long sinceTimestamp) {
+		int rows = 0;
+		while(rows < size && timestamps[rowIndex(size - 1 - rows)] > sinceTimestamp) {
+			rows++;
+		}
+		int first = size - rows;
+		List<String> names = new ArrayList<>(BAR_COLUMNS.length + indicatorColumns.size());
+		List<double[]> columns = new ArrayList<>(BAR_COLUMNS.length + indicatorColumns.size());
+		for(int c=0; c<BAR_COLUMNS.length; c++) {
+			names.add(BAR_COLUMNS[c]);
+			columns.add(barColumns[c]);
+		}
+		indicatorColumns.forEach((id, column) -> {
+			names.add(id);
+			columns.add(column);
+		});
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(8 + rows * 8 * (columns.size() + 1));
+		try(DataOutputStream out = new DataOutputStream(bos)) {
+			out.writeInt(rows);
+			out.writeInt(names.size());
+			for(String name : names) {
+				out.writeUTF(name);
+			}
+			for(int i=first; i<size; i++) {
+				out.writeLong(timestamps[rowIndex(i)]);
+			}
+			for(double[] column : columns) {
+				for(int i=first; i<size; i++) {
+					out.writeDouble(column[rowIndex(i)]);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bos.toByteArray();
+	}
+
+	@Override
+	public synchronized void writeState(DataOutput out) throws IOException {
+		out.writeInt(size);
+		out.writeInt(indicatorColumns.size());
+		for(String id : indicatorColumns.keySet()) {
+			out.writeUTF(id);
+		}
+		for(int i=0; i<size; i++) {
+			int row = rowIndex(i);
+			out.writeLong(timestamps[row]);
+			for(double[] column : barColumns) {
+				out.writeDouble(column[row]);
+			}
+			for(double[] column : indicatorColumns.values()) {
+				out.writeDouble(column[row]);
+			}
+		}
+	}
+
+	/**
+	 * 读入快照，超出容量的最旧行被丢弃；读取失败时保持原有数据不变
+	 */
+	@Override
+	public synchronized void readState(DataInput in) throws IOException {
+		int rows = in.readInt();
+		int numOfIndicators = in.readInt();
+		if(rows < 0 || numOfIndicators < 0) {
+			throw new IOException("图表数据快照已损坏");
+		}
+		String[] ids = new String[numOfIndicators];
+		for(int i=0; i<numOfIndicators; i++) {
+			ids[i] = in.readUTF();
+		}
+		int kept = Math.min(rows, capacity);
+		long[] newTimestamps = new long[slots];
+		double[][] newBarColumns = new double[BAR_COLUMNS.length][slots];
+		double[][] newIndicatorColumns = new double[numOfIndicators][slots];
+		for(int i=0, row=0; i<rows; i++) {
+			boolean keep = i >= rows - kept;
+			long timestamp = in.readLong();
+			for(int c=0; c<BAR_COLUMNS.length; c++) {
+				double value = in.readDouble();
+				if(keep) {
+					newBarColumns[c][row] = value;
+				}
+			}
+			for(int c=0; c<numOfIndicators; c++) {
+				double value = in.readDouble();
+				if(keep) {
+					newIndicatorColumns[c][row] = value;
+				}
+			}
+			if(keep) {
+				newTimestamps[row++] = timestamp;
+			}
+		}
+		System.arraycopy(newTimestamps, 0, timestamps, 0, slots);
+		for(int c=0; c<BAR_COLUMNS.length; c++) {
+			System.arraycopy(newBarColumns[c], 0, barColumns[c], 0, slots);
+		}
+		indicatorColumns.clear();
+		for(int c=0; c<numOfIndicators; c++) {
+			indicatorColumns.put(ids[c], newIndicatorColumns[c]);
+		}
+		head = kept % slots;
+		size = kept;
+	}
+
+	/* 第i个可见行（0为最旧）在数组中的位置 */
+	private int rowIndex(int i) {
+		return Math.floorMod(head - size + i, slots);
+	}
+
+	private double[] newColumn() {
+		double[] column = new double[slots];
+		Arrays.fill(column, Double.NaN);
+		return column;
+	}
+}
@@ -8,14 +8,17 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiConsumer;
 
+import org.dromara.northstar.common.constant.DateTimeConstant;
 import org.dromara.northstar.common.exception.InsufficientException;
 import org.dromara.northstar.common.model.Identifier;
 import org.dromara.northstar.common.model.ModuleAccountRuntimeDescription;
 import org.dromara.northstar.common.model.ModuleDealRecord;
 import org.dromara.northstar.common.model.ModuleDescription;
+import org.dromara.northstar.common.model.ModulePerformanceDescription;
 import org.dromara.northstar.common.model.ModuleRuntimeDescription;
 import org.dromara.northstar.common.model.core.Contract;
 import org.dromara.northstar.common.model.core.ContractDefinition;
+import org.dromara.northstar.common.model.core.ContractHandleMap;
 import org.dromara.northstar.common.model.core.Order;
 import org.dromara.northstar.common.model.core.Position;
 import org.dromara.northstar.common.model.core.SubmitOrderReq;
@@ -29,8 +32,6 @@ import org.dromara.northstar.strategy.IModuleAccount;
 import org.dromara.northstar.strategy.IModuleContext;
 import org.slf4j.Logger;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import lombok.Getter;
@@ -41,6 +42,8 @@ import xyz.redtorch.pb.CoreField.TradeField;
 /**
  * 模组账户
  * 一个模组账户可以对应多个真实账户信息
+ * 持仓占用保证金与持仓浮盈按各持仓的变化量增量汇总：TICK只更新该合约的两个持仓，成交只更新被成交的持仓；
+ * 每个交易日开始时重新全量统计一次，以消除浮点累计误差
  * @author KevinHuangwl
  *
  */
@@ -63,8 +66,16 @@ public class ModuleAccount implements IModuleAccount{
 	private double maxDrawbackPercentage;
 	
 	private double maxTotalBalance;
-	/* direction -> contract -> position */ 
-	private Table<DirectionEnum, Contract, ModulePosition> posTable = HashBasedTable.create();
+	
+	@Getter
+	private ModulePerformance performance;
+	
+	/* 增量维护的持仓汇总 */
+	private double holdingMargin;
+	private double holdingProfit;
+	/* contract -> position，按合约句柄索引 */ 
+	private ContractHandleMap<ModulePosition> buyPosMap = new ContractHandleMap<>();
+	private ContractHandleMap<ModulePosition> sellPosMap = new ContractHandleMap<>();
 	private LocalDate tradingDay;
 	
 	private Set<Contract> bindedContracts = new HashSet<>();
@@ -90,6 +101,7 @@ public class ModuleAccount implements IModuleAccount{
 				double drawback = accCloseProfit - accCommission - maxProfit;
 				maxDrawback = Math.min(maxDrawback, drawback);
 				maxDrawbackPercentage = Math.max(maxDrawbackPercentage, Math.abs(maxDrawback / maxTotalBalance));
+				performance.onDeal(openTrade.tradeDate(), closeTrade.tradeDate(), profit - dealCommission);
 				moduleRepo.saveDealRecord(ModuleDealRecord.builder()
 						.moduleName(moduleDescription.getModuleName())
 						.moduleAccountId(closeTrade.gatewayId())
@@ -109,6 +121,15 @@ public class ModuleAccount implements IModuleAccount{
 		this.maxDrawback = mard.getMaxDrawback();
 		this.maxProfit = mard.getMaxProfit();
 		this.maxDrawbackPercentage = mard.getMaxDrawbackPercentage();
+		if(Objects.nonNull(mard.getPerformance())) {
+			this.performance = new ModulePerformance(mard.getPerformance());
+		} else {
+			this.performance = new ModulePerformance(new ModulePerformanceDescription());
+			if(accDealVolume > 0) {
+				// 旧版本的运行信息没有绩效统计，由成交记录补算一次
+				moduleRepo.findAllDealRecords(moduleDescription.getModuleName()).forEach(this::replayDeal);
+			}
+		}
 		moduleDescription.getModuleAccountSettingsDescription().stream()
 			.flatMap(mad -> mad.getBindedContracts().stream())
 			.forEach(contractSimple -> {
@@ -116,10 +137,10 @@ public class ModuleAccount implements IModuleAccount{
 				Contract cf = contract.contract();
 				
 				ModulePosition buyPos = new ModulePosition(cf, DirectionEnum.D_Buy, moduleDescription.getClosingPolicy(), onDealCallback);
-				posTable.put(DirectionEnum.D_Buy, cf, buyPos);
+				buyPosMap.put(cf, buyPos);
 				
 				ModulePosition sellPos = new ModulePosition(cf, DirectionEnum.D_Sell, moduleDescription.getClosingPolicy(), onDealCallback);
-				posTable.put(DirectionEnum.D_Sell, cf, sellPos);
+				sellPosMap.put(cf, sellPos);
 				
 				bindedContracts.add(cf);
 			});
@@ -131,6 +152,19 @@ public class ModuleAccount implements IModuleAccount{
 			.forEach(this::onTrade);
 	}
 	
+	private void replayDeal(ModuleDealRecord dealRecord) {
+		TradeField openTrade = convertFrom(dealRecord.getOpenTrade());
+		TradeField closeTrade = convertFrom(dealRecord.getCloseTrade());
+		performance.onDeal(toDate(openTrade), toDate(closeTrade), dealRecord.getDealProfit());
+	}
+	
+	private LocalDate toDate(TradeField trade) {
+		if(Objects.isNull(trade) || trade.getTradeDate().isEmpty()) {
+			return null;
+		}
+		return LocalDate.parse(trade.getTradeDate(), DateTimeConstant.D_FORMAT_INT_FORMATTER);
+	}
+	
 	private TradeField convertFrom(byte[] data) {
 		try {
 			return TradeField.parseFrom(data);
@@ -146,15 +180,45 @@ public class ModuleAccount implements IModuleAccount{
 			tradingDay = tick.tradingDay();
 			tradeDayPreset();
 		}
-		posTable.values().stream().forEach(mp -> mp.onTick(tick));
+		ModulePosition buyPos = buyPosMap.get(tick.contract());
+		if(Objects.nonNull(buyPos)) {
+			update(buyPos, () -> buyPos.onTick(tick));
+		}
+		ModulePosition sellPos = sellPosMap.get(tick.contract());
+		if(Objects.nonNull(sellPos)) {
+			update(sellPos, () -> sellPos.onTick(tick));
+		}
+	}
+	
+	/* 执行持仓变更，并把该持仓保证金与浮盈的变化量计入汇总 */
+	private void update(ModulePosition mp, Runnable action) {
+		double margin = mp.totalMargin();
+		double profit = mp.profit();
+		action.run();
+		holdingMargin += mp.totalMargin() - margin;
+		holdingProfit += mp.profit() - profit;
+	}
+	
+	private ModulePosition getPosition(DirectionEnum direction, Contract contract) {
+		return switch(direction) {
+		case D_Buy -> buyPosMap.get(contract);
+		case D_Sell -> sellPosMap.get(contract);
+		default -> null;
+		};
+	}
+	
+	private List<ModulePosition> allPositions(){
+		List<ModulePosition> result = buyPosMap.values();
+		result.addAll(sellPosMap.values());
+		return result;
 	}
 
 	@Override
 	public void onOrder(Order order) {
 		if(FieldUtils.isOpen(order.offsetFlag())) {
-			posTable.get(order.direction(), order.contract()).onOrder(order);
+			getPosition(order.direction(), order.contract()).onOrder(order);
 		} else {
-			posTable.get(FieldUtils.getOpposite(order.direction()), order.contract()).onOrder(order);
+			getPosition(FieldUtils.getOpposite(order.direction()), order.contract()).onOrder(order);
 		}
 	}
 
@@ -163,39 +227,39 @@ public class ModuleAccount implements IModuleAccount{
 		if(!bindedContracts.contains(trade.contract())) {
 			throw new IllegalStateException("模组账户绑定的合约与成交记录不一致：" + String.format("成交记录为[%s]", trade.contract().unifiedSymbol()));
 		}
-		if(FieldUtils.isOpen(trade.offsetFlag())) {
-			posTable.get(trade.direction(), trade.contract()).onTrade(trade);
-		} else {
-			posTable.get(FieldUtils.getOpposite(trade.direction()), trade.contract()).onTrade(trade);
-		}
+		ModulePosition mp = FieldUtils.isOpen(trade.offsetFlag())
+				? getPosition(trade.direction(), trade.contract())
+				: getPosition(FieldUtils.getOpposite(trade.direction()), trade.contract());
+		update(mp, () -> mp.onTrade(trade));
 	}
 
 	public List<Position> getPositions() {
 		List<Position> result = new ArrayList<>();
-		result.addAll(posTable.row(DirectionEnum.D_Buy).values().stream().map(ModulePosition::convertToPosition).toList());
-		result.addAll(posTable.row(DirectionEnum.D_Sell).values().stream().map(ModulePosition::convertToPosition).toList());
+		result.addAll(buyPosMap.values().stream().map(ModulePosition::convertToPosition).toList());
+		result.addAll(sellPosMap.values().stream().map(ModulePosition::convertToPosition).toList());
 		return result;
 	}
 
 	
 	public List<Trade> getNonclosedTrades() {
 		List<Trade> result = new ArrayList<>();
-		result.addAll(posTable.row(DirectionEnum.D_Buy).values().stream().flatMap(mp -> mp.getNonclosedTrades().stream()).toList());
-		result.addAll(posTable.row(DirectionEnum.D_Sell).values().stream().flatMap(mp -> mp.getNonclosedTrades().stream()).toList());
+		result.addAll(buyPosMap.values().stream().flatMap(mp -> mp.getNonclosedTrades().stream()).toList());
+		result.addAll(sellPosMap.values().stream().flatMap(mp -> mp.getNonclosedTrades().stream()).toList());
 		return result;
 	}
 
 	@Override
 	public int getNonclosedPosition(Contract contract, DirectionEnum direction) {
-		if(!posTable.contains(direction, contract)) {
+		ModulePosition mp = getPosition(direction, contract);
+		if(mp == null) {
 			return 0;
 		}
-		return posTable.get(direction, contract).totalVolume();
+		return mp.totalVolume();
 	}
 	
 	@Override
 	public int getNonclosedPosition(Contract contract, DirectionEnum direction, boolean isPresentTradingDay) {
-		ModulePosition mp = posTable.get(direction, contract);
+		ModulePosition mp = getPosition(direction, contract);
 		if(mp == null) {
 			return 0;
 		}
@@ -211,13 +275,14 @@ public class ModuleAccount implements IModuleAccount{
 	
 	@Override
 	public double totalHoldingProfit() {
-		return posTable.values().stream()
-				.mapToDouble(mp -> mp.profit())
-				.sum();
+		return holdingProfit;
 	}
 
 	public void tradeDayPreset() {
-		posTable.values().stream().forEach(ModulePosition::releaseOrder);
+		List<ModulePosition> positions = allPositions();
+		positions.forEach(ModulePosition::releaseOrder);
+		holdingMargin = positions.stream().mapToDouble(ModulePosition::totalMargin).sum();
+		holdingProfit = positions.stream().mapToDouble(ModulePosition::profit).sum();
 	}
 
 	/**
@@ -227,12 +292,7 @@ public class ModuleAccount implements IModuleAccount{
 	@Override
 	public double availableAmount() {
 		// 由于只有在开仓时才检查金额是否足够，因此可以忽略持仓浮盈的计算
-		return initBalance + accCloseProfit - accCommission - holdingMargin();
-	}
-	
-	// 持仓占用
-	private double holdingMargin() {
-		return posTable.values().stream().mapToDouble(ModulePosition::totalMargin).sum();
+		return initBalance + accCloseProfit - accCommission - holdingMargin;
 	}
 	
 	public void onSubmitOrder(SubmitOrderReq submitOrder) {
@@ -245,7 +305,7 @@ public class ModuleAccount implements IModuleAccount{
 
 	private void checkIfHasSufficientPosition(SubmitOrderReq submitOrder) {
 		Contract contract =  submitOrder.contract();
-		int available = posTable.get(FieldUtils.getOpposite(submitOrder.direction()), contract).totalAvailable();
+		int available = getPosition(FieldUtils.getOpposite(submitOrder.direction()), contract).totalAvailable();
 		if(available < submitOrder.volume()) {
 			logger.warn("模组账户可用持仓为：{}，委托手数：{}", available, submitOrder.volume());
 			throw new InsufficientException("模组账户可用持仓不足，无法平仓");
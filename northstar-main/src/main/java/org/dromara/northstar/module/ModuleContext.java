@@ -6,29 +6,25 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Queue;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.dromara.northstar.ai.SampleData;
 import org.dromara.northstar.ai.SamplingAware;
 import org.dromara.northstar.ai.sampling.SampleDataWriter;
 import org.dromara.northstar.common.constant.Constants;
-import org.dromara.northstar.common.constant.DateTimeConstant;
 import org.dromara.northstar.common.constant.ModuleState;
 import org.dromara.northstar.common.constant.SignalOperation;
 import org.dromara.northstar.common.constant.TickType;
@@ -38,13 +34,13 @@ import org.dromara.northstar.common.model.AccountRuntimeDescription;
 import org.dromara.northstar.common.model.ContractSimpleInfo;
 import org.dromara.northstar.common.model.Identifier;
 import org.dromara.northstar.common.model.ModuleAccountRuntimeDescription;
-import org.dromara.northstar.common.model.ModuleDealRecord;
 import org.dromara.northstar.common.model.ModuleDescription;
 import org.dromara.northstar.common.model.ModulePositionDescription;
 import org.dromara.northstar.common.model.ModuleRuntimeDescription;
 import org.dromara.northstar.common.model.Tuple;
 import org.dromara.northstar.common.model.core.Bar;
 import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.ContractHandleMap;
 import org.dromara.northstar.common.model.core.Order;
 import org.dromara.northstar.common.model.core.Position;
 import org.dromara.northstar.common.model.core.SubmitOrderReq;
@@ -79,10 +75,8 @@ import org.slf4j.Logger;
 import org.springframework.util.Assert;
 
 import com.alibaba.fastjson2.JSONArray;
-import com.alibaba.fastjson2.JSONObject;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
-import com.google.protobuf.InvalidProtocolBufferException;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -92,10 +86,11 @@ import xyz.redtorch.pb.CoreEnum.OffsetFlagEnum;
 import xyz.redtorch.pb.CoreEnum.OrderPriceTypeEnum;
 import xyz.redtorch.pb.CoreEnum.TimeConditionEnum;
 import xyz.redtorch.pb.CoreEnum.VolumeConditionEnum;
-import xyz.redtorch.pb.CoreField.TradeField;
 
 public class ModuleContext implements IModuleContext{
 	
+	private static final IndicatorValueUpdateHelper[] EMPTY_HELPERS = new IndicatorValueUpdateHelper[0];
+	
 	@Getter
 	@Setter
 	protected IModule module;
@@ -116,16 +111,20 @@ public class ModuleContext implements IModuleContext{
 	/* unifiedSymbol -> contract */
 	protected ConcurrentMap<String, Contract> contractMap = new ConcurrentHashMap<>();
 	
-	protected ConcurrentMap<Contract, Queue<JSONObject>> dataFrameQMap = new ConcurrentHashMap<>();
+	protected ContractHandleMap<ChartDataRing> chartDataMap = new ContractHandleMap<>();
 	
-	protected ConcurrentMap<Contract, Long> barFilterMap = new ConcurrentHashMap<>();
+	protected ContractHandleMap<Long> barFilterMap = new ContractHandleMap<>();
 	
 	/* contract -> indicatorName -> indicator */
 	protected Table<Contract, String, Indicator> indicatorNameTbl = HashBasedTable.create();
 	
-	protected Set<IndicatorValueUpdateHelper> indicatorHelperSet = new HashSet<>();
+	/* contract_numOfUnits_period -> helper，同一合约同一周期的指标共用一个依赖图 */
+	protected Map<String, IndicatorValueUpdateHelper> indicatorHelperMap = new HashMap<>();
+	
+	/* unifiedSymbol -> helpers，行情只路由到所属合约的指标 */
+	protected Map<String, IndicatorValueUpdateHelper[]> contractHelperMap = new ConcurrentHashMap<>();
 	
-	protected ConcurrentMap<Contract, TradeIntent> tradeIntentMap = new ConcurrentHashMap<>();	// 交易意图
+	protected ContractHandleMap<TradeIntent> tradeIntentMap = new ContractHandleMap<>();	// 交易意图
 	
 	protected final AtomicInteger bufSize = new AtomicInteger(0);
 	
@@ -171,7 +170,7 @@ public class ModuleContext implements IModuleContext{
 	
 	private void initForContract(Contract cf, int numOfMinPerBar) {
 		contractMap.put(cf.unifiedSymbol(), cf);
-		dataFrameQMap.put(cf, new ConcurrentLinkedQueue<>());
+		chartDataMap.put(cf, new ChartDataRing(Math.max(1, bufSize.intValue())));
 		registry.addListener(cf, numOfMinPerBar, PeriodUnit.MINUTE, tradeStrategy);
 		registry.addListener(cf, numOfMinPerBar, PeriodUnit.MINUTE, this);
 	}
@@ -249,9 +248,44 @@ public class ModuleContext implements IModuleContext{
 	public void registerIndicator(Indicator indicator) {
 		checkIndicator(indicator);
 		Configuration cfg = indicator.getConfiguration();
-		IndicatorValueUpdateHelper helper = new IndicatorValueUpdateHelper(indicator);
-		indicatorHelperSet.add(helper);
-		registry.addListener(cfg.contract(), cfg.numOfUnits(), cfg.period(), helper);
+		String helperKey = String.format("%s_%d%s", cfg.contract().unifiedSymbol(), cfg.numOfUnits(), cfg.period().symbol());
+		IndicatorValueUpdateHelper helper = indicatorHelperMap.get(helperKey);
+		if(helper == null) {
+			helper = new IndicatorValueUpdateHelper(indicator);
+			indicatorHelperMap.put(helperKey, helper);
+			contractHelperMap.merge(cfg.contract().unifiedSymbol(), new IndicatorValueUpdateHelper[] {helper}, ArrayUtils::addAll);
+			registry.addListener(cfg.contract(), cfg.numOfUnits(), cfg.period(), helper);
+		} else {
+			helper.addIndicator(indicator);
+		}
+	}
+	
+	/**
+	 * 累计节省的指标重复求值次数（相比按依赖树逐个顶层指标递归更新）
+	 * @return
+	 */
+	public long getAvoidedIndicatorEvaluations() {
+		return indicatorHelperMap.values().stream().mapToLong(helper -> helper.getGraph().getAvoidedEvaluationCount()).sum();
+	}
+	
+	/**
+	 * 增量查询图表数据，编码格式见 {@link ChartDataRing#encodeSince(long)}
+	 * @param unifiedSymbol
+	 * @param sinceTimestamp	只返回时间戳大于该值的K线
+	 * @return
+	 */
+	public byte[] getChartData(String unifiedSymbol, long sinceTimestamp) {
+		ChartDataRing chartData = chartDataMap.get(getContract(unifiedSymbol));
+		Assert.notNull(chartData, () -> "该合约没有图表数据：" + unifiedSymbol);
+		return chartData.encodeSince(sinceTimestamp);
+	}
+	
+	/**
+	 * 累计的指标求值次数
+	 * @return
+	 */
+	public long getIndicatorEvaluations() {
+		return indicatorHelperMap.values().stream().mapToLong(helper -> helper.getGraph().getEvaluationCount()).sum();
 	}
 	
 	public void checkIndicator(Indicator indicator) {
@@ -273,11 +307,13 @@ public class ModuleContext implements IModuleContext{
 	
 	@Override
 	public void onTick(Tick tick) {
-		logger.trace("TICK信息: {} {} {} {}，最新价：{}，累计成交：{}，成交量：{}，累计持仓：{}，持仓量：{}", 
-				tick.contract().unifiedSymbol(), tick.actionDay(), tick.actionTime(), tick.actionTimestamp(),
-				tick.lastPrice(), tick.volume(), tick.volumeDelta(), tick.openInterest(), tick.openInterestDelta());
-		if(tradeIntentMap.containsKey(tick.contract())) {
-			TradeIntent tradeIntent = tradeIntentMap.get(tick.contract());
+		if(logger.isTraceEnabled()) {
+			logger.trace("TICK信息: {} {} {} {}，最新价：{}，累计成交：{}，成交量：{}，累计持仓：{}，持仓量：{}", 
+					tick.contract().unifiedSymbol(), tick.actionDay(), tick.actionTime(), tick.actionTimestamp(),
+					tick.lastPrice(), tick.volume(), tick.volumeDelta(), tick.openInterest(), tick.openInterestDelta());
+		}
+		TradeIntent tradeIntent = tradeIntentMap.get(tick.contract());
+		if(tradeIntent != null) {
 			tradeIntent.onTick(tick);
 			if(tradeIntent.hasTerminated()) {
 				tradeIntentMap.remove(tick.contract());
@@ -287,40 +323,58 @@ public class ModuleContext implements IModuleContext{
 		if(!Objects.equals(tick.tradingDay(), tradingDay)) {
 			tradingDay = tick.tradingDay();
 		}
-		indicatorHelperSet.forEach(helper -> helper.onTick(tick));
+		IndicatorValueUpdateHelper[] helpers = contractHelperMap.get(tick.contract().unifiedSymbol());
+		if(helpers != null) {
+			for(IndicatorValueUpdateHelper helper : helpers) {
+				helper.onTick(tick);
+			}
+		}
 		moduleAccount.onTick(tick);
 		tradeStrategy.onTick(tick);
 	}
 
 	@Override
 	public void onBar(Bar bar) {
-		if(barFilterMap.containsKey(bar.contract()) && barFilterMap.get(bar.contract()) >= bar.actionTimestamp()) {
+		Long lastBarTime = barFilterMap.get(bar.contract());
+		if(lastBarTime != null && lastBarTime >= bar.actionTimestamp()) {
 			//过滤掉可能存在的重复数据
 			return;
 		}
-		logger.trace("分钟Bar信息: {} {} {} {}，最新价: {}，成交量：{}，累计持仓：{}，持仓量：{}", bar.contract().unifiedSymbol(), bar.actionDay(), bar.actionTime(), bar.actionTimestamp(),
-				bar.closePrice(), bar.volumeDelta(), bar.openInterest(), bar.openInterestDelta());
+		if(logger.isTraceEnabled()) {
+			logger.trace("分钟Bar信息: {} {} {} {}，最新价: {}，成交量：{}，累计持仓：{}，持仓量：{}", bar.contract().unifiedSymbol(), bar.actionDay(), bar.actionTime(), bar.actionTimestamp(),
+					bar.closePrice(), bar.volumeDelta(), bar.openInterest(), bar.openInterestDelta());
+		}
 		barFilterMap.put(bar.contract(), bar.actionTimestamp());
-		indicatorHelperSet.forEach(helper -> helper.onBar(bar));
+		IndicatorValueUpdateHelper[] helpers = contractHelperMap.get(bar.contract().unifiedSymbol());
+		if(helpers != null) {
+			for(IndicatorValueUpdateHelper helper : helpers) {
+				helper.onBar(bar);
+			}
+		}
 		registry.onBar(bar);		
 	}
 	
 	@Override
 	public void onMergedBar(Bar bar) {
-		logger.debug("合并Bar信息: {} {} {} {}，最新价: {}，成交量：{}，累计持仓：{}，持仓量：{}", bar.contract().unifiedSymbol(), bar.actionDay(), bar.actionTime(), bar.actionTimestamp(), 
-				bar.closePrice(), bar.volumeDelta(), bar.openInterest(), bar.openInterestDelta());
-		JSONObject json = assignBar(bar);
+		if(logger.isDebugEnabled()) {
+			logger.debug("合并Bar信息: {} {} {} {}，最新价: {}，成交量：{}，累计持仓：{}，持仓量：{}", bar.contract().unifiedSymbol(), bar.actionDay(), bar.actionTime(), bar.actionTimestamp(), 
+					bar.closePrice(), bar.volumeDelta(), bar.openInterest(), bar.openInterestDelta());
+		}
+		ChartDataRing chartData = chartDataMap.get(bar.contract());
+		chartData.newRow(bar);
 		try {			
-			indicatorHelperSet.stream().map(IndicatorValueUpdateHelper::getIndicator).forEach(indicator -> visualize(indicator, bar, json));
+			for(IndicatorValueUpdateHelper helper : contractHelperMap.getOrDefault(bar.contract().unifiedSymbol(), EMPTY_HELPERS)) {
+				for(Indicator indicator : helper.getIndicators()) {
+					visualize(indicator, bar, chartData);
+				}
+			}
 		} catch(Exception e) {
 			logger.error(e.getMessage(), e);
 		}
-		if(dataFrameQMap.get(bar.contract()).size() >= bufSize.intValue()) {
-			dataFrameQMap.get(bar.contract()).poll();
-		}
-		dataFrameQMap.get(bar.contract()).offer(json);
+		chartData.commit();
 		if(isEnabled()) {
-			moduleRepo.saveRuntime(getRuntimeDescription(false));
+			// K线更新的运行状态允许延后写入，由仓储合并后批量落盘
+			moduleRepo.saveRuntime(getRuntimeDescription(false), false);
 		}
 		
 		// 执行采样逻辑
@@ -337,16 +391,16 @@ public class ModuleContext implements IModuleContext{
 		}
 	}
 	
-	private void visualize(Indicator indicator, Bar bar, JSONObject json) {
+	private void visualize(Indicator indicator, Bar bar, ChartDataRing chartData) {
 		if(!indicator.getConfiguration().contract().equals(bar.contract())) {
 			return;
 		}
 		for(Indicator in : indicator.dependencies()) {
-			visualize(in, bar, json);
+			visualize(in, bar, chartData);
 		}
 		if(indicator.isReady() && Boolean.TRUE.equals(indicator.getConfiguration().visible()) && indicator.get(0).timestamp() == bar.actionTimestamp() 
 				&& (isEndOfTheTradingDay(bar) || indicator.getConfiguration().ifPlotPerBar() || !indicator.get(0).unstable())) {
-			json.put(indicator.getConfiguration().indicatorID(), indicator.get(0).value());
+			chartData.put(indicator.getConfiguration().indicatorID(), indicator.get(0).value());
 		}
 	}
 	
@@ -369,8 +423,8 @@ public class ModuleContext implements IModuleContext{
 		}
 		moduleAccount.onOrder(order);
 		moduleStateMachine.onOrder(order);
-		if(tradeIntentMap.containsKey(order.contract())) {
-			TradeIntent tradeIntent = tradeIntentMap.get(order.contract());
+		TradeIntent tradeIntent = tradeIntentMap.get(order.contract());
+		if(tradeIntent != null) {
 			tradeIntent.onOrder(order);
 		}
 		tradeStrategy.onOrder(order);
@@ -387,9 +441,9 @@ public class ModuleContext implements IModuleContext{
 		}
 		moduleAccount.onTrade(trade);
 		moduleStateMachine.onTrade(trade);
-		moduleRepo.saveRuntime(getRuntimeDescription(false));
-		if(tradeIntentMap.containsKey(trade.contract())) {
-			TradeIntent tradeIntent = tradeIntentMap.get(trade.contract());
+		moduleRepo.saveRuntime(getRuntimeDescription(false), true);
+		TradeIntent tradeIntent = tradeIntentMap.get(trade.contract());
+		if(tradeIntent != null) {
 			tradeIntent.onTrade(trade);
 			if(tradeIntent.hasTerminated()) {
 				tradeIntentMap.remove(trade.contract());
@@ -409,6 +463,10 @@ public class ModuleContext implements IModuleContext{
 				barData.get(0).actionDay(), barData.get(0).actionTime(),
 				barData.get(barData.size() - 1).actionDay(), barData.get(barData.size() - 1).actionTime());
 		for(Bar bar : barData) {
+			Long lastBarTime = barFilterMap.get(bar.contract());
+			if(lastBarTime != null && lastBarTime >= bar.actionTimestamp()) {
+				continue;	// 已处理过的K线（如已包含在状态快照中）连同其模拟TICK一并跳过
+			}
 			dummyTickOfBar(bar).forEach(this::onTick);
 			onBar(bar);
 		}
@@ -445,6 +503,7 @@ public class ModuleContext implements IModuleContext{
 				.logicalPositions(moduleAccount.getPositions().stream().map(p -> p.toPositionField().toByteArray()).toList())
 				.nonclosedTrades(moduleAccount.getNonclosedTrades().stream().map(t -> t.toTradeField().toByteArray()).toList())
 				.build();
+		ModulePerformance performance = moduleAccount.getPerformance();
 		ModuleAccountRuntimeDescription accRtDescription = ModuleAccountRuntimeDescription.builder()
 				.initBalance(moduleAccount.getInitBalance())
 				.accCloseProfit(moduleAccount.getAccCloseProfit())
@@ -455,6 +514,9 @@ public class ModuleContext implements IModuleContext{
 				.maxProfit(moduleAccount.getMaxProfit())
 				.positionDescription(posDescription)
 				.availableAmount(moduleAccount.availableAmount())
+				.avgEarning(performance.avgEarning())
+				.annualizedRateOfReturn(performance.annualizedRateOfReturn(moduleAccount.getInitBalance()))
+				.performance(performance.toDescription())
 				.build();
 		List<AccountRuntimeDescription> accRts = contractMap.values().stream()
 				.map(this::getAccount)
@@ -477,25 +539,11 @@ public class ModuleContext implements IModuleContext{
 				.build();
 		
 		if(fullDescription) {
-			List<ModuleDealRecord> dealRecords = moduleRepo.findAllDealRecords(module.getName());
-			double avgProfit = dealRecords.stream().mapToDouble(ModuleDealRecord::getDealProfit).average().orElse(0D);
-			double annualizedRateOfReturn = 0;
-			if(!dealRecords.isEmpty()) {
-				LocalDate startDate = LocalDate.parse(parse(dealRecords.get(0).getOpenTrade()).getTradeDate(), DateTimeConstant.D_FORMAT_INT_FORMATTER);
-				LocalDate endDate = LocalDate.parse(parse(dealRecords.get(dealRecords.size() - 1).getCloseTrade()).getTradeDate(), DateTimeConstant.D_FORMAT_INT_FORMATTER);
-				long days = ChronoUnit.DAYS.between(startDate, endDate);
-				double totalEarning = moduleAccount.getAccCloseProfit() - moduleAccount.getAccCommission();
-				annualizedRateOfReturn = (totalEarning / moduleAccount.getInitBalance()) / days * 365;  
-			}
-			accRtDescription.setAvgEarning(avgProfit);
-			accRtDescription.setAnnualizedRateOfReturn(annualizedRateOfReturn);
-			
 			Map<String, List<String>> indicatorMap = indicatorNameTbl.rowKeySet()
 					.stream()
 					.collect(Collectors.toMap(Contract::name, c -> indicatorNameTbl.row(c).keySet().stream().toList()));
-			Map<String, JSONArray> dataMap = dataFrameQMap.entrySet()
-					.stream()
-					.collect(Collectors.toMap(e -> e.getKey().name(), e -> new JSONArray(e.getValue().stream().toList())));
+			Map<String, JSONArray> dataMap = new HashMap<>();
+			chartDataMap.forEach((contract, chartData) -> dataMap.put(contract.name(), chartData.toJSONArray()));
 			
 			mad.setIndicatorMap(indicatorMap);
 			mad.setDataMap(dataMap);
@@ -503,27 +551,6 @@ public class ModuleContext implements IModuleContext{
 		return mad;
 	}
 	
-	private TradeField parse(byte[] data) {
-		try {
-			return TradeField.parseFrom(data);
-		} catch (InvalidProtocolBufferException e) {
-			throw new IllegalStateException(e);
-		}
-	}
-	
-	private JSONObject assignBar(Bar bar) {
-		JSONObject json = new JSONObject();
-		json.put("open", bar.openPrice());
-		json.put("low", bar.lowPrice());
-		json.put("high", bar.highPrice());
-		json.put("close", bar.closePrice());
-		json.put("volume", bar.volumeDelta());
-		json.put("openInterestDelta", bar.openInterestDelta());
-		json.put("openInterest", bar.openInterest());
-		json.put("timestamp", bar.actionTimestamp());
-		return json;
-	}
-
 	@Override
 	public Optional<String> submitOrderReq(Contract contract, SignalOperation operation, PriceType priceType, int volume, double price) {
 		if(!module.isEnabled()) {
@@ -0,0 +1,246 @@
+package org.dromara.northstar.module;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dromara.northstar.common.event.NorthstarEvent;
+import org.dromara.northstar.common.event.NorthstarEventType;
+import org.dromara.northstar.strategy.IModule;
+import org.springframework.util.Assert;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模组事件通道
+ * 每个模组独占一个通道，由唯一的虚拟线程按顺序消费，模组之间互不争用，单个模组处理缓慢也不会阻塞其他模组
+ * 同步模式下（例如回测模组）事件直接在分发线程上处理，以保证回测结果的确定性
+ * 队列有界，写满时按溢出策略处理：DROP_TICK 丢弃TICK并计数，其余事件等待空位；BLOCK 所有事件都等待空位
+ * 关闭后不再接收事件，正在处理的事件处理完毕后，队列中尚未处理的非TICK事件（如订单、成交）仍会依次交给模组处理，
+ * 只有TICK被丢弃并计数，以免模组重载时丢失回报
+ * @author KevinHuangwl
+ *
+ */
+@Slf4j
+public class ModuleEventLane {
+
+	public enum OverflowPolicy {
+		DROP_TICK,
+		BLOCK
+	}
+
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	private static final long POLL_MILLIS = 50;
+
+	private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+	private final IModule module;
+
+	private final boolean async;
+
+	private final int capacity;
+
+	private final OverflowPolicy policy;
+
+	private final BlockingQueue<Envelope> queue;
+
+	private final AtomicLong processedCount = new AtomicLong();
+
+	private final AtomicLong overflowCount = new AtomicLong();
+
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	private volatile long lastLatencyNanos;
+
+	private Thread worker;
+
+	private volatile boolean closed;
+
+	public ModuleEventLane(IModule module, boolean async) {
+		this(module, async, DEFAULT_CAPACITY, OverflowPolicy.DROP_TICK);
+	}
+
+	/**
+	 * @param module
+	 * @param async		是否异步处理
+	 * @param capacity	队列容量
+	 * @param policy	溢出策略
+	 */
+	public ModuleEventLane(IModule module, boolean async, int capacity, OverflowPolicy policy) {
+		Assert.isTrue(capacity > 0, "队列容量必须为正数");
+		Assert.notNull(policy, "溢出策略不能为空");
+		this.module = module;
+		this.async = async;
+		this.capacity = capacity;
+		this.policy = policy;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		if(async) {
+			this.worker = Thread.ofVirtual().name("ModuleLane-" + module.getName()).start(this::consume);
+		}
+	}
+
+	/**
+	 * 投递事件
+	 * @param event
+	 */
+	public void publish(NorthstarEvent event) {
+		if(closed) {
+			return;
+		}
+		if(!async) {
+			handle(event, System.nanoTime());
+			return;
+		}
+		// 事件对象是环形队列中会被复用的槽位，异步处理前需要复制一份
+		Envelope envelope = new Envelope(new NorthstarEvent(event.getEvent(), event.getData()), System.nanoTime());
+		if(queue.offer(envelope)) {
+			return;
+		}
+		if(policy == OverflowPolicy.DROP_TICK && event.getEvent() == NorthstarEventType.TICK) {
+			droppedCount.incrementAndGet();
+			return;
+		}
+		overflowCount.incrementAndGet();
+		try {
+			while(!closed) {
+				if(queue.offer(envelope, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		droppedCount.incrementAndGet();
+	}
+
+	private void consume() {
+		while(!closed) {
+			try {
+				Envelope envelope = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if(envelope != null) {
+					handle(envelope.event(), envelope.enqueueNanos());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		drainRemaining();
+	}
+
+	/* 关闭后清空队列：非TICK事件照常处理，TICK丢弃并计数 */
+	private void drainRemaining() {
+		List<Envelope> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		for(Envelope envelope : remaining) {
+			if(envelope.event().getEvent() == NorthstarEventType.TICK) {
+				droppedCount.incrementAndGet();
+			} else {
+				handle(envelope.event(), envelope.enqueueNanos());
+			}
+		}
+	}
+
+	private void handle(NorthstarEvent event, long enqueueNanos) {
+		try {
+			module.onEvent(event);
+		} catch (Exception e) {
+			log.error("模组 [{}] 处理事件异常", module.getName(), e);
+		}
+		lastLatencyNanos = System.nanoTime() - enqueueNanos;
+		processedCount.incrementAndGet();
+	}
+
+	/**
+	 * 关闭通道
+	 * 等待通道线程处理完当前事件及队列中的非TICK事件后再返回，未处理的TICK将被丢弃；
+	 * 等待可能较长，调用方不应在持有锁的情况下调用
+	 */
+	public void close() {
+		closed = true;
+		if(worker == null || worker == Thread.currentThread()) {
+			return;
+		}
+		try {
+			worker.join(CLOSE_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if(worker.isAlive()) {
+			// 通道线程退出前会自行清空队列
+			log.warn("模组 [{}] 的事件处理超过{}毫秒仍未结束", module.getName(), CLOSE_TIMEOUT_MILLIS);
+			return;
+		}
+		// 与关闭同时投递的事件可能在通道线程退出后才入队
+		drainRemaining();
+	}
+
+	public IModule getModule() {
+		return module;
+	}
+
+	public boolean isAsync() {
+		return async;
+	}
+
+	/**
+	 * 排队中的事件数
+	 * @return
+	 */
+	public int depth() {
+		return queue.size();
+	}
+
+	/**
+	 * 通道延迟（毫秒）
+	 * 取队首事件的等待时长，队列为空时取最近一个事件从投递到处理完成的耗时
+	 * @return
+	 */
+	public long lagMillis() {
+		Envelope head = queue.peek();
+		long lagNanos = head == null ? lastLatencyNanos : System.nanoTime() - head.enqueueNanos();
+		return lagNanos / 1000000;
+	}
+
+	/**
+	 * 累计已处理的事件数
+	 * @return
+	 */
+	public long processedCount() {
+		return processedCount.get();
+	}
+
+	/**
+	 * 被丢弃的事件数（含队列已满时丢弃的TICK与关闭时未处理的TICK）
+	 * @return
+	 */
+	public long droppedCount() {
+		return droppedCount.get();
+	}
+
+	public ModuleLaneStatus status() {
+		return new ModuleLaneStatus(module.getName(), async, capacity, policy, depth(), lagMillis(), processedCount(),
+				overflowCount.get(), droppedCount());
+	}
+
+	private record Envelope(NorthstarEvent event, long enqueueNanos) {}
+
+	/**
+	 * 模组事件通道状态
+	 * @param moduleName
+	 * @param async
+	 * @param capacity			队列容量
+	 * @param policy			溢出策略
+	 * @param queueDepth		排队中的事件数
+	 * @param lagMillis			通道延迟（毫秒）
+	 * @param processedCount	累计已处理的事件数
+	 * @param overflowCount		队列已满时需要等待的事件数
+	 * @param droppedCount		被丢弃的事件数
+	 */
+	public static record ModuleLaneStatus(String moduleName, boolean async, int capacity, OverflowPolicy policy, int queueDepth,
+			long lagMillis, long processedCount, long overflowCount, long droppedCount) {}
+}
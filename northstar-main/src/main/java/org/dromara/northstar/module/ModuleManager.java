@@ -1,32 +1,148 @@
 package org.dromara.northstar.module;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.dromara.northstar.common.ObjectManager;
+import org.dromara.northstar.common.constant.ModuleUsage;
 import org.dromara.northstar.common.model.Identifier;
+import org.dromara.northstar.common.model.ModuleDescription;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.module.ModuleEventLane.ModuleLaneStatus;
+import org.dromara.northstar.module.ModuleEventLane.OverflowPolicy;
 import org.dromara.northstar.strategy.IModule;
+import org.dromara.northstar.strategy.TradeStrategy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * 模组管理器
+ * 除了管理模组实例，还为每个模组维护独立的事件通道，并按（行情网关，合约）与账户网关建立事件路由索引
+ * 事件通道的队列容量与溢出策略分别由 northstar.module.lane.capacity 与 northstar.module.lane.overflow-policy 配置
+ * 模组被移除或被同名模组替换时，先关闭其事件通道，再调用策略的 {@link TradeStrategy#dispose()} 释放资源；
+ * 关闭通道会等待排队中的订单、成交等回报处理完毕，因此在管理器的锁外进行
  * @author KevinHuangwl
  *
  */
+@Slf4j
 @Component
 public class ModuleManager implements ObjectManager<IModule>{
 
+	private static final ModuleEventLane[] EMPTY = new ModuleEventLane[0];
+
+	@Value("${northstar.module.lane.capacity:10000}")
+	private int laneCapacity = ModuleEventLane.DEFAULT_CAPACITY;
+
+	@Value("${northstar.module.lane.overflow-policy:DROP_TICK}")
+	private OverflowPolicy laneOverflowPolicy = OverflowPolicy.DROP_TICK;
+
 	private ConcurrentMap<Identifier, IModule> moduleMap = new ConcurrentHashMap<>();
-	
+
+	private ConcurrentMap<Identifier, ModuleEventLane> laneMap = new ConcurrentHashMap<>();
+
+	/* 行情网关 -> 合约 -> 事件通道 */
+	private volatile Map<String, Map<String, ModuleEventLane[]>> marketRouteMap = Collections.emptyMap();
+
+	/* 账户网关 -> 事件通道 */
+	private volatile Map<String, ModuleEventLane[]> accountRouteMap = Collections.emptyMap();
+
+	/* 无法确定关注范围的模组，接收全部事件 */
+	private volatile ModuleEventLane[] broadcastLanes = EMPTY;
+
 	@Override
 	public void add(IModule module) {
-		moduleMap.put(Identifier.of(module.getName()), module);
+		Identifier id = Identifier.of(module.getName());
+		ModuleEventLane oldLane;
+		synchronized (this) {
+			moduleMap.put(id, module);
+			oldLane = laneMap.put(id, new ModuleEventLane(module, !isPlayback(module), laneCapacity, laneOverflowPolicy));
+			reindex();
+		}
+		// 关闭通道需要等待排队中的回报处理完毕，放在锁外进行，避免阻塞其他模组的增删
+		if(oldLane != null) {
+			oldLane.close();
+			if(oldLane.getModule() != module) {
+				dispose(oldLane.getModule());
+			}
+		}
 	}
 
 	@Override
 	public void remove(Identifier id) {
-		moduleMap.remove(id);
+		ModuleEventLane lane;
+		synchronized (this) {
+			moduleMap.remove(id);
+			lane = laneMap.remove(id);
+			reindex();
+		}
+		if(lane != null) {
+			lane.close();
+			dispose(lane.getModule());
+		}
+	}
+
+	/* 事件通道关闭后模组不再收到事件，此时释放策略持有的资源 */
+	private void dispose(IModule module) {
+		TradeStrategy strategy = module.getTradeStrategy();
+		if(strategy == null) {
+			return;
+		}
+		try {
+			strategy.dispose();
+		} catch (Exception e) {
+			log.warn("模组 [{}] 释放策略资源时出错", module.getName(), e);
+		}
+	}
+
+	/**
+	 * 回测模组需要保证结果可复现，因此在分发线程上同步处理事件
+	 */
+	private boolean isPlayback(IModule module) {
+		ModuleDescription md = module.getModuleDescription();
+		return md != null && md.getUsage() == ModuleUsage.PLAYBACK;
+	}
+
+	private void reindex() {
+		List<ModuleEventLane> broadcasts = new ArrayList<>();
+		Map<String, Map<String, List<ModuleEventLane>>> marketRoutes = new HashMap<>();
+		Map<String, List<ModuleEventLane>> accountRoutes = new HashMap<>();
+		for(ModuleEventLane lane : laneMap.values()) {
+			if(lane.getModule() instanceof TradeModule module) {
+				for(String gatewayId : module.marketGatewayIds()) {
+					for(Contract contract : module.bindedContracts()) {
+						marketRoutes.computeIfAbsent(gatewayId, k -> new HashMap<>())
+							.computeIfAbsent(contract.unifiedSymbol(), k -> new ArrayList<>())
+							.add(lane);
+					}
+				}
+				for(String accountId : module.accountIds()) {
+					accountRoutes.computeIfAbsent(accountId, k -> new ArrayList<>()).add(lane);
+				}
+			} else {
+				broadcasts.add(lane);
+			}
+		}
+		ModuleEventLane[] broadcastArr = broadcasts.toArray(EMPTY);
+		Map<String, Map<String, ModuleEventLane[]>> marketMap = new HashMap<>();
+		marketRoutes.forEach((gatewayId, symbolMap) -> {
+			Map<String, ModuleEventLane[]> laneArrMap = new HashMap<>();
+			symbolMap.forEach((symbol, lanes) -> laneArrMap.put(symbol, ArrayUtils.addAll(lanes.toArray(EMPTY), broadcastArr)));
+			marketMap.put(gatewayId, laneArrMap);
+		});
+		Map<String, ModuleEventLane[]> accountMap = new HashMap<>();
+		accountRoutes.forEach((accountId, lanes) -> accountMap.put(accountId, ArrayUtils.addAll(lanes.toArray(EMPTY), broadcastArr)));
+
+		broadcastLanes = broadcastArr;
+		marketRouteMap = marketMap;
+		accountRouteMap = accountMap;
 	}
 
 	@Override
@@ -47,4 +163,45 @@ public class ModuleManager implements ObjectManager<IModule>{
 	public List<IModule> findAll() {
 		return allModules();
 	}
+
+	/**
+	 * 关注某行情网关下某合约的模组事件通道
+	 * @param gatewayId
+	 * @param unifiedSymbol
+	 * @return
+	 */
+	public ModuleEventLane[] marketDataLanes(String gatewayId, String unifiedSymbol) {
+		Map<String, ModuleEventLane[]> symbolMap = marketRouteMap.get(gatewayId);
+		if(symbolMap == null) {
+			return broadcastLanes;
+		}
+		return symbolMap.getOrDefault(unifiedSymbol, broadcastLanes);
+	}
+
+	/**
+	 * 关注某账户网关的模组事件通道
+	 * @param accountId
+	 * @return
+	 */
+	public ModuleEventLane[] accountDataLanes(String accountId) {
+		return accountRouteMap.getOrDefault(accountId, broadcastLanes);
+	}
+
+	/**
+	 * 查询模组事件通道状态
+	 * @param id
+	 * @return
+	 */
+	public ModuleLaneStatus getLaneStatus(Identifier id) {
+		ModuleEventLane lane = laneMap.get(id);
+		return lane == null ? null : lane.status();
+	}
+
+	/**
+	 * 查询全部模组事件通道状态
+	 * @return
+	 */
+	public List<ModuleLaneStatus> allLaneStatus() {
+		return laneMap.values().stream().map(ModuleEventLane::status).toList();
+	}
 }
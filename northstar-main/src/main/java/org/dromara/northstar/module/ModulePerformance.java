@@ -0,0 +1,133 @@
+package org.dromara.northstar.module;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.dromara.northstar.common.constant.DateTimeConstant;
+import org.dromara.northstar.common.model.ModulePerformanceDescription;
+import org.dromara.northstar.common.model.ModulePerformanceDescription.EquityPoint;
+
+/**
+ * 模组绩效统计
+ * 每笔平仓时增量累计笔数、盈亏与平方和，比率类指标在查询时由累计量直接计算，
+ * 因此查询模组实时信息时不再需要读取成交记录表
+ * @author KevinHuangwl
+ *
+ */
+public class ModulePerformance {
+
+	private int dealCount;
+	private int winCount;
+	private int lossCount;
+	private double grossProfit;
+	private double grossLoss;
+	private double sumSquareEarning;
+	private double sumSquareLoss;
+	private LocalDate startDate;
+	private LocalDate endDate;
+	private final List<EquityPoint> equityCurve;
+
+	public ModulePerformance(ModulePerformanceDescription description) {
+		this.dealCount = description.getDealCount();
+		this.winCount = description.getWinCount();
+		this.lossCount = description.getLossCount();
+		this.grossProfit = description.getGrossProfit();
+		this.grossLoss = description.getGrossLoss();
+		this.sumSquareEarning = description.getSumSquareEarning();
+		this.sumSquareLoss = description.getSumSquareLoss();
+		this.startDate = parse(description.getStartDate());
+		this.endDate = parse(description.getEndDate());
+		this.equityCurve = Objects.isNull(description.getEquityCurve()) ? new ArrayList<>() : new ArrayList<>(description.getEquityCurve());
+	}
+
+	/**
+	 * 记录一笔平仓
+	 * @param openDate		开仓成交日期
+	 * @param closeDate		平仓成交日期
+	 * @param earning		扣除手续费后的净盈亏
+	 */
+	public synchronized void onDeal(LocalDate openDate, LocalDate closeDate, double earning) {
+		dealCount++;
+		sumSquareEarning += earning * earning;
+		if(earning > 0) {
+			winCount++;
+			grossProfit += earning;
+		} else if(earning < 0) {
+			lossCount++;
+			grossLoss -= earning;
+			sumSquareLoss += earning * earning;
+		}
+		if(Objects.isNull(startDate) && Objects.nonNull(openDate)) {
+			startDate = openDate;
+		}
+		if(Objects.isNull(closeDate)) {
+			return;
+		}
+		endDate = closeDate;
+		String date = closeDate.format(DateTimeConstant.D_FORMAT_INT_FORMATTER);
+		EquityPoint last = equityCurve.isEmpty() ? null : equityCurve.get(equityCurve.size() - 1);
+		if(Objects.nonNull(last) && last.getDate().equals(date)) {
+			last.setEquity(totalEarning());
+		} else {
+			equityCurve.add(new EquityPoint(date, totalEarning()));
+		}
+	}
+
+	/**
+	 * 累计净盈亏
+	 * @return
+	 */
+	public synchronized double totalEarning() {
+		return grossProfit - grossLoss;
+	}
+
+	/**
+	 * 单笔平均净盈亏
+	 * @return
+	 */
+	public synchronized double avgEarning() {
+		return dealCount == 0 ? 0 : totalEarning() / dealCount;
+	}
+
+	/**
+	 * 年化收益率
+	 * @param initBalance	初始资金
+	 * @return
+	 */
+	public synchronized double annualizedRateOfReturn(double initBalance) {
+		if(Objects.isNull(startDate) || Objects.isNull(endDate) || initBalance == 0) {
+			return 0;
+		}
+		long days = ChronoUnit.DAYS.between(startDate, endDate);
+		return days <= 0 ? 0 : (totalEarning() / initBalance) / days * 365;
+	}
+
+	public synchronized ModulePerformanceDescription toDescription() {
+		double mean = avgEarning();
+		double stdev = dealCount < 2 ? 0 : Math.sqrt(Math.max(0, sumSquareEarning / dealCount - mean * mean));
+		double downside = dealCount < 2 ? 0 : Math.sqrt(sumSquareLoss / dealCount);
+		return ModulePerformanceDescription.builder()
+				.dealCount(dealCount)
+				.winCount(winCount)
+				.lossCount(lossCount)
+				.grossProfit(grossProfit)
+				.grossLoss(grossLoss)
+				.sumSquareEarning(sumSquareEarning)
+				.sumSquareLoss(sumSquareLoss)
+				.startDate(Objects.isNull(startDate) ? null : startDate.format(DateTimeConstant.D_FORMAT_INT_FORMATTER))
+				.endDate(Objects.isNull(endDate) ? null : endDate.format(DateTimeConstant.D_FORMAT_INT_FORMATTER))
+				.winRate(dealCount == 0 ? 0 : (double) winCount / dealCount)
+				.profitFactor(grossLoss == 0 ? 0 : grossProfit / grossLoss)
+				.sharpeRatio(stdev == 0 ? 0 : mean / stdev)
+				.sortinoRatio(downside == 0 ? 0 : mean / downside)
+				.equityCurve(equityCurve.stream().map(p -> new EquityPoint(p.getDate(), p.getEquity())).toList())
+				.build();
+	}
+
+	private static LocalDate parse(String date) {
+		return Objects.isNull(date) ? null : LocalDate.parse(date, DateTimeConstant.D_FORMAT_INT_FORMATTER);
+	}
+}
@@ -27,6 +27,7 @@ import xyz.redtorch.pb.CoreEnum.PositionDirectionEnum;
 /**
  * 模组持仓
  * 一个实例代表一个合约在一个方向模组中持仓信息
+ * 持仓手数、开仓成本与冻结手数随成交与订单增量维护，查询均为常数时间；只有交易日切换时才重新统计一次今仓手数
  * @author KevinHuangwl
  *
  */
@@ -45,6 +46,13 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 
 	private ClosingPolicy closingPolicy;
 
+	/* 以下为增量维护的汇总值 */
+	private int totalVol;
+	private int tdVol;
+	private double openCost;
+	private int frozenVol;
+	private int tdFrozenVol;
+
 	/* 开平仓匹配回调 */
 	private BiConsumer<Trade, Trade> onDealCallback;
 
@@ -61,10 +69,10 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 	public ModulePosition(Contract contract, DirectionEnum direction, ClosingPolicy closingPolicy, BiConsumer<Trade, Trade> onDealCallback,
 						  List<Trade> nonclosedTrades) {
 		this(contract, direction, closingPolicy, onDealCallback);
-		trades.addAll(nonclosedTrades.stream()
+		nonclosedTrades.stream()
 				.filter(trade -> trade.direction() == direction)
 				.filter(trade -> trade.contract().equals(contract))
-				.toList());
+				.forEach(this::offerLast);
 	}
 
 	@Override
@@ -73,8 +81,12 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 			return;
 		}
 		if(Objects.isNull(tradingDay) || !tradingDay.equals(tick.tradingDay())) {
-			pendingOrderMap.clear();
+			releaseOrder();
 			tradingDay = tick.tradingDay();
+			tdVol = trades.stream()
+					.filter(t -> tradingDay.equals(t.tradingDay()))
+					.mapToInt(Trade::volume)
+					.sum();
 		}
 		lastTick = tick;
 	}
@@ -92,10 +104,22 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 		) {
 			return;
 		}
+		Order prev;
 		if(order.orderStatus() == OrderStatusEnum.OS_AllTraded || order.orderStatus() == OrderStatusEnum.OS_Canceled) {
-			pendingOrderMap.remove(order.originOrderId());
+			prev = pendingOrderMap.remove(order.originOrderId());
 		} else {
-			pendingOrderMap.put(order.originOrderId(), order);
+			prev = pendingOrderMap.put(order.originOrderId(), order);
+			updateFrozen(order, 1);
+		}
+		if(Objects.nonNull(prev)) {
+			updateFrozen(prev, -1);
+		}
+	}
+
+	private void updateFrozen(Order order, int sign) {
+		frozenVol += sign * order.totalVolume();
+		if(order.offsetFlag() == OffsetFlagEnum.OF_CloseToday) {
+			tdFrozenVol += sign * order.totalVolume();
 		}
 	}
 
@@ -114,7 +138,7 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 		}
 		if(FieldUtils.isOpen(trade.offsetFlag()) && trade.direction() == direction) //开仓时，方向要同向
 		{
-			trades.add(trade);
+			offerLast(trade);
 		}
 	}
 
@@ -122,10 +146,10 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 		int restVol = closeTrade.volume();
 		while(restVol > 0 && !trades.isEmpty()) {
 			if(closingPolicy == ClosingPolicy.FIRST_IN_LAST_OUT) {
-				Trade openTrade = trades.pollLast();
+				Trade openTrade = pollLast();
 				if(openTrade.volume() > restVol) {
 					Trade partOfOpenTrade = openTrade.toBuilder().volume(closeTrade.volume()).build();
-					trades.offerLast(openTrade.toBuilder().volume(openTrade.volume() - restVol).build());
+					offerLast(openTrade.toBuilder().volume(openTrade.volume() - restVol).build());
 					restVol = 0;
 					onDealCallback.accept(partOfOpenTrade, closeTrade);
 				} else {
@@ -133,10 +157,10 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 					onDealCallback.accept(openTrade, closeTrade.toBuilder().volume(openTrade.volume()).build());
 				}
 			} else {
-				Trade openTrade = trades.pollFirst();
+				Trade openTrade = pollFirst();
 				if(openTrade.volume() > restVol) {
 					Trade partOfOpenTrade = openTrade.toBuilder().volume(closeTrade.volume()).build();
-					trades.offerFirst(openTrade.toBuilder().volume(openTrade.volume() - restVol).build());
+					offerFirst(openTrade.toBuilder().volume(openTrade.volume() - restVol).build());
 					restVol = 0;
 					onDealCallback.accept(partOfOpenTrade, closeTrade);
 				} else {
@@ -147,6 +171,40 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 		}
 	}
 
+	/* 成交队列的增删统一经过以下方法，以同步更新汇总值 */
+	private void offerLast(Trade trade) {
+		trades.offerLast(trade);
+		accumulate(trade, 1);
+	}
+
+	private void offerFirst(Trade trade) {
+		trades.offerFirst(trade);
+		accumulate(trade, 1);
+	}
+
+	private Trade pollLast() {
+		Trade trade = trades.pollLast();
+		accumulate(trade, -1);
+		return trade;
+	}
+
+	private Trade pollFirst() {
+		Trade trade = trades.pollFirst();
+		accumulate(trade, -1);
+		return trade;
+	}
+
+	private void accumulate(Trade trade, int sign) {
+		totalVol += sign * trade.volume();
+		openCost += sign * trade.volume() * trade.price();
+		if(Objects.nonNull(tradingDay) && tradingDay.equals(trade.tradingDay())) {
+			tdVol += sign * trade.volume();
+		}
+		if(totalVol == 0) {
+			openCost = 0;	// 清仓时消除浮点累计误差
+		}
+	}
+
 	/**
 	 * 获取未平仓原始成交
 	 * @return
@@ -160,9 +218,7 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 	 * @return
 	 */
 	public int totalVolume() {
-		return trades.stream()
-				.mapToInt(Trade::volume)
-				.reduce(0, Integer::sum);
+		return totalVol;
 	}
 
 	/**
@@ -171,11 +227,7 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 	 */
 	public int tdVolume() {
 		if(Objects.isNull(lastTick)) return 0;
-		LocalDate currentTradingDay = lastTick.tradingDay();
-		return trades.stream()
-				.filter(t -> currentTradingDay.equals(t.tradingDay()))
-				.mapToInt(Trade::volume)
-				.reduce(0, Integer::sum);
+		return tdVol;
 	}
 
 	/**
@@ -184,11 +236,7 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 	 */
 	public int ydVolume() {
 		if(Objects.isNull(lastTick)) return 0;
-		LocalDate currentTradingDay = lastTick.tradingDay();
-		return trades.stream()
-				.filter(t -> !currentTradingDay.equals(t.tradingDay()))
-				.mapToInt(Trade::volume)
-				.reduce(0, Integer::sum);
+		return totalVol - tdVol;
 	}
 
 	/**
@@ -196,10 +244,7 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 	 * @return
 	 */
 	public int totalAvailable() {
-		int frozen = pendingOrderMap.values().stream()
-				.mapToInt(Order::totalVolume)
-				.reduce(0, Integer::sum);
-		return totalVolume() - frozen;
+		return totalVol - frozenVol;
 	}
 
 	/**
@@ -207,11 +252,7 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 	 * @return
 	 */
 	public int tdAvailable() {
-		int tdFrozen = pendingOrderMap.values().stream()
-				.filter(order -> order.offsetFlag() == OffsetFlagEnum.OF_CloseToday)
-				.mapToInt(Order::totalVolume)
-				.reduce(0, Integer::sum);
-		return tdVolume() - tdFrozen;
+		return tdVolume() - tdFrozenVol;
 	}
 
 	/**
@@ -219,11 +260,7 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 	 * @return
 	 */
 	public int ydAvailable() {
-		int ydFrozen = pendingOrderMap.values().stream()
-				.filter(order -> order.offsetFlag() != OffsetFlagEnum.OF_CloseToday)
-				.mapToInt(Order::totalVolume)
-				.reduce(0, Integer::sum);
-		return ydVolume() - ydFrozen;
+		return ydVolume() - (frozenVol - tdFrozenVol);
 	}
 
 	/**
@@ -231,11 +268,8 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 	 * @return
 	 */
 	public double avgOpenPrice() {
-		int totalVol = totalVolume();
 		if(totalVol == 0) return 0;
-		return trades.stream()
-				.mapToDouble(t -> t.volume() * t.price())
-				.reduce(0D, Double::sum) / totalVol;
+		return openCost / totalVol;
 	}
 
 	/**
@@ -245,8 +279,7 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 	public double profit() {
 		if(Objects.isNull(lastTick)) return 0;
 		int factor = FieldUtils.directionFactor(direction);
-		double priceDiff = factor * (lastTick.lastPrice() - avgOpenPrice());
-		return priceDiff * totalVolume() * contract.multiplier();
+		return factor * (lastTick.lastPrice() * totalVol - openCost) * contract.multiplier();
 	}
 
 	/**
@@ -255,7 +288,7 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 	 */
 	public double totalMargin() {
 		double ratio = FieldUtils.isBuy(direction) ? contract.longMarginRatio() : contract.shortMarginRatio();
-		return totalVolume() * avgOpenPrice() * contract.multiplier() * ratio;
+		return openCost * contract.multiplier() * ratio;
 	}
 
 	/**
@@ -286,5 +319,7 @@ public class ModulePosition implements TickDataAware, TransactionAware{
 
 	public void releaseOrder() {
 		pendingOrderMap.clear();
+		frozenVol = 0;
+		tdFrozenVol = 0;
 	}
 }
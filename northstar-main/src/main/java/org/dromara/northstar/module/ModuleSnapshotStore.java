@@ -0,0 +1,367 @@
+package org.dromara.northstar.module;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+import org.dromara.northstar.common.StateSnapshotAware;
+import org.dromara.northstar.common.model.ModuleDescription;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.indicator.Indicator;
+import org.dromara.northstar.indicator.IndicatorValueUpdateHelper;
+import org.springframework.util.DigestUtils;
+
+import com.alibaba.fastjson.JSON;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模组预热状态快照
+ * 保存模组预热后的状态：各指标的值缓存、K线合成器中未完成的K线、图表数据、各合约最后处理的K线时间，
+ * 以及策略的状态存储对象（实现了 {@link StateSnapshotAware} 的策略还会保存其自身状态）。
+ * 模组重启时先恢复快照，再只回放快照之后的K线
+ * 快照带有格式版本号与模组配置指纹，以下任一情况都不使用快照，退回到完整回放历史数据的预热方式：
+ * 版本或配置不一致、有指标不支持快照、策略状态存储对象与数据库中的不一致（说明快照已过期）
+ * @author KevinHuangwl
+ *
+ */
+@Slf4j
+public class ModuleSnapshotStore {
+
+	private static final int MAGIC = 0x4E534D53;
+
+	static final int VERSION = 2;
+
+	private static final String SUFFIX = ".snapshot";
+
+	private final Path dir;
+
+	public ModuleSnapshotStore(Path dir) {
+		this.dir = dir;
+		try {
+			Files.createDirectories(dir);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 模组配置指纹，配置有任何改动都会使旧快照失效
+	 * @param md
+	 * @return
+	 */
+	public static String fingerprint(ModuleDescription md) {
+		return DigestUtils.md5DigestAsHex(JSON.toJSONBytes(md));
+	}
+
+	/**
+	 * 保存快照
+	 * 应在没有行情更新时调用（如收盘后或程序退出时）
+	 * @param ctx
+	 * @param md
+	 * @return		模组不支持快照时返回false，并删除该模组已有的快照
+	 */
+	public boolean save(ModuleContext ctx, ModuleDescription md) {
+		String moduleName = md.getModuleName();
+		try {
+			List<String> unsupported = unsupportedIndicators(ctx);
+			if(!unsupported.isEmpty()) {
+				log.info("模组 [{}] 的指标 {} 不支持状态快照，重启时将完整回放历史数据", moduleName, unsupported);
+				delete(moduleName);
+				return false;
+			}
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			write(ctx, fingerprint(md), new DataOutputStream(bos));
+			Path tmpFile = dir.resolve(moduleName + SUFFIX + ".tmp");
+			Files.write(tmpFile, bos.toByteArray());
+			Files.move(tmpFile, fileOf(moduleName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			log.debug("模组 [{}] 保存状态快照，共{}字节", moduleName, bos.size());
+			return true;
+		} catch (Exception e) {
+			log.warn("模组 [{}] 保存状态快照失败", moduleName, e);
+			return false;
+		}
+	}
+
+	/**
+	 * 恢复快照
+	 * 快照在全部校验通过后才会写入模组状态
+	 * @param ctx		已完成指标注册的模组上下文
+	 * @param md
+	 * @param notBefore	早于该时间保存的快照视为过旧，不予恢复
+	 * @return			成功恢复时返回快照的保存时间
+	 */
+	public OptionalLong restore(ModuleContext ctx, ModuleDescription md, long notBefore) {
+		Path file = fileOf(md.getModuleName());
+		if(!Files.exists(file)) {
+			return OptionalLong.empty();
+		}
+		Snapshot snapshot;
+		try {
+			snapshot = read(new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file))));
+			if(snapshot.savedAt < notBefore) {
+				throw new IOException("快照早于预热数据的起始时间");
+			}
+			validate(ctx, md, snapshot);
+		} catch (Exception e) {
+			log.info("模组 [{}] 的状态快照不可用，将完整回放历史数据。原因：{}", md.getModuleName(), e.getMessage());
+			return OptionalLong.empty();
+		}
+		try {
+			apply(ctx, snapshot);
+		} catch (IOException e) {
+			// 校验通过后仍然失败，说明文件已损坏，删除以免下次重复出错
+			delete(md.getModuleName());
+			throw new IllegalStateException(String.format("模组 [%s] 恢复状态快照失败", md.getModuleName()), e);
+		}
+		log.info("模组 [{}] 已恢复状态快照，快照时间：{}", md.getModuleName(), snapshot.savedAt);
+		return OptionalLong.of(snapshot.savedAt);
+	}
+
+	/**
+	 * 删除快照
+	 * @param moduleName
+	 */
+	public void delete(String moduleName) {
+		try {
+			Files.deleteIfExists(fileOf(moduleName));
+		} catch (IOException e) {
+			log.warn("无法删除模组 [{}] 的状态快照", moduleName, e);
+		}
+	}
+
+	private Path fileOf(String moduleName) {
+		return dir.resolve(moduleName + SUFFIX);
+	}
+
+	private List<String> unsupportedIndicators(ModuleContext ctx) {
+		return ctx.indicatorHelperMap.values().stream()
+				.flatMap(helper -> helper.getGraph().nodes().stream())
+				.filter(indicator -> !(indicator instanceof StateSnapshotAware))
+				.map(indicator -> indicator.getConfiguration().indicatorID())
+				.distinct()
+				.toList();
+	}
+
+	/* 同一合约同一周期的指标按依赖图的拓扑顺序排列，顺序由注册顺序决定，因此配置不变时保持稳定 */
+	private Map<String, List<Indicator>> indicatorNodes(ModuleContext ctx) {
+		Map<String, List<Indicator>> result = new LinkedHashMap<>();
+		ctx.indicatorHelperMap.keySet().stream().sorted().forEach(key -> {
+			IndicatorValueUpdateHelper helper = ctx.indicatorHelperMap.get(key);
+			result.put(key, helper.getGraph().nodes());
+		});
+		return result;
+	}
+
+	private void write(ModuleContext ctx, String fingerprint, DataOutput out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeUTF(fingerprint);
+		out.writeLong(System.currentTimeMillis());
+		writeString(out, JSON.toJSONString(ctx.tradeStrategy.getStoreObject()));
+		out.writeLong(Objects.isNull(ctx.tradingDay) ? -1 : ctx.tradingDay.toEpochDay());
+
+		List<Map.Entry<String, Long>> barTimes = new ArrayList<>();
+		ctx.barFilterMap.forEach((contract, time) -> barTimes.add(Map.entry(contract.unifiedSymbol(), time)));
+		out.writeInt(barTimes.size());
+		for(Map.Entry<String, Long> e : barTimes) {
+			out.writeUTF(e.getKey());
+			out.writeLong(e.getValue());
+		}
+
+		List<Map.Entry<String, ChartDataRing>> frames = new ArrayList<>();
+		ctx.chartDataMap.forEach((contract, chartData) -> frames.add(Map.entry(contract.unifiedSymbol(), chartData)));
+		out.writeInt(frames.size());
+		for(Map.Entry<String, ChartDataRing> e : frames) {
+			out.writeUTF(e.getKey());
+			writeBlob(out, e.getValue());
+		}
+
+		Map<String, List<Indicator>> nodeMap = indicatorNodes(ctx);
+		out.writeInt(nodeMap.size());
+		for(Map.Entry<String, List<Indicator>> e : nodeMap.entrySet()) {
+			out.writeUTF(e.getKey());
+			out.writeInt(e.getValue().size());
+			for(Indicator indicator : e.getValue()) {
+				out.writeUTF(indicator.getClass().getName());
+				out.writeUTF(indicator.getConfiguration().indicatorID());
+				writeBlob(out, (StateSnapshotAware) indicator);
+			}
+		}
+
+		writeBlob(out, ctx.registry);
+		out.writeBoolean(ctx.tradeStrategy instanceof StateSnapshotAware);
+		if(ctx.tradeStrategy instanceof StateSnapshotAware ssa) {
+			writeBlob(out, ssa);
+		}
+	}
+
+	private Snapshot read(DataInput in) throws IOException {
+		if(in.readInt() != MAGIC) {
+			throw new IOException("不是模组状态快照文件");
+		}
+		int version = in.readInt();
+		if(version != VERSION) {
+			throw new IOException(String.format("快照版本不一致。期望：%d，实际：%d", VERSION, version));
+		}
+		Snapshot snapshot = new Snapshot();
+		snapshot.fingerprint = in.readUTF();
+		snapshot.savedAt = in.readLong();
+		snapshot.storeObject = readString(in);
+		long epochDay = in.readLong();
+		snapshot.tradingDay = epochDay < 0 ? null : LocalDate.ofEpochDay(epochDay);
+
+		int numOfBarTimes = in.readInt();
+		for(int i=0; i<numOfBarTimes; i++) {
+			snapshot.barTimes.put(in.readUTF(), in.readLong());
+		}
+
+		int numOfFrameQ = in.readInt();
+		for(int i=0; i<numOfFrameQ; i++) {
+			snapshot.frames.put(in.readUTF(), readBlob(in));
+		}
+
+		int numOfHelpers = in.readInt();
+		for(int i=0; i<numOfHelpers; i++) {
+			String key = in.readUTF();
+			int size = in.readInt();
+			List<IndicatorState> states = new ArrayList<>(size);
+			for(int j=0; j<size; j++) {
+				states.add(new IndicatorState(in.readUTF(), in.readUTF(), readBlob(in)));
+			}
+			snapshot.indicators.put(key, states);
+		}
+
+		snapshot.registryState = readBlob(in);
+		if(in.readBoolean()) {
+			snapshot.strategyState = readBlob(in);
+		}
+		return snapshot;
+	}
+
+	private void validate(ModuleContext ctx, ModuleDescription md, Snapshot snapshot) throws IOException {
+		if(!snapshot.fingerprint.equals(fingerprint(md))) {
+			throw new IOException("模组配置已变更");
+		}
+		if(!Objects.equals(JSON.parse(snapshot.storeObject), JSON.parse(JSON.toJSONString(ctx.tradeStrategy.getStoreObject())))) {
+			throw new IOException("策略状态存储对象与快照不一致，快照已过期");
+		}
+		if(snapshot.strategyState == null && ctx.tradeStrategy instanceof StateSnapshotAware) {
+			throw new IOException("快照缺少策略状态");
+		}
+		for(String unifiedSymbol : snapshot.barTimes.keySet()) {
+			checkContract(ctx, unifiedSymbol);
+		}
+		for(String unifiedSymbol : snapshot.frames.keySet()) {
+			checkContract(ctx, unifiedSymbol);
+		}
+		Map<String, List<Indicator>> nodeMap = indicatorNodes(ctx);
+		if(!nodeMap.keySet().equals(snapshot.indicators.keySet())) {
+			throw new IOException("指标分组不一致");
+		}
+		for(Map.Entry<String, List<Indicator>> e : nodeMap.entrySet()) {
+			List<Indicator> nodes = e.getValue();
+			List<IndicatorState> states = snapshot.indicators.get(e.getKey());
+			if(nodes.size() != states.size()) {
+				throw new IOException(String.format("[%s] 指标数量不一致", e.getKey()));
+			}
+			for(int i=0; i<nodes.size(); i++) {
+				Indicator indicator = nodes.get(i);
+				IndicatorState state = states.get(i);
+				if(!(indicator instanceof StateSnapshotAware)
+						|| !indicator.getClass().getName().equals(state.className())
+						|| !indicator.getConfiguration().indicatorID().equals(state.indicatorID())) {
+					throw new IOException(String.format("[%s] 指标 [%s] 与快照不一致", e.getKey(), indicator.getConfiguration().indicatorID()));
+				}
+			}
+		}
+	}
+
+	private void checkContract(ModuleContext ctx, String unifiedSymbol) throws IOException {
+		if(!ctx.contractMap.containsKey(unifiedSymbol)) {
+			throw new IOException("模组没有绑定合约：" + unifiedSymbol);
+		}
+	}
+
+	private void apply(ModuleContext ctx, Snapshot snapshot) throws IOException {
+		ctx.registry.readState(toInput(snapshot.registryState));
+		Map<String, List<Indicator>> nodeMap = indicatorNodes(ctx);
+		for(Map.Entry<String, List<Indicator>> e : nodeMap.entrySet()) {
+			List<IndicatorState> states = snapshot.indicators.get(e.getKey());
+			for(int i=0; i<states.size(); i++) {
+				((StateSnapshotAware) e.getValue().get(i)).readState(toInput(states.get(i).data()));
+			}
+		}
+		if(ctx.tradeStrategy instanceof StateSnapshotAware ssa) {
+			ssa.readState(toInput(snapshot.strategyState));
+		}
+		for(Map.Entry<String, Long> e : snapshot.barTimes.entrySet()) {
+			ctx.barFilterMap.put(ctx.contractMap.get(e.getKey()), e.getValue());
+		}
+		for(Map.Entry<String, byte[]> e : snapshot.frames.entrySet()) {
+			ChartDataRing chartData = ctx.chartDataMap.get(ctx.contractMap.get(e.getKey()));
+			if(chartData != null) {
+				chartData.readState(toInput(e.getValue()));
+			}
+		}
+		ctx.tradingDay = snapshot.tradingDay;
+	}
+
+	private static void writeBlob(DataOutput out, StateSnapshotAware ssa) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ssa.writeState(new DataOutputStream(bos));
+		out.writeInt(bos.size());
+		out.write(bos.toByteArray());
+	}
+
+	private static byte[] readBlob(DataInput in) throws IOException {
+		byte[] data = new byte[in.readInt()];
+		in.readFully(data);
+		return data;
+	}
+
+	/* writeUTF 限制64KB，状态存储对象可能超出，因此按字节数组写出 */
+	private static void writeString(DataOutput out, String str) throws IOException {
+		byte[] data = str.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(data.length);
+		out.write(data);
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		return new String(readBlob(in), StandardCharsets.UTF_8);
+	}
+
+	private static DataInput toInput(byte[] data) {
+		return new DataInputStream(new ByteArrayInputStream(data));
+	}
+
+	private record IndicatorState(String className, String indicatorID, byte[] data) {}
+
+	private static class Snapshot {
+		String fingerprint;
+		long savedAt;
+		String storeObject;
+		LocalDate tradingDay;
+		Map<String, Long> barTimes = new LinkedHashMap<>();
+		Map<String, byte[]> frames = new LinkedHashMap<>();
+		Map<String, List<IndicatorState>> indicators = new LinkedHashMap<>();
+		byte[] registryState;
+		byte[] strategyState;
+	}
+}
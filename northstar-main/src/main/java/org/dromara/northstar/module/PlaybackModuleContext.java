@@ -1,8 +1,6 @@
 package org.dromara.northstar.module;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,6 +10,7 @@ import org.dromara.northstar.common.model.ModuleDealRecord;
 import org.dromara.northstar.common.model.ModuleDescription;
 import org.dromara.northstar.common.model.ModuleRuntimeDescription;
 import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.ContractHandleMap;
 import org.dromara.northstar.common.model.core.Order;
 import org.dromara.northstar.common.model.core.SubmitOrderReq;
 import org.dromara.northstar.common.model.core.Tick;
@@ -100,7 +99,7 @@ public class PlaybackModuleContext extends ModuleContext implements IModuleConte
 		return lastTick.actionTimestamp() - orderReq.actionTimestamp() > timeout;
 	}
 	
-	private Map<Contract, Tick> tickMap = new HashMap<>();
+	private ContractHandleMap<Tick> tickMap = new ContractHandleMap<>();
 	
 	@Override
 	public void onTick(Tick tick) {
@@ -110,9 +109,7 @@ public class PlaybackModuleContext extends ModuleContext implements IModuleConte
 				pendingTrade = Optional.empty();
 			}
 		});
-		synchronized (tickMap) {
-			tickMap.put(tick.contract(), tick);
-		}
+		tickMap.put(tick.contract(), tick);
 		super.onTick(tick);
 	}
 
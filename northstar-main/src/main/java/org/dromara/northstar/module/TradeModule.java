@@ -1,5 +1,6 @@
 package org.dromara.northstar.module;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -15,6 +16,7 @@ import org.dromara.northstar.common.model.ModuleDescription;
 import org.dromara.northstar.common.model.ModuleRuntimeDescription;
 import org.dromara.northstar.common.model.core.Bar;
 import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.ContractHandleMap;
 import org.dromara.northstar.common.model.core.Order;
 import org.dromara.northstar.common.model.core.Tick;
 import org.dromara.northstar.common.model.core.Trade;
@@ -47,7 +49,8 @@ public class TradeModule implements IModule {
 	
 	private Set<String> accountIdSet = new HashSet<>();
 	
-	private Set<Contract> bindedContractSet = new HashSet<>();
+	/* 按合约句柄索引，行情过滤时不需要计算合约信息的哈希值 */
+	private ContractHandleMap<Contract> bindedContractMap = new ContractHandleMap<>();
 	
 	private ModuleDescription md;
 	
@@ -71,11 +74,11 @@ public class TradeModule implements IModule {
 						.stream()
 						.map(IContract::contract)
 						.forEach(cc -> {
-							bindedContractSet.add(cc);
+							bindedContractMap.put(cc, cc);
 							contractAccountMap.put(cc, accountMgr.get(Identifier.of(mad.getAccountGatewayId())));
 					});
 				} 
-				bindedContractSet.add(c);
+				bindedContractMap.put(c, c);
 				contractAccountMap.put(c, accountMgr.get(Identifier.of(mad.getAccountGatewayId())));
 			});
 		});
@@ -113,9 +116,9 @@ public class TradeModule implements IModule {
 			return;
 		}
 		try {
-			if(data instanceof Tick tick && bindedContractSet.contains(tick.contract()) && mktGatewayIdSet.contains(tick.gatewayId())) {
+			if(data instanceof Tick tick && bindedContractMap.containsKey(tick.contract()) && mktGatewayIdSet.contains(tick.gatewayId())) {
 				ctx.onTick(tick);
-			} else if (data instanceof Bar bar && bindedContractSet.contains(bar.contract()) && mktGatewayIdSet.contains(bar.gatewayId())) {
+			} else if (data instanceof Bar bar && bindedContractMap.containsKey(bar.contract()) && mktGatewayIdSet.contains(bar.gatewayId())) {
 				ctx.onBar(bar);
 			} else if (data instanceof Order order && accountIdSet.contains(order.gatewayId())) {
 				ctx.onOrder(order);
@@ -127,6 +130,30 @@ public class TradeModule implements IModule {
 		}
 	}
 
+	/**
+	 * 模组绑定的合约（含期权链成员合约）
+	 * @return
+	 */
+	public Set<Contract> bindedContracts() {
+		return Set.copyOf(bindedContractMap.values());
+	}
+
+	/**
+	 * 模组关注的行情网关
+	 * @return
+	 */
+	public Set<String> marketGatewayIds() {
+		return Collections.unmodifiableSet(mktGatewayIdSet);
+	}
+
+	/**
+	 * 模组关注的账户网关
+	 * @return
+	 */
+	public Set<String> accountIds() {
+		return Collections.unmodifiableSet(accountIdSet);
+	}
+
 	@Override
 	public ModuleRuntimeDescription getRuntimeDescription() {
 		if(!ctx.isReady()) {
@@ -24,17 +24,14 @@ import org.dromara.northstar.module.ModuleManager;
 import org.dromara.northstar.strategy.IAccount;
 import org.dromara.northstar.strategy.IMessageSender;
 import org.dromara.northstar.strategy.IModule;
+import org.dromara.northstar.support.log.ModuleLoggerFactory;
 import org.dromara.northstar.support.utils.ExceptionLogChecker;
 import org.dromara.northstar.support.utils.PositionChecker;
-import org.slf4j.ILoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import ch.qos.logback.classic.Logger;
-import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.FileAppender;
 import lombok.extern.slf4j.Slf4j;
 import xyz.redtorch.pb.CoreEnum.PositionDirectionEnum;
 
@@ -150,10 +147,10 @@ public class ModuleCheckingTask implements InitializingBean {
 	public void checkModuleException() throws IOException {
 		log.debug("检查当天的模组日志中是否存在异常日志");
 		for(IModule module : moduleMgr.allModules()) {
-			ILoggerFactory factory = module.getModuleContext().getLoggerFactory();
-			Logger logger = (Logger) factory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
-			FileAppender<ILoggingEvent> fileAppender = (FileAppender<ILoggingEvent>) logger.getAppender(module.getName());
-			File logFile = new File(fileAppender.getFile());
+			if(!(module.getModuleContext().getLoggerFactory() instanceof ModuleLoggerFactory factory)) {
+				continue;
+			}
+			File logFile = factory.getLogFile();
 			FileReader fr = new FileReader(logFile);
 			ExceptionLogChecker checker = new ExceptionLogChecker(fr);
 			LocalTime endTime = LocalTime.now();
@@ -0,0 +1,60 @@
+package org.dromara.northstar.support.job;
+
+import org.dromara.northstar.common.constant.ModuleUsage;
+import org.dromara.northstar.module.ModuleContext;
+import org.dromara.northstar.module.ModuleManager;
+import org.dromara.northstar.module.ModuleSnapshotStore;
+import org.dromara.northstar.module.PlaybackModuleContext;
+import org.dromara.northstar.strategy.IModule;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模组状态快照任务
+ * 日盘与夜盘收盘后，以及程序退出时，保存各模组的预热状态快照
+ * 每个模组的快照都在该模组的锁内生成，此时模组不会处理任何事件
+ * @author KevinHuangwl
+ *
+ */
+@Slf4j
+@Component
+public class ModuleSnapshotTask implements DisposableBean {
+
+	@Autowired
+	private ModuleManager moduleMgr;
+
+	@Autowired
+	private ModuleSnapshotStore snapshotStore;
+
+	/**
+	 * 周一至五日盘收盘后，周二至六夜盘收盘后
+	 */
+	@Scheduled(cron="0 20 15 ? * 1-5")
+	@Scheduled(cron="0 40 2 ? * 2-6")
+	public void saveSnapshots() {
+		int count = 0;
+		for(IModule module : moduleMgr.allModules()) {
+			if(module.getModuleDescription().getUsage() == ModuleUsage.PLAYBACK
+					|| module.getModuleContext() instanceof PlaybackModuleContext
+					|| !(module.getModuleContext() instanceof ModuleContext ctx)) {
+				continue;
+			}
+			// 模组的事件处理（TradeModule.onEvent）以模组实例为锁，持有同一把锁保存快照，保证快照不会与事件处理交错
+			synchronized(module) {
+				if(snapshotStore.save(ctx, module.getModuleDescription())) {
+					count++;
+				}
+			}
+		}
+		log.info("保存模组状态快照，共{}个", count);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		saveSnapshots();
+	}
+}
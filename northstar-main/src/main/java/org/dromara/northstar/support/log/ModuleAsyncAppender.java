@@ -0,0 +1,35 @@
+package org.dromara.northstar.support.log;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+/**
+ * 模组日志异步输出器
+ * 在产生日志的线程上固定消息内容与线程名后，交给共用的 {@link ModuleLogDispatcher} 由后台线程写入文件
+ * @author KevinHuangwl
+ *
+ */
+public class ModuleAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+	private final Appender<ILoggingEvent> delegate;
+
+	private final ModuleLogDispatcher dispatcher;
+
+	public ModuleAsyncAppender(Appender<ILoggingEvent> delegate, ModuleLogDispatcher dispatcher) {
+		this.delegate = delegate;
+		this.dispatcher = dispatcher;
+	}
+
+	@Override
+	protected void append(ILoggingEvent event) {
+		event.prepareForDeferredProcessing();
+		dispatcher.dispatch(delegate, event);
+	}
+
+	@Override
+	public void stop() {
+		super.stop();
+		delegate.stop();
+	}
+}
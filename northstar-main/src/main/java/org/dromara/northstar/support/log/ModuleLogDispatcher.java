@@ -0,0 +1,238 @@
+package org.dromara.northstar.support.log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.util.Assert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模组日志异步分发器
+ * 所有模组共用一个分发器：产生日志的线程通过CAS在无锁环形缓冲中占位后写入，由唯一的后台线程按顺序取出并交给各模组的文件输出器，
+ * 因此事件线程上不再发生文件IO
+ * 缓冲写满时按溢出策略处理：DROP_TRACE 丢弃 TRACE 与 DEBUG 级别的日志并计数，INFO 及以上级别仍等待空位；BLOCK 所有级别都等待空位
+ * 关闭后写入的日志改为同步输出
+ * @author KevinHuangwl
+ *
+ */
+@Slf4j
+public class ModuleLogDispatcher implements AutoCloseable {
+
+	public enum OverflowPolicy {
+		DROP_TRACE,
+		BLOCK
+	}
+
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private static volatile ModuleLogDispatcher defaultInstance;
+
+	private final int capacity;
+
+	private final int mask;
+
+	private final OverflowPolicy policy;
+
+	/* 槽位非空即代表已发布；输出器先于日志写入，由日志的volatile写保证可见性 */
+	private final AtomicReferenceArray<ILoggingEvent> events;
+
+	private final Appender<ILoggingEvent>[] targets;
+
+	private final AtomicLong tail = new AtomicLong();
+
+	/* 只由后台线程推进 */
+	private volatile long head;
+
+	private volatile boolean waiting;
+
+	private volatile boolean closed;
+
+	private final Thread worker;
+
+	private final AtomicLong enqueuedCount = new AtomicLong();
+	private final AtomicLong writtenCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong overflowCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+
+	/**
+	 * @param bufferSize	缓冲容量，向上取整为2的幂
+	 * @param policy		溢出策略
+	 */
+	@SuppressWarnings("unchecked")
+	public ModuleLogDispatcher(int bufferSize, OverflowPolicy policy) {
+		Assert.isTrue(bufferSize > 0, "缓冲容量必须为正数");
+		Assert.notNull(policy, "溢出策略不能为空");
+		int size = 1;
+		while(size < bufferSize) {
+			size <<= 1;
+		}
+		this.capacity = size;
+		this.mask = size - 1;
+		this.policy = policy;
+		this.events = new AtomicReferenceArray<>(capacity);
+		this.targets = new Appender[capacity];
+		this.worker = Thread.ofPlatform().daemon().name("ModuleLogDispatcher").start(this::drain);
+	}
+
+	/**
+	 * 模组日志默认使用的分发器，未配置时按默认容量与 DROP_TRACE 策略创建
+	 * @return
+	 */
+	public static ModuleLogDispatcher getDefault() {
+		ModuleLogDispatcher instance = defaultInstance;
+		if(instance == null || instance.closed) {
+			synchronized (ModuleLogDispatcher.class) {
+				if(defaultInstance == null || defaultInstance.closed) {
+					defaultInstance = new ModuleLogDispatcher(DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP_TRACE);
+				}
+				instance = defaultInstance;
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * 按配置创建默认分发器，需要在模组加载前调用；默认分发器已被使用且未关闭时保持原配置
+	 * @param bufferSize
+	 * @param policy
+	 * @return
+	 */
+	public static synchronized ModuleLogDispatcher configureDefault(int bufferSize, OverflowPolicy policy) {
+		if(defaultInstance != null && !defaultInstance.closed) {
+			log.warn("模组日志分发器已在使用中，忽略新的配置");
+			return defaultInstance;
+		}
+		defaultInstance = new ModuleLogDispatcher(bufferSize, policy);
+		return defaultInstance;
+	}
+
+	/**
+	 * 提交日志，由后台线程交给目标输出器
+	 * @param target
+	 * @param event		需已调用 prepareForDeferredProcessing
+	 */
+	public void dispatch(Appender<ILoggingEvent> target, ILoggingEvent event) {
+		boolean overflowed = false;
+		while(!closed) {
+			long t = tail.get();
+			if(t - head >= capacity) {
+				if(policy == OverflowPolicy.DROP_TRACE && event.getLevel().toInt() <= Level.DEBUG_INT) {
+					droppedCount.incrementAndGet();
+					return;
+				}
+				if(!overflowed) {
+					overflowed = true;
+					overflowCount.incrementAndGet();
+				}
+				LockSupport.unpark(worker);
+				LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+				continue;
+			}
+			if(tail.compareAndSet(t, t + 1)) {
+				int i = (int) (t & mask);
+				targets[i] = target;
+				events.set(i, event);
+				enqueuedCount.incrementAndGet();
+				if(waiting) {
+					LockSupport.unpark(worker);
+				}
+				return;
+			}
+		}
+		write(target, event);
+	}
+
+	private void drain() {
+		while(!closed || head != tail.get()) {
+			if(!poll()) {
+				if(head == tail.get()) {
+					waiting = true;
+					if(head == tail.get() && !closed) {
+						LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(50));
+					}
+					waiting = false;
+				} else {
+					// 已占位但尚未发布
+					Thread.onSpinWait();
+				}
+			}
+		}
+	}
+
+	/* 取出并输出一条日志，没有已发布的日志时返回false */
+	private boolean poll() {
+		long h = head;
+		int i = (int) (h & mask);
+		ILoggingEvent event = events.get(i);
+		if(event == null) {
+			return false;
+		}
+		Appender<ILoggingEvent> target = targets[i];
+		targets[i] = null;
+		events.set(i, null);
+		head = h + 1;
+		write(target, event);
+		return true;
+	}
+
+	private void write(Appender<ILoggingEvent> target, ILoggingEvent event) {
+		try {
+			target.doAppend(event);
+			writtenCount.incrementAndGet();
+		} catch (Exception e) {
+			failedCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * 停止后台线程，并同步输出缓冲中剩余的日志
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		LockSupport.unpark(worker);
+		try {
+			worker.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (this) {
+			// 关闭瞬间仍在发布的日志
+			while(!worker.isAlive() && head != tail.get()) {
+				if(!poll()) {
+					Thread.onSpinWait();
+				}
+			}
+		}
+	}
+
+	/**
+	 * 分发统计
+	 * @return
+	 */
+	public DispatcherStatus status() {
+		return new DispatcherStatus(capacity, policy, (int) (tail.get() - head), enqueuedCount.get(), writtenCount.get(),
+				droppedCount.get(), overflowCount.get(), failedCount.get());
+	}
+
+	/**
+	 * @param capacity			缓冲容量
+	 * @param policy			溢出策略
+	 * @param pending			缓冲中待输出的日志数量
+	 * @param enqueuedCount		进入缓冲的日志数量
+	 * @param writtenCount		已输出的日志数量
+	 * @param droppedCount		缓冲已满时丢弃的日志数量
+	 * @param overflowCount		缓冲已满时需要等待的日志数量
+	 * @param failedCount		输出失败的日志数量
+	 */
+	public static record DispatcherStatus(int capacity, OverflowPolicy policy, int pending, long enqueuedCount, long writtenCount,
+			long droppedCount, long overflowCount, long failedCount) {}
+}
@@ -14,12 +14,23 @@ import ch.qos.logback.classic.util.LogbackMDCAdapter;
 import ch.qos.logback.core.rolling.RollingFileAppender;
 import ch.qos.logback.core.rolling.TimeBasedRollingPolicy;
 
+/**
+ * 模组日志工厂
+ * 每个模组使用独立的日志上下文与滚动日志文件，文件写入由共用的 {@link ModuleLogDispatcher} 在后台线程完成
+ * @author KevinHuangwl
+ *
+ */
 public class ModuleLoggerFactory implements ILoggerFactory {
 
 	private LoggerContext loggerContext = new LoggerContext();
 	private PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+	private File logFile;
 
 	public ModuleLoggerFactory(String moduleName, String logLevel) {
+		this(moduleName, logLevel, ModuleLogDispatcher.getDefault());
+	}
+
+	public ModuleLoggerFactory(String moduleName, String logLevel, ModuleLogDispatcher dispatcher) {
 		encoder.setPattern("%d - %level - [%t][" + moduleName + "][%logger{10}] : %m%n");
 		encoder.setCharset(StandardCharsets.UTF_8);
 		encoder.setContext(loggerContext);
@@ -28,12 +39,13 @@ public class ModuleLoggerFactory implements ILoggerFactory {
 		loggerContext.setMDCAdapter(new LogbackMDCAdapter());
 
 		String logPath = System.getProperty("LOG_PATH");
+		logFile = new File(logPath + File.separator + moduleName + File.separator + "module.log");
 		RollingFileAppender<ILoggingEvent> rollingFileAppender = new RollingFileAppender<>();
 		if (!rollingFileAppender.isStarted()) {
 			rollingFileAppender.setContext(loggerContext);
 			rollingFileAppender.setAppend(true);
-			rollingFileAppender.setName(moduleName);
-			rollingFileAppender.setFile(logPath + File.separator + moduleName + File.separator + "module.log");
+			rollingFileAppender.setName(moduleName + "-file");
+			rollingFileAppender.setFile(logFile.getPath());
 
 			TimeBasedRollingPolicy<ILoggingEvent> rollingPolicy = new TimeBasedRollingPolicy<>();
 			rollingPolicy.setFileNamePattern(
@@ -48,9 +60,22 @@ public class ModuleLoggerFactory implements ILoggerFactory {
 			rollingFileAppender.start();
 		}
 
+		ModuleAsyncAppender asyncAppender = new ModuleAsyncAppender(rollingFileAppender, dispatcher);
+		asyncAppender.setContext(loggerContext);
+		asyncAppender.setName(moduleName);
+		asyncAppender.start();
+
 		ch.qos.logback.classic.Logger rootLogger = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
 		rootLogger.setLevel(Level.valueOf(logLevel));
-		rootLogger.addAppender(rollingFileAppender);
+		rootLogger.addAppender(asyncAppender);
+	}
+	
+	/**
+	 * 当前的模组日志文件
+	 * @return
+	 */
+	public File getLogFile() {
+		return logFile;
 	}
 
 	@Override
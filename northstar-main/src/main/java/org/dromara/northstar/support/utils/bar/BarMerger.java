@@ -1,5 +1,8 @@
 package org.dromara.northstar.support.utils.bar;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -14,6 +17,7 @@ import java.util.Objects;
 import java.util.Set;
 
 import org.dromara.northstar.common.BarDataAware;
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.common.model.core.Bar;
 import org.dromara.northstar.common.model.core.Contract;
 import org.dromara.northstar.common.model.core.TimeSlot;
@@ -21,7 +25,10 @@ import org.dromara.northstar.common.utils.CommonUtils;
 import org.dromara.northstar.common.utils.DateTimeUtils;
 import org.dromara.northstar.strategy.MergedBarListener;
 
+import com.google.protobuf.InvalidProtocolBufferException;
+
 import lombok.extern.slf4j.Slf4j;
+import xyz.redtorch.pb.CoreField.BarField;
 
 /**
  * 分钟线合成器
@@ -29,7 +36,7 @@ import lombok.extern.slf4j.Slf4j;
  *
  */
 @Slf4j
-public class BarMerger implements BarDataAware{
+public class BarMerger implements BarDataAware, StateSnapshotAware{
 	
 	protected final Contract contract;
 	
@@ -198,6 +205,54 @@ public class BarMerger implements BarDataAware{
 		protoBar = null;
 	}
 	
+	/**
+	 * 写出合成进度：当前计算时间、截止时间与未完成的K线
+	 */
+	@Override
+	public synchronized void writeState(DataOutput out) throws IOException {
+		out.writeLong(curBarTimestamp);
+		out.writeBoolean(Objects.nonNull(cutoffDateTime));
+		if(Objects.nonNull(cutoffDateTime)) {
+			out.writeLong(cutoffDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+		}
+		writeBar(out, protoBar);
+	}
+	
+	@Override
+	public synchronized void readState(DataInput in) throws IOException {
+		long newCurBarTimestamp = in.readLong();
+		LocalDateTime newCutoffDateTime = in.readBoolean() 
+				? LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneId.systemDefault()) 
+				: null;
+		protoBar = readBar(in);
+		curBarTimestamp = newCurBarTimestamp;
+		cutoffDateTime = newCutoffDateTime;
+	}
+	
+	protected void writeBar(DataOutput out, Bar bar) throws IOException {
+		if(Objects.isNull(bar)) {
+			out.writeInt(0);
+			return;
+		}
+		byte[] data = bar.toBarField().toByteArray();
+		out.writeInt(data.length);
+		out.write(data);
+	}
+	
+	protected Bar readBar(DataInput in) throws IOException {
+		int len = in.readInt();
+		if(len == 0) {
+			return null;
+		}
+		byte[] data = new byte[len];
+		in.readFully(data);
+		try {
+			return Bar.of(BarField.parseFrom(data), contract);
+		} catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+			throw new IOException("无法还原未完成的K线", e);
+		}
+	}
+	
 	protected void doMerge(Bar bar) {
 		double high = protoBar.highPrice();
 		double low = protoBar.lowPrice();
@@ -1,12 +1,23 @@
 package org.dromara.northstar.support.utils.bar;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import org.dromara.northstar.common.BarDataAware;
+import org.dromara.northstar.common.StateSnapshotAware;
 import org.dromara.northstar.common.model.Identifier;
 import org.dromara.northstar.common.model.core.Bar;
 import org.dromara.northstar.common.model.core.Contract;
@@ -20,15 +31,17 @@ import org.dromara.northstar.strategy.MergedBarListener;
  * @author KevinHuangwl
  *
  */
-public class BarMergerRegistry implements BarDataAware{
+public class BarMergerRegistry implements BarDataAware, StateSnapshotAware{
 	
 	protected Map<Identifier, BarMerger> mergerMap = new HashMap<>();
 	protected Map<ListenerType, Set<BarMerger>> listenTypeMap = new EnumMap<>(ListenerType.class);
+	/* unifiedSymbol -> 该合约的合成器，已按 INDICATOR -> STRATEGY -> CONTEXT 的顺序排列 */
+	protected Map<String, BarMerger[]> contractMergerMap = new ConcurrentHashMap<>();
 	
 	public BarMergerRegistry() {
-		listenTypeMap.put(ListenerType.INDICATOR, new HashSet<>());
-		listenTypeMap.put(ListenerType.CONTEXT, new HashSet<>());
-		listenTypeMap.put(ListenerType.STRATEGY, new HashSet<>());
+		listenTypeMap.put(ListenerType.INDICATOR, new LinkedHashSet<>());
+		listenTypeMap.put(ListenerType.CONTEXT, new LinkedHashSet<>());
+		listenTypeMap.put(ListenerType.STRATEGY, new LinkedHashSet<>());
 	}
 	
 	public void addListener(Contract contract, int numOfUnit, PeriodUnit unit, MergedBarListener listener) {
@@ -46,10 +59,22 @@ public class BarMergerRegistry implements BarDataAware{
 			merger = makeBarMerger(contract, numOfUnit, unit);
 			mergerMap.put(identifier, merger);
 		}
-		listenTypeMap.get(type).add(merger);
+		if(listenTypeMap.get(type).add(merger)) {
+			reindex(contract.unifiedSymbol());
+		}
 		merger.addListener(listener);
 	}
 	
+	/*
+	 * 重建某个合约的合成器路由，保持 INDICATOR -> STRATEGY -> CONTEXT 的更新顺序
+	 */
+	private synchronized void reindex(String unifiedSymbol) {
+		contractMergerMap.put(unifiedSymbol, Stream.of(ListenerType.INDICATOR, ListenerType.STRATEGY, ListenerType.CONTEXT)
+				.flatMap(type -> listenTypeMap.get(type).stream())
+				.filter(merger -> merger.contract.unifiedSymbol().equals(unifiedSymbol))
+				.toArray(BarMerger[]::new));
+	}
+	
 	private Identifier makeIdentifier(ListenerType type, Contract contract, int numOfUnit, PeriodUnit unit) {
 		return Identifier.of(String.format("%s_%s_%d_%s", type, contract.unifiedSymbol(), numOfUnit, unit.symbol()));
 	}
@@ -65,12 +90,57 @@ public class BarMergerRegistry implements BarDataAware{
 
 	@Override
 	public void onBar(Bar bar) {
-		listenTypeMap.get(ListenerType.INDICATOR).forEach(merger -> merger.onBar(bar));
-		listenTypeMap.get(ListenerType.STRATEGY).forEach(merger -> merger.onBar(bar));
-		listenTypeMap.get(ListenerType.CONTEXT).forEach(merger -> merger.onBar(bar));
+		BarMerger[] mergers = contractMergerMap.get(bar.contract().unifiedSymbol());
+		if(mergers == null) {
+			return;
+		}
+		for(BarMerger merger : mergers) {
+			merger.onBar(bar);
+		}
 	}
 	
 	
+	/**
+	 * 按合成器标识的顺序写出全部合成器的进度
+	 */
+	@Override
+	public synchronized void writeState(DataOutput out) throws IOException {
+		List<Identifier> ids = mergerMap.keySet().stream().sorted((a, b) -> a.value().compareTo(b.value())).toList();
+		out.writeInt(ids.size());
+		for(Identifier id : ids) {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			mergerMap.get(id).writeState(new DataOutputStream(bos));
+			out.writeUTF(id.value());
+			out.writeInt(bos.size());
+			out.write(bos.toByteArray());
+		}
+	}
+	
+	/**
+	 * 快照中的合成器必须与当前注册的合成器一一对应，否则不恢复任何合成器
+	 */
+	@Override
+	public synchronized void readState(DataInput in) throws IOException {
+		int size = in.readInt();
+		if(size != mergerMap.size()) {
+			throw new IOException(String.format("K线合成器数量不一致。期望：%d，实际：%d", mergerMap.size(), size));
+		}
+		Map<BarMerger, byte[]> stateMap = new HashMap<>();
+		for(int i=0; i<size; i++) {
+			String id = in.readUTF();
+			byte[] data = new byte[in.readInt()];
+			in.readFully(data);
+			BarMerger merger = mergerMap.get(Identifier.of(id));
+			if(merger == null) {
+				throw new IOException("找不到K线合成器：" + id);
+			}
+			stateMap.put(merger, data);
+		}
+		for(Map.Entry<BarMerger, byte[]> e : stateMap.entrySet()) {
+			e.getKey().readState(new DataInputStream(new ByteArrayInputStream(e.getValue())));
+		}
+	}
+	
 	public enum ListenerType {
 		INDICATOR,
 		CONTEXT,
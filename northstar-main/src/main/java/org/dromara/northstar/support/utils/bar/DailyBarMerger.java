@@ -1,5 +1,8 @@
 package org.dromara.northstar.support.utils.bar;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
@@ -65,4 +68,17 @@ public class DailyBarMerger extends BarMerger{
 		}
 	}
 	
+	@Override
+	public synchronized void writeState(DataOutput out) throws IOException {
+		out.writeLong(cutoffTime);
+		writeBar(out, protoBar);
+	}
+	
+	@Override
+	public synchronized void readState(DataInput in) throws IOException {
+		long newCutoffTime = in.readLong();
+		protoBar = readBar(in);
+		cutoffTime = newCutoffTime;
+	}
+	
 }
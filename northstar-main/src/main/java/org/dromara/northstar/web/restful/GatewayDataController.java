@@ -13,6 +13,10 @@ import org.dromara.northstar.common.model.core.Bar;
 import org.dromara.northstar.common.utils.CommonUtils;
 import org.dromara.northstar.data.IGatewayRepository;
 import org.dromara.northstar.data.IMarketDataRepository;
+import org.dromara.northstar.event.BroadcastHandler;
+import org.dromara.northstar.event.BroadcastHandler.BroadcastStatus;
+import org.dromara.northstar.event.MarketDataHandler;
+import org.dromara.northstar.event.MarketDataHandler.IngestionStatus;
 import org.dromara.northstar.gateway.IContract;
 import org.dromara.northstar.gateway.IContractManager;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +42,12 @@ public class GatewayDataController {
 	@Autowired
 	private IContractManager contractMgr;
 	
+	@Autowired
+	private BroadcastHandler bcHandler;
+	
+	@Autowired
+	private MarketDataHandler mdHandler;
+	
 	@GetMapping("/bar/min")
 	public ResultBean<List<byte[]>> loadWeeklyBarData(String gatewayId, String unifiedSymbol, long refStartTimestamp, boolean firstLoad){
 		log.info("查询{} 1分钟数据，回溯时间{}，首次加载{}", unifiedSymbol, CommonUtils.millsToLocalDateTime(refStartTimestamp), firstLoad);
@@ -68,4 +78,22 @@ public class GatewayDataController {
 				.toList());
 	}
 	
+	/**
+	 * 行情推送统计（各房间的推送速率、合并与跳过数量）
+	 * @return
+	 */
+	@GetMapping("/broadcast/status")
+	public ResultBean<BroadcastStatus> getBroadcastStatus(){
+		return new ResultBean<>(bcHandler.status());
+	}
+	
+	/**
+	 * K线持久化统计（队列深度、背压与丢弃数量、写入批次）
+	 * @return
+	 */
+	@GetMapping("/ingestion/status")
+	public ResultBean<IngestionStatus> getIngestionStatus(){
+		return new ResultBean<>(mdHandler.status());
+	}
+	
 }
@@ -7,6 +7,7 @@ import java.time.LocalDate;
 import org.dromara.northstar.common.constant.DateTimeConstant;
 import org.dromara.northstar.common.model.LogDescription;
 import org.dromara.northstar.common.model.ResultBean;
+import org.dromara.northstar.support.log.ModuleLogDispatcher.DispatcherStatus;
 import org.dromara.northstar.web.service.LogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.logging.LogLevel;
@@ -49,6 +50,15 @@ public class LogController {
 		return new ResultBean<>(service.getPlatformLogLevel());
 	}
 	
+	/**
+	 * 模组日志异步分发统计（含丢弃的日志数量）
+	 * @return
+	 */
+	@GetMapping("/module/status")
+	public ResultBean<DispatcherStatus> getModuleLogStatus(){
+		return new ResultBean<>(service.getModuleLogStatus());
+	}
+	
 	@PutMapping("/{moduleName}/level")
 	public ResultBean<Void> setModuleLogLevel(@PathVariable String moduleName, LogLevel level){
 		service.setModuleLogLevel(moduleName, level);
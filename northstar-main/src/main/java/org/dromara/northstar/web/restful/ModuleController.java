@@ -11,6 +11,7 @@ import org.dromara.northstar.common.model.ModuleDealRecord;
 import org.dromara.northstar.common.model.ModuleDescription;
 import org.dromara.northstar.common.model.ModuleRuntimeDescription;
 import org.dromara.northstar.common.model.ResultBean;
+import org.dromara.northstar.module.ModuleEventLane.ModuleLaneStatus;
 import org.dromara.northstar.support.utils.NamingValidator;
 import org.dromara.northstar.web.service.ModuleService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -124,6 +125,31 @@ public class ModuleController {
 		return new ResultBean<>(service.getModuleRealTimeInfo(name));
 	}
 	
+	/**
+	 * 增量获取模组图表数据（列式二进制编码）
+	 * @param name
+	 * @param unifiedSymbol
+	 * @param since		客户端已有的最新K线时间戳，首次查询传0
+	 * @return
+	 */
+	@GetMapping("/rt/chart")
+	public ResultBean<byte[]> getModuleChartData(String name, String unifiedSymbol, long since){
+		Assert.notNull(name, "模组名称不能为空");
+		Assert.hasText(unifiedSymbol, "合约编码不能为空");
+		return new ResultBean<>(service.getModuleChartData(name, unifiedSymbol, since));
+	}
+	
+	/**
+	 * 获取模组事件通道状态（排队事件数与延迟）
+	 * @param name
+	 * @return
+	 */
+	@GetMapping("/rt/lane")
+	public ResultBean<ModuleLaneStatus> getModuleLaneStatus(String name){
+		Assert.notNull(name, "模组名称不能为空");
+		return new ResultBean<>(service.getModuleLaneStatus(name));
+	}
+	
 	/**
 	 * 获取模组持仓状态
 	 * @param name
@@ -11,6 +11,8 @@ import org.dromara.northstar.common.model.Identifier;
 import org.dromara.northstar.common.model.LogDescription;
 import org.dromara.northstar.module.ModuleManager;
 import org.dromara.northstar.strategy.IModule;
+import org.dromara.northstar.support.log.ModuleLogDispatcher;
+import org.dromara.northstar.support.log.ModuleLogDispatcher.DispatcherStatus;
 import org.springframework.boot.logging.LogLevel;
 import org.springframework.boot.logging.LoggingSystem;
 
@@ -26,9 +28,12 @@ public class LogService {
 	
 	private ModuleManager moduleMgr;
 	
-	public LogService(LoggingSystem logginSystem, ModuleManager moduleMgr) {
+	private ModuleLogDispatcher moduleLogDispatcher;
+	
+	public LogService(LoggingSystem logginSystem, ModuleManager moduleMgr, ModuleLogDispatcher moduleLogDispatcher) {
 		this.loggingSystem = logginSystem;
 		this.moduleMgr = moduleMgr;
+		this.moduleLogDispatcher = moduleLogDispatcher;
 	}
 	
 	public LogDescription tailLogFile(File logFile, long positionOffset, int tailNumOfLines) throws IOException {
@@ -66,6 +71,10 @@ public class LogService {
 		return loggingSystem.getLoggerConfiguration(NORTHSTAR_ROOT).getEffectiveLevel();
 	}
 	
+	public DispatcherStatus getModuleLogStatus() {
+		return moduleLogDispatcher.status();
+	}
+	
 	public LogLevel getModuleLogLevel(String moduleName) {
 		IModule module = moduleMgr.get(Identifier.of(moduleName));
 		Logger logger = (Logger) module.getModuleContext().getLoggerFactory().getLogger(Logger.ROOT_LOGGER_NAME);
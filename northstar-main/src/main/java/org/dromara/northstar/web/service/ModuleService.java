@@ -1,13 +1,16 @@
 package org.dromara.northstar.web.service;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -45,7 +48,9 @@ import org.dromara.northstar.gateway.contract.OptionChainContract;
 import org.dromara.northstar.gateway.mktdata.DataSourceDataLoader;
 import org.dromara.northstar.module.ArbitrageModuleContext;
 import org.dromara.northstar.module.ModuleContext;
+import org.dromara.northstar.module.ModuleEventLane.ModuleLaneStatus;
 import org.dromara.northstar.module.ModuleManager;
+import org.dromara.northstar.module.ModuleSnapshotStore;
 import org.dromara.northstar.module.PlaybackModuleContext;
 import org.dromara.northstar.module.TradeModule;
 import org.dromara.northstar.strategy.DynamicParamsAware;
@@ -84,10 +89,13 @@ public class ModuleService implements IModuleService, PostLoadAware {
 	private IMarketDataRepository mdRepo;
 
 	private AccountManager accountMgr;
+	
+	private ModuleSnapshotStore snapshotStore;
 
 	public ModuleService(ApplicationContext ctx, IModuleRepository moduleRepo, IMarketDataRepository mdRepo,
-						 ModuleManager moduleMgr, IContractManager contractMgr, AccountManager accountMgr) {
+						 ModuleManager moduleMgr, IContractManager contractMgr, AccountManager accountMgr, ModuleSnapshotStore snapshotStore) {
 		this.ctx = ctx;
+		this.snapshotStore = snapshotStore;
 		this.moduleMgr = moduleMgr;
 		this.contractMgr = contractMgr;
 		this.moduleRepo = moduleRepo;
@@ -210,6 +218,7 @@ public class ModuleService implements IModuleService, PostLoadAware {
 		unloadModule(name);
 		moduleRepo.deleteRuntimeByName(name);
 		moduleRepo.removeAllDealRecords(name);
+		snapshotStore.delete(name);
 		return true;
 	}
 
@@ -254,6 +263,12 @@ public class ModuleService implements IModuleService, PostLoadAware {
 		final IModuleContext mctx = moduleCtx;
 		if(md.getUsage() != ModuleUsage.PLAYBACK && weeksOfDataForPreparation > 0) {
 			// 只有在非回测状态下，才需要预热数据
+			// 能恢复状态快照时，只回放快照之后的K线（往前多取一天，覆盖夜盘跨自然日的情况，重复的K线会被模组过滤）
+			long notBefore = date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+			OptionalLong snapshotTime = moduleCtx instanceof ModuleContext mc ? snapshotStore.restore(mc, md, notBefore) : OptionalLong.empty();
+			LocalDate from = snapshotTime.isPresent() 
+					? LocalDate.ofInstant(Instant.ofEpochMilli(snapshotTime.getAsLong()), ZoneId.systemDefault()).minusDays(1) 
+					: date;
 			for(ModuleAccountDescription mad : md.getModuleAccountSettingsDescription()) {
 				for(ContractSimpleInfo csi : mad.getBindedContracts()) {
 					IContract c = contractMgr.getContract(Identifier.of(csi.getValue()));
@@ -262,9 +277,9 @@ public class ModuleService implements IModuleService, PostLoadAware {
 					DataSourceDataLoader dataLoader = new DataSourceDataLoader(dataSrc);
 					if(c instanceof OptionChainContract) {
 						// 对于期权链合约，要加载的是成员合约
-						c.memberContracts().parallelStream().forEach(rc -> loadDataForInit(rc, dataLoader, weeksOfDataForPreparation, mctx));
+						c.memberContracts().parallelStream().forEach(rc -> loadDataForInit(rc, dataLoader, from, mctx));
 					} else {
-						loadDataForInit(c, dataLoader, weeksOfDataForPreparation, mctx);
+						loadDataForInit(c, dataLoader, from, mctx);
 					}
 				}
 			}
@@ -274,8 +289,7 @@ public class ModuleService implements IModuleService, PostLoadAware {
 		moduleCtx.onReady();
 	}
 	
-	private void loadDataForInit(IContract c, DataSourceDataLoader loader, int weeks, IModuleContext mctx) {
-		LocalDate from = LocalDate.now().minusWeeks(weeks);
+	private void loadDataForInit(IContract c, DataSourceDataLoader loader, LocalDate from, IModuleContext mctx) {
 		LocalDate to = LocalDate.now();
 		loader.loadMinutelyData(c.contract(), from, to, bars -> mctx.initData(bars.reversed()));
 		// 本地仅加载最近的数据
@@ -332,6 +346,38 @@ public class ModuleService implements IModuleService, PostLoadAware {
 		return module.getRuntimeDescription();
 	}
 
+	/**
+	 * 模组图表数据增量
+	 * @param name
+	 * @param unifiedSymbol
+	 * @param sinceTimestamp	只返回时间戳大于该值的K线
+	 * @return
+	 */
+	public byte[] getModuleChartData(String name, String unifiedSymbol, long sinceTimestamp) {
+		IModule module = moduleMgr.get(Identifier.of(name));
+		if(Objects.isNull(module)) {
+			log.warn("没有找到模组：{}", name);
+			return null;
+		}
+		if(module.getModuleContext() instanceof ModuleContext ctx) {
+			return ctx.getChartData(unifiedSymbol, sinceTimestamp);
+		}
+		return null;
+	}
+
+	/**
+	 * 模组事件通道状态
+	 * @param name
+	 * @return
+	 */
+	public ModuleLaneStatus getModuleLaneStatus(String name) {
+		ModuleLaneStatus status = moduleMgr.getLaneStatus(Identifier.of(name));
+		if(Objects.isNull(status)) {
+			log.warn("没有找到模组：{}", name);
+		}
+		return status;
+	}
+
 	/**
 	 * 模组持仓状态
 	 * @param name
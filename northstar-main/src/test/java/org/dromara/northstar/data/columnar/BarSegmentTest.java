@@ -0,0 +1,138 @@
+package org.dromara.northstar.data.columnar;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dromara.northstar.common.constant.ChannelType;
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BarSegmentTest {
+
+	@TempDir
+	Path dir;
+
+	Contract c = Contract.builder().unifiedSymbol("rb2410@SHFE@FUTURES").gatewayId("CTP").build();
+
+	LocalDate tradingDay = LocalDate.of(2024, 3, 15);
+
+	private Bar bar(int i) {
+		return Bar.builder()
+				.gatewayId("CTP")
+				.contract(c)
+				.actionDay(tradingDay)
+				.actionTime(LocalTime.of(9, 0).plusMinutes(i))
+				.tradingDay(tradingDay)
+				.actionTimestamp(1710464400000L + i * 60000L)
+				.openPrice(3000 + i)
+				.highPrice(3010 + i)
+				.lowPrice(2990 + i)
+				.closePrice(3005 + i)
+				.openInterest(10000 + i)
+				.openInterestDelta(i)
+				.volume(500L * i)
+				.volumeDelta(500)
+				.turnover(1.5e6 * i)
+				.turnoverDelta(1.5e6)
+				.preOpenInterest(9000)
+				.preClosePrice(2980)
+				.preSettlePrice(2985)
+				.channelType(ChannelType.SIM)
+				.build();
+	}
+
+	@Test
+	void testAppendAndReopen() {
+		Path file = dir.resolve("seg.bar");
+		try(BarSegment segment = BarSegment.create(file, tradingDay, 123L, "CTP", ChannelType.SIM)) {
+			for(int i=0; i<10; i++) {
+				segment.append(bar(i));
+			}
+			assertThat(segment.size()).isEqualTo(10);
+			assertThat(segment.getBar(3, c)).isEqualTo(bar(3));
+		}
+
+		BarSegment reopened = BarSegment.open(file);
+		assertThat(reopened.size()).isEqualTo(10);
+		assertThat(reopened.expiredAt()).isEqualTo(123L);
+		assertThat(reopened.tradingDay()).isEqualTo(tradingDay);
+		assertThat(reopened.gatewayId()).isEqualTo("CTP");
+		assertThat(reopened.channelType()).isEqualTo(ChannelType.SIM);
+		for(int i=0; i<10; i++) {
+			assertThat(reopened.getBar(i, c)).isEqualTo(bar(i));
+		}
+	}
+
+	@Test
+	void testGrowBeyondInitialCapacity() {
+		int n = BarSegment.INITIAL_CAPACITY * 2 + 5;
+		BarSegment segment = BarSegment.create(dir.resolve("grow.bar"), tradingDay, 0, "CTP", ChannelType.SIM);
+		for(int i=0; i<n; i++) {
+			segment.append(bar(i).toBuilder().actionTime(LocalTime.MIDNIGHT).build());
+		}
+		assertThat(segment.size()).isEqualTo(n);
+		assertThat(segment.getDouble(BarColumn.CLOSE_PRICE, 0)).isEqualTo(3005);
+		assertThat(segment.getDouble(BarColumn.CLOSE_PRICE, n - 1)).isEqualTo(3005 + n - 1);
+		assertThat(BarSegment.open(dir.resolve("grow.bar")).getLong(BarColumn.VOLUME, n - 1)).isEqualTo(500L * (n - 1));
+	}
+
+	@Test
+	void testColumnViews() {
+		BarSegment segment = BarSegment.create(dir.resolve("view.bar"), tradingDay, 0, "CTP", ChannelType.SIM);
+		for(int i=0; i<5; i++) {
+			segment.append(bar(i));
+		}
+		DoubleBuffer closes = segment.doubleColumn(BarColumn.CLOSE_PRICE);
+		LongBuffer timestamps = segment.longColumn(BarColumn.ACTION_TIMESTAMP);
+		assertThat(closes.remaining()).isEqualTo(5);
+		assertThat(closes.isReadOnly()).isTrue();
+		for(int i=0; i<5; i++) {
+			assertThat(closes.get(i)).isEqualTo(3005 + i);
+			assertThat(timestamps.get(i)).isEqualTo(bar(i).actionTimestamp());
+		}
+		assertThrows(IllegalArgumentException.class, () -> segment.doubleColumn(BarColumn.VOLUME));
+		assertThrows(IllegalArgumentException.class, () -> segment.getLong(BarColumn.VOLUME, 5));
+	}
+
+	@Test
+	void testRejectOtherTradingDay() {
+		BarSegment segment = BarSegment.create(dir.resolve("day.bar"), tradingDay, 0, "CTP", ChannelType.SIM);
+		assertThrows(IllegalArgumentException.class, () -> segment.append(bar(0).toBuilder().tradingDay(tradingDay.plusDays(1)).build()));
+	}
+
+	@Test
+	void testReadWhileGrowing() throws InterruptedException {
+		int n = BarSegment.INITIAL_CAPACITY * 4;
+		BarSegment segment = BarSegment.create(dir.resolve("concurrent.bar"), tradingDay, 0, "CTP", ChannelType.SIM);
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicInteger mismatches = new AtomicInteger();
+		Thread reader = Thread.ofVirtual().start(() -> {
+			while(!done.get()) {
+				int size = segment.size();
+				if(size == 0) {
+					continue;
+				}
+				int i = size - 1;
+				if(segment.getDouble(BarColumn.CLOSE_PRICE, i) != 3005 + i || segment.getLong(BarColumn.VOLUME, i) != 500L * i) {
+					mismatches.incrementAndGet();
+				}
+			}
+		});
+		for(int i=0; i<n; i++) {
+			segment.append(bar(i).toBuilder().actionTime(LocalTime.MIDNIGHT).build());
+		}
+		done.set(true);
+		reader.join();
+		assertThat(mismatches.get()).isZero();
+	}
+}
@@ -0,0 +1,160 @@
+package org.dromara.northstar.data.columnar;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.dromara.northstar.common.constant.ChannelType;
+import org.dromara.northstar.common.constant.DateTimeConstant;
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.data.jdbc.MarketDataRepository;
+import org.dromara.northstar.data.jdbc.entity.BarDO;
+import org.dromara.northstar.gateway.IContract;
+import org.dromara.northstar.gateway.IContractManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest
+class ColumnarMarketDataRepoAdapterTest {
+
+	@TempDir
+	Path dir;
+
+	@Autowired
+	MarketDataRepository delegate;
+
+	ColumnarBarStore store;
+
+	ColumnarMarketDataRepoAdapter repo;
+
+	IContract contract = mock(IContract.class);
+
+	Contract c = Contract.builder().unifiedSymbol("rb2210@SHFE@FUTURES").build();
+
+	LocalDate today = LocalDate.now();
+
+	private Bar bar(LocalDate tradingDay, int minute) {
+		return Bar.builder()
+				.gatewayId("CTP")
+				.contract(c)
+				.actionDay(tradingDay)
+				.actionTime(LocalTime.of(21, minute))
+				.tradingDay(tradingDay)
+				.actionTimestamp(System.currentTimeMillis())
+				.openPrice(1)
+				.highPrice(2)
+				.lowPrice(3)
+				.closePrice(4 + minute)
+				.volume(7)
+				.volumeDelta(8)
+				.channelType(ChannelType.SIM)
+				.build();
+	}
+
+	@BeforeEach
+	void prepare() {
+		IContractManager contractMgr = mock(IContractManager.class);
+		when(contract.contract()).thenReturn(c);
+		when(contractMgr.getContract(any(ChannelType.class), anyString())).thenReturn(contract);
+		store = new ColumnarBarStore(dir);
+		repo = new ColumnarMarketDataRepoAdapter(store, contractMgr);
+	}
+
+	@Test
+	void testInsertAndLoad() {
+		List<Bar> bars = List.of(bar(today, 0), bar(today, 1), bar(today.plusDays(3), 0));
+		bars.forEach(repo::insert);
+
+		assertThat(repo.loadBars(contract, today.minusDays(1), today.plusDays(7))).containsExactlyElementsOf(bars);
+		assertThat(repo.loadBars(contract, today.plusDays(1), today.plusDays(7))).containsExactly(bars.get(2));
+		assertThat(repo.loadBars(contract, today.plusDays(4), today.plusDays(7))).isEmpty();
+	}
+
+	@Test
+	void testDeleteExpired() {
+		repo.insert(bar(today.minusDays(2), 0));
+		repo.insert(bar(today.plusDays(2), 0));
+		repo.deleteExpiredBefore(ColumnarMarketDataRepoAdapter.expiredAtOf(today));
+
+		assertThat(repo.loadBars(contract, today.minusDays(7), today.plusDays(7))).hasSize(1)
+			.allMatch(bar -> bar.tradingDay().equals(today.plusDays(2)));
+	}
+
+	@Test
+	void testMigrateFromBarTable() {
+		Bar b1 = bar(today.plusDays(1), 0);
+		Bar b2 = bar(today.plusDays(1), 1);
+		Bar expired = bar(today.minusDays(5), 0);
+		for(Bar b : List.of(b1, b2, expired)) {
+			delegate.save(BarDO.builder()
+					.unifiedSymbol(b.contract().unifiedSymbol())
+					.tradingDay(b.tradingDay().toString())
+					.expiredAt(ColumnarMarketDataRepoAdapter.expiredAtOf(b.tradingDay()))
+					.barData(b.toBarField().toByteArray())
+					.build());
+		}
+
+		BarTableMigration migration = new BarTableMigration(delegate, store);
+		assertThat(migration.migrate(System.currentTimeMillis())).isEqualTo(2);
+		assertThat(delegate.count()).isZero();
+		assertThat(repo.loadBars(contract, today.minusDays(7), today.plusDays(7))).containsExactly(b1, b2);
+
+		// 重复执行不会产生重复数据
+		delegate.save(BarDO.builder()
+				.unifiedSymbol(b1.contract().unifiedSymbol())
+				.tradingDay(b1.tradingDay().toString())
+				.expiredAt(ColumnarMarketDataRepoAdapter.expiredAtOf(b1.tradingDay()))
+				.barData(b1.toBarField().toByteArray())
+				.build());
+		assertThat(migration.migrate(System.currentTimeMillis())).isZero();
+		assertThat(repo.loadBars(contract, today.minusDays(7), today.plusDays(7))).hasSize(2);
+	}
+
+	@Test
+	void testRerunAfterInterruptedMigration() {
+		Bar b1 = bar(today.plusDays(1), 0);
+		Bar b2 = bar(today.plusDays(1), 1);
+		List.of(b1, b2).forEach(this::saveRow);
+		// 模拟上次迁移写到一半时中断，只留下暂存文件
+		Path file = dir.resolve(c.unifiedSymbol()).resolve(b1.tradingDay().format(DateTimeConstant.D_FORMAT_INT_FORMATTER) + ColumnarBarStore.SUFFIX);
+		try(BarSegment partial = BarSegment.create(file.resolveSibling(file.getFileName() + ColumnarBarStore.STAGING_SUFFIX), 
+				b1.tradingDay(), 0, "CTP", ChannelType.SIM)) {
+			partial.append(b1);
+		}
+
+		assertThat(new BarTableMigration(delegate, store).migrate(System.currentTimeMillis())).isEqualTo(2);
+		assertThat(delegate.count()).isZero();
+		assertThat(repo.loadBars(contract, today.minusDays(7), today.plusDays(7))).containsExactly(b1, b2);
+	}
+
+	@Test
+	void testKeepRowsNotConfirmedInColumnarStore() {
+		Bar b1 = bar(today.plusDays(1), 0);
+		Bar b2 = bar(today.plusDays(1), 1);
+		List.of(b1, b2).forEach(this::saveRow);
+		repo.insert(b1);
+
+		assertThat(new BarTableMigration(delegate, store).migrate(System.currentTimeMillis())).isZero();
+		assertThat(delegate.count()).isEqualTo(2);
+	}
+
+	private void saveRow(Bar b) {
+		delegate.save(BarDO.builder()
+				.unifiedSymbol(b.contract().unifiedSymbol())
+				.tradingDay(b.tradingDay().toString())
+				.expiredAt(ColumnarMarketDataRepoAdapter.expiredAtOf(b.tradingDay()))
+				.barData(b.toBarField().toByteArray())
+				.build());
+	}
+}
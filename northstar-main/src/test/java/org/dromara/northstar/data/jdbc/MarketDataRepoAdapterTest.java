@@ -101,4 +101,15 @@ class MarketDataRepoAdapterTest {
 		assertThat(results.get(2)).isEqualTo(bar3);
 	}
 
+	@Test
+	void testInsertAll() {
+		IContract contract = mock(IContract.class);
+		when(contract.contract()).thenReturn(c);
+
+		repo.insertAll(List.of(bar1, bar2, bar3));
+
+		assertThat(delegate.count()).isEqualTo(3);
+		assertThat(repo.loadBars(contract, LocalDate.now(), LocalDate.now().plusDays(7))).containsExactly(bar1, bar2, bar3);
+	}
+
 }
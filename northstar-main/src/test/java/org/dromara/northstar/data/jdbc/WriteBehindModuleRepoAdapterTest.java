@@ -0,0 +1,129 @@
+package org.dromara.northstar.data.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.dromara.northstar.common.model.ModuleAccountRuntimeDescription;
+import org.dromara.northstar.common.model.ModuleRuntimeDescription;
+import org.dromara.northstar.data.jdbc.entity.ModuleRuntimeDescriptionDO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WriteBehindModuleRepoAdapterTest {
+
+	ModuleRuntimeDescriptionRepository mrdDelegate = mock(ModuleRuntimeDescriptionRepository.class);
+
+	List<List<ModuleRuntimeDescriptionDO>> batches = new ArrayList<>();
+
+	WriteBehindModuleRepoAdapter repo;
+
+	@SuppressWarnings("unchecked")
+	@BeforeEach
+	void prepare() {
+		when(mrdDelegate.saveAll(any())).thenAnswer(inv -> {
+			List<ModuleRuntimeDescriptionDO> batch = new ArrayList<>();
+			((Iterable<ModuleRuntimeDescriptionDO>) inv.getArgument(0)).forEach(batch::add);
+			batches.add(batch);
+			return batch;
+		});
+		// 间隔足够长，测试过程中后台线程不会触发写入
+		repo = new WriteBehindModuleRepoAdapter(mock(ModuleDescriptionRepository.class), mrdDelegate, mock(ModuleDealRecordRepository.class), Duration.ofHours(1));
+	}
+
+	@AfterEach
+	void cleanup() {
+		repo.destroy();
+	}
+
+	private ModuleRuntimeDescription mrd(String moduleName, double balance) {
+		return ModuleRuntimeDescription.builder()
+				.moduleName(moduleName)
+				.moduleAccountRuntime(ModuleAccountRuntimeDescription.builder().initBalance(balance).build())
+				.build();
+	}
+
+	@Test
+	void testCoalesceLatestPerModule() {
+		for(int i=1; i<=10; i++) {
+			repo.saveRuntime(mrd("m1", i), false);
+			repo.saveRuntime(mrd("m2", i * 10), false);
+		}
+		verify(mrdDelegate, never()).saveAll(any());
+		assertThat(repo.pendingCount()).isEqualTo(2);
+		// 未写入前可以查到最新状态
+		assertThat(repo.findRuntimeByName("m1").getModuleAccountRuntime().getInitBalance()).isEqualTo(10);
+
+		repo.flush();
+		assertThat(batches).hasSize(1);
+		assertThat(batches.get(0)).extracting(ModuleRuntimeDescriptionDO::getModuleName).containsExactlyInAnyOrder("m1", "m2");
+		assertThat(batches.get(0)).filteredOn(obj -> obj.getModuleName().equals("m2")).singleElement()
+			.extracting(obj -> obj.convertTo().getModuleAccountRuntime().getInitBalance()).isEqualTo(100.0);
+		assertThat(repo.pendingCount()).isZero();
+	}
+
+	@Test
+	void testDurableSaveFlushesImmediately() {
+		repo.saveRuntime(mrd("m1", 1), false);
+		repo.saveRuntime(mrd("m2", 2), true);
+		assertThat(batches).hasSize(1);
+		assertThat(batches.get(0)).hasSize(2);
+
+		repo.saveRuntime(mrd("m3", 3));
+		assertThat(batches).hasSize(2);
+	}
+
+	@Test
+	void testPeriodicFlush() {
+		repo.destroy();
+		repo = new WriteBehindModuleRepoAdapter(mock(ModuleDescriptionRepository.class), mrdDelegate, mock(ModuleDealRecordRepository.class), Duration.ofMillis(20));
+		repo.saveRuntime(mrd("m1", 1), false);
+		verify(mrdDelegate, timeout(5000)).saveAll(any());
+		assertThat(repo.pendingCount()).isZero();
+	}
+
+	@Test
+	void testDeleteDropsPending() {
+		repo.saveRuntime(mrd("m1", 1), false);
+		repo.deleteRuntimeByName("m1");
+		verify(mrdDelegate).deleteById("m1");
+		repo.flush();
+		verify(mrdDelegate, never()).saveAll(any());
+	}
+
+	@Test
+	void testFindFallsBackToStore() {
+		when(mrdDelegate.findById(anyString())).thenReturn(Optional.of(ModuleRuntimeDescriptionDO.convertFrom(mrd("m1", 5))));
+		assertThat(repo.findRuntimeByName("m1").getModuleAccountRuntime().getInitBalance()).isEqualTo(5);
+	}
+
+	@Test
+	void testRetryAfterFailure() {
+		doThrow(new IllegalStateException("db down")).when(mrdDelegate).saveAll(any());
+		repo.saveRuntime(mrd("m1", 1), false);
+		repo.flush();
+		assertThat(repo.pendingCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testFlushOnShutdown() {
+		repo.saveRuntime(mrd("m1", 1), false);
+		repo.destroy();
+		assertThat(batches).hasSize(1);
+		// 关闭后的保存直接写入
+		repo.saveRuntime(mrd("m2", 1), false);
+		assertThat(batches).hasSize(2);
+	}
+}
@@ -0,0 +1,148 @@
+package org.dromara.northstar.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.dromara.northstar.common.constant.ChannelType;
+import org.dromara.northstar.common.event.NorthstarEvent;
+import org.dromara.northstar.common.event.NorthstarEventType;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.common.model.core.Tick;
+import org.dromara.northstar.event.BroadcastHandler.RoomStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.corundumstudio.socketio.BroadcastOperations;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+
+import xyz.redtorch.pb.CoreField.TickField;
+
+class BroadcastHandlerTest {
+
+	static final String ROOM = "rb2410@SHFE@FUTURES@CTP";
+
+	Contract c = Contract.builder().unifiedSymbol("rb2410@SHFE@FUTURES").gatewayId("CTP").build();
+
+	SocketIOServer socketServer = mock(SocketIOServer.class);
+
+	BroadcastOperations roomOps = mock(BroadcastOperations.class);
+
+	SocketIOClient client = mock(SocketIOClient.class);
+
+	BroadcastHandler handler;
+
+	@BeforeEach
+	void prepare() {
+		when(socketServer.getRoomOperations(ROOM)).thenReturn(roomOps);
+		when(client.getSessionId()).thenReturn(UUID.randomUUID());
+	}
+
+	@AfterEach
+	void cleanup() throws Exception {
+		handler.destroy();
+	}
+
+	private NorthstarEvent tickEvent(double price) {
+		Tick tick = Tick.builder()
+				.contract(c)
+				.actionDay(LocalDate.now())
+				.actionTime(LocalTime.now())
+				.tradingDay(LocalDate.now())
+				.lastPrice(price)
+				.bidPrice(List.of())
+				.askPrice(List.of())
+				.bidVolume(List.of())
+				.askVolume(List.of())
+				.channelType(ChannelType.CTP)
+				.build();
+		return new NorthstarEvent(NorthstarEventType.TICK, tick);
+	}
+
+	private RoomStatus roomStatus() {
+		return handler.status().rooms().stream().filter(rs -> rs.room().equals(ROOM)).findAny().orElseThrow();
+	}
+
+	private void awaitSkipped(long count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while(handler.status().skippedCount() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+	}
+
+	@Test
+	void testSkipRoomWithoutListener() throws Exception {
+		handler = new BroadcastHandler(socketServer, 0);
+		handler.afterPropertiesSet();
+		handler.onEvent(tickEvent(1));
+		// 行情由工作线程异步推送，需要等它处理完再改变房间状态
+		awaitSkipped(1);
+		handler.login(client, ROOM);
+		handler.logout(client, ROOM);
+		handler.onEvent(tickEvent(2));
+		awaitSkipped(2);
+
+		assertThat(handler.status().skippedCount()).isEqualTo(2);
+		assertThat(roomStatus().listeners()).isZero();
+		verify(socketServer, never()).getRoomOperations(anyString());
+	}
+
+	@Test
+	void testSendBinaryFrame() throws Exception {
+		handler = new BroadcastHandler(socketServer, 0);
+		handler.afterPropertiesSet();
+		handler.login(client, ROOM);
+		handler.onEvent(tickEvent(3000));
+
+		ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+		verify(roomOps, timeout(5000)).sendEvent(eq("TICK"), captor.capture());
+		assertThat(captor.getValue()).isInstanceOf(byte[].class);
+		assertThat(TickField.parseFrom((byte[]) captor.getValue()).getLastPrice()).isEqualTo(3000);
+		assertThat(roomStatus().sentCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testConflateTicks() throws Exception {
+		handler = new BroadcastHandler(socketServer, 1);
+		handler.login(client, ROOM);
+		for(int i=1; i<=5; i++) {
+			handler.onEvent(tickEvent(i));
+		}
+		handler.afterPropertiesSet();
+
+		ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+		verify(roomOps, timeout(5000)).sendEvent(eq("TICK"), captor.capture());
+		assertThat(TickField.parseFrom((byte[]) captor.getValue()).getLastPrice()).isEqualTo(5);
+		assertThat(roomStatus().conflatedCount()).isEqualTo(4);
+		assertThat(roomStatus().sentCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testDisconnectReleasesRooms() throws Exception {
+		handler = new BroadcastHandler(socketServer, 0);
+		handler.afterPropertiesSet();
+		handler.login(client, ROOM);
+		handler.login(client, ROOM);
+		assertThat(roomStatus().listeners()).isEqualTo(1);
+
+		handler.onDisconnect(client);
+		handler.onEvent(tickEvent(1));
+		awaitSkipped(1);
+		assertThat(roomStatus().listeners()).isZero();
+		verify(roomOps, never()).sendEvent(anyString(), any());
+	}
+}
@@ -0,0 +1,130 @@
+package org.dromara.northstar.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dromara.northstar.common.event.FastEventEngine.NorthstarEventDispatcher;
+import org.dromara.northstar.common.event.NorthstarEventType;
+import org.dromara.northstar.event.DisruptorFastEventEngine.WaitStrategyEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DisruptorFastEventEngineTest {
+
+	DisruptorFastEventEngine engine;
+
+	@AfterEach
+	void tearDown() throws Exception {
+		engine.destroy();
+	}
+
+	@Test
+	void testDependentHandlerRunsAfterDependency() throws Exception {
+		engine = new DisruptorFastEventEngine(WaitStrategyEnum.BlockingWaitStrategy);
+		List<String> trace = new CopyOnWriteArrayList<>();
+		CountDownLatch done = new CountDownLatch(100);
+		NorthstarEventDispatcher upstream = (e, seq, end) -> {
+			Thread.sleep(1);
+			trace.add("up" + e.getData());
+		};
+		NorthstarEventDispatcher downstream = (e, seq, end) -> {
+			assertThat(trace).contains("up" + e.getData());
+			done.countDown();
+		};
+		engine.addHandler(upstream);
+		engine.addHandler(downstream, upstream);
+		for(int i=0; i<100; i++) {
+			engine.emitEvent(NorthstarEventType.TICK, i);
+		}
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void testIndependentHandlerNotBlocked() throws Exception {
+		engine = new DisruptorFastEventEngine(WaitStrategyEnum.YieldingWaitStrategy);
+		CountDownLatch gate = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(10);
+		engine.addHandler((e, seq, end) -> gate.await());
+		engine.addHandler((e, seq, end) -> done.countDown());
+		for(int i=0; i<10; i++) {
+			engine.emitEvent(NorthstarEventType.TICK, i);
+		}
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		gate.countDown();
+	}
+
+	@Test
+	void testUnregisteredDependency() throws Exception {
+		engine = new DisruptorFastEventEngine(WaitStrategyEnum.TimeoutBlockingWaitStrategy);
+		NorthstarEventDispatcher unknown = (e, seq, end) -> {};
+		assertThatThrownBy(() -> engine.addHandler((e, seq, end) -> {}, unknown)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void testAwaitIdleCoversDerivedAndAsyncEvents() throws Exception {
+		engine = new DisruptorFastEventEngine(WaitStrategyEnum.BlockingWaitStrategy);
+		ExecutorService worker = Executors.newSingleThreadExecutor();
+		AtomicInteger barCount = new AtomicInteger();
+		engine.addIdleBarrier(() -> CompletableFuture.runAsync(() -> {}, worker));
+		// TICK交给异步工作线程处理，工作线程再派生BAR事件
+		engine.addHandler((e, seq, end) -> {
+			if(e.getEvent() == NorthstarEventType.TICK) {
+				worker.execute(() -> {
+					try {
+						Thread.sleep(2);
+						engine.emitEvent(NorthstarEventType.BAR, e.getData());
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			} else {
+				barCount.incrementAndGet();
+			}
+		});
+		for(int i=0; i<20; i++) {
+			engine.emitEvent(NorthstarEventType.TICK, i);
+			engine.awaitIdle();
+			assertThat(barCount.get()).isEqualTo(i + 1);
+		}
+		worker.shutdown();
+	}
+
+	@Test
+	void testAwaitIdleWithoutHandlers() throws Exception {
+		engine = new DisruptorFastEventEngine(WaitStrategyEnum.BlockingWaitStrategy);
+		engine.emitEvent(NorthstarEventType.TICK, 1);
+		engine.awaitIdle();
+	}
+
+	@Test
+	void testAwaitIdleNotStarvedByOtherProducers() throws Exception {
+		engine = new DisruptorFastEventEngine(WaitStrategyEnum.BlockingWaitStrategy);
+		engine.addHandler((e, seq, end) -> {});
+		Thread producer = Thread.ofVirtual().start(() -> {
+			while(!Thread.currentThread().isInterrupted()) {
+				engine.emitEvent(NorthstarEventType.TICK, 0);
+			}
+		});
+		try {
+			CompletableFuture<Void> idle = CompletableFuture.runAsync(() -> {
+				try {
+					engine.awaitIdle();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			idle.get(5, TimeUnit.SECONDS);
+		} finally {
+			producer.interrupt();
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package org.dromara.northstar.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import org.dromara.northstar.common.constant.ChannelType;
+import org.dromara.northstar.common.event.NorthstarEvent;
+import org.dromara.northstar.common.event.NorthstarEventType;
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.data.IMarketDataRepository;
+import org.dromara.northstar.gateway.IContract;
+import org.junit.jupiter.api.Test;
+
+class MarketDataHandlerTest {
+
+	Contract c = Contract.builder().unifiedSymbol("rb2410@SHFE@FUTURES").build();
+
+	List<List<Bar>> batches = new CopyOnWriteArrayList<>();
+
+	class StubRepo implements IMarketDataRepository {
+
+		@Override
+		public void insert(Bar bar) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void insertAll(List<Bar> bars) {
+			batches.add(new ArrayList<>(bars));
+		}
+
+		@Override
+		public List<Bar> loadBars(IContract contract, LocalDate startDate, LocalDate endDate) {
+			return List.of();
+		}
+
+		@Override
+		public List<Bar> loadDailyBars(IContract contract, LocalDate startDate, LocalDate endDate) {
+			return List.of();
+		}
+
+		@Override
+		public void deleteExpiredBefore(long expiredAt) {}
+	}
+
+	private NorthstarEvent barEvent(int i, ChannelType channelType) {
+		Bar bar = Bar.builder()
+				.contract(c)
+				.actionDay(LocalDate.now())
+				.actionTime(LocalTime.of(9, 0).plusMinutes(i))
+				.tradingDay(LocalDate.now())
+				.actionTimestamp(System.currentTimeMillis())
+				.closePrice(i)
+				.channelType(channelType)
+				.build();
+		return new NorthstarEvent(NorthstarEventType.BAR, bar);
+	}
+
+	private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while(!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+
+	private int total() {
+		return batches.stream().mapToInt(List::size).sum();
+	}
+
+	@Test
+	void testBatchedIngestion() throws Exception {
+		MarketDataHandler handler = new MarketDataHandler(new StubRepo(), 1000, 50, Duration.ofMillis(50), Duration.ofMillis(5));
+		handler.afterPropertiesSet();
+		for(int i=0; i<120; i++) {
+			handler.onEvent(barEvent(i, ChannelType.CTP));
+		}
+		handler.onEvent(barEvent(0, ChannelType.SIM));
+		waitUntil(() -> total() == 120);
+		assertThat(batches).allMatch(batch -> batch.size() <= 50);
+		assertThat(batches.size()).isLessThan(120);
+		// 保持写入顺序
+		List<Double> closes = batches.stream().flatMap(List::stream).map(Bar::closePrice).toList();
+		assertThat(closes).isSorted();
+		waitUntil(() -> handler.status().persistedCount() == 120);
+		assertThat(handler.status().acceptedCount()).isEqualTo(120);
+		handler.destroy();
+	}
+
+	@Test
+	void testFlushOnDestroy() throws Exception {
+		MarketDataHandler handler = new MarketDataHandler(new StubRepo(), 1000, 10, Duration.ofMillis(10), Duration.ofMillis(5));
+		// 未启动写入线程，数据全部留在队列中
+		for(int i=0; i<25; i++) {
+			handler.onEvent(barEvent(i, ChannelType.CTP));
+		}
+		assertThat(handler.status().queueDepth()).isEqualTo(25);
+		handler.destroy();
+		assertThat(total()).isEqualTo(25);
+		assertThat(batches).hasSize(3);
+		assertThat(handler.status().queueDepth()).isZero();
+	}
+
+	@Test
+	void testBackpressureAndDrop() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		IMarketDataRepository slowRepo = new StubRepo() {
+			@Override
+			public void insertAll(List<Bar> bars) {
+				try {
+					gate.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				super.insertAll(bars);
+			}
+		};
+		MarketDataHandler handler = new MarketDataHandler(slowRepo, 5, 1, Duration.ofMillis(10), Duration.ofMillis(5));
+		handler.afterPropertiesSet();
+		handler.onEvent(barEvent(0, ChannelType.CTP));
+		// 等待写入线程取走第一根并阻塞在写入中
+		waitUntil(() -> handler.status().queueDepth() == 0);
+		for(int i=1; i<=10; i++) {
+			handler.onEvent(barEvent(i, ChannelType.CTP));
+		}
+		MarketDataHandler.IngestionStatus status = handler.status();
+		assertThat(status.acceptedCount()).isEqualTo(6);
+		assertThat(status.overflowCount()).isEqualTo(5);
+		assertThat(status.droppedCount()).isEqualTo(5);
+
+		gate.countDown();
+		handler.destroy();
+		assertThat(total()).isEqualTo(6);
+	}
+}
@@ -0,0 +1,77 @@
+package org.dromara.northstar.indicator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.indicator.helper.DiffIndicator;
+import org.dromara.northstar.indicator.model.Configuration;
+import org.dromara.northstar.indicator.model.Num;
+import org.dromara.northstar.indicator.trend.EMAIndicator;
+import org.dromara.northstar.indicator.trend.MACDIndicator;
+import org.junit.jupiter.api.Test;
+
+class IndicatorDependencyGraphTest {
+
+	Contract c = Contract.builder().unifiedSymbol("rb2401@SHFE@FUTURES").build();
+
+	Configuration cfg = Configuration.builder().contract(c).build();
+
+	@Test
+	void testSharedNodeEvaluatedOnce() {
+		Indicator fast = new EMAIndicator(cfg.toBuilder().indicatorName("fast").build(), 5);
+		Indicator slow = new EMAIndicator(cfg.toBuilder().indicatorName("slow").build(), 10);
+		Indicator macd = new MACDIndicator(cfg.toBuilder().indicatorName("macd").build(), fast, slow, 3);
+		Indicator line = new DiffIndicator(cfg.toBuilder().indicatorName("line").build(), fast, slow);
+
+		IndicatorDependencyGraph graph = new IndicatorDependencyGraph();
+		graph.addRoot(macd);
+		graph.addRoot(line);
+		assertThat(graph.addRoot(line)).isFalse();
+		// macd -> dea -> diff -> (fast, slow)；line -> (fast, slow)
+		assertThat(graph.nodes()).hasSize(6);
+
+		List<Indicator> visited = new ArrayList<>();
+		graph.evaluate(visited::add);
+		assertThat(visited).hasSize(6).doesNotHaveDuplicates();
+		assertThat(visited.indexOf(fast)).isLessThan(visited.indexOf(line));
+		assertThat(visited.indexOf(slow)).isLessThan(visited.indexOf(macd));
+		assertThat(visited.get(visited.size() - 1)).isSameAs(line);
+
+		assertThat(graph.getEvaluationCount()).isEqualTo(6);
+		assertThat(graph.getAvoidedEvaluationCount()).isEqualTo(2);
+	}
+
+	@Test
+	void testCycle() {
+		Indicator a = new CyclicIndicator(cfg);
+		Indicator b = new CyclicIndicator(cfg);
+		((CyclicIndicator) a).dep = b;
+		((CyclicIndicator) b).dep = a;
+
+		IndicatorDependencyGraph graph = new IndicatorDependencyGraph();
+		assertThatThrownBy(() -> graph.addRoot(a)).isInstanceOf(IllegalStateException.class);
+	}
+
+	static class CyclicIndicator extends AbstractIndicator {
+
+		Indicator dep;
+
+		protected CyclicIndicator(Configuration cfg) {
+			super(cfg);
+		}
+
+		@Override
+		protected Num evaluate(Num num) {
+			return num;
+		}
+
+		@Override
+		public List<Indicator> dependencies() {
+			return List.of(dep);
+		}
+	}
+}
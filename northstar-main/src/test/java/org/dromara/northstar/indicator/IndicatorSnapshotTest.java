@@ -0,0 +1,138 @@
+package org.dromara.northstar.indicator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+
+import org.dromara.northstar.common.StateSnapshotAware;
+import org.dromara.northstar.common.model.core.Bar;
+import org.dromara.northstar.common.model.core.Contract;
+import org.dromara.northstar.indicator.constant.ValueType;
+import org.dromara.northstar.indicator.helper.HHVIndicator;
+import org.dromara.northstar.indicator.helper.LLVIndicator;
+import org.dromara.northstar.indicator.helper.NormalizeIndicator;
+import org.dromara.northstar.indicator.helper.SimpleValueIndicator;
+import org.dromara.northstar.indicator.helper.StandardDeviationIndicator;
+import org.dromara.northstar.indicator.helper.SumIndicator;
+import org.dromara.northstar.indicator.model.Configuration;
+import org.dromara.northstar.indicator.momentum.KDIndicator;
+import org.dromara.northstar.indicator.momentum.RSIIndicator;
+import org.dromara.northstar.indicator.trend.MAIndicator;
+import org.dromara.northstar.indicator.trend.PBXIndicator;
+import org.dromara.northstar.indicator.trend.PuBuIndicator;
+import org.dromara.northstar.indicator.volatility.BOLLIndicator;
+import org.dromara.northstar.indicator.volatility.TrueRangeIndicator;
+import org.dromara.northstar.indicator.volume.IntraDaySettlePriceIndicator;
+import org.dromara.northstar.indicator.volume.VWAPIndicator;
+import org.dromara.northstar.indicator.volume.VolumeBoostingIndicator;
+import org.dromara.northstar.indicator.wave.MABasedWaveIndicator;
+import org.dromara.northstar.indicator.wave.MABasedWaveIndicator.EndpointType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 按模组快照的方式逐个节点写出、恢复整个指标依赖图，恢复后继续更新应与原指标完全一致
+ */
+class IndicatorSnapshotTest {
+
+	Contract c = Contract.builder().unifiedSymbol("rb2401@SHFE@FUTURES").build();
+
+	Configuration cfg = Configuration.builder().contract(c).cacheLength(20).build();
+
+	LocalDate day = LocalDate.of(2024, 3, 11);
+
+	private IndicatorValueUpdateHelper helperOf() {
+		Indicator high = new SimpleValueIndicator(cfg.toBuilder().indicatorName("H").valueType(ValueType.HIGH).build());
+		Indicator low = new SimpleValueIndicator(cfg.toBuilder().indicatorName("L").valueType(ValueType.LOW).build());
+		Indicator ma = new MAIndicator(cfg.toBuilder().indicatorName("MA5").build(), 5);
+		IndicatorValueUpdateHelper helper = new IndicatorValueUpdateHelper(new HHVIndicator(cfg.toBuilder().indicatorName("HHV").cacheLength(10).build(), high));
+		helper.addIndicator(new LLVIndicator(cfg.toBuilder().indicatorName("LLV").cacheLength(10).build(), low));
+		helper.addIndicator(new StandardDeviationIndicator(cfg.toBuilder().indicatorName("STD").build(), 8));
+		helper.addIndicator(new SumIndicator(cfg.toBuilder().indicatorName("SUM").build(), high, low));
+		helper.addIndicator(new NormalizeIndicator(cfg.toBuilder().indicatorName("NORM").build(), ma));
+		helper.addIndicator(new BOLLIndicator(cfg.toBuilder().indicatorName("BOLL").build(), 10, 2));
+		helper.addIndicator(new TrueRangeIndicator(cfg.toBuilder().indicatorName("TR").build()));
+		helper.addIndicator(new KDIndicator(cfg.toBuilder().indicatorName("KD").build(), 9, 3, 3));
+		helper.addIndicator(new RSIIndicator(cfg.toBuilder().indicatorName("RSI").build(), 6));
+		helper.addIndicator(new PBXIndicator(cfg.toBuilder().indicatorName("PBX").build()));
+		helper.addIndicator(new PuBuIndicator(cfg.toBuilder().indicatorName("PUBU").build(), 4));
+		helper.addIndicator(new VWAPIndicator(cfg.toBuilder().indicatorName("VWAP").build(), 10));
+		helper.addIndicator(new IntraDaySettlePriceIndicator(cfg.toBuilder().indicatorName("SETTLE").build()));
+		helper.addIndicator(new VolumeBoostingIndicator(cfg.toBuilder().indicatorName("VB").build(), 2));
+		helper.addIndicator(new MABasedWaveIndicator(cfg.toBuilder().indicatorName("WAVE").build(), ma, 3, EndpointType.HIGH_LOW));
+		return helper;
+	}
+
+	private Bar bar(Random rand, LocalDate tradingDay, int i) {
+		double close = 3000 + 50 * Math.sin(i / 7.0) + rand.nextInt(10);
+		return Bar.builder()
+				.contract(c)
+				.actionDay(tradingDay)
+				.actionTime(LocalTime.of(9, 0).plusMinutes(i))
+				.tradingDay(tradingDay)
+				.actionTimestamp(i * 60000L)
+				.openPrice(close - 2)
+				.highPrice(close + rand.nextInt(5))
+				.lowPrice(close - 3 - rand.nextInt(5))
+				.closePrice(close)
+				.volumeDelta(100 + rand.nextInt(900))
+				.turnoverDelta(close * 1000)
+				.openInterestDelta(rand.nextInt(20) - 10)
+				.build();
+	}
+
+	@Test
+	void testRoundTripThroughGraph() throws IOException {
+		Random rand = new Random(7);
+		IndicatorValueUpdateHelper origin = helperOf();
+		int i = 0;
+		for(; i<120; i++) {
+			origin.onMergedBar(bar(rand, day.plusDays(i / 40), i));
+		}
+		// 在未完成的K线上快照，覆盖不稳定值的状态
+		origin.onBar(bar(rand, day.plusDays(2), i));
+
+		IndicatorValueUpdateHelper restored = helperOf();
+		List<Indicator> originNodes = origin.getGraph().nodes();
+		List<Indicator> restoredNodes = restored.getGraph().nodes();
+		assertThat(restoredNodes).hasSameSizeAs(originNodes);
+		for(int k=0; k<originNodes.size(); k++) {
+			assertThat(originNodes.get(k)).isInstanceOf(StateSnapshotAware.class);
+			StateSnapshotAware node = (StateSnapshotAware) restoredNodes.get(k);
+			node.readState(new DataInputStream(new ByteArrayInputStream(stateOf(originNodes.get(k)))));
+		}
+		assertSameState(originNodes, restoredNodes);
+
+		// 保持在同一交易日内，避免触发带随机初始化的聚类
+		for(; i<160; i++) {
+			Bar bar = bar(rand, day.plusDays(2), i);
+			origin.onBar(bar);
+			restored.onBar(bar);
+			origin.onMergedBar(bar);
+			restored.onMergedBar(bar);
+			assertSameState(originNodes, restoredNodes);
+		}
+	}
+
+	private void assertSameState(List<Indicator> originNodes, List<Indicator> restoredNodes) throws IOException {
+		for(int k=0; k<originNodes.size(); k++) {
+			Indicator expected = originNodes.get(k);
+			Indicator actual = restoredNodes.get(k);
+			assertThat(actual.get(0)).as(expected.getConfiguration().indicatorName()).isEqualTo(expected.get(0));
+			assertThat(stateOf(actual)).as(expected.getConfiguration().indicatorName()).isEqualTo(stateOf(expected));
+		}
+	}
+
+	private byte[] stateOf(Indicator indicator) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		((StateSnapshotAware) indicator).writeState(new DataOutputStream(bos));
+		return bos.toByteArray();
+	}
+}
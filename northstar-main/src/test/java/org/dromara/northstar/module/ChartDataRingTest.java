@@ -0,0 +1,122 @@
+package org.dromara.northstar.module;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.dromara.northstar.common.model.core.Bar;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.fastjson2.JSONArray;
+
+class ChartDataRingTest {
+
+	Bar bar(long timestamp, double close) {
+		return Bar.builder().actionTimestamp(timestamp).openPrice(close).highPrice(close).lowPrice(close).closePrice(close).volumeDelta(10).build();
+	}
+
+	void append(ChartDataRing ring, long timestamp, double close, Double ma) {
+		ring.newRow(bar(timestamp, close));
+		if(ma != null) {
+			ring.put("MA5", ma);
+		}
+		ring.commit();
+	}
+
+	@Test
+	void testOverwriteOldest() {
+		ChartDataRing ring = new ChartDataRing(3);
+		for(int i=1; i<=5; i++) {
+			append(ring, i, i * 10, null);
+		}
+		assertThat(ring.size()).isEqualTo(3);
+		JSONArray data = ring.toJSONArray();
+		assertThat(data).hasSize(3);
+		assertThat(data.getJSONObject(0).getLongValue("timestamp")).isEqualTo(3);
+		assertThat(data.getJSONObject(2).getDoubleValue("close")).isEqualTo(50);
+		assertThat(data.getJSONObject(2).getLongValue("volume")).isEqualTo(10);
+	}
+
+	@Test
+	void testMissingIndicatorValue() {
+		ChartDataRing ring = new ChartDataRing(5);
+		append(ring, 1, 10, null);
+		append(ring, 2, 20, 15D);
+		append(ring, 3, 30, null);
+		JSONArray data = ring.toJSONArray();
+		assertThat(data.getJSONObject(0)).doesNotContainKey("MA5");
+		assertThat(data.getJSONObject(1).getDoubleValue("MA5")).isEqualTo(15);
+		assertThat(data.getJSONObject(2)).doesNotContainKey("MA5");
+	}
+
+	@Test
+	void testUncommittedRowInvisible() throws IOException {
+		ChartDataRing ring = new ChartDataRing(2);
+		append(ring, 1, 10, null);
+		append(ring, 2, 20, null);
+		ring.newRow(bar(3, 30));
+		assertThat(ring.toJSONArray().getJSONObject(0).getLongValue("timestamp")).isEqualTo(1);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(ring.encodeSince(1)));
+		assertThat(in.readInt()).isEqualTo(1);
+	}
+
+	@Test
+	void testEncodeSince() throws IOException {
+		ChartDataRing ring = new ChartDataRing(10);
+		for(int i=1; i<=6; i++) {
+			append(ring, i * 100, i, i > 2 ? Double.valueOf(i) : null);
+		}
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(ring.encodeSince(400)));
+		int rows = in.readInt();
+		int cols = in.readInt();
+		assertThat(rows).isEqualTo(2);
+		assertThat(cols).isEqualTo(8);
+		String[] names = new String[cols];
+		for(int i=0; i<cols; i++) {
+			names[i] = in.readUTF();
+		}
+		assertThat(names[3]).isEqualTo("close");
+		assertThat(names[7]).isEqualTo("MA5");
+		assertThat(in.readLong()).isEqualTo(500);
+		assertThat(in.readLong()).isEqualTo(600);
+		double[][] values = new double[cols][rows];
+		for(int c=0; c<cols; c++) {
+			for(int r=0; r<rows; r++) {
+				values[c][r] = in.readDouble();
+			}
+		}
+		assertThat(values[3]).containsExactly(5, 6);
+		assertThat(values[7]).containsExactly(5, 6);
+		assertThat(in.available()).isZero();
+
+		DataInputStream empty = new DataInputStream(new ByteArrayInputStream(ring.encodeSince(600)));
+		assertThat(empty.readInt()).isZero();
+	}
+
+	@Test
+	void testSnapshotRoundTrip() throws IOException {
+		ChartDataRing ring = new ChartDataRing(3);
+		for(int i=1; i<=5; i++) {
+			append(ring, i, i, i % 2 == 0 ? Double.valueOf(i) : null);
+		}
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ring.writeState(new DataOutputStream(bos));
+
+		ChartDataRing restored = new ChartDataRing(3);
+		restored.readState(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		assertThat(restored.toJSONArray()).isEqualTo(ring.toJSONArray());
+
+		append(ring, 6, 6, 6D);
+		append(restored, 6, 6, 6D);
+		assertThat(restored.encodeSince(0)).isEqualTo(ring.encodeSince(0));
+
+		ChartDataRing smaller = new ChartDataRing(2);
+		smaller.readState(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		assertThat(smaller.size()).isEqualTo(2);
+		assertThat(smaller.toJSONArray().getJSONObject(0).getLongValue("timestamp")).isEqualTo(4);
+	}
+}
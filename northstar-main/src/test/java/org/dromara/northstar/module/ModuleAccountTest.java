@@ -3,6 +3,7 @@ package org.dromara.northstar.module;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
@@ -16,6 +17,7 @@ import org.dromara.northstar.common.model.Identifier;
 import org.dromara.northstar.common.model.ModuleAccountDescription;
 import org.dromara.northstar.common.model.ModuleAccountRuntimeDescription;
 import org.dromara.northstar.common.model.ModuleDescription;
+import org.dromara.northstar.common.model.ModulePerformanceDescription;
 import org.dromara.northstar.common.model.ModulePositionDescription;
 import org.dromara.northstar.common.model.ModuleRuntimeDescription;
 import org.dromara.northstar.common.model.core.Contract;
@@ -145,6 +147,18 @@ class ModuleAccountTest {
 		assertThat(macc.getNonclosedTrades()).hasSize(1);
 	}
 
+	@Test
+	void testPerformanceOnDeal() {
+		macc.onOrder(order);
+		macc.onTrade(closeTrade);
+		ModulePerformanceDescription pd = macc.getPerformance().toDescription();
+		assertThat(pd.getDealCount()).isEqualTo(1);
+		assertThat(pd.getWinRate()).isEqualTo(1);
+		assertThat(pd.getEquityCurve()).hasSize(1);
+		assertThat(macc.getPerformance().totalEarning()).isEqualTo(4000);
+		verify(moduleRepo).findAllDealRecords(any());
+	}
+
 	@Test
 	void testGetInitBalance() {
 		assertThat(macc.getInitBalance()).isEqualTo(100000);
@@ -171,4 +185,29 @@ class ModuleAccountTest {
 		assertThat(macc.getPositions()).hasSize(2);
 	}
 
+	private Tick tickOf(Contract c, double price) {
+		return Tick.builder().contract(c).tradingDay(LocalDate.now()).lastPrice(price).build();
+	}
+
+	@Test
+	void testIncrementalHoldingProfit() {
+		macc.onTick(tickOf(contract, 1100));
+		assertThat(macc.totalHoldingProfit()).isZero();
+
+		macc.onTrade(closeTrade);
+		assertThat(macc.totalHoldingProfit()).isEqualTo(-2000);
+
+		macc.onTick(tickOf(contract, 900));
+		assertThat(macc.totalHoldingProfit()).isEqualTo(2000);
+		assertThat(macc.totalHoldingProfit()).isEqualTo(macc.getPositions().stream().mapToDouble(p -> p.positionProfit()).sum());
+	}
+
+	@Test
+	void testTickOfOtherContract() {
+		macc.onTick(tickOf(contract, 1100));
+		Contract other = Contract.builder().unifiedSymbol("rb2210@SHFE@FUTURES").contractDefinition(cd).multiplier(10).build();
+		macc.onTick(tickOf(other, 500));
+		assertThat(macc.getPositions()).allMatch(p -> p.lastTick().lastPrice() == 1100);
+	}
+
 }
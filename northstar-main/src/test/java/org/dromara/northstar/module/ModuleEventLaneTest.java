@@ -0,0 +1,179 @@
+package org.dromara.northstar.module;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.dromara.northstar.common.event.NorthstarEvent;
+import org.dromara.northstar.common.event.NorthstarEventType;
+import org.dromara.northstar.strategy.IModule;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class ModuleEventLaneTest {
+
+	@Test
+	void testEventsConsumedInOrder() throws InterruptedException {
+		List<Object> received = new CopyOnWriteArrayList<>();
+		CountDownLatch latch = new CountDownLatch(100);
+		IModule module = mock(IModule.class);
+		when(module.getName()).thenReturn("test");
+		Mockito.doAnswer(inv -> {
+			received.add(inv.<NorthstarEvent>getArgument(0).getData());
+			latch.countDown();
+			return null;
+		}).when(module).onEvent(Mockito.any());
+
+		ModuleEventLane lane = new ModuleEventLane(module, true);
+		for(int i=0; i<100; i++) {
+			lane.publish(new NorthstarEvent(NorthstarEventType.TICK, i));
+		}
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(received).containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+		// 计数在模组处理完事件之后才累加，需要等待最后一个事件的计数
+		long deadline = System.currentTimeMillis() + 5000;
+		while(lane.processedCount() < 100 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		assertThat(lane.processedCount()).isEqualTo(100);
+		assertThat(lane.depth()).isZero();
+		lane.close();
+	}
+
+	@Test
+	void testSlowModuleDoesNotBlockPublisher() {
+		CountDownLatch gate = new CountDownLatch(1);
+		IModule module = mock(IModule.class);
+		when(module.getName()).thenReturn("slow");
+		Mockito.doAnswer(inv -> {
+			gate.await();
+			return null;
+		}).when(module).onEvent(Mockito.any());
+
+		ModuleEventLane lane = new ModuleEventLane(module, true);
+		for(int i=0; i<10; i++) {
+			lane.publish(new NorthstarEvent(NorthstarEventType.TICK, i));
+		}
+		assertThat(lane.depth()).isGreaterThanOrEqualTo(9);
+		assertThat(lane.status().queueDepth()).isGreaterThanOrEqualTo(9);
+		gate.countDown();
+		lane.close();
+	}
+
+	@Test
+	void testSyncLane() {
+		IModule module = mock(IModule.class);
+		when(module.getName()).thenReturn("sync");
+		ModuleEventLane lane = new ModuleEventLane(module, false);
+		NorthstarEvent e = new NorthstarEvent(NorthstarEventType.TICK, 1);
+		lane.publish(e);
+		Mockito.verify(module).onEvent(e);
+		assertThat(lane.processedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testDropTickWhenFull() throws InterruptedException {
+		CountDownLatch gate = new CountDownLatch(1);
+		CountDownLatch entered = new CountDownLatch(1);
+		List<Object> received = new CopyOnWriteArrayList<>();
+		IModule module = mock(IModule.class);
+		when(module.getName()).thenReturn("full");
+		Mockito.doAnswer(inv -> {
+			entered.countDown();
+			gate.await();
+			received.add(inv.<NorthstarEvent>getArgument(0).getData());
+			return null;
+		}).when(module).onEvent(Mockito.any());
+
+		ModuleEventLane lane = new ModuleEventLane(module, true, 2, ModuleEventLane.OverflowPolicy.DROP_TICK);
+		lane.publish(new NorthstarEvent(NorthstarEventType.TICK, 0));
+		assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+		lane.publish(new NorthstarEvent(NorthstarEventType.TICK, 1));
+		lane.publish(new NorthstarEvent(NorthstarEventType.TICK, 2));
+		lane.publish(new NorthstarEvent(NorthstarEventType.TICK, 3));
+		assertThat(lane.status().droppedCount()).isEqualTo(1);
+
+		Thread producer = Thread.ofVirtual().start(() -> lane.publish(new NorthstarEvent(NorthstarEventType.BAR, 4)));
+		producer.join(200);
+		assertThat(producer.isAlive()).isTrue();
+		gate.countDown();
+		producer.join(5000);
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while(lane.processedCount() < 4 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		assertThat(received).containsExactly(0, 1, 2, 4);
+		assertThat(lane.status().overflowCount()).isEqualTo(1);
+		lane.close();
+	}
+
+	@Test
+	void testCloseFinishesCurrentEvent() throws InterruptedException {
+		CountDownLatch entered = new CountDownLatch(1);
+		List<Boolean> interrupted = new CopyOnWriteArrayList<>();
+		IModule module = mock(IModule.class);
+		when(module.getName()).thenReturn("closing");
+		Mockito.doAnswer(inv -> {
+			entered.countDown();
+			try {
+				Thread.sleep(200);
+				interrupted.add(false);
+			} catch (InterruptedException e) {
+				interrupted.add(true);
+			}
+			return null;
+		}).when(module).onEvent(Mockito.any());
+
+		ModuleEventLane lane = new ModuleEventLane(module, true);
+		lane.publish(new NorthstarEvent(NorthstarEventType.TICK, 0));
+		lane.publish(new NorthstarEvent(NorthstarEventType.TICK, 1));
+		assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+		lane.close();
+
+		assertThat(interrupted).containsExactly(false);
+		assertThat(lane.processedCount()).isEqualTo(1);
+		assertThat(lane.droppedCount()).isEqualTo(1);
+		lane.publish(new NorthstarEvent(NorthstarEventType.TICK, 2));
+		assertThat(lane.depth()).isZero();
+	}
+
+	@Test
+	void testCloseDeliversQueuedTrades() throws InterruptedException {
+		CountDownLatch gate = new CountDownLatch(1);
+		CountDownLatch entered = new CountDownLatch(1);
+		List<Object> received = new CopyOnWriteArrayList<>();
+		IModule module = mock(IModule.class);
+		when(module.getName()).thenReturn("reloading");
+		Mockito.doAnswer(inv -> {
+			entered.countDown();
+			gate.await();
+			received.add(inv.<NorthstarEvent>getArgument(0).getData());
+			return null;
+		}).when(module).onEvent(Mockito.any());
+
+		ModuleEventLane lane = new ModuleEventLane(module, true);
+		lane.publish(new NorthstarEvent(NorthstarEventType.TICK, 0));
+		assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+		lane.publish(new NorthstarEvent(NorthstarEventType.ORDER, 1));
+		lane.publish(new NorthstarEvent(NorthstarEventType.TICK, 2));
+		lane.publish(new NorthstarEvent(NorthstarEventType.TRADE, 3));
+		// 先关闭再放行，排队中的事件只能经由关闭时的清理送达
+		Thread closer = Thread.ofVirtual().start(lane::close);
+		closer.join(200);
+		assertThat(closer.isAlive()).isTrue();
+		gate.countDown();
+		closer.join(5000);
+
+		assertThat(received).containsExactly(0, 1, 3);
+		assertThat(lane.processedCount()).isEqualTo(3);
+		assertThat(lane.droppedCount()).isEqualTo(1);
+		assertThat(lane.depth()).isZero();
+	}
+}
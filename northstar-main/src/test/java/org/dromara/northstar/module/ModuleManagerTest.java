@@ -1,14 +1,27 @@
 package org.dromara.northstar.module;
 
+import org.dromara.northstar.common.event.NorthstarEvent;
+import org.dromara.northstar.common.event.NorthstarEventType;
 import org.dromara.northstar.common.model.Identifier;
+import org.dromara.northstar.common.model.core.Contract;
 import org.dromara.northstar.strategy.IModule;
+import org.dromara.northstar.strategy.TradeStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ModuleManagerTest {
@@ -52,6 +65,65 @@ class ModuleManagerTest {
         assertFalse(moduleManager.contains(id2));
     }
 
+    @Test
+    void disposeStrategyOnRemove() {
+        TradeStrategy strategy = mock(TradeStrategy.class);
+        when(module1.getTradeStrategy()).thenReturn(strategy);
+        moduleManager.add(module1);
+        verify(strategy, never()).dispose();
+
+        moduleManager.remove(id1);
+        verify(strategy, times(1)).dispose();
+    }
+
+    @Test
+    void disposeReplacedStrategy() {
+        TradeStrategy strategy = mock(TradeStrategy.class);
+        when(module1.getTradeStrategy()).thenReturn(strategy);
+        IModule reloaded = mock(TradeModule.class);
+        when(reloaded.getName()).thenReturn(id1.value());
+        moduleManager.add(module1);
+        moduleManager.add(module1);
+        verify(strategy, never()).dispose();
+
+        moduleManager.add(reloaded);
+        verify(strategy, times(1)).dispose();
+        assertEquals(reloaded, moduleManager.get(id1));
+    }
+
+    @Test
+    void closeLaneOutsideLock() throws InterruptedException {
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(1);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        IModule slow = mock(IModule.class);
+        when(slow.getName()).thenReturn("Slow");
+        doAnswer(inv -> {
+            entered.countDown();
+            gate.await();
+            received.add(inv.<NorthstarEvent>getArgument(0).getData());
+            return null;
+        }).when(slow).onEvent(any());
+        moduleManager.add(slow);
+        ModuleEventLane lane = moduleManager.accountDataLanes("ACC")[0];
+        lane.publish(new NorthstarEvent(NorthstarEventType.TRADE, 1));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        lane.publish(new NorthstarEvent(NorthstarEventType.TRADE, 2));
+
+        Thread remover = Thread.ofVirtual().start(() -> moduleManager.remove(Identifier.of("Slow")));
+        remover.join(200);
+        assertTrue(remover.isAlive());
+        // 等待通道关闭期间不影响其他模组的增删
+        moduleManager.add(module1);
+        assertTrue(moduleManager.contains(id1));
+        assertFalse(moduleManager.contains(Identifier.of("Slow")));
+
+        gate.countDown();
+        remover.join(5000);
+        assertFalse(remover.isAlive());
+        assertEquals(List.of(1, 2), received);
+    }
+
     @Test
     void get() {
         moduleManager.add(module1);
@@ -86,4 +158,32 @@ class ModuleManagerTest {
         assertTrue(modules.contains(module1));
         assertTrue(modules.contains(module2));
     }
+
+    @Test
+    void route() {
+        Contract c1 = Contract.builder().unifiedSymbol("rb2401@SHFE@FUTURES").build();
+        Contract c2 = Contract.builder().unifiedSymbol("hc2401@SHFE@FUTURES").build();
+        TradeModule tm1 = (TradeModule) module1;
+        TradeModule tm2 = (TradeModule) module2;
+        when(tm1.marketGatewayIds()).thenReturn(Set.of("CTP"));
+        when(tm1.bindedContracts()).thenReturn(Set.of(c1));
+        when(tm1.accountIds()).thenReturn(Set.of("acc1"));
+        when(tm2.marketGatewayIds()).thenReturn(Set.of("CTP"));
+        when(tm2.bindedContracts()).thenReturn(Set.of(c1, c2));
+        when(tm2.accountIds()).thenReturn(Set.of("acc2"));
+        moduleManager.add(module1);
+        moduleManager.add(module2);
+
+        assertEquals(2, moduleManager.marketDataLanes("CTP", c1.unifiedSymbol()).length);
+        assertEquals(1, moduleManager.marketDataLanes("CTP", c2.unifiedSymbol()).length);
+        assertEquals(0, moduleManager.marketDataLanes("SIM", c1.unifiedSymbol()).length);
+        assertEquals(module1, moduleManager.accountDataLanes("acc1")[0].getModule());
+        assertEquals(0, moduleManager.accountDataLanes("acc3").length);
+
+        moduleManager.remove(id2);
+        assertEquals(1, moduleManager.marketDataLanes("CTP", c1.unifiedSymbol()).length);
+        assertEquals(0, moduleManager.marketDataLanes("CTP", c2.unifiedSymbol()).length);
+        assertNull(moduleManager.getLaneStatus(id2));
+        assertNotNull(moduleManager.getLaneStatus(id1));
+    }
 }
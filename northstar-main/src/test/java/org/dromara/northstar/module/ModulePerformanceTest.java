@@ -0,0 +1,61 @@
+package org.dromara.northstar.module;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.time.LocalDate;
+
+import org.dromara.northstar.common.model.ModulePerformanceDescription;
+import org.junit.jupiter.api.Test;
+
+class ModulePerformanceTest {
+
+	LocalDate d1 = LocalDate.of(2023, 1, 3);
+	LocalDate d2 = LocalDate.of(2023, 1, 4);
+	LocalDate d3 = LocalDate.of(2023, 7, 4);
+
+	@Test
+	void testEmpty() {
+		ModulePerformance perf = new ModulePerformance(new ModulePerformanceDescription());
+		ModulePerformanceDescription pd = perf.toDescription();
+		assertThat(pd.getDealCount()).isZero();
+		assertThat(pd.getWinRate()).isZero();
+		assertThat(pd.getSharpeRatio()).isZero();
+		assertThat(pd.getEquityCurve()).isEmpty();
+		assertThat(perf.annualizedRateOfReturn(10000)).isZero();
+	}
+
+	@Test
+	void testStatistics() {
+		ModulePerformance perf = new ModulePerformance(new ModulePerformanceDescription());
+		perf.onDeal(d1, d1, 300);
+		perf.onDeal(d1, d2, -100);
+		perf.onDeal(d2, d2, 200);
+		perf.onDeal(d2, d3, -200);
+
+		ModulePerformanceDescription pd = perf.toDescription();
+		assertThat(pd.getDealCount()).isEqualTo(4);
+		assertThat(pd.getWinRate()).isCloseTo(0.5, offset(1e-9));
+		assertThat(pd.getProfitFactor()).isCloseTo(500D / 300, offset(1e-9));
+		assertThat(perf.avgEarning()).isCloseTo(50, offset(1e-9));
+		// 均值50，标准差 sqrt((300^2+100^2+200^2+200^2)/4 - 50^2)
+		assertThat(pd.getSharpeRatio()).isCloseTo(50 / Math.sqrt(42500), offset(1e-9));
+		// 下行标准差 sqrt((100^2+200^2)/4) = sqrt(12500)
+		assertThat(pd.getSortinoRatio()).isCloseTo(50 / Math.sqrt(12500), offset(1e-9));
+		assertThat(pd.getEquityCurve()).extracting(ModulePerformanceDescription.EquityPoint::getDate).containsExactly("20230103", "20230104", "20230704");
+		assertThat(pd.getEquityCurve()).extracting(ModulePerformanceDescription.EquityPoint::getEquity).containsExactly(300D, 400D, 200D);
+		assertThat(perf.annualizedRateOfReturn(10000)).isCloseTo(200D / 10000 / 182 * 365, offset(1e-9));
+	}
+
+	@Test
+	void testRestoreFromDescription() {
+		ModulePerformance perf = new ModulePerformance(new ModulePerformanceDescription());
+		perf.onDeal(d1, d1, 300);
+		perf.onDeal(d1, d2, -100);
+
+		ModulePerformance restored = new ModulePerformance(perf.toDescription());
+		perf.onDeal(d2, d3, 50);
+		restored.onDeal(d2, d3, 50);
+		assertThat(restored.toDescription()).isEqualTo(perf.toDescription());
+	}
+}
@@ -0,0 +1,114 @@
+package org.dromara.northstar.support.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.dromara.northstar.support.log.ModuleLogDispatcher.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+class ModuleLogDispatcherTest {
+
+	LoggerContext loggerContext = new LoggerContext();
+	Logger logger = loggerContext.getLogger("test");
+
+	class CollectingAppender extends AppenderBase<ILoggingEvent> {
+
+		List<String> messages = new CopyOnWriteArrayList<>();
+		CountDownLatch gate = new CountDownLatch(0);
+		CountDownLatch entered = new CountDownLatch(1);
+
+		CollectingAppender() {
+			setContext(loggerContext);
+			start();
+		}
+
+		@Override
+		protected void append(ILoggingEvent event) {
+			entered.countDown();
+			try {
+				gate.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			messages.add(event.getFormattedMessage());
+		}
+	}
+
+	ILoggingEvent event(Level level, String msg, Object... args) {
+		return new LoggingEvent(Logger.FQCN, logger, level, msg, null, args);
+	}
+
+	@Test
+	void testDispatchInOrder() throws Exception {
+		CollectingAppender appender = new CollectingAppender();
+		ModuleLogDispatcher dispatcher = new ModuleLogDispatcher(16, OverflowPolicy.BLOCK);
+		for(int i=0; i<100; i++) {
+			dispatcher.dispatch(appender, event(Level.INFO, "line {}", i));
+		}
+		dispatcher.close();
+		assertThat(appender.messages).hasSize(100);
+		assertThat(appender.messages.get(0)).isEqualTo("line 0");
+		assertThat(appender.messages.get(99)).isEqualTo("line 99");
+		assertThat(dispatcher.status().writtenCount()).isEqualTo(100);
+		assertThat(dispatcher.status().droppedCount()).isZero();
+	}
+
+	@Test
+	void testDropTraceWhenFull() throws Exception {
+		CollectingAppender appender = new CollectingAppender();
+		appender.gate = new CountDownLatch(1);
+		ModuleLogDispatcher dispatcher = new ModuleLogDispatcher(2, OverflowPolicy.DROP_TRACE);
+		dispatcher.dispatch(appender, event(Level.INFO, "first"));
+		assertThat(appender.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		dispatcher.dispatch(appender, event(Level.INFO, "second"));
+		dispatcher.dispatch(appender, event(Level.INFO, "third"));
+		dispatcher.dispatch(appender, event(Level.TRACE, "dropped trace"));
+		dispatcher.dispatch(appender, event(Level.DEBUG, "dropped debug"));
+		assertThat(dispatcher.status().droppedCount()).isEqualTo(2);
+		assertThat(dispatcher.status().pending()).isEqualTo(2);
+
+		appender.gate.countDown();
+		dispatcher.close();
+		assertThat(appender.messages).containsExactly("first", "second", "third");
+	}
+
+	@Test
+	void testBlockWhenFull() throws Exception {
+		CollectingAppender appender = new CollectingAppender();
+		appender.gate = new CountDownLatch(1);
+		ModuleLogDispatcher dispatcher = new ModuleLogDispatcher(1, OverflowPolicy.BLOCK);
+		dispatcher.dispatch(appender, event(Level.INFO, "first"));
+		assertThat(appender.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		dispatcher.dispatch(appender, event(Level.TRACE, "second"));
+		Thread producer = Thread.ofVirtual().start(() -> dispatcher.dispatch(appender, event(Level.TRACE, "third")));
+		producer.join(200);
+		assertThat(producer.isAlive()).isTrue();
+
+		appender.gate.countDown();
+		producer.join(5000);
+		dispatcher.close();
+		assertThat(appender.messages).containsExactly("first", "second", "third");
+		assertThat(dispatcher.status().overflowCount()).isEqualTo(1);
+		assertThat(dispatcher.status().droppedCount()).isZero();
+	}
+
+	@Test
+	void testWriteSynchronouslyAfterClose() {
+		CollectingAppender appender = new CollectingAppender();
+		ModuleLogDispatcher dispatcher = new ModuleLogDispatcher(4, OverflowPolicy.DROP_TRACE);
+		dispatcher.close();
+		dispatcher.dispatch(appender, event(Level.INFO, "late"));
+		assertThat(appender.messages).containsExactly("late");
+	}
+}
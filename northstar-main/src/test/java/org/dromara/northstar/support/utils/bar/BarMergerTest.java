@@ -6,6 +6,11 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -15,6 +20,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 
+import org.dromara.northstar.common.constant.ChannelType;
 import org.dromara.northstar.common.model.core.Bar;
 import org.dromara.northstar.common.model.core.Contract;
 import org.dromara.northstar.common.model.core.ContractDefinition;
@@ -173,6 +179,31 @@ class BarMergerTest {
 		
     }
     
+    @Test
+    void testStateRoundTrip() throws IOException {
+    	Bar b1 = genBar(LocalDate.now(), LocalTime.of(21, 0), 5500, 4500, 5000, 5100, 10000, 10, 20000, 200, 30001, 300);
+    	Bar b2 = genBar(LocalDate.now(), LocalTime.of(21, 1), 5600, 4800, 5100, 5200, 10001, 10, 20002, 200, 30002, 300);
+    	Bar b3 = genBar(LocalDate.now(), LocalTime.of(21, 2), 5400, 4900, 5200, 5100, 10002, 10, 20003, 200, 30002, 300);
+    	Bar b4 = genBar(LocalDate.now(), LocalTime.of(21, 3), 5300, 4600, 5300, 5150, 10003, 10, 20004, 200, 30003, 300);
+    	BarMerger merger = new BarMerger(3, contract);
+    	merger.onBar(b1.toBuilder().gatewayId("SIM").tradingDay(LocalDate.now()).channelType(ChannelType.SIM).build());
+    	merger.onBar(b2);
+    	ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    	merger.writeState(new DataOutputStream(bos));
+    	
+    	BarMerger restored = new BarMerger(3, contract);
+    	restored.readState(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+    	List<Bar> merged = new ArrayList<>();
+    	restored.addListener(merged::add);
+    	restored.onBar(b3);
+    	restored.onBar(b4);
+    	assertThat(merged).hasSize(1);
+    	assertThat(merged.get(0).highPrice()).isCloseTo(5600D, offset(1e-9));
+    	assertThat(merged.get(0).lowPrice()).isCloseTo(4500D, offset(1e-9));
+    	assertThat(merged.get(0).openPrice()).isCloseTo(5000D, offset(1e-9));
+    	assertThat(merged.get(0).volumeDelta()).isEqualTo(800);
+    }
+    
     List<Bar> sampling(LocalTime start){
     	List<Bar> result = new ArrayList<>();
     	LocalDateTime dtStart = LocalDateTime.of(LocalDate.now(), start);
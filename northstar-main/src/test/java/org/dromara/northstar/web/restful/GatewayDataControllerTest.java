@@ -6,6 +6,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.dromara.northstar.NorthstarApplication;
@@ -76,5 +77,12 @@ class GatewayDataControllerTest {
 		mockMvc.perform(get("/northstar/data/bar/min?gatewayId=OTHER&unifiedSymbol=rb2205@SHFE@FUTURES&firstLoad=true&refStartTimestamp="+System.currentTimeMillis()).session(session))
 			.andExpect(status().isOk());
 	}
+	
+	@Test
+	void testGetIngestionStatus() throws Exception {
+		mockMvc.perform(get("/northstar/data/ingestion/status").session(session))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.data.queueDepth").isNumber());
+	}
 
 }